@@ -0,0 +1,132 @@
+package org.ThefryGuy.techFactory.benchmarks;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.ThefryGuy.techFactory.energy.EnergyManager;
+import org.ThefryGuy.techFactory.energy.EnergyNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Energy network lookups at different network sizes
+ *
+ * - findNearestNetwork: a world with `networks` regulators 192 blocks apart, each with `connectorsPerNetwork`
+ *   connectors spreading out from it. Queries land next to a random network (hit) or between networks (miss).
+ * - validateConnectorConnectivity: BFS over one network of `connectorsPerNetwork` connectors, all reachable
+ *   (so nothing is removed and every invocation does the full walk).
+ *
+ * Run: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnergyNetworkBenchmark {
+
+    /** Connector range used by EnergyManager / EnergyBlockListener */
+    private static final double RANGE = 6.0;
+
+    /** Distance between regulators (the 512-connector spiral reaches ~60 blocks, so networks never overlap) */
+    private static final int NETWORK_SPACING = 192;
+
+    /** Distance between neighbouring connectors (inside RANGE, so the chain stays connected) */
+    private static final int CONNECTOR_SPACING = 5;
+
+    @Param({"100", "1000"})
+    public int networks;
+
+    @Param({"8", "64", "512"})
+    public int connectorsPerNetwork;
+
+    private World world;
+    private EnergyManager energyManager;
+    private EnergyNetwork largestNetwork;
+    private Location[] hits;
+    private Location[] misses;
+    private int cursor;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        world = StubServer.install();
+
+        // EnergyManager's constructor only allocates maps - the plugin is never touched by findNearestNetwork
+        energyManager = new EnergyManager(null);
+
+        // createNetwork() spawns holograms and logs, so register networks in the spatial index directly
+        Method addToIndex = EnergyManager.class.getDeclaredMethod("addNetworkToSpatialIndex", EnergyNetwork.class);
+        addToIndex.setAccessible(true);
+
+        int side = (int) Math.ceil(Math.sqrt(networks));
+        Random random = new Random(42);
+        hits = new Location[1024];
+        misses = new Location[1024];
+
+        for (int i = 0; i < networks; i++) {
+            int baseX = (i % side) * NETWORK_SPACING;
+            int baseZ = (i / side) * NETWORK_SPACING;
+            EnergyNetwork network = buildNetwork(baseX, 64, baseZ);
+            addToIndex.invoke(energyManager, network);
+            largestNetwork = network;
+        }
+
+        for (int i = 0; i < hits.length; i++) {
+            int n = random.nextInt(networks);
+            int baseX = (n % side) * NETWORK_SPACING;
+            int baseZ = (n / side) * NETWORK_SPACING;
+            hits[i] = new Location(world, baseX + 3, 64, baseZ + 2);
+            misses[i] = new Location(world, baseX - NETWORK_SPACING / 2, 64, baseZ - NETWORK_SPACING / 2);
+        }
+    }
+
+    /**
+     * Regulator at (x, y, z) plus connectors in a square spiral, CONNECTOR_SPACING apart
+     */
+    private EnergyNetwork buildNetwork(int x, int y, int z) {
+        EnergyNetwork network = new EnergyNetwork(new Location(world, x, y, z));
+        int dx = CONNECTOR_SPACING;
+        int dz = 0;
+        int cx = x;
+        int cz = z;
+        int legLength = 1;
+        int placed = 0;
+        while (placed < connectorsPerNetwork) {
+            for (int leg = 0; leg < 2 && placed < connectorsPerNetwork; leg++) {
+                for (int step = 0; step < legLength && placed < connectorsPerNetwork; step++) {
+                    cx += dx;
+                    cz += dz;
+                    network.connectConnector(new Location(world, cx, y, cz));
+                    placed++;
+                }
+                int turn = dx;
+                dx = -dz;
+                dz = turn;
+            }
+            legLength++;
+        }
+        return network;
+    }
+
+    @Benchmark
+    public EnergyNetwork findNearestNetworkHit() {
+        Location location = hits[cursor];
+        cursor = (cursor + 1) & (hits.length - 1);
+        return energyManager.findNearestNetwork(location, RANGE);
+    }
+
+    @Benchmark
+    public EnergyNetwork findNearestNetworkMiss() {
+        Location location = misses[cursor];
+        cursor = (cursor + 1) & (misses.length - 1);
+        return energyManager.findNearestNetwork(location, RANGE);
+    }
+
+    @Benchmark
+    public int validateConnectorConnectivity() {
+        return largestNetwork.validateConnectorConnectivity(RANGE).size();
+    }
+}
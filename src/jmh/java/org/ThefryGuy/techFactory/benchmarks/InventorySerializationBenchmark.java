@@ -0,0 +1,78 @@
+package org.ThefryGuy.techFactory.benchmarks;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.ThefryGuy.techFactory.data.DatabaseManager;
+import org.ThefryGuy.techFactory.recipes.dusts.IronDust;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory (de)serialization: DatabaseManager.serializeInventory / deserializeInventory
+ *
+ * Runs on MockBukkit's server so the slots hold real ItemStacks, filled like a working machine or
+ * storage GUI: a quarter empty, a quarter full vanilla stacks, a quarter partial stacks and a quarter
+ * TechFactory items (Iron Dust: display name, lore and the item id in the PersistentDataContainer) -
+ * the meta is what dominates the serialized size. Absolute numbers come from MockBukkit's ItemMeta, not Paper's; compare runs with
+ * each other, and see the techfactory.InventorySerialization JFR event for a live server.
+ *
+ * Run: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventorySerializationBenchmark {
+
+    /** Workstation, chest and double-chest sized inventories */
+    @Param({"9", "27", "54"})
+    public int slots;
+
+    private ItemStack[] inventory;
+    private String serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        MockBukkit.mock();
+        inventory = fill(slots);
+        serialized = DatabaseManager.serializeInventory(inventory);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return DatabaseManager.serializeInventory(inventory);
+    }
+
+    @Benchmark
+    public ItemStack[] deserialize() throws IOException, ClassNotFoundException {
+        return DatabaseManager.deserializeInventory(serialized);
+    }
+
+    /**
+     * Representative contents: empty, full stack, partial stack, custom item (repeating)
+     */
+    private static ItemStack[] fill(int slots) {
+        ItemStack ironDust = new IronDust().buildItemStack();
+        ironDust.setAmount(16);
+        ItemStack[] items = new ItemStack[slots];
+        for (int i = 0; i < slots; i++) {
+            items[i] = switch (i % 4) {
+                case 0 -> null;
+                case 1 -> new ItemStack(Material.COBBLESTONE, 64);
+                case 2 -> new ItemStack(Material.RAW_IRON, 1 + (i * 7) % 63);
+                default -> ironDust.clone();
+            };
+        }
+        return items;
+    }
+}
@@ -0,0 +1,58 @@
+package org.ThefryGuy.techFactory.benchmarks;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.ThefryGuy.techFactory.data.PlacedBlock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Location keys ("world,x,y,z"): every cache, index and DB delete goes through these
+ *
+ * - build: PlacedBlock.locationToKey() (string concatenation)
+ * - parse: PlacedBlock.keyToLocation() (split + parseInt + Bukkit.getWorld)
+ *
+ * Run: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationKeyBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private Location[] locations;
+    private String[] keys;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        World world = StubServer.install();
+        Random random = new Random(42);
+        locations = new Location[SAMPLES];
+        keys = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            locations[i] = new Location(world, random.nextInt(60_000) - 30_000, random.nextInt(384) - 64, random.nextInt(60_000) - 30_000);
+            keys[i] = PlacedBlock.locationToKey(locations[i]);
+        }
+    }
+
+    @Benchmark
+    public String build() {
+        Location location = locations[cursor];
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return PlacedBlock.locationToKey(location);
+    }
+
+    @Benchmark
+    public Location parse() {
+        String key = keys[cursor];
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return PlacedBlock.keyToLocation(key);
+    }
+}
@@ -0,0 +1,71 @@
+package org.ThefryGuy.techFactory.benchmarks;
+
+import org.bukkit.entity.Player;
+import org.ThefryGuy.techFactory.data.PlayerOperationQueue;
+import org.ThefryGuy.techFactory.util.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-click rate limiting: RateLimiter.tryAccess() and PlayerOperationQueue.canPerformOperation()
+ *
+ * `players` distinct keys are cycled, so the limiter maps stay at their steady-state size
+ * (RateLimiter's max size is set above the key count - forced cleanup is not measured here).
+ *
+ * Run: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    /** Default rate_limit.multiblock_cooldown_ms */
+    private static final long COOLDOWN_MS = 500L;
+
+    @Param({"10", "1000"})
+    public int players;
+
+    private RateLimiter rateLimiter;
+    private String[] keys;
+    private Player[] playerHandles;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        PlayerOperationQueue.clear();
+
+        rateLimiter = new RateLimiter(COOLDOWN_MS, players * 4);
+        keys = new String[players];
+        playerHandles = new Player[players];
+        for (int i = 0; i < players; i++) {
+            UUID uuid = new UUID(0L, i);
+            keys[i] = uuid.toString();
+            playerHandles[i] = StubServer.player(uuid);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        PlayerOperationQueue.clear();
+    }
+
+    @Benchmark
+    public boolean rateLimiterTryAccess() {
+        String key = keys[cursor];
+        cursor = cursor + 1 == players ? 0 : cursor + 1;
+        return rateLimiter.tryAccess(key);
+    }
+
+    @Benchmark
+    public boolean canPerformOperation() {
+        Player player = playerHandles[cursor];
+        cursor = cursor + 1 == players ? 0 : cursor + 1;
+        return PlayerOperationQueue.canPerformOperation(player, PlayerOperationQueue.OperationType.INVENTORY_CLICK);
+    }
+}
@@ -0,0 +1,203 @@
+package org.ThefryGuy.techFactory.benchmarks;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.ThefryGuy.techFactory.recipes.RecipeIndex;
+import org.ThefryGuy.techFactory.recipes.RecipeItem;
+import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipe lookup: compiled RecipeIndex vs the old linear scan of findRecipeWithQuantities()
+ *
+ * Each machine gets N synthetic recipes (1-6 distinct inputs from a pool of 200 item ids).
+ * The benchmark looks up a craft that matches a random recipe, and a craft that matches nothing.
+ * registryHit/registryMiss go through RecipeRegistry.findRecipeWithQuantities() with the same index
+ * installed, so they include the latency histogram and JFR event overhead of the real entry point.
+ *
+ * Run: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeLookupBenchmark {
+
+    private static final String MACHINE = "Smelter";
+    private static final int ITEM_POOL = 200;
+
+    @Param({"500", "2000"})
+    public int recipesPerMachine;
+
+    private RecipeIndex index;
+    private Map<String, RecipeItem> legacyRecipes;
+    private List<Map<String, Integer>> hits;
+    private Map<String, Integer> miss;
+    private int cursor;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Random random = new Random(42);
+        index = new RecipeIndex();
+        legacyRecipes = new HashMap<>();
+        hits = new ArrayList<>();
+
+        while (legacyRecipes.size() < recipesPerMachine) {
+            int inputs = 1 + random.nextInt(6);
+            TreeMap<String, Integer> items = new TreeMap<>();
+            while (items.size() < inputs) {
+                items.put("item_" + random.nextInt(ITEM_POOL), 1 + random.nextInt(16));
+            }
+
+            List<String> parts = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : items.entrySet()) {
+                parts.add(entry.getKey() + ":" + entry.getValue());
+            }
+            String recipeKey = String.join("|", parts);
+            if (legacyRecipes.containsKey(recipeKey)) {
+                continue;
+            }
+
+            RecipeItem output = new StubItem("output_" + legacyRecipes.size());
+            legacyRecipes.put(recipeKey, output);
+
+            String[] ids = items.keySet().toArray(new String[0]);
+            int[] quantities = new int[ids.length];
+            Map<String, Integer> available = new HashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                quantities[i] = items.get(ids[i]);
+                available.put(ids[i], quantities[i] * 4); // Stacks - "at least" matching
+            }
+            index.add(MACHINE, ids, quantities, output);
+            hits.add(available);
+        }
+
+        miss = new HashMap<>();
+        miss.put("item_0", 64);
+        miss.put("not_an_ingredient", 1);
+
+        // RecipeRegistry.initialize() needs a plugin data folder - install the synthetic index directly
+        index.seal();
+        Field registryIndex = RecipeRegistry.class.getDeclaredField("INDEX");
+        registryIndex.setAccessible(true);
+        registryIndex.set(null, index);
+    }
+
+    @Benchmark
+    public RecipeRegistry.RecipeMatch indexHit() {
+        return index.find(MACHINE, nextHit());
+    }
+
+    @Benchmark
+    public RecipeRegistry.RecipeMatch indexMiss() {
+        return index.find(MACHINE, miss);
+    }
+
+    @Benchmark
+    public RecipeRegistry.RecipeMatch registryHit() {
+        return RecipeRegistry.findRecipeWithQuantities(MACHINE, nextHit());
+    }
+
+    @Benchmark
+    public RecipeRegistry.RecipeMatch registryMiss() {
+        return RecipeRegistry.findRecipeWithQuantities(MACHINE, miss);
+    }
+
+    @Benchmark
+    public RecipeRegistry.RecipeMatch linearScanHit() {
+        return linearScan(nextHit());
+    }
+
+    @Benchmark
+    public RecipeRegistry.RecipeMatch linearScanMiss() {
+        return linearScan(miss);
+    }
+
+    private Map<String, Integer> nextHit() {
+        Map<String, Integer> available = hits.get(cursor);
+        cursor = (cursor + 1) % hits.size();
+        return available;
+    }
+
+    /**
+     * Baseline: the pre-index findRecipeWithQuantities() (parses every recipe key per craft)
+     */
+    private RecipeRegistry.RecipeMatch linearScan(Map<String, Integer> availableItems) {
+        for (Map.Entry<String, RecipeItem> entry : legacyRecipes.entrySet()) {
+            String[] recipeParts = entry.getKey().split("\\|");
+            Map<String, Integer> requiredItems = new HashMap<>();
+            for (String part : recipeParts) {
+                String[] itemAndQty = part.split(":");
+                requiredItems.put(itemAndQty[0], Integer.parseInt(itemAndQty[1]));
+            }
+
+            boolean matches = true;
+            for (Map.Entry<String, Integer> required : requiredItems.entrySet()) {
+                if (availableItems.getOrDefault(required.getKey(), 0) < required.getValue()) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches && availableItems.size() != requiredItems.size()) {
+                matches = false;
+            }
+            if (matches) {
+                return new RecipeRegistry.RecipeMatch(entry.getValue(), requiredItems);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Minimal RecipeItem (only the id matters for lookups)
+     */
+    private static final class StubItem implements RecipeItem {
+        private final String id;
+
+        StubItem(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return id;
+        }
+
+        @Override
+        public ChatColor getColor() {
+            return ChatColor.WHITE;
+        }
+
+        @Override
+        public Material getMaterial() {
+            return Material.STONE;
+        }
+
+        @Override
+        public List<String> getLore() {
+            return List.of();
+        }
+
+        @Override
+        public ItemStack[] getRecipe() {
+            return new ItemStack[9];
+        }
+
+        @Override
+        public String getMachineType() {
+            return MACHINE;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.ThefryGuy.techFactory.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.ThefryGuy.techFactory.TechFactoryConfig;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Just enough of a Bukkit server for the benchmarks (no Paper server jar needed)
+ *
+ * PROVIDES:
+ * - One World named "world" (a dynamic proxy - name, UID, equals/hashCode)
+ * - A Server whose getWorld()/getWorlds() return it (so PlacedBlock.keyToLocation() works)
+ * - Players that only know their UUID (PlayerOperationQueue only reads getUniqueId())
+ * - TechFactoryConfig with the built-in ConfigKey defaults
+ *
+ * Every other method returns null / 0 / false - benchmarks must stay on code paths that
+ * don't need real blocks, entities or ItemStacks (those run on MockBukkit instead, see
+ * InventorySerializationBenchmark).
+ */
+final class StubServer {
+
+    static final String WORLD_NAME = "world";
+
+    private static World world = null;
+
+    private StubServer() {
+        // Utility class
+    }
+
+    /**
+     * Install the stub server and default config (idempotent)
+     * @return The stub world
+     */
+    static synchronized World install() {
+        if (world != null) {
+            return world;
+        }
+
+        UUID worldId = UUID.nameUUIDFromBytes(WORLD_NAME.getBytes());
+        world = proxy(World.class, (self, method, args) -> switch (method.getName()) {
+            case "getName" -> WORLD_NAME;
+            case "getUID" -> worldId;
+            default -> defaultValue(self, method, args);
+        });
+
+        Logger logger = Logger.getLogger("TechFactory-Benchmark");
+        Server server = proxy(Server.class, (self, method, args) -> switch (method.getName()) {
+            case "getWorld" -> WORLD_NAME.equals(args[0]) || worldId.equals(args[0]) ? world : null;
+            case "getWorlds" -> List.of(world);
+            case "getLogger" -> logger;
+            case "isPrimaryThread" -> true;
+            default -> defaultValue(self, method, args);
+        });
+
+        // Bukkit.setServer() logs the Paper build info, which needs a real server jar - set the field directly
+        try {
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            if (field.get(null) == null) {
+                field.set(null, server);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot install stub Bukkit server", e);
+        }
+
+        TechFactoryConfig.loadDefaults();
+        return world;
+    }
+
+    /**
+     * A player that only has a UUID
+     */
+    static Player player(UUID uuid) {
+        return proxy(Player.class, (self, method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> uuid;
+            case "getName" -> "player-" + uuid.toString().substring(0, 8);
+            default -> defaultValue(self, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Identity equals/hashCode, readable toString, zero for primitives, null otherwise
+     */
+    private static Object defaultValue(Object self, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return args != null && args.length == 1 && self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "toString":
+                return "Stub" + method.getDeclaringClass().getSimpleName();
+            default:
+                break;
+        }
+
+        Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,147 @@
+package org.ThefryGuy.techFactory.machines.electric;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.energy.EnergyManager;
+import org.ThefryGuy.techFactory.energy.EnergyNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Electric machine processor pass: the real ElectricMachineRuntime.processQueued() of the Electric Furnace
+ *
+ * Runs the plugin on MockBukkit (like the load simulator) so machines have real GUI inventories and
+ * ItemStacks. `activeMachines` furnaces in clusters of 8 around one regulator network, each loaded the
+ * way the server does it - the first openInventory() by a player (network binding, saved inventory
+ * lookup, activation) - with raw iron in every input slot. A pass is one processor tick with the
+ * default max_per_tick, so it covers the whole visit: countdown, starting a batch (energy reservation,
+ * recipe lookup, taking input), delivering output, and the debounced dirty flush.
+ *
+ * Every iteration is PASSES ticks from a refilled state (inputs full, outputs empty, networks charged),
+ * so machines stay busy instead of running dry - score is time per pass.
+ *
+ * Run: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+public class ElectricMachineQueueBenchmark {
+
+    /** Default electric_machines.max_per_tick */
+    private static final int MAX_PER_TICK = 100;
+
+    /** Processor ticks per iteration (100 machines: ~5 smelts each) */
+    private static final int PASSES = 1000;
+
+    /** Furnaces sharing one network */
+    private static final int MACHINES_PER_NETWORK = 8;
+
+    /** Network charge per iteration (far more than PASSES ticks of 8 furnaces can use) */
+    private static final int NETWORK_ENERGY = 1_000_000;
+
+    @Param({"100", "1000", "10000"})
+    public int activeMachines;
+
+    private TechFactory plugin;
+    private ElectricMachineRuntime runtime;
+    private final List<Inventory> inventories = new ArrayList<>();
+    private final List<EnergyNetwork> networks = new ArrayList<>();
+    private int[] inputSlots;
+    private int[] outputSlots;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ServerMock server = MockBukkit.mock();
+        // MockBukkit ships no vanilla recipes - the electric furnace caches these on enable
+        server.addRecipe(new FurnaceRecipe(NamespacedKey.minecraft("benchmark_raw_iron"),
+            new ItemStack(Material.IRON_INGOT), Material.RAW_IRON, 0.7f, 200));
+        WorldMock world = server.addSimpleWorld("world");
+        plugin = MockBukkit.load(TechFactory.class);
+
+        runtime = ElectricFurnaceMachine.getRuntime();
+        EnergyManager energyManager = plugin.getEnergyManager();
+        PlayerMock player = server.addPlayer();
+
+        EnergyNetwork network = null;
+        for (int i = 0; i < activeMachines; i++) {
+            // Clusters 16 blocks apart, 4x2 machines within CONSUMER_RANGE of their regulator
+            int cluster = i / MACHINES_PER_NETWORK;
+            int member = i % MACHINES_PER_NETWORK;
+            int cx = (cluster % 100) * 16;
+            int cz = (cluster / 100) * 16;
+            if (member == 0) {
+                network = energyManager.createNetwork(new Location(world, cx, 63, cz));
+                network.setMaxCapacity(NETWORK_ENERGY);
+                networks.add(network);
+            }
+
+            Block block = world.getBlockAt(cx + (member % 4) * 2 - 3, 64, cz + (member / 4) * 2 - 1);
+            runtime.openInventory(block, player, plugin);
+            inventories.add(player.getOpenInventory().getTopInventory());
+        }
+        // Nobody watches during the measurement (no indicator rendering)
+        player.closeInventory();
+
+        Inventory gui = inventories.get(0);
+        List<Integer> inputs = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        for (int slot = 0; slot < gui.getSize(); slot++) {
+            if (runtime.isInputSlot(slot)) inputs.add(slot);
+            if (runtime.isOutputSlot(slot)) outputs.add(slot);
+        }
+        inputSlots = inputs.stream().mapToInt(Integer::intValue).toArray();
+        outputSlots = outputs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Refill inputs, empty outputs and charge the networks (not measured)
+     */
+    @Setup(Level.Iteration)
+    public void refill() {
+        for (Inventory inventory : inventories) {
+            for (int slot : inputSlots) {
+                inventory.setItem(slot, new ItemStack(Material.RAW_IRON, 64));
+            }
+            for (int slot : outputSlots) {
+                inventory.setItem(slot, null);
+            }
+        }
+        for (EnergyNetwork network : networks) {
+            network.setStoredEnergy(NETWORK_ENERGY);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    /**
+     * PASSES processor ticks (score is per tick)
+     */
+    @Benchmark
+    @OperationsPerInvocation(PASSES)
+    public int processorPass() {
+        int visited = 0;
+        for (int i = 0; i < PASSES; i++) {
+            visited += runtime.processQueued(plugin, MAX_PER_TICK);
+        }
+        return visited;
+    }
+}
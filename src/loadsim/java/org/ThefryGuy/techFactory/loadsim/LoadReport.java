@@ -0,0 +1,196 @@
+package org.ThefryGuy.techFactory.loadsim;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.ThefryGuy.techFactory.data.TickProfiler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one load simulation: per-subsystem tick time, allocation and DB write volume
+ *
+ * Written as JSON (build/reports/loadsim/loadsim-<version>.json). A previous report can be passed back
+ * as the baseline - check() compares the headline numbers and returns the regressions.
+ *
+ * THRESHOLDS (system properties):
+ * - loadsim.maxMsPerTick: absolute budget for TechFactory ms/tick (0 = off)
+ * - loadsim.baseline: path of a previous report to compare against (unset = no comparison)
+ * - loadsim.maxRegressionPercent: allowed growth over the baseline (default 25)
+ */
+final class LoadReport {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /** Baseline metrics compared by check() (lower is better for all of them) */
+    private static final String[] COMPARED = {"techFactoryMsPerTick", "allocatedBytesPerTick", "dbWritesPerTick"};
+
+    private final JsonObject json = new JsonObject();
+
+    /**
+     * @param scenario The scenario that ran
+     * @param world The scripted world (activity counters)
+     * @param profile TickProfiler report of the measured ticks
+     * @param allocatedBytes Bytes allocated on the main thread during the measured ticks (-1 if unsupported)
+     * @param savesFlushed Block saves flushed to the DB during the measured ticks
+     * @param deletesFlushed Block deletes flushed to the DB during the measured ticks
+     * @param energyUpdates Energy metadata updates during the measured ticks
+     * @param databaseSizeBytes DB file size at the end of the run
+     */
+    LoadReport(LoadScenario scenario, ScriptedWorld world, TickProfiler.Report profile, long allocatedBytes,
+               long savesFlushed, long deletesFlushed, long energyUpdates, long databaseSizeBytes) {
+        long ticks = Math.max(1, profile.getTicks());
+
+        JsonObject scenarioJson = new JsonObject();
+        scenarioJson.addProperty("regulators", scenario.regulators);
+        scenarioJson.addProperty("connectors", scenario.connectors);
+        scenarioJson.addProperty("furnaces", scenario.furnaces);
+        scenarioJson.addProperty("smelters", scenario.smelters);
+        scenarioJson.addProperty("players", scenario.players);
+        scenarioJson.addProperty("clicksPerTick", scenario.clicksPerTick);
+        scenarioJson.addProperty("churnIntervalTicks", scenario.churnIntervalTicks);
+        scenarioJson.addProperty("ticks", scenario.ticks);
+        json.add("scenario", scenarioJson);
+
+        json.addProperty("ticks", profile.getTicks());
+        json.addProperty("tickMs", round(profile.getAvgServerTickMs()));
+        json.addProperty("techFactoryMsPerTick", round(profile.getAvgTechFactoryTickMs()));
+
+        JsonObject subsystems = new JsonObject();
+        for (TickProfiler.Subsystem subsystem : TickProfiler.Subsystem.values()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("msPerTick", round(profile.getTotalNanos(subsystem) / 1_000_000.0 / ticks));
+            entry.addProperty("maxTickMs", round(profile.getMaxTickNanos(subsystem) / 1_000_000.0));
+            entry.addProperty("callsPerTick", round((double) profile.getTotalCalls(subsystem) / ticks));
+            subsystems.add(subsystem.name(), entry);
+        }
+        json.add("subsystems", subsystems);
+
+        json.addProperty("allocatedBytesPerTick", allocatedBytes < 0 ? -1 : allocatedBytes / ticks);
+        // At 20 TPS - the rate the server would see, independent of how fast the simulation ran
+        json.addProperty("allocationMBPerSecond", allocatedBytes < 0 ? -1 : round(allocatedBytes * 20.0 / ticks / 1_000_000.0));
+
+        json.addProperty("dbSavesFlushed", savesFlushed);
+        json.addProperty("dbDeletesFlushed", deletesFlushed);
+        json.addProperty("dbEnergyUpdates", energyUpdates);
+        json.addProperty("dbWritesPerTick", round((double) (savesFlushed + deletesFlushed + energyUpdates) / ticks));
+        json.addProperty("dbSizeBytes", databaseSizeBytes);
+
+        JsonObject activity = new JsonObject();
+        activity.addProperty("furnacesPlaced", world.getFurnaceCount());
+        activity.addProperty("placementsCancelled", world.getPlacementsCancelled());
+        activity.addProperty("clickCycles", world.getClickCycles());
+        activity.addProperty("chunkUnloads", world.getChunkUnloads());
+        activity.addProperty("chunkLoads", world.getChunkLoads());
+        activity.addProperty("smeltingStarts", world.getSmeltingStarts());
+        json.add("activity", activity);
+    }
+
+    /**
+     * Write the report (creates parent directories)
+     */
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, GSON.toJson(json), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Human-readable summary for the console
+     */
+    String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Ticks: %d, tick %.3f ms, TechFactory %.3f ms/tick%n",
+            json.get("ticks").getAsLong(), json.get("tickMs").getAsDouble(), json.get("techFactoryMsPerTick").getAsDouble()));
+
+        JsonObject subsystems = json.getAsJsonObject("subsystems");
+        for (Map.Entry<String, JsonElement> entry : subsystems.entrySet()) {
+            JsonObject subsystem = entry.getValue().getAsJsonObject();
+            if (subsystem.get("callsPerTick").getAsDouble() == 0) {
+                continue;
+            }
+            sb.append(String.format("  %-26s %8.4f ms/tick (max %.3f ms)%n", entry.getKey(),
+                subsystem.get("msPerTick").getAsDouble(), subsystem.get("maxTickMs").getAsDouble()));
+        }
+
+        sb.append(String.format("Allocation: %d bytes/tick (%.2f MB/s at 20 TPS)%n",
+            json.get("allocatedBytesPerTick").getAsLong(), json.get("allocationMBPerSecond").getAsDouble()));
+        sb.append(String.format("DB writes: %d saves, %d deletes, %d energy updates (%.2f/tick), DB size %d bytes",
+            json.get("dbSavesFlushed").getAsLong(), json.get("dbDeletesFlushed").getAsLong(),
+            json.get("dbEnergyUpdates").getAsLong(), json.get("dbWritesPerTick").getAsDouble(),
+            json.get("dbSizeBytes").getAsLong()));
+        return sb.toString();
+    }
+
+    /**
+     * Check the thresholds
+     * @return Regression messages (empty = pass)
+     * @throws IOException if the baseline can't be read
+     * @throws IllegalArgumentException if the baseline was recorded with a different scenario
+     */
+    List<String> check() throws IOException {
+        List<String> failures = new ArrayList<>();
+
+        double maxMsPerTick = doubleProperty("loadsim.maxMsPerTick", 0);
+        double msPerTick = json.get("techFactoryMsPerTick").getAsDouble();
+        if (maxMsPerTick > 0 && msPerTick > maxMsPerTick) {
+            failures.add(String.format("TechFactory %.3f ms/tick exceeds loadsim.maxMsPerTick=%.3f", msPerTick, maxMsPerTick));
+        }
+
+        String baselinePath = System.getProperty("loadsim.baseline");
+        if (baselinePath == null || baselinePath.isBlank()) {
+            return failures;
+        }
+
+        JsonObject baseline = JsonParser.parseString(Files.readString(Path.of(baselinePath), StandardCharsets.UTF_8)).getAsJsonObject();
+        if (!json.get("scenario").equals(baseline.get("scenario"))) {
+            throw new IllegalArgumentException("Baseline " + baselinePath + " was recorded with a different scenario: " +
+                baseline.get("scenario") + " vs " + json.get("scenario"));
+        }
+
+        double maxRegression = doubleProperty("loadsim.maxRegressionPercent", 25);
+        Map<String, Double> growth = new LinkedHashMap<>();
+        for (String key : COMPARED) {
+            double before = baseline.get(key).getAsDouble();
+            double after = json.get(key).getAsDouble();
+            if (before <= 0 || after < 0) {
+                continue; // Nothing to compare against (or allocation tracking unsupported)
+            }
+            growth.put(key, (after - before) * 100.0 / before);
+        }
+
+        for (Map.Entry<String, Double> entry : growth.entrySet()) {
+            if (entry.getValue() > maxRegression) {
+                failures.add(String.format("%s regressed %.1f%% (%s -> %s, limit %.1f%%)", entry.getKey(), entry.getValue(),
+                    baseline.get(entry.getKey()), json.get(entry.getKey()), maxRegression));
+            }
+        }
+        return failures;
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        String raw = System.getProperty(key);
+        if (raw == null || raw.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number, got '" + raw + "'");
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000.0) / 10_000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package org.ThefryGuy.techFactory.loadsim;
+
+/**
+ * Load simulation settings - what the scripted world contains and how long it runs
+ *
+ * Every value comes from a "loadsim.*" system property (the loadSimulation Gradle task forwards
+ * -Ploadsim.* project properties), so CI can run a small smoke scenario and a developer a big one
+ * with the same build:
+ *
+ *   ./gradlew loadSimulation -Ploadsim.regulators=200 -Ploadsim.furnaces=2000
+ *
+ * Keep the defaults stable - baseline reports are only comparable for the same scenario,
+ * and LoadReport refuses to compare reports of different scenarios.
+ */
+final class LoadScenario {
+
+    /** Energy networks (one regulator each) */
+    final int regulators;
+
+    /** Energy connectors, spread evenly over the networks as chains */
+    final int connectors;
+
+    /** Electric furnaces, spread round-robin over the networks */
+    final int furnaces;
+
+    /** Smelting operations kept running through SmeltingManager */
+    final int smelters;
+
+    /** Smelting duration - short, so completions happen during the run */
+    final long smelterDurationMs;
+
+    /** Fake players doing the clicking */
+    final int players;
+
+    /** GUI click cycles per tick (right-click, inventory click, close) */
+    final int clicksPerTick;
+
+    /** Every this many ticks one network's chunks are unloaded (0 = no churn) */
+    final int churnIntervalTicks;
+
+    /** Ticks until an unloaded network's chunks load again */
+    final int churnReloadDelayTicks;
+
+    /** Ticks before measuring (JIT warm-up, initial DB writes) */
+    final int warmupTicks;
+
+    /** Measured ticks */
+    final int ticks;
+
+    /** Random seed for click targets */
+    final long seed;
+
+    private LoadScenario() {
+        this.regulators = intProperty("loadsim.regulators", 50, 1);
+        this.connectors = intProperty("loadsim.connectors", 400, 0);
+        this.furnaces = intProperty("loadsim.furnaces", 200, 0);
+        this.smelters = intProperty("loadsim.smelters", 50, 0);
+        this.smelterDurationMs = intProperty("loadsim.smelterDurationMs", 1000, 50);
+        this.players = intProperty("loadsim.players", 10, 1);
+        this.clicksPerTick = intProperty("loadsim.clicksPerTick", 2, 0);
+        this.churnIntervalTicks = intProperty("loadsim.churnIntervalTicks", 20, 0);
+        this.churnReloadDelayTicks = intProperty("loadsim.churnReloadDelayTicks", 10, 1);
+        this.warmupTicks = intProperty("loadsim.warmupTicks", 200, 0);
+        this.ticks = intProperty("loadsim.ticks", 1200, 1);
+        this.seed = Long.getLong("loadsim.seed", 42L);
+    }
+
+    /**
+     * Read the scenario from system properties
+     * @throws IllegalArgumentException if a value is not a number or below its minimum
+     */
+    static LoadScenario fromSystemProperties() {
+        return new LoadScenario();
+    }
+
+    /**
+     * One-line description for logs
+     */
+    String describe() {
+        return regulators + " regulators, " + connectors + " connectors, " + furnaces + " electric furnaces, " +
+            smelters + " smelters, " + players + " players (" + clicksPerTick + " clicks/tick), churn every " +
+            churnIntervalTicks + " ticks, " + warmupTicks + "+" + ticks + " ticks";
+    }
+
+    private static int intProperty(String key, int defaultValue, int min) {
+        String raw = System.getProperty(key);
+        if (raw == null || raw.isBlank()) {
+            return defaultValue;
+        }
+
+        int value;
+        try {
+            value = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number, got '" + raw + "'");
+        }
+        if (value < min) {
+            throw new IllegalArgumentException(key + " must be >= " + min + ", got " + value);
+        }
+        return value;
+    }
+}
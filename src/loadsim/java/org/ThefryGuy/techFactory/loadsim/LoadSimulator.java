@@ -0,0 +1,169 @@
+package org.ThefryGuy.techFactory.loadsim;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.PerformanceMetrics;
+import org.ThefryGuy.techFactory.data.TickProfiler;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless load simulator - runs the real plugin and its tick tasks on MockBukkit's in-memory server
+ *
+ * Production can't be stress tested, so this builds a scripted world (LoadScenario / ScriptedWorld),
+ * drives the scheduler tick by tick and reports what TickProfiler, the allocation counter and
+ * PerformanceMetrics saw (LoadReport). No network, no Minecraft server - runs offline in CI:
+ *
+ *   ./gradlew loadSimulation -Ploadsim.baseline=baseline.json -Ploadsim.maxRegressionPercent=20
+ *
+ * PHASES:
+ * 1. Enable the plugin, place the scenario through its listeners, feed the furnaces
+ * 2. Warm-up ticks (JIT, initial DB saves and chunk loads settle)
+ * 3. Measured ticks with TickProfiler running - each tick: scripted activity, scheduler tick,
+ *    ServerTickEndEvent (which closes the profiler's tick, as Paper does)
+ * 4. Wait for async tasks (batch flushes), write the report, check the thresholds
+ *
+ * Exit code 1 on a regression, 2 on a simulation error - the Gradle task fails either way.
+ *
+ * LIMITATION: Allocation is measured on the main thread only (where the tick runs); async DB work is
+ * reported as write volume instead. Absolute ms/tick depend on the CI machine - compare against a
+ * baseline recorded on the same runner, not across machines.
+ */
+public final class LoadSimulator {
+
+    private LoadSimulator() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run();
+        } catch (Exception e) {
+            System.err.println("Load simulation failed: " + e);
+            e.printStackTrace();
+            exitCode = 2;
+        } finally {
+            if (MockBukkit.isMocked()) {
+                MockBukkit.unmock();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run() throws Exception {
+        LoadScenario scenario = LoadScenario.fromSystemProperties();
+        System.out.println("Load simulation: " + scenario.describe());
+
+        ServerMock server = MockBukkit.mock();
+        // MockBukkit ships no vanilla recipes - the electric furnace caches these on enable
+        server.addRecipe(new FurnaceRecipe(NamespacedKey.minecraft("loadsim_raw_iron"),
+            new ItemStack(Material.IRON_INGOT), Material.RAW_IRON, 0.7f, 200));
+
+        // World first - the plugin restores data for worlds loaded at enable
+        WorldMock world = server.addSimpleWorld("world");
+        TechFactory plugin = MockBukkit.load(TechFactory.class);
+
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < scenario.players; i++) {
+            PlayerMock player = server.addPlayer();
+            player.setOp(true);
+            players.add(player);
+        }
+
+        // Phase 1: build
+        ScriptedWorld scripted = new ScriptedWorld(plugin, world, scenario, players);
+        scripted.build();
+        System.out.println("Built " + plugin.getEnergyManager().getNetworkCount() + " networks, " +
+            scripted.getFurnaceCount() + " furnaces (" + scripted.getPlacementsCancelled() + " placements cancelled)");
+
+        // Phase 2: warm-up
+        int tick = 0;
+        for (int i = 0; i < scenario.warmupTicks; i++) {
+            runTick(server, scripted, tick++);
+        }
+        server.getScheduler().waitAsyncTasksFinished();
+
+        // Phase 3: measure
+        PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+        long savesBefore = metrics.getTotalSavesFlushed();
+        long deletesBefore = metrics.getTotalDeletesFlushed();
+        long energyUpdatesBefore = metrics.getTotalEnergyUpdates();
+
+        com.sun.management.ThreadMXBean allocationProbe = allocationProbe();
+        long allocatedBefore = allocationProbe != null ? allocationProbe.getCurrentThreadAllocatedBytes() : -1;
+
+        if (!TickProfiler.start(plugin)) {
+            throw new IllegalStateException("TickProfiler was already running");
+        }
+        for (int i = 0; i < scenario.ticks; i++) {
+            runTick(server, scripted, tick++);
+        }
+        TickProfiler.stop();
+
+        long allocatedBytes = allocationProbe != null ? allocationProbe.getCurrentThreadAllocatedBytes() - allocatedBefore : -1;
+
+        // Phase 4: let the async batch flushes land, then report
+        server.getScheduler().waitAsyncTasksFinished();
+        LoadReport report = new LoadReport(scenario, scripted, TickProfiler.report(0), allocatedBytes,
+            metrics.getTotalSavesFlushed() - savesBefore,
+            metrics.getTotalDeletesFlushed() - deletesBefore,
+            metrics.getTotalEnergyUpdates() - energyUpdatesBefore,
+            plugin.getDatabaseManager().getDatabaseSizeBytes());
+
+        String reportPath = System.getProperty("loadsim.report", "build/reports/loadsim/loadsim.json");
+        report.write(Path.of(reportPath));
+        System.out.println(report.summary());
+        System.out.println("Report: " + reportPath);
+
+        List<String> failures = report.check();
+        if (!failures.isEmpty()) {
+            System.err.println("Load simulation regressed:");
+            for (String failure : failures) {
+                System.err.println("  - " + failure);
+            }
+            return 1;
+        }
+        System.out.println("Load simulation passed");
+        return 0;
+    }
+
+    /**
+     * One server tick: scripted activity, scheduled tasks, then the tick-end event
+     */
+    private static void runTick(ServerMock server, ScriptedWorld scripted, int tick) {
+        long start = System.nanoTime();
+        scripted.tick(tick);
+        server.getScheduler().performOneTick();
+        double tickMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        Bukkit.getPluginManager().callEvent(new ServerTickEndEvent(tick, tickMs, 0L));
+    }
+
+    /**
+     * Per-thread allocation counter (HotSpot), or null if the JVM doesn't support it
+     */
+    private static com.sun.management.ThreadMXBean allocationProbe() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,336 @@
+package org.ThefryGuy.techFactory.loadsim;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.energy.EnergyNetwork;
+import org.ThefryGuy.techFactory.recipes.RecipeItem;
+import org.ThefryGuy.techFactory.registry.ElectricMachine;
+import org.ThefryGuy.techFactory.registry.ElectricMachineRegistry;
+import org.ThefryGuy.techFactory.registry.ItemRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The scripted world: builds the scenario through the plugin's own listeners and plays the
+ * per-tick player/world activity.
+ *
+ * LAYOUT (one "site" per regulator, 64 blocks apart on X so networks never merge):
+ * - Regulator at (site, 64, 0), connector chain along +Z every 5 blocks
+ * - Electric furnaces beside the regulator/connectors (dx = ±2/±3, dy = 0..4, always within 6 blocks)
+ * - Smelters (blast furnace blocks) 8 blocks east of the chain
+ *
+ * Blocks are placed by firing BlockPlaceEvent with the real item templates, so EnergyBlockListener and
+ * ElectricMachineListener create networks, bind consumers and queue DB saves exactly like on a server.
+ *
+ * PER TICK:
+ * - Energy top-up: every network is refilled (stands in for generators - solar output depends on daylight)
+ * - Smelters: finished operations are restarted through SmeltingManager.startSmelting()
+ * - Churn: one site's chunks get ChunkUnloadEvent, then ChunkLoadEvent churnReloadDelayTicks later
+ * - Clicks: right-click a furnace or regulator, click an output slot, refill the input, close
+ *
+ * LIMITATION: Chunks are only "unloaded" through the events - MockBukkit keeps them loaded, so
+ * isChunkLoaded() checks in the plugin still see them. The listeners (checkpoint/restore, DB chunk
+ * loads, orphan retry) are what churn exercises.
+ */
+final class ScriptedWorld {
+
+    /** Blocks between sites (4 chunks - chains and furnaces never reach the next site) */
+    private static final int SITE_SPACING = 64;
+
+    /** Connector chain spacing (inside the 6 block range) */
+    private static final int CHAIN_SPACING = 5;
+
+    private static final int BASE_Y = 64;
+
+    /** Furnace spots around one anchor (regulator or connector) */
+    private static final int[] FURNACE_DX = {2, 3, -2, -3};
+    private static final int FURNACE_LAYERS = 5;
+    private static final int FURNACE_SPOTS_PER_ANCHOR = FURNACE_DX.length * FURNACE_LAYERS;
+
+    /** Electric furnace input/output slots (ElectricFurnaceMachine) */
+    private static final int FURNACE_INPUT_SLOT = 10;
+    private static final int FURNACE_OUTPUT_SLOT = 14;
+
+    private final TechFactory plugin;
+    private final World world;
+    private final LoadScenario scenario;
+    private final List<Player> players;
+    private final Random random;
+
+    private final List<Location> regulators = new ArrayList<>();
+    private final List<Location> furnaces = new ArrayList<>();
+    private final List<Location> smelters = new ArrayList<>();
+    private final List<Set<Chunk>> siteChunks = new ArrayList<>();
+    private final RecipeItem smelterOutput;
+
+    // Churn state: the site currently unloaded and the tick its chunks load again
+    private int churnSite = -1;
+    private int churnReloadTick = -1;
+    private int churnCursor = 0;
+
+    // Counters for the report
+    private long placementsCancelled = 0;
+    private long clickCycles = 0;
+    private long chunkUnloads = 0;
+    private long chunkLoads = 0;
+    private long smeltingStarts = 0;
+
+    ScriptedWorld(TechFactory plugin, World world, LoadScenario scenario, List<Player> players) {
+        this.plugin = plugin;
+        this.world = world;
+        this.scenario = scenario;
+        this.players = players;
+        this.random = new Random(scenario.seed);
+        this.smelterOutput = ItemRegistry.getIngot("Iron Ingot");
+    }
+
+    // ========================================
+    // BUILD
+    // ========================================
+
+    /**
+     * Place the scenario and feed every furnace once, so all of them are processing
+     * @throws IllegalStateException if a regulator placement is refused (layout bug)
+     * @throws IllegalArgumentException if the furnaces don't fit next to the connectors
+     */
+    void build() {
+        Player builder = players.get(0);
+        ItemStack regulatorItem = item("energy_regulator");
+        ItemStack connectorItem = item("energy_connector");
+        ItemStack furnaceItem = item("electric_furnace");
+
+        ElectricMachine furnaceMachine = ElectricMachineRegistry.getMachine("electric_furnace");
+        if (furnaceMachine == null) {
+            throw new IllegalStateException("electric_furnace is not registered - did the plugin enable?");
+        }
+
+        for (int site = 0; site < scenario.regulators; site++) {
+            siteChunks.add(new LinkedHashSet<>());
+
+            Location regulator = new Location(world, site * SITE_SPACING, BASE_Y, 0);
+            if (!place(builder, regulator, regulatorItem.getType(), regulatorItem, site)) {
+                throw new IllegalStateException("Regulator placement at " + regulator + " was cancelled");
+            }
+            regulators.add(regulator);
+
+            int chain = chainLength(site);
+            for (int c = 1; c <= chain; c++) {
+                place(builder, regulator.clone().add(0, 0, c * CHAIN_SPACING), connectorItem.getType(), connectorItem, site);
+            }
+        }
+
+        for (int i = 0; i < scenario.furnaces; i++) {
+            int site = i % scenario.regulators;
+            int spot = i / scenario.regulators;
+            int anchor = spot / FURNACE_SPOTS_PER_ANCHOR;
+            if (anchor > chainLength(site)) {
+                throw new IllegalArgumentException("Not enough connectors for " + scenario.furnaces +
+                    " furnaces - raise loadsim.connectors (each regulator/connector fits " + FURNACE_SPOTS_PER_ANCHOR + ")");
+            }
+
+            int slot = spot % FURNACE_SPOTS_PER_ANCHOR;
+            Location furnace = regulators.get(site).clone().add(
+                FURNACE_DX[slot % FURNACE_DX.length], slot / FURNACE_DX.length, anchor * CHAIN_SPACING);
+            if (place(builder, furnace, furnaceMachine.getBlockMaterial(), furnaceItem, site)) {
+                furnaces.add(furnace);
+            }
+        }
+
+        for (int i = 0; i < scenario.smelters; i++) {
+            int site = i % scenario.regulators;
+            Location smelter = regulators.get(site).clone().add(8, 0, (i / scenario.regulators) * 2);
+            smelter.getBlock().setType(Material.BLAST_FURNACE);
+            siteChunks.get(site).add(smelter.getChunk());
+            smelters.add(smelter);
+        }
+
+        // Feed every furnace once (opens the GUI, fills the input, closes - the close activates it)
+        for (int i = 0; i < furnaces.size(); i++) {
+            clickFurnace(players.get(i % players.size()), furnaces.get(i));
+        }
+    }
+
+    /**
+     * Connectors in one site's chain (the remainder goes to the first sites)
+     */
+    private int chainLength(int site) {
+        return scenario.connectors / scenario.regulators + (site < scenario.connectors % scenario.regulators ? 1 : 0);
+    }
+
+    /**
+     * Place a block the way a player does: set the block, then fire BlockPlaceEvent
+     * @return false if a listener cancelled the placement (the block is reverted)
+     */
+    private boolean place(Player player, Location location, Material material, ItemStack item, int site) {
+        Block block = location.getBlock();
+        BlockState replaced = block.getState();
+        block.setType(material);
+
+        BlockPlaceEvent event = new BlockPlaceEvent(block, replaced, block.getRelative(BlockFace.DOWN),
+            item.clone(), player, true, EquipmentSlot.HAND);
+        Bukkit.getPluginManager().callEvent(event);
+
+        if (event.isCancelled()) {
+            block.setType(replaced.getType());
+            placementsCancelled++;
+            return false;
+        }
+        siteChunks.get(site).add(block.getChunk());
+        return true;
+    }
+
+    private static ItemStack item(String itemId) {
+        RecipeItem item = ItemRegistry.getItemById(itemId);
+        if (item == null) {
+            throw new IllegalStateException("Unknown item id '" + itemId + "' - did the plugin enable?");
+        }
+        return item.getItemStack();
+    }
+
+    // ========================================
+    // PER-TICK ACTIVITY
+    // ========================================
+
+    /**
+     * Play one tick of scripted activity (call before the scheduler runs the tick)
+     */
+    void tick(int tick) {
+        topUpEnergy();
+        restartSmelters();
+        churn(tick);
+        clicks();
+    }
+
+    private void topUpEnergy() {
+        for (EnergyNetwork network : plugin.getEnergyManager().getAllNetworks()) {
+            network.addEnergy(network.getMaxCapacity());
+        }
+    }
+
+    private void restartSmelters() {
+        for (Location smelter : smelters) {
+            if (!plugin.getSmeltingManager().isSmelting(smelter)) {
+                plugin.getSmeltingManager().startSmelting(smelter, smelterOutput, scenario.smelterDurationMs);
+                smeltingStarts++;
+            }
+        }
+    }
+
+    private void churn(int tick) {
+        if (scenario.churnIntervalTicks == 0) {
+            return;
+        }
+
+        if (churnSite >= 0 && tick >= churnReloadTick) {
+            for (Chunk chunk : siteChunks.get(churnSite)) {
+                Bukkit.getPluginManager().callEvent(new ChunkLoadEvent(chunk, false));
+                chunkLoads++;
+            }
+            churnSite = -1;
+        }
+
+        if (churnSite < 0 && tick % scenario.churnIntervalTicks == 0) {
+            churnSite = churnCursor;
+            churnCursor = (churnCursor + 1) % siteChunks.size();
+            churnReloadTick = tick + scenario.churnReloadDelayTicks;
+            for (Chunk chunk : siteChunks.get(churnSite)) {
+                Bukkit.getPluginManager().callEvent(new ChunkUnloadEvent(chunk));
+                chunkUnloads++;
+            }
+        }
+    }
+
+    /**
+     * Click cycles: three quarters go to furnaces (the busy GUI), the rest to regulators
+     */
+    private void clicks() {
+        for (int i = 0; i < scenario.clicksPerTick; i++) {
+            Player player = players.get(random.nextInt(players.size()));
+            if (!furnaces.isEmpty() && random.nextInt(4) != 0) {
+                clickFurnace(player, furnaces.get(random.nextInt(furnaces.size())));
+            } else {
+                clickRegulator(player, regulators.get(random.nextInt(regulators.size())));
+            }
+        }
+    }
+
+    /**
+     * Right-click a furnace, take the output, top up the input and close the GUI
+     */
+    private void clickFurnace(Player player, Location furnace) {
+        Block block = furnace.getBlock();
+        Bukkit.getPluginManager().callEvent(new PlayerInteractEvent(player, Action.RIGHT_CLICK_BLOCK, null, block, BlockFace.UP));
+
+        InventoryView view = player.getOpenInventory();
+        Inventory top = view.getTopInventory();
+        if (top.getSize() > FURNACE_INPUT_SLOT && top.getType() == InventoryType.CHEST) {
+            Bukkit.getPluginManager().callEvent(new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER,
+                FURNACE_OUTPUT_SLOT, ClickType.SHIFT_LEFT, InventoryAction.MOVE_TO_OTHER_INVENTORY));
+            top.setItem(FURNACE_INPUT_SLOT, new ItemStack(Material.RAW_IRON, 64));
+        }
+        player.closeInventory();
+        clickCycles++;
+    }
+
+    /**
+     * Right-click a regulator (opens the network GUI) and close it
+     */
+    private void clickRegulator(Player player, Location regulator) {
+        Bukkit.getPluginManager().callEvent(new PlayerInteractEvent(player, Action.RIGHT_CLICK_BLOCK, null, regulator.getBlock(), BlockFace.UP));
+        player.closeInventory();
+        clickCycles++;
+    }
+
+    // ========================================
+    // COUNTERS
+    // ========================================
+
+    int getFurnaceCount() {
+        return furnaces.size();
+    }
+
+    long getPlacementsCancelled() {
+        return placementsCancelled;
+    }
+
+    long getClickCycles() {
+        return clickCycles;
+    }
+
+    long getChunkUnloads() {
+        return chunkUnloads;
+    }
+
+    long getChunkLoads() {
+        return chunkLoads;
+    }
+
+    long getSmeltingStarts() {
+        return smeltingStarts;
+    }
+}
@@ -4,7 +4,13 @@ import org.ThefryGuy.techFactory.commands.*;
 import org.ThefryGuy.techFactory.data.SmeltingManager;
 import org.ThefryGuy.techFactory.data.DatabaseManager;
 import org.ThefryGuy.techFactory.data.AutoSaveManager;
+import org.ThefryGuy.techFactory.data.FlightRecorderEvents;
+import org.ThefryGuy.techFactory.data.MetricsExporter;
+import org.ThefryGuy.techFactory.data.MetricsHistory;
 import org.ThefryGuy.techFactory.data.MultiblockCache;
+import org.ThefryGuy.techFactory.data.OutputRouter;
+import org.ThefryGuy.techFactory.data.SlowOperationTracer;
+import org.ThefryGuy.techFactory.data.TickProfiler;
 import org.ThefryGuy.techFactory.energy.EnergyManager;
 import org.ThefryGuy.techFactory.gui.MenuManager;
 import org.ThefryGuy.techFactory.listeners.MultiblockListener;
@@ -14,7 +20,9 @@ import org.ThefryGuy.techFactory.listeners.EnergyBlockListener;
 import org.ThefryGuy.techFactory.listeners.ElectricMachineListener;
 import org.ThefryGuy.techFactory.listeners.BlockProtectionListener;
 import org.ThefryGuy.techFactory.listeners.ChunkLoadListener;
+import org.ThefryGuy.techFactory.listeners.ChunkUnloadListener;
 import org.ThefryGuy.techFactory.listeners.WorldUnloadListener;
+import org.ThefryGuy.techFactory.listeners.StructureCacheListener;
 import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
 import org.ThefryGuy.techFactory.registry.ItemRegistry;
 import org.ThefryGuy.techFactory.registry.MachineRegistry;
@@ -35,6 +43,9 @@ public final class TechFactory extends JavaPlugin {
     private EnergyManager energyManager;
     private AutoSaveManager autoSaveManager;
     private MultiblockCache multiblockCache;
+    private OutputRouter outputRouter;
+    private MetricsExporter metricsExporter;
+    private MetricsHistory metricsHistory;
 
     @Override
     public void onEnable() {
@@ -46,10 +57,46 @@ public final class TechFactory extends JavaPlugin {
         // Load config.yml FIRST (before anything else depends on it)
         TechFactoryConfig.load(this);
 
+        // Custom JFR events (disabled unless a recording enables them)
+        FlightRecorderEvents.registerAll(getLogger());
+
+        // Slow-operation traces (slow_trace.enabled) - before managers, so startup work is traced too
+        SlowOperationTracer.start(this);
+
+        // ========================================
+        // MANAGER REGISTRY PATTERN
+        // ========================================
+        // Create all managers (but don't initialize yet)
+        databaseManager = new DatabaseManager(this);
+        multiblockCache = new MultiblockCache(this);
+        outputRouter = new OutputRouter(this);
+        energyManager = new EnergyManager(this);
+        smeltingManager = new SmeltingManager(this);
+        // Convert ticks to minutes for AutoSaveManager (6000 ticks = 5 minutes)
+        int saveIntervalMinutes = (int) (TechFactoryConstants.AUTO_SAVE_INTERVAL_TICKS() / 1200L); // 1200 ticks = 1 minute
+        autoSaveManager = new AutoSaveManager(this, saveIntervalMinutes);
+        metricsExporter = new MetricsExporter(this);  // Opt-in (metrics_export.enabled)
+        metricsHistory = new MetricsHistory(this);
+
+        // Register all managers with the managers they need first
+        // CRITICAL: Everything that reads or writes blocks depends on DatabaseManager
+        ManagerRegistry.register("DatabaseManager", databaseManager);
+        ManagerRegistry.register("MultiblockCache", multiblockCache);
+        ManagerRegistry.register("OutputRouter", outputRouter);
+        ManagerRegistry.register("EnergyManager", energyManager, "DatabaseManager");
+        ManagerRegistry.register("SmeltingManager", smeltingManager, "DatabaseManager");
+        ManagerRegistry.register("AutoSaveManager", autoSaveManager, "DatabaseManager", "EnergyManager", "SmeltingManager");
+        ManagerRegistry.register("MetricsExporter", metricsExporter);
+        ManagerRegistry.register("MetricsHistory", metricsHistory);
+
+        // PERFORMANCE FIX: Start preparing managers (database, history file) on worker threads,
+        // so the registries below are built while the database loads
+        ManagerRegistry.prepareAll(getLogger());
+
         // Initialize all registries at startup
         ItemRegistry.initialize(getLogger());
         WorkstationRegistry.initialize();
-        RecipeRegistry.initialize();  // CENTRALIZED: All machine recipes in one place
+        RecipeRegistry.initialize(this);  // CENTRALIZED: All machine recipes in recipes.yml
 
         // ========================================
         // MACHINE REGISTRY PATTERN
@@ -74,27 +121,7 @@ public final class TechFactory extends JavaPlugin {
         ElectricMachineRegistry.register(new ElectricGoldPanHandler());
         ElectricMachineRegistry.initialize(getLogger());
 
-        // ========================================
-        // MANAGER REGISTRY PATTERN
-        // ========================================
-        // Create all managers (but don't initialize yet)
-        databaseManager = new DatabaseManager(this);
-        multiblockCache = new MultiblockCache(this);
-        energyManager = new EnergyManager(this);
-        smeltingManager = new SmeltingManager(this);
-        // Convert ticks to minutes for AutoSaveManager (6000 ticks = 5 minutes)
-        int saveIntervalMinutes = (int) (TechFactoryConstants.AUTO_SAVE_INTERVAL_TICKS() / 1200L); // 1200 ticks = 1 minute
-        autoSaveManager = new AutoSaveManager(this, saveIntervalMinutes);
-
-        // Register all managers in initialization order
-        // CRITICAL: DatabaseManager MUST be first (others depend on it)
-        ManagerRegistry.register("DatabaseManager", databaseManager);
-        ManagerRegistry.register("MultiblockCache", multiblockCache);
-        ManagerRegistry.register("EnergyManager", energyManager);
-        ManagerRegistry.register("SmeltingManager", smeltingManager);
-        ManagerRegistry.register("AutoSaveManager", autoSaveManager);
-
-        // Initialize all managers in order (with error handling)
+        // Initialize all managers in dependency order (waits for their preparation, with error handling)
         ManagerRegistry.initializeAll(getLogger());
 
         // PERFORMANCE FIX: Start smelter auto-save task (batches DB saves)
@@ -120,6 +147,8 @@ public final class TechFactory extends JavaPlugin {
             mainCommand.setGiveCommand(new GiveCommand());
             mainCommand.setStatusCommand(new StatusCommand());
             mainCommand.setMetricsCommand(new MetricsCommand());
+            mainCommand.setProfileCommand(new ProfileCommand(this));
+            mainCommand.setTraceCommand(new TraceCommand(this));
             mainCommand.setReloadCommand(new ReloadCommand());
             mainCommand.setQueueCommand(new QueueCommand(this));
 
@@ -129,27 +158,33 @@ public final class TechFactory extends JavaPlugin {
         }
 
         // Register event listeners
-        getServer().getPluginManager().registerEvents(new MenuManager(), this);
-        getServer().getPluginManager().registerEvents(new MultiblockListener(this), this);
-        getServer().getPluginManager().registerEvents(new ToolListener(), this);
-        getServer().getPluginManager().registerEvents(new GuidebookListener(), this);
-        getServer().getPluginManager().registerEvents(new EnergyBlockListener(this), this);
-        getServer().getPluginManager().registerEvents(new ElectricMachineListener(this), this);
-        getServer().getPluginManager().registerEvents(new BlockProtectionListener(this), this);
-        getServer().getPluginManager().registerEvents(new ChunkLoadListener(this, databaseManager), this);
-        getServer().getPluginManager().registerEvents(new WorldUnloadListener(this), this);  // CRITICAL FIX: Cleanup on world unload
+        // PROFILING: Every handler is wrapped in a TickProfiler span (no-op unless /techfactory profile start)
+        TickProfiler.registerEvents(new MenuManager(), TickProfiler.Subsystem.GUI_LISTENERS, this);
+        TickProfiler.registerEvents(new MultiblockListener(this), TickProfiler.Subsystem.MULTIBLOCK_LISTENER, this);
+        TickProfiler.registerEvents(new ToolListener(), TickProfiler.Subsystem.GUI_LISTENERS, this);
+        TickProfiler.registerEvents(new GuidebookListener(), TickProfiler.Subsystem.GUI_LISTENERS, this);
+        TickProfiler.registerEvents(new EnergyBlockListener(this), TickProfiler.Subsystem.ENERGY_BLOCK_LISTENER, this);
+        TickProfiler.registerEvents(new ElectricMachineListener(this), TickProfiler.Subsystem.ELECTRIC_MACHINE_LISTENER, this);
+        TickProfiler.registerEvents(new BlockProtectionListener(this), TickProfiler.Subsystem.PROTECTION_LISTENER, this);
+        TickProfiler.registerEvents(new StructureCacheListener(multiblockCache, outputRouter), TickProfiler.Subsystem.STRUCTURE_CACHE_LISTENER, this);  // PERFORMANCE: Structure cache + output route invalidation
+        TickProfiler.registerEvents(new ChunkLoadListener(this, databaseManager), TickProfiler.Subsystem.CHUNK_LISTENERS, this);
+        TickProfiler.registerEvents(new ChunkUnloadListener(this), TickProfiler.Subsystem.CHUNK_LISTENERS, this);
+        TickProfiler.registerEvents(new WorldUnloadListener(this), TickProfiler.Subsystem.CHUNK_LISTENERS, this);  // CRITICAL FIX: Cleanup on world unload
 
         getLogger().info("TechFactory has been enabled successfully!");
     }
 
     @Override
     public void onDisable() {
+        // Stop the tick profiler if an admin left it running
+        TickProfiler.stop();
+
         // Shutdown consolidated electric machine processor
         org.ThefryGuy.techFactory.machines.electric.ElectricMachineProcessor.shutdown();
 
-        // Shutdown individual machine data
-        org.ThefryGuy.techFactory.machines.electric.ElectricFurnaceMachine.shutdown();
-        org.ThefryGuy.techFactory.machines.electric.ElectricGoldPanMachine.shutdown();
+        // Shutdown individual machine data (saves dirty machines before DatabaseManager closes)
+        org.ThefryGuy.techFactory.machines.electric.ElectricFurnaceMachine.shutdown(this);
+        org.ThefryGuy.techFactory.machines.electric.ElectricGoldPanMachine.shutdown(this);
 
         // ========================================
         // MANAGER REGISTRY PATTERN
@@ -159,6 +194,9 @@ public final class TechFactory extends JavaPlugin {
         // Example: DatabaseManager is disabled LAST (others may need it)
         ManagerRegistry.disableAll(getLogger());
 
+        // After the final flush - pending JSON lines are written before the tracer thread exits
+        SlowOperationTracer.stop();
+
         getLogger().info("TechFactory has been disabled.");
     }
 
@@ -185,4 +223,16 @@ public final class TechFactory extends JavaPlugin {
     public MultiblockCache getMultiblockCache() {
         return multiblockCache;
     }
+
+    public OutputRouter getOutputRouter() {
+        return outputRouter;
+    }
+
+    public MetricsHistory getMetricsHistory() {
+        return metricsHistory;
+    }
+
+    public MetricsExporter getMetricsExporter() {
+        return metricsExporter;
+    }
 }
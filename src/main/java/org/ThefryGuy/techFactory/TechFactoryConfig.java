@@ -110,6 +110,16 @@ public final class TechFactoryConfig {
         Bukkit.getLogger().info("[TechFactory] Configuration reloaded!");
     }
 
+    /**
+     * Use the built-in ConfigKey defaults without a plugin or config.yml
+     * For code that runs outside a server (JMH benchmarks, offline tools) - save() is a no-op afterwards
+     */
+    public static void loadDefaults() {
+        plugin = null;
+        configFile = null;
+        config = new YamlConfiguration();
+    }
+
     /**
      * Save current config to disk
      */
@@ -177,6 +187,30 @@ public final class TechFactoryConfig {
         return ConfigKey.ELECTRIC_MACHINE_MAX_PER_TICK.getInt(config);
     }
 
+    public static int getElectricMachineProgressStepPercent() {
+        return ConfigKey.ELECTRIC_MACHINE_PROGRESS_STEP_PERCENT.getInt(config);
+    }
+
+    public static int getElectricMachineMaxUpgrades() {
+        return ConfigKey.ELECTRIC_MACHINE_MAX_UPGRADES.getInt(config);
+    }
+
+    public static int getElectricMachineItemsPerUpgrade() {
+        return ConfigKey.ELECTRIC_MACHINE_ITEMS_PER_UPGRADE.getInt(config);
+    }
+
+    // ========================================
+    // VIRTUAL TIME (OFFLINE CATCH-UP)
+    // ========================================
+
+    public static boolean isVirtualTimeEnabled() {
+        return ConfigKey.VIRTUAL_TIME_ENABLED.getBoolean(config);
+    }
+
+    public static long getVirtualTimeMaxCatchupSeconds() {
+        return ConfigKey.VIRTUAL_TIME_MAX_CATCHUP_SECONDS.getLong(config);
+    }
+
     // ========================================
     // RATE LIMITING & ANTI-SPAM
     // ========================================
@@ -257,6 +291,10 @@ public final class TechFactoryConfig {
         return ConfigKey.AUTO_SAVE_INTERVAL_TICKS.getLong(config);
     }
 
+    public static long getStartupFixupBudgetMs() {
+        return ConfigKey.STARTUP_FIXUP_BUDGET_MS.getLong(config);
+    }
+
     // ========================================
     // SMELTER GUI LAYOUT
     // ========================================
@@ -281,6 +319,106 @@ public final class TechFactoryConfig {
         return ConfigKey.MAX_RECIPE_COMPLEXITY.getInt(config);
     }
 
+    // ========================================
+    // PROFILING
+    // ========================================
+
+    public static int getProfilerHistoryTicks() {
+        return ConfigKey.PROFILER_HISTORY_TICKS.getInt(config);
+    }
+
+    // ========================================
+    // METRICS EXPORT
+    // ========================================
+
+    public static boolean isMetricsExportEnabled() {
+        return ConfigKey.METRICS_EXPORT_ENABLED.getBoolean(config);
+    }
+
+    public static String getMetricsExportBindAddress() {
+        return ConfigKey.METRICS_EXPORT_BIND_ADDRESS.getString(config);
+    }
+
+    public static int getMetricsExportPort() {
+        return ConfigKey.METRICS_EXPORT_PORT.getInt(config);
+    }
+
+    public static long getMetricsExportSnapshotIntervalTicks() {
+        return ConfigKey.METRICS_EXPORT_SNAPSHOT_INTERVAL_TICKS.getLong(config);
+    }
+
+    // ========================================
+    // METRICS HISTORY
+    // ========================================
+
+    public static boolean isMetricsHistoryEnabled() {
+        return ConfigKey.METRICS_HISTORY_ENABLED.getBoolean(config);
+    }
+
+    public static int getMetricsHistoryRetentionDays() {
+        return ConfigKey.METRICS_HISTORY_RETENTION_DAYS.getInt(config);
+    }
+
+    // ========================================
+    // SLOW-OPERATION TRACING
+    // ========================================
+
+    public static boolean isSlowTraceEnabled() {
+        return ConfigKey.SLOW_TRACE_ENABLED.getBoolean(config);
+    }
+
+    public static int getSlowTraceRingSize() {
+        return ConfigKey.SLOW_TRACE_RING_SIZE.getInt(config);
+    }
+
+    public static long getSlowTraceSampleIntervalMs() {
+        return ConfigKey.SLOW_TRACE_SAMPLE_INTERVAL_MS.getLong(config);
+    }
+
+    public static boolean isSlowTraceWriteJsonLines() {
+        return ConfigKey.SLOW_TRACE_WRITE_JSON_LINES.getBoolean(config);
+    }
+
+    public static long getSlowTraceBatchFlushMs() {
+        return ConfigKey.SLOW_TRACE_BATCH_FLUSH_MS.getLong(config);
+    }
+
+    public static long getSlowTraceSqlStatementMs() {
+        return ConfigKey.SLOW_TRACE_SQL_STATEMENT_MS.getLong(config);
+    }
+
+    public static long getSlowTraceChunkLoadMs() {
+        return ConfigKey.SLOW_TRACE_CHUNK_LOAD_MS.getLong(config);
+    }
+
+    public static long getSlowTraceChunkRestoreMs() {
+        return ConfigKey.SLOW_TRACE_CHUNK_RESTORE_MS.getLong(config);
+    }
+
+    public static long getSlowTraceGuiOpenMs() {
+        return ConfigKey.SLOW_TRACE_GUI_OPEN_MS.getLong(config);
+    }
+
+    public static long getSlowTraceMachineProcessorMs() {
+        return ConfigKey.SLOW_TRACE_MACHINE_PROCESSOR_MS.getLong(config);
+    }
+
+    public static long getSlowTraceInventorySaveMs() {
+        return ConfigKey.SLOW_TRACE_INVENTORY_SAVE_MS.getLong(config);
+    }
+
+    // ========================================
+    // STARTUP
+    // ========================================
+
+    public static boolean isStartupParallelPrepare() {
+        return ConfigKey.STARTUP_PARALLEL_PREPARE.getBoolean(config);
+    }
+
+    public static long getStartupTargetMs() {
+        return ConfigKey.STARTUP_TARGET_MS.getLong(config);
+    }
+
     // ========================================
     // LOGGING & DEBUGGING
     // ========================================
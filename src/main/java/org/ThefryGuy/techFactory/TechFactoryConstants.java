@@ -97,14 +97,6 @@ public final class TechFactoryConstants {
      */
     public static final double ENERGY_SAVE_THRESHOLD_PERCENT = 0.10;
 
-    /**
-     * PERFORMANCE FIX: Maximum size of block cache (LRU eviction)
-     * Prevents unbounded memory growth with 100k+ placed blocks
-     * 50,000 entries ≈ 10-20 MB of memory (reasonable for most servers)
-     * Least Recently Used blocks are evicted when cache is full
-     */
-    public static final int BLOCK_CACHE_MAX_SIZE = 50000;
-
     // ========================================
     // ELECTRIC MACHINES
     // ========================================
@@ -145,6 +137,53 @@ public final class TechFactoryConstants {
         return TechFactoryConfig.getElectricMachineMaxPerTick();
     }
 
+    /**
+     * PERFORMANCE: GUI progress indicator step size (in percent)
+     * 5% = indicator changes at most 20 times per operation
+     * Indicator is only rendered while a player has the GUI open
+     */
+    public static int ELECTRIC_MACHINE_PROGRESS_STEP_PERCENT() {
+        return TechFactoryConfig.getElectricMachineProgressStepPercent();
+    }
+
+    /**
+     * SCALABILITY: Maximum Machine Upgrades per electric machine
+     * Each upgrade raises the machine's tier (tier = 1 + upgrades)
+     */
+    public static int ELECTRIC_MACHINE_MAX_UPGRADES() {
+        return TechFactoryConfig.getElectricMachineMaxUpgrades();
+    }
+
+    /**
+     * SCALABILITY: Extra items processed per cycle for each Machine Upgrade
+     * Batch size = 1 + upgrades * items_per_upgrade (default max: 1 + 3 * 3 = 10 items per cycle)
+     * One upgraded machine replaces 10 tier 1 machines = 10x fewer queue entries, states and saves
+     */
+    public static int ELECTRIC_MACHINE_ITEMS_PER_UPGRADE() {
+        return TechFactoryConfig.getElectricMachineItemsPerUpgrade();
+    }
+
+    // ========================================
+    // VIRTUAL TIME (OFFLINE CATCH-UP)
+    // ========================================
+
+    /**
+     * SCALABILITY: Let machines in unloaded chunks catch up when their chunk loads
+     * Outputs for the elapsed time are computed in closed form (limited by input, output space, energy)
+     * Cheaper than chunk loaders - nothing ticks while the chunk is unloaded
+     */
+    public static boolean VIRTUAL_TIME_ENABLED() {
+        return TechFactoryConfig.isVirtualTimeEnabled();
+    }
+
+    /**
+     * Maximum unloaded time (in seconds) a machine can catch up on
+     * Caps the work done in a single chunk load
+     */
+    public static long VIRTUAL_TIME_MAX_CATCHUP_SECONDS() {
+        return TechFactoryConfig.getVirtualTimeMaxCatchupSeconds();
+    }
+
     // ========================================
     // RATE LIMITING & ANTI-SPAM
     // ========================================
@@ -289,6 +328,15 @@ public final class TechFactoryConstants {
         return TechFactoryConfig.getAutoSaveIntervalTicks();
     }
 
+    /**
+     * PERFORMANCE FIX: Main thread time per tick for startup fix-ups (in milliseconds)
+     * Startup validation/restores are spread over ticks instead of one long stall
+     * 5ms = 10% of a 50ms tick
+     */
+    public static long STARTUP_FIXUP_BUDGET_MS() {
+        return TechFactoryConfig.getStartupFixupBudgetMs();
+    }
+
     /**
      * Database query timeout (in seconds)
      * 5 seconds = prevents hanging queries from blocking the server
@@ -359,6 +407,174 @@ public final class TechFactoryConstants {
         return TechFactoryConfig.getMaxRecipeComplexity();
     }
 
+    // ========================================
+    // PROFILING
+    // ========================================
+
+    /**
+     * Ticks kept by /techfactory profile for the worst-tick report
+     * 6000 = 5 minutes at 20 TPS (~0.6MB, only allocated while profiling)
+     */
+    public static int PROFILER_HISTORY_TICKS() {
+        return TechFactoryConfig.getProfilerHistoryTicks();
+    }
+
+    // ========================================
+    // METRICS EXPORT
+    // ========================================
+
+    /**
+     * Serve /metrics in OpenMetrics format (Prometheus, Grafana Agent, ...)
+     * Off by default - opt in per server
+     */
+    public static boolean METRICS_EXPORT_ENABLED() {
+        return TechFactoryConfig.isMetricsExportEnabled();
+    }
+
+    /**
+     * SECURITY: Defaults to 127.0.0.1 so the endpoint is never reachable from outside the host
+     */
+    public static String METRICS_EXPORT_BIND_ADDRESS() {
+        return TechFactoryConfig.getMetricsExportBindAddress();
+    }
+
+    /**
+     * 9464 = the port conventionally used by OpenTelemetry/Prometheus exporters
+     */
+    public static int METRICS_EXPORT_PORT() {
+        return TechFactoryConfig.getMetricsExportPort();
+    }
+
+    /**
+     * How often main-thread state (networks, multiblocks, machines) is copied for scrapes
+     * 100 ticks = 5 seconds - scrapes in between reuse the last copy
+     */
+    public static long METRICS_EXPORT_SNAPSHOT_INTERVAL_TICKS() {
+        return TechFactoryConfig.getMetricsExportSnapshotIntervalTicks();
+    }
+
+    // ========================================
+    // METRICS HISTORY
+    // ========================================
+
+    /**
+     * Keep a per-minute history of key metrics for /techfactory metrics history
+     * Costs one MetricsSnapshot per minute and ~1MB of disk for 7 days
+     */
+    public static boolean METRICS_HISTORY_ENABLED() {
+        return TechFactoryConfig.isMetricsHistoryEnabled();
+    }
+
+    /**
+     * Days of history kept (the file is a fixed-size ring - changing this starts a new file)
+     */
+    public static int METRICS_HISTORY_RETENTION_DAYS() {
+        return TechFactoryConfig.getMetricsHistoryRetentionDays();
+    }
+
+    // ========================================
+    // SLOW-OPERATION TRACING
+    // ========================================
+
+    /**
+     * Trace operations that run over their threshold (see SlowOperationTracer)
+     * On by default - a span is one allocation, stacks are only sampled for slow operations
+     */
+    public static boolean SLOW_TRACE_ENABLED() {
+        return TechFactoryConfig.isSlowTraceEnabled();
+    }
+
+    /**
+     * Traces kept in memory for /techfactory trace (oldest dropped first)
+     */
+    public static int SLOW_TRACE_RING_SIZE() {
+        return TechFactoryConfig.getSlowTraceRingSize();
+    }
+
+    /**
+     * How often the sampler checks open operations - the stack is taken at most this late
+     * after an operation crosses its threshold
+     */
+    public static long SLOW_TRACE_SAMPLE_INTERVAL_MS() {
+        return TechFactoryConfig.getSlowTraceSampleIntervalMs();
+    }
+
+    /**
+     * Append every trace to plugins/TechFactory/slow-traces.jsonl (one JSON object per line)
+     */
+    public static boolean SLOW_TRACE_WRITE_JSON_LINES() {
+        return TechFactoryConfig.isSlowTraceWriteJsonLines();
+    }
+
+    /**
+     * Async batch flush - 500ms (the SLOW flush warning starts at 1000ms)
+     */
+    public static long SLOW_TRACE_BATCH_FLUSH_MS() {
+        return TechFactoryConfig.getSlowTraceBatchFlushMs();
+    }
+
+    /**
+     * One SQL statement (traced on its own, and nested in its flush/load)
+     */
+    public static long SLOW_TRACE_SQL_STATEMENT_MS() {
+        return TechFactoryConfig.getSlowTraceSqlStatementMs();
+    }
+
+    /**
+     * Async chunk data load (both chunk queries)
+     */
+    public static long SLOW_TRACE_CHUNK_LOAD_MS() {
+        return TechFactoryConfig.getSlowTraceChunkLoadMs();
+    }
+
+    /**
+     * Main-thread chunk restore - 25ms = half a tick
+     */
+    public static long SLOW_TRACE_CHUNK_RESTORE_MS() {
+        return TechFactoryConfig.getSlowTraceChunkRestoreMs();
+    }
+
+    /**
+     * Main-thread machine GUI open (first open loads the saved inventory)
+     */
+    public static long SLOW_TRACE_GUI_OPEN_MS() {
+        return TechFactoryConfig.getSlowTraceGuiOpenMs();
+    }
+
+    /**
+     * Main-thread electric machine processor pass
+     */
+    public static long SLOW_TRACE_MACHINE_PROCESSOR_MS() {
+        return TechFactoryConfig.getSlowTraceMachineProcessorMs();
+    }
+
+    /**
+     * Multiblock inventory save (serialization + UPDATE)
+     */
+    public static long SLOW_TRACE_INVENTORY_SAVE_MS() {
+        return TechFactoryConfig.getSlowTraceInventorySaveMs();
+    }
+
+    // ========================================
+    // STARTUP
+    // ========================================
+
+    /**
+     * Prepare managers on worker threads (see ManagerRegistry.prepareAll)
+     * Off = every prepare stage runs on the main thread in dependency order, like before
+     */
+    public static boolean STARTUP_PARALLEL_PREPARE() {
+        return TechFactoryConfig.isStartupParallelPrepare();
+    }
+
+    /**
+     * Manager startup time (first prepare to last initialize) above which a warning is logged
+     * 3000ms = the budget for a 500k block database
+     */
+    public static long STARTUP_TARGET_MS() {
+        return TechFactoryConfig.getStartupTargetMs();
+    }
+
     // ========================================
     // LOGGING & DEBUGGING
     // ========================================
@@ -2,7 +2,6 @@ package org.ThefryGuy.techFactory.commands;
 
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -10,7 +9,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BookMeta;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
+import org.ThefryGuy.techFactory.recipes.RecipeItem;
 
 /**
  * Command to give players the TechFactory Guidebook.
@@ -65,9 +64,7 @@ public class GuidebookCommand implements CommandExecutor {
             meta.addPage(page1);
             
             // Add NBT data to identify this as a TechFactory guidebook
-            JavaPlugin plugin = JavaPlugin.getProvidingPlugin(GuidebookCommand.class);
-            NamespacedKey key = new NamespacedKey(plugin, "item_id");
-            meta.getPersistentDataContainer().set(key, PersistentDataType.STRING, "techfactory_guidebook");
+            meta.getPersistentDataContainer().set(RecipeItem.ITEM_ID_KEY, PersistentDataType.STRING, "techfactory_guidebook");
             
             book.setItemMeta(meta);
         }
@@ -87,10 +84,7 @@ public class GuidebookCommand implements CommandExecutor {
         }
         
         BookMeta meta = (BookMeta) item.getItemMeta();
-        JavaPlugin plugin = JavaPlugin.getProvidingPlugin(GuidebookCommand.class);
-        NamespacedKey key = new NamespacedKey(plugin, "item_id");
-        
-        String storedId = meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+        String storedId = meta.getPersistentDataContainer().get(RecipeItem.ITEM_ID_KEY, PersistentDataType.STRING);
         return storedId != null && storedId.equals("techfactory_guidebook");
     }
 }
@@ -4,7 +4,13 @@ import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.CacheRegistry;
+import org.ThefryGuy.techFactory.data.InstrumentedCache;
+import org.ThefryGuy.techFactory.data.LatencyHistogram;
+import org.ThefryGuy.techFactory.data.MetricsHistory;
 import org.ThefryGuy.techFactory.data.PerformanceMetrics;
+import org.ThefryGuy.techFactory.machines.electric.ElectricMachineRuntime;
 
 /**
  * /techfactory metrics command
@@ -14,6 +20,11 @@ import org.ThefryGuy.techFactory.data.PerformanceMetrics;
  * - Energy update rates (current, peak, total)
  * - Database operation stats (errors, retries)
  * - Cache performance (hit rate, sizes)
+ * - Electric machine processing (active machines, allocation per visit)
+ * - Latency percentiles (p50/p95/p99/max) per hot operation
+ * 
+ * USAGE: /techfactory metrics [1m|5m|15m]  (latency window, default 5m)
+ *        /techfactory metrics history [series] [1h|6h|24h|7d]  (per-minute trend, see MetricsHistory)
  * 
  * ADMIN ONLY: Requires permission techfactory.admin
  * 
@@ -25,6 +36,17 @@ import org.ThefryGuy.techFactory.data.PerformanceMetrics;
  */
 public class MetricsCommand implements CommandExecutor {
 
+    /** Latency window shown when none is given */
+    private static final int DEFAULT_WINDOW_MINUTES = 5;
+
+    /** History window shown when none is given */
+    private static final int DEFAULT_HISTORY_MINUTES = 24 * 60;
+
+    /** Sparkline width in characters (fits the default chat width) */
+    private static final int SPARKLINE_WIDTH = 48;
+
+    private static final char[] SPARK_LEVELS = {'▁', '▂', '▃', '▄', '▅', '▆', '▇', '█'};
+
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check permission
@@ -33,6 +55,21 @@ public class MetricsCommand implements CommandExecutor {
             return true;
         }
 
+        if (args.length >= 2 && args[1].equalsIgnoreCase("history")) {
+            sendHistory(sender, args);
+            return true;
+        }
+
+        // Optional latency window argument (args[0] is "metrics")
+        int windowMinutes = DEFAULT_WINDOW_MINUTES;
+        if (args.length >= 2) {
+            windowMinutes = parseWindow(args[1]);
+            if (windowMinutes < 0) {
+                sender.sendMessage(ChatColor.RED + "Usage: /techfactory metrics [1m|5m|15m]");
+                return true;
+            }
+        }
+
         PerformanceMetrics metrics = PerformanceMetrics.getInstance();
         
         // ========================================
@@ -157,28 +194,67 @@ public class MetricsCommand implements CommandExecutor {
         // ========================================
         sender.sendMessage(ChatColor.AQUA + "Cache Performance:");
         
-        int blockCacheSize = metrics.getBlockCacheSize();
-        int multiblockCacheSize = metrics.getMultiblockCacheSize();
-        long cacheHits = metrics.getCacheHits();
-        long cacheMisses = metrics.getCacheMisses();
-        double hitRate = metrics.getCacheHitRate();
-        
-        sender.sendMessage("  " + ChatColor.GRAY + "Block Cache: " + ChatColor.WHITE + blockCacheSize + " entries");
-        sender.sendMessage("  " + ChatColor.GRAY + "Multiblock Cache: " + ChatColor.WHITE + multiblockCacheSize + " entries");
-        sender.sendMessage("  " + ChatColor.GRAY + "Cache Hits: " + ChatColor.WHITE + cacheHits);
-        sender.sendMessage("  " + ChatColor.GRAY + "Cache Misses: " + ChatColor.WHITE + cacheMisses);
-        
-        // Color-code hit rate
-        ChatColor hitRateColor;
-        if (hitRate >= 95.0) {
-            hitRateColor = ChatColor.GREEN;
-        } else if (hitRate >= 80.0) {
-            hitRateColor = ChatColor.YELLOW;
-        } else {
-            hitRateColor = ChatColor.RED;
+        for (InstrumentedCache.Stats cache : CacheRegistry.snapshot()) {
+            // Color-code hit rate (caches that are never read, e.g. pure stores, stay gray)
+            double hitRate = cache.getHitRate();
+            ChatColor hitRateColor;
+            if (cache.getHits() + cache.getMisses() == 0) {
+                hitRateColor = ChatColor.GRAY;
+            } else if (hitRate >= 95.0) {
+                hitRateColor = ChatColor.GREEN;
+            } else if (hitRate >= 80.0) {
+                hitRateColor = ChatColor.YELLOW;
+            } else {
+                hitRateColor = ChatColor.RED;
+            }
+            
+            String size = cache.getMaximumSize() > 0 ? cache.getSize() + "/" + cache.getMaximumSize() : String.valueOf(cache.getSize());
+            sender.sendMessage("  " + ChatColor.GRAY + cache.getName() + " (" + cache.getPolicy() + "): " +
+                              ChatColor.WHITE + size + " entries, " +
+                              hitRateColor + String.format("%.1f%%", hitRate) + ChatColor.GRAY + " hit rate, " +
+                              ChatColor.WHITE + cache.getEvictions() + ChatColor.GRAY + " evicted" +
+                              (cache.getLoads() > 0 ? ", " + ChatColor.WHITE + cache.getLoads() + ChatColor.GRAY +
+                                  String.format(" loads (avg %.2f ms)", cache.getAvgLoadMs()) : ""));
         }
         
-        sender.sendMessage("  " + ChatColor.GRAY + "Hit Rate: " + hitRateColor + String.format("%.1f%%", hitRate));
+        sender.sendMessage("");
+        
+        // ========================================
+        // ELECTRIC MACHINE METRICS
+        // ========================================
+        sender.sendMessage(ChatColor.AQUA + "Electric Machines:");
+        
+        for (ElectricMachineRuntime runtime : ElectricMachineRuntime.getAll()) {
+            sender.sendMessage("  " + ChatColor.GRAY + runtime.getDisplayName() + ": " + ChatColor.WHITE +
+                              runtime.getActiveCount() + " active / " + runtime.getLoadedCount() + " loaded");
+        }
+        
+        sender.sendMessage("  " + ChatColor.GRAY + "Total Visits: " + ChatColor.WHITE + metrics.getElectricMachineVisits());
+        sender.sendMessage("  " + ChatColor.GRAY + "Alloc/Visit (last): " + ChatColor.WHITE + metrics.getLastBytesPerMachineVisit() + " B");
+        sender.sendMessage("  " + ChatColor.GRAY + "Alloc/Visit (avg): " + ChatColor.WHITE + metrics.getAvgBytesPerMachineVisit() + " B");
+        
+        sender.sendMessage("");
+        
+        // ========================================
+        // LATENCY PERCENTILES
+        // ========================================
+        sender.sendMessage(ChatColor.AQUA + "Latency (last " + windowMinutes + "m) " +
+                          ChatColor.DARK_GRAY + "count | p50 / p95 / p99 / max");
+        
+        for (PerformanceMetrics.Operation operation : PerformanceMetrics.Operation.values()) {
+            LatencyHistogram.Snapshot latency = metrics.getLatency(operation, windowMinutes);
+            if (latency.getCount() == 0) {
+                sender.sendMessage("  " + ChatColor.GRAY + operation.getDisplayName() + ": " + ChatColor.DARK_GRAY + "no samples");
+                continue;
+            }
+            
+            sender.sendMessage("  " + ChatColor.GRAY + operation.getDisplayName() + ": " + ChatColor.WHITE +
+                              latency.getCount() + ChatColor.DARK_GRAY + " | " + ChatColor.WHITE +
+                              formatNanos(latency.getPercentileNanos(50)) + " / " +
+                              formatNanos(latency.getPercentileNanos(95)) + " / " +
+                              formatNanos(latency.getPercentileNanos(99)) + " / " +
+                              latencyColor(latency.getMaxNanos()) + formatNanos(latency.getMaxNanos()));
+        }
         
         sender.sendMessage("");
         
@@ -205,10 +281,13 @@ public class MetricsCommand implements CommandExecutor {
             hasWarnings = true;
         }
         
-        if (hitRate < 80.0 && (cacheHits + cacheMisses) > 1000) {
-            sender.sendMessage(ChatColor.YELLOW + "⚠ NOTICE: Low cache hit rate (<80%)");
-            sender.sendMessage(ChatColor.GRAY + "  Consider increasing cache size");
-            hasWarnings = true;
+        // Only bounded caches - a larger size can't help the others
+        for (InstrumentedCache.Stats cache : CacheRegistry.snapshot()) {
+            if (cache.getMaximumSize() > 0 && cache.getHitRate() < 80.0 && (cache.getHits() + cache.getMisses()) > 1000) {
+                sender.sendMessage(ChatColor.YELLOW + "⚠ NOTICE: Low " + cache.getName() + " cache hit rate (<80%)");
+                sender.sendMessage(ChatColor.GRAY + "  Consider increasing cache size");
+                hasWarnings = true;
+            }
         }
         
         if (!hasWarnings) {
@@ -225,5 +304,225 @@ public class MetricsCommand implements CommandExecutor {
         
         return true;
     }
+
+    /**
+     * Parse a latency window argument ("1m", "5m", "15m" or a bare number of minutes)
+     * @return Window in minutes, or -1 if invalid
+     */
+    private static int parseWindow(String arg) {
+        String value = arg.toLowerCase().endsWith("m") ? arg.substring(0, arg.length() - 1) : arg;
+        try {
+            int minutes = Integer.parseInt(value);
+            return (minutes >= 1 && minutes <= LatencyHistogram.MAX_WINDOW_MINUTES) ? minutes : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ========================================
+    // HISTORY
+    // ========================================
+
+    /**
+     * /techfactory metrics history [series] [window]
+     */
+    private void sendHistory(CommandSender sender, String[] args) {
+        MetricsHistory history = TechFactory.getInstance().getMetricsHistory();
+        if (history == null || !history.isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Metrics history is disabled (metrics_history.enabled in config.yml).");
+            return;
+        }
+
+        if (args.length < 3) {
+            sender.sendMessage(ChatColor.GOLD + "Metrics history series " + ChatColor.GRAY +
+                              "(/techfactory metrics history <series> [1h|6h|24h|7d])");
+            for (MetricsHistory.Series series : MetricsHistory.Series.values()) {
+                sender.sendMessage("  " + ChatColor.YELLOW + series.getKey() + ChatColor.GRAY + " - " + series.getDescription());
+            }
+            return;
+        }
+
+        MetricsHistory.Series series = MetricsHistory.Series.byKey(args[2]);
+        if (series == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown series: " + args[2] + ChatColor.GRAY + " (/techfactory metrics history lists them)");
+            return;
+        }
+
+        int minutes = DEFAULT_HISTORY_MINUTES;
+        if (args.length >= 4) {
+            minutes = parseHistoryWindow(args[3]);
+            if (minutes < 0) {
+                sender.sendMessage(ChatColor.RED + "Window must look like 30m, 6h or 7d");
+                return;
+            }
+        }
+        int window = Math.min(minutes, history.getRetentionMinutes());
+
+        history.read(series, window, values -> {
+            if (values == null) {
+                sender.sendMessage(ChatColor.RED + "✗ Could not read the metrics history (see console).");
+                return;
+            }
+            sendSparkline(sender, series, values);
+        });
+    }
+
+    private static void sendSparkline(CommandSender sender, MetricsHistory.Series series, float[] values) {
+        int columns = Math.min(SPARKLINE_WIDTH, values.length);
+        int minutesPerColumn = (values.length + columns - 1) / columns;
+        columns = (values.length + minutesPerColumn - 1) / minutesPerColumn;
+
+        // Reduce minutes to columns (NaN = no data in that column)
+        double[] column = new double[columns];
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum = 0;
+        int samples = 0;
+        int peakIndex = -1;
+        for (int c = 0; c < columns; c++) {
+            double columnSum = 0;
+            double columnMin = Double.MAX_VALUE;
+            double columnMax = -Double.MAX_VALUE;
+            int columnSamples = 0;
+            for (int i = c * minutesPerColumn; i < Math.min(values.length, (c + 1) * minutesPerColumn); i++) {
+                float value = values[i];
+                if (Float.isNaN(value)) {
+                    continue;
+                }
+                columnSum += value;
+                columnMin = Math.min(columnMin, value);
+                columnMax = Math.max(columnMax, value);
+                columnSamples++;
+                if (value < min) min = value;
+                if (value > max) {
+                    max = value;
+                    peakIndex = i;
+                }
+            }
+            sum += columnSum;
+            samples += columnSamples;
+
+            if (columnSamples == 0) {
+                column[c] = Double.NaN;
+            } else if (series.getAggregate() == MetricsHistory.Aggregate.MAX) {
+                column[c] = columnMax;
+            } else if (series.getAggregate() == MetricsHistory.Aggregate.MIN) {
+                column[c] = columnMin;
+            } else {
+                column[c] = columnSum / columnSamples;
+            }
+        }
+
+        String unit = series.getUnit().isEmpty() ? "" : " " + series.getUnit();
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.GOLD + series.getKey() + ChatColor.GRAY + " - " + series.getDescription() +
+                          ChatColor.DARK_GRAY + " (" + formatMinutes(values.length) + ", " + formatMinutes(minutesPerColumn) +
+                          "/column, " + series.getAggregate().name().toLowerCase() + ")");
+        if (samples == 0) {
+            sender.sendMessage(ChatColor.GRAY + "No data recorded in this window yet.");
+            return;
+        }
+
+        StringBuilder line = new StringBuilder();
+        ChatColor current = null;
+        for (double value : column) {
+            ChatColor color = Double.isNaN(value) ? ChatColor.DARK_GRAY : ChatColor.AQUA;
+            if (color != current) {
+                line.append(color);
+                current = color;
+            }
+            if (Double.isNaN(value)) {
+                line.append('·');
+            } else {
+                int level = max > min ? (int) Math.round((value - min) / (max - min) * (SPARK_LEVELS.length - 1)) : 0;
+                line.append(SPARK_LEVELS[level]);
+            }
+        }
+        sender.sendMessage(line.toString());
+        sender.sendMessage(ChatColor.DARK_GRAY + "-" + formatMinutes(values.length) + " ... now");
+
+        int peakMinutesAgo = values.length - peakIndex;
+        sender.sendMessage(ChatColor.GRAY + "min " + ChatColor.WHITE + formatValue(min) + ChatColor.GRAY +
+                          " | avg " + ChatColor.WHITE + formatValue(sum / samples) + ChatColor.GRAY +
+                          " | max " + ChatColor.WHITE + formatValue(max) + ChatColor.GRAY + " (" +
+                          formatMinutes(peakMinutesAgo) + " ago)" + ChatColor.GRAY + " | last " + ChatColor.WHITE +
+                          formatValue(lastValue(values)) + ChatColor.GRAY + unit);
+    }
+
+    private static double lastValue(float[] values) {
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (!Float.isNaN(values[i])) {
+                return values[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * "30m", "6h" or "7d" -> minutes (-1 if invalid)
+     */
+    private static int parseHistoryWindow(String arg) {
+        String value = arg.toLowerCase();
+        int multiplier = 1;
+        if (value.endsWith("d")) {
+            multiplier = 24 * 60;
+        } else if (value.endsWith("h")) {
+            multiplier = 60;
+        } else if (!value.endsWith("m")) {
+            return -1;
+        }
+        try {
+            int amount = Integer.parseInt(value.substring(0, value.length() - 1));
+            return amount >= 1 ? amount * multiplier : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String formatMinutes(int minutes) {
+        if (minutes % (24 * 60) == 0) {
+            return (minutes / (24 * 60)) + "d";
+        }
+        if (minutes >= 120 && minutes % 60 == 0) {
+            return (minutes / 60) + "h";
+        }
+        return minutes + "m";
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        if (Math.abs(value) >= 100 || value == Math.rint(value)) {
+            return String.format("%.0f", value);
+        }
+        return String.format("%.2f", value);
+    }
+
+    /**
+     * Format a duration with a unit that keeps it readable (µs below 1ms, ms below 1s)
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L) {
+            return String.format("%.0fµs", nanos / 1_000.0);
+        }
+        if (nanos < 1_000_000_000L) {
+            return String.format("%.1fms", nanos / 1_000_000.0);
+        }
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Color a worst-case latency: red above one tick (50ms), yellow above 10ms
+     */
+    private static ChatColor latencyColor(long nanos) {
+        if (nanos > 50_000_000L) {
+            return ChatColor.RED;
+        }
+        if (nanos > 10_000_000L) {
+            return ChatColor.YELLOW;
+        }
+        return ChatColor.WHITE;
+    }
 }
 
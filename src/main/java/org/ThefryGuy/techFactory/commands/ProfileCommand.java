@@ -0,0 +1,176 @@
+package org.ThefryGuy.techFactory.commands;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.TickProfiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /techfactory profile command
+ *
+ * Attributes main-thread tick time to TechFactory subsystems (see TickProfiler):
+ * - /techfactory profile start  - Start a new profile (clears the previous one)
+ * - /techfactory profile stop   - Stop profiling (report stays available)
+ * - /techfactory profile report - Top consumers and worst ticks
+ *
+ * ADMIN ONLY: Requires permission techfactory.admin
+ */
+public class ProfileCommand implements CommandExecutor {
+
+    /** Worst ticks listed in the report */
+    private static final int WORST_TICKS_SHOWN = 5;
+
+    /** Subsystems listed per worst tick */
+    private static final int SUBSYSTEMS_PER_TICK = 3;
+
+    private final TechFactory plugin;
+
+    public ProfileCommand(TechFactory plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Check permission
+        if (!sender.hasPermission("techfactory.admin")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to use this command!");
+            return true;
+        }
+
+        if (args.length < 2) {
+            sendUsage(sender);
+            return true;
+        }
+
+        switch (args[1].toLowerCase()) {
+            case "start":
+                if (TickProfiler.start(plugin)) {
+                    sender.sendMessage(ChatColor.GREEN + "✓ Tick profiler started. Use /techfactory profile report to view results.");
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + "The tick profiler is already running.");
+                }
+                return true;
+            case "stop":
+                if (TickProfiler.stop()) {
+                    sender.sendMessage(ChatColor.GREEN + "✓ Tick profiler stopped.");
+                    sendReport(sender);
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + "The tick profiler is not running.");
+                }
+                return true;
+            case "report":
+                sendReport(sender);
+                return true;
+            default:
+                sendUsage(sender);
+                return true;
+        }
+    }
+
+    private void sendUsage(CommandSender sender) {
+        sender.sendMessage(ChatColor.RED + "Usage: /techfactory profile <start|stop|report>");
+    }
+
+    private void sendReport(CommandSender sender) {
+        TickProfiler.Report report = TickProfiler.report(WORST_TICKS_SHOWN);
+        if (report == null) {
+            sender.sendMessage(ChatColor.YELLOW + "No profile yet. Use /techfactory profile start");
+            return;
+        }
+
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.GOLD + "========== " + ChatColor.YELLOW + "TechFactory Tick Profile" + ChatColor.GOLD + " ==========");
+        sender.sendMessage(ChatColor.GRAY + "Status: " + (report.isRunning() ? ChatColor.GREEN + "running" : ChatColor.WHITE + "stopped") +
+                          ChatColor.GRAY + " | Ticks: " + ChatColor.WHITE + report.getTicks() +
+                          ChatColor.GRAY + " | Duration: " + ChatColor.WHITE + (report.getDurationMs() / 1000) + "s");
+
+        if (report.getTicks() == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "No ticks recorded yet - try again in a moment.");
+            return;
+        }
+
+        double avgServerMs = report.getAvgServerTickMs();
+        double avgTechFactoryMs = report.getAvgTechFactoryTickMs();
+        double share = avgServerMs > 0 ? (avgTechFactoryMs * 100.0 / avgServerMs) : 0;
+        sender.sendMessage(ChatColor.GRAY + "Avg server tick: " + ChatColor.WHITE + String.format("%.2fms", avgServerMs) +
+                          ChatColor.GRAY + " | TechFactory: " + ChatColor.WHITE + String.format("%.3fms (%.1f%%)", avgTechFactoryMs, share));
+        sender.sendMessage("");
+
+        // ========================================
+        // TOP CONSUMERS
+        // ========================================
+        sender.sendMessage(ChatColor.AQUA + "Top Consumers " + ChatColor.DARK_GRAY + "avg/tick | max/tick | calls/tick");
+
+        List<TickProfiler.Subsystem> consumers = report.getTopConsumers();
+        if (consumers.isEmpty()) {
+            sender.sendMessage("  " + ChatColor.GRAY + "No TechFactory work recorded");
+        }
+        for (TickProfiler.Subsystem subsystem : consumers) {
+            double avgMs = report.getTotalNanos(subsystem) / 1_000_000.0 / report.getTicks();
+            double maxMs = report.getMaxTickNanos(subsystem) / 1_000_000.0;
+            double callsPerTick = report.getTotalCalls(subsystem) / (double) report.getTicks();
+            sender.sendMessage("  " + ChatColor.GRAY + subsystem.getDisplayName() + ": " + ChatColor.WHITE +
+                              String.format("%.3fms", avgMs) + ChatColor.DARK_GRAY + " | " +
+                              tickColor(maxMs) + String.format("%.2fms", maxMs) + ChatColor.DARK_GRAY + " | " +
+                              ChatColor.WHITE + String.format("%.1f", callsPerTick));
+        }
+        sender.sendMessage("");
+
+        // ========================================
+        // WORST TICKS
+        // ========================================
+        sender.sendMessage(ChatColor.AQUA + "Worst Ticks " + ChatColor.DARK_GRAY + "(last " +
+                          report.getHistoryTicks() + " ticks, by TechFactory time)");
+
+        for (TickProfiler.TickSample tick : report.getWorstTicks()) {
+            double tickMs = tick.getTotalNanos() / 1_000_000.0;
+            sender.sendMessage("  " + ChatColor.GRAY + "#" + tick.getTickNumber() + ": " + tickColor(tickMs) +
+                              String.format("%.2fms", tickMs) + ChatColor.GRAY + " of " + ChatColor.WHITE +
+                              String.format("%.1fms", tick.getServerTickMs()) + ChatColor.DARK_GRAY + " - " +
+                              ChatColor.GRAY + topSubsystems(tick));
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "=============================================");
+        sender.sendMessage("");
+    }
+
+    /**
+     * "Electric Machine Processor 2.10ms, Smelting Tick 0.40ms" - the biggest subsystems of one tick
+     */
+    private static String topSubsystems(TickProfiler.TickSample tick) {
+        List<TickProfiler.Subsystem> subsystems = new ArrayList<>();
+        for (TickProfiler.Subsystem subsystem : TickProfiler.Subsystem.values()) {
+            if (tick.getNanos(subsystem) > 0) {
+                subsystems.add(subsystem);
+            }
+        }
+        subsystems.sort((a, b) -> Long.compare(tick.getNanos(b), tick.getNanos(a)));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(SUBSYSTEMS_PER_TICK, subsystems.size()); i++) {
+            if (i > 0) sb.append(", ");
+            TickProfiler.Subsystem subsystem = subsystems.get(i);
+            sb.append(subsystem.getDisplayName()).append(' ')
+              .append(String.format("%.2fms", tick.getNanos(subsystem) / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Color a per-tick cost: red above 5ms (10% of a tick), yellow above 1ms
+     */
+    private static ChatColor tickColor(double ms) {
+        if (ms > 5.0) {
+            return ChatColor.RED;
+        }
+        if (ms > 1.0) {
+            return ChatColor.YELLOW;
+        }
+        return ChatColor.WHITE;
+    }
+}
@@ -6,13 +6,18 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.TechFactoryConfig;
+import org.ThefryGuy.techFactory.data.SlowOperationTracer;
+import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
 
 import java.util.logging.Level;
 
 /**
  * /techfactory reload command
  * 
- * Reloads configuration from config.yml without restarting the server
+ * Reloads configuration from config.yml and recipes from recipes.yml without restarting the server
+ *
+ * Recipes are parsed off the main thread and swapped in atomically once valid.
+ * If a recipe file is broken, the current recipes stay active and the errors are shown.
  * 
  * Benefits:
  * - Instant balance changes (no downtime)
@@ -35,12 +40,26 @@ public class ReloadCommand implements CommandExecutor {
         try {
             // Reload configuration
             TechFactoryConfig.reload();
+            SlowOperationTracer.reload(TechFactory.getInstance());  // New thresholds / ring size
 
             // Success message
             sender.sendMessage(ChatColor.GREEN + "✓ TechFactory configuration reloaded successfully!");
             sender.sendMessage(ChatColor.GRAY + "All settings from config.yml have been applied.");
             sender.sendMessage(ChatColor.YELLOW + "Note: Some changes may require restarting active operations.");
 
+            // Reload recipes (async parse, atomic swap on the main thread)
+            sender.sendMessage(ChatColor.GRAY + "Reloading recipes...");
+            RecipeRegistry.reloadAsync(TechFactory.getInstance(), error -> {
+                if (error == null) {
+                    sender.sendMessage(ChatColor.GREEN + "✓ Loaded " + RecipeRegistry.getRecipeCount() + " recipes.");
+                } else {
+                    sender.sendMessage(ChatColor.RED + "✗ Recipe reload failed, previous recipes are still active:");
+                    for (String line : error.split("\n")) {
+                        sender.sendMessage(ChatColor.GRAY + line);
+                    }
+                }
+            });
+
             return true;
 
         } catch (Exception e) {
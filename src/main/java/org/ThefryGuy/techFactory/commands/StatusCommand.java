@@ -51,6 +51,7 @@ public class StatusCommand implements CommandExecutor {
         double memPercent = (memUsed * 100.0) / memMax;
         
         String cacheStats = plugin.getMultiblockCache().getStats();
+        String routerStats = plugin.getOutputRouter().getStats();
         
         // Calculate TPS (approximate)
         double tps = getTPS();
@@ -87,6 +88,7 @@ public class StatusCommand implements CommandExecutor {
         // Cache Performance
         sender.sendMessage(ChatColor.AQUA + "Cache Performance:");
         sender.sendMessage("  " + ChatColor.GRAY + cacheStats);
+        sender.sendMessage("  " + ChatColor.GRAY + routerStats);
         sender.sendMessage("");
         
         // Health Warnings
@@ -15,6 +15,8 @@ public class TechFactoryCommand implements CommandExecutor {
     private ReloadCommand reloadCommand; // Reference to reload command
     private QueueCommand queueCommand; // Reference to queue command
     private MetricsCommand metricsCommand; // Reference to metrics command
+    private ProfileCommand profileCommand; // Reference to profile command
+    private TraceCommand traceCommand; // Reference to trace command
 
     // Setter to inject GuideCommand
     public void setGuideCommand(GuideCommand guideCommand) {
@@ -51,6 +53,16 @@ public class TechFactoryCommand implements CommandExecutor {
         this.metricsCommand = metricsCommand;
     }
 
+    // Setter to inject ProfileCommand
+    public void setProfileCommand(ProfileCommand profileCommand) {
+        this.profileCommand = profileCommand;
+    }
+
+    // Setter to inject TraceCommand
+    public void setTraceCommand(TraceCommand traceCommand) {
+        this.traceCommand = traceCommand;
+    }
+
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // If no arguments, send welcome message
@@ -142,6 +154,26 @@ public class TechFactoryCommand implements CommandExecutor {
             return true;
         }
 
+        // Subcommand: profile (admin only)
+        if (args[0].equalsIgnoreCase("profile")) {
+            if (profileCommand != null) {
+                profileCommand.onCommand(sender, command, label, args);
+            } else {
+                sender.sendMessage(ChatColor.RED + "Profile command is not set up!");
+            }
+            return true;
+        }
+
+        // Subcommand: trace (admin only)
+        if (args[0].equalsIgnoreCase("trace")) {
+            if (traceCommand != null) {
+                traceCommand.onCommand(sender, command, label, args);
+            } else {
+                sender.sendMessage(ChatColor.RED + "Trace command is not set up!");
+            }
+            return true;
+        }
+
         // Subcommand: help
         if (args[0].equalsIgnoreCase("help")) {
             if (sender instanceof Player player) {
@@ -187,8 +219,16 @@ public class TechFactoryCommand implements CommandExecutor {
             player.sendMessage(ChatColor.YELLOW + "/techfactory status");
             player.sendMessage(ChatColor.GRAY + "  View server performance and statistics");
             player.sendMessage("");
-            player.sendMessage(ChatColor.YELLOW + "/techfactory metrics");
+            player.sendMessage(ChatColor.YELLOW + "/techfactory metrics [1m|5m|15m]");
             player.sendMessage(ChatColor.GRAY + "  View detailed performance metrics");
+            player.sendMessage(ChatColor.YELLOW + "/techfactory metrics history [series] [1h|6h|24h|7d]");
+            player.sendMessage(ChatColor.GRAY + "  Trend of a metric over the last days");
+            player.sendMessage("");
+            player.sendMessage(ChatColor.YELLOW + "/techfactory profile <start|stop|report>");
+            player.sendMessage(ChatColor.GRAY + "  Profile which subsystems use tick time");
+            player.sendMessage("");
+            player.sendMessage(ChatColor.YELLOW + "/techfactory trace [list|show <id>|dump|clear]");
+            player.sendMessage(ChatColor.GRAY + "  Inspect traces of slow operations");
             player.sendMessage("");
             player.sendMessage(ChatColor.YELLOW + "/techfactory reload");
             player.sendMessage(ChatColor.GRAY + "  Reload configuration from config.yml");
@@ -210,8 +250,16 @@ public class TechFactoryCommand implements CommandExecutor {
         sender.sendMessage(ChatColor.YELLOW + "/techfactory status");
         sender.sendMessage(ChatColor.GRAY + "  View server performance and statistics");
         sender.sendMessage("");
-        sender.sendMessage(ChatColor.YELLOW + "/techfactory metrics");
+        sender.sendMessage(ChatColor.YELLOW + "/techfactory metrics [1m|5m|15m]");
         sender.sendMessage(ChatColor.GRAY + "  View detailed performance metrics");
+        sender.sendMessage(ChatColor.YELLOW + "/techfactory metrics history [series] [1h|6h|24h|7d]");
+        sender.sendMessage(ChatColor.GRAY + "  Trend of a metric over the last days");
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.YELLOW + "/techfactory profile <start|stop|report>");
+        sender.sendMessage(ChatColor.GRAY + "  Profile which subsystems use tick time");
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.YELLOW + "/techfactory trace [list|show <id>|dump|clear]");
+        sender.sendMessage(ChatColor.GRAY + "  Inspect traces of slow operations");
         sender.sendMessage("");
         sender.sendMessage(ChatColor.YELLOW + "/techfactory reload");
         sender.sendMessage(ChatColor.GRAY + "  Reload configuration from config.yml");
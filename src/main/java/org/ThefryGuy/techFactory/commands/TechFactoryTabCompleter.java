@@ -5,6 +5,7 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
+import org.ThefryGuy.techFactory.data.MetricsHistory;
 import org.ThefryGuy.techFactory.registry.ItemRegistry;
 
 import java.util.ArrayList;
@@ -17,9 +18,13 @@ import java.util.stream.Collectors;
  */
 public class TechFactoryTabCompleter implements TabCompleter {
 
-    private static final List<String> SUBCOMMANDS = Arrays.asList("guide", "guidebook", "give", "status", "metrics", "reload", "queue", "help");
+    private static final List<String> SUBCOMMANDS = Arrays.asList("guide", "guidebook", "give", "status", "metrics", "profile", "trace", "reload", "queue", "help");
     private static final List<String> QUEUE_SUBCOMMANDS = Arrays.asList("add", "remove", "clear", "view", "list");
     private static final List<String> AMOUNTS = Arrays.asList("1", "8", "16", "32", "64");
+    private static final List<String> METRICS_WINDOWS = Arrays.asList("1m", "5m", "15m");
+    private static final List<String> HISTORY_WINDOWS = Arrays.asList("1h", "6h", "24h", "7d");
+    private static final List<String> PROFILE_SUBCOMMANDS = Arrays.asList("start", "stop", "report");
+    private static final List<String> TRACE_SUBCOMMANDS = Arrays.asList("list", "show", "dump", "clear");
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
@@ -48,10 +53,7 @@ public class TechFactoryTabCompleter implements TabCompleter {
             // Third argument: item IDs
             else if (args.length == 3) {
                 String input = args[2].toLowerCase();
-                completions = ItemRegistry.getAllItemIds().stream()
-                        .filter(id -> id.startsWith(input))
-                        .sorted()
-                        .collect(Collectors.toList());
+                completions = ItemRegistry.getItemIdsStartingWith(input);
             }
 
             // Fourth argument: amount
@@ -77,10 +79,7 @@ public class TechFactoryTabCompleter implements TabCompleter {
             // Third argument for "add": recipe IDs
             else if (args.length == 3 && args[1].equalsIgnoreCase("add")) {
                 String input = args[2].toLowerCase();
-                completions = ItemRegistry.getAllItemIds().stream()
-                        .filter(id -> id.startsWith(input))
-                        .sorted()
-                        .collect(Collectors.toList());
+                completions = ItemRegistry.getItemIdsStartingWith(input);
             }
 
             // Third argument for "remove": position numbers
@@ -89,6 +88,48 @@ public class TechFactoryTabCompleter implements TabCompleter {
             }
         }
 
+        // Handle "metrics" subcommand: latency window
+        else if (args.length == 2 && args[0].equalsIgnoreCase("metrics")) {
+            String input = args[1].toLowerCase();
+            completions = METRICS_WINDOWS.stream()
+                    .filter(window -> window.startsWith(input))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if ("history".startsWith(input)) {
+                completions.add("history");
+            }
+        }
+
+        // Handle "metrics history": series, then window
+        else if (args.length == 3 && args[0].equalsIgnoreCase("metrics") && args[1].equalsIgnoreCase("history")) {
+            String input = args[2].toLowerCase();
+            completions = Arrays.stream(MetricsHistory.Series.values())
+                    .map(MetricsHistory.Series::getKey)
+                    .filter(key -> key.startsWith(input))
+                    .collect(Collectors.toList());
+        }
+        else if (args.length == 4 && args[0].equalsIgnoreCase("metrics") && args[1].equalsIgnoreCase("history")) {
+            String input = args[3].toLowerCase();
+            completions = HISTORY_WINDOWS.stream()
+                    .filter(window -> window.startsWith(input))
+                    .collect(Collectors.toList());
+        }
+
+        // Handle "profile" subcommand
+        else if (args.length == 2 && args[0].equalsIgnoreCase("profile")) {
+            String input = args[1].toLowerCase();
+            completions = PROFILE_SUBCOMMANDS.stream()
+                    .filter(cmd -> cmd.startsWith(input))
+                    .collect(Collectors.toList());
+        }
+
+        // Handle "trace" subcommand
+        else if (args.length == 2 && args[0].equalsIgnoreCase("trace")) {
+            String input = args[1].toLowerCase();
+            completions = TRACE_SUBCOMMANDS.stream()
+                    .filter(cmd -> cmd.startsWith(input))
+                    .collect(Collectors.toList());
+        }
+
         return completions;
     }
 }
@@ -0,0 +1,184 @@
+package org.ThefryGuy.techFactory.commands;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.SlowOperationTracer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * /techfactory trace command
+ *
+ * Shows the traces recorded by SlowOperationTracer:
+ * - /techfactory trace [list]  - Most recent slow operations
+ * - /techfactory trace show <id> - Context, nested spans and the sampled stack of one trace
+ * - /techfactory trace dump    - Write all traces to plugins/TechFactory/traces/*.jsonl (async)
+ * - /techfactory trace clear   - Forget all traces
+ *
+ * ADMIN ONLY: Requires permission techfactory.admin
+ */
+public class TraceCommand implements CommandExecutor {
+
+    /** Traces listed by /techfactory trace list */
+    private static final int TRACES_LISTED = 10;
+
+    /** Stack frames shown in chat (the dump has all of them) */
+    private static final int FRAMES_SHOWN = 12;
+
+    private final TechFactory plugin;
+
+    public TraceCommand(TechFactory plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Check permission
+        if (!sender.hasPermission("techfactory.admin")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to use this command!");
+            return true;
+        }
+
+        String action = args.length < 2 ? "list" : args[1].toLowerCase();
+        switch (action) {
+            case "list":
+                sendList(sender);
+                return true;
+            case "show":
+                if (args.length < 3) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /techfactory trace show <id>");
+                    return true;
+                }
+                sendTrace(sender, args[2]);
+                return true;
+            case "dump":
+                dump(sender);
+                return true;
+            case "clear":
+                SlowOperationTracer.clear();
+                sender.sendMessage(ChatColor.GREEN + "✓ Slow-operation traces cleared.");
+                return true;
+            default:
+                sender.sendMessage(ChatColor.RED + "Usage: /techfactory trace [list|show <id>|dump|clear]");
+                return true;
+        }
+    }
+
+    private void sendList(CommandSender sender) {
+        List<SlowOperationTracer.Trace> traces = SlowOperationTracer.getTraces();
+
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.GOLD + "========== " + ChatColor.YELLOW + "TechFactory Slow Operations" + ChatColor.GOLD + " ==========");
+        sender.sendMessage(ChatColor.GRAY + "Tracing: " + (SlowOperationTracer.isEnabled() ? ChatColor.GREEN + "on" : ChatColor.RED + "off (slow_trace.enabled)") +
+                          ChatColor.GRAY + " | Traces: " + ChatColor.WHITE + traces.size());
+
+        if (traces.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "No operation has exceeded its threshold yet.");
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (int i = traces.size() - 1; i >= Math.max(0, traces.size() - TRACES_LISTED); i--) {
+            SlowOperationTracer.Trace trace = traces.get(i);
+            sender.sendMessage("  " + ChatColor.GRAY + "#" + trace.getId() + " " + ChatColor.WHITE +
+                              trace.getOperation().getDisplayName() + " " + ChatColor.RED +
+                              String.format("%.1fms", trace.getDurationMs()) + ChatColor.DARK_GRAY +
+                              String.format(" (>%.0fms) %ds ago ", trace.getThresholdMs(), (now - trace.getStartedAtMs()) / 1000) +
+                              ChatColor.GRAY + summarize(trace.getContext()));
+        }
+        sender.sendMessage(ChatColor.GRAY + "Details: /techfactory trace show <id>");
+    }
+
+    private void sendTrace(CommandSender sender, String rawId) {
+        long id;
+        try {
+            id = Long.parseLong(rawId.startsWith("#") ? rawId.substring(1) : rawId);
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ChatColor.RED + "Invalid trace id: " + rawId);
+            return;
+        }
+
+        SlowOperationTracer.Trace trace = SlowOperationTracer.getTrace(id);
+        if (trace == null) {
+            sender.sendMessage(ChatColor.YELLOW + "Trace #" + id + " is not in memory (anymore).");
+            return;
+        }
+
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.GOLD + "Trace #" + trace.getId() + ": " + ChatColor.YELLOW + trace.getOperation().getDisplayName() +
+                          ChatColor.RED + String.format(" %.1fms", trace.getDurationMs()) +
+                          ChatColor.GRAY + String.format(" (threshold %.0fms, thread %s)", trace.getThresholdMs(), trace.getThread()));
+
+        for (Map.Entry<String, String> entry : trace.getContext().entrySet()) {
+            sender.sendMessage("  " + ChatColor.GRAY + entry.getKey() + ": " + ChatColor.WHITE + entry.getValue());
+        }
+
+        if (!trace.getNested().isEmpty()) {
+            sender.sendMessage(ChatColor.AQUA + "Nested spans " + ChatColor.DARK_GRAY + "start + duration");
+            sendNested(sender, trace.getNested(), "  ");
+        }
+
+        List<String> stack = trace.getStack();
+        if (stack.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "No stack sample (ended before the sampler saw it - lower slow_trace.sample_interval_ms)");
+        } else {
+            sender.sendMessage(ChatColor.AQUA + "Stack " + ChatColor.DARK_GRAY +
+                              String.format("(sampled %.1fms in)", trace.getStackSampledAtMs()));
+            for (int i = 0; i < Math.min(FRAMES_SHOWN, stack.size()); i++) {
+                sender.sendMessage("  " + ChatColor.GRAY + "at " + stack.get(i));
+            }
+            if (stack.size() > FRAMES_SHOWN) {
+                sender.sendMessage("  " + ChatColor.DARK_GRAY + "... " + (stack.size() - FRAMES_SHOWN) + " more (/techfactory trace dump)");
+            }
+        }
+    }
+
+    private static void sendNested(CommandSender sender, List<SlowOperationTracer.NestedSpan> spans, String indent) {
+        for (SlowOperationTracer.NestedSpan span : spans) {
+            sender.sendMessage(indent + ChatColor.GRAY + span.getOperation().getDisplayName() + " " + ChatColor.DARK_GRAY +
+                              String.format("+%.1fms ", span.getOffsetMs()) + ChatColor.WHITE +
+                              String.format("%.1fms ", span.getDurationMs()) + ChatColor.GRAY + summarize(span.getContext()));
+            sendNested(sender, span.getNested(), indent + "  ");
+        }
+    }
+
+    private void dump(CommandSender sender) {
+        sender.sendMessage(ChatColor.GRAY + "Writing traces...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            String message;
+            try {
+                Path file = SlowOperationTracer.dump();
+                message = ChatColor.GREEN + "✓ Traces written to " + plugin.getDataFolder().toPath().relativize(file);
+            } catch (IOException | IllegalStateException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to dump slow-operation traces", e);
+                message = ChatColor.RED + "✗ Failed to write traces: " + e.getMessage();
+            }
+            String result = message;
+            Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(result));
+        });
+    }
+
+    /**
+     * "chunk=world,3,-7 player=Steve" - context on one line (SQL shortened)
+     */
+    private static String summarize(Map<String, String> context) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : context.entrySet()) {
+            if (sb.length() > 0) sb.append(' ');
+            String value = entry.getValue();
+            if (value.length() > 60) {
+                value = value.substring(0, 57) + "...";
+            }
+            sb.append(entry.getKey()).append('=').append(value);
+        }
+        return sb.toString();
+    }
+}
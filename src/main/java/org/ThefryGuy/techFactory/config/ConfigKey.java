@@ -55,6 +55,24 @@ public enum ConfigKey {
     ELECTRIC_MACHINE_MAX_PER_TICK("electric_machines.max_per_tick", 100, ConfigType.INT,
         "Maximum machines to process per tick (Slimefun-style queue-based processing) - 100 = can handle 1000+ machines"),
 
+    ELECTRIC_MACHINE_PROGRESS_STEP_PERCENT("electric_machines.progress_step_percent", 5, ConfigType.INT,
+        "GUI progress indicator step size in percent - indicator only changes when progress crosses a step"),
+
+    ELECTRIC_MACHINE_MAX_UPGRADES("electric_machines.max_upgrades", 3, ConfigType.INT,
+        "Maximum Machine Upgrades that count in one electric machine (extra upgrades are ignored)"),
+
+    ELECTRIC_MACHINE_ITEMS_PER_UPGRADE("electric_machines.items_per_upgrade", 3, ConfigType.INT,
+        "Extra items processed per cycle for each Machine Upgrade (base = 1 item per cycle)"),
+
+    // ========================================
+    // VIRTUAL TIME (OFFLINE CATCH-UP)
+    // ========================================
+    VIRTUAL_TIME_ENABLED("virtual_time.enabled", false, ConfigType.BOOLEAN,
+        "Whether machines in unloaded chunks catch up on load (outputs computed for the elapsed time)"),
+
+    VIRTUAL_TIME_MAX_CATCHUP_SECONDS("virtual_time.max_catchup_seconds", 3600L, ConfigType.LONG,
+        "Maximum unloaded time (in seconds) a machine can catch up on"),
+
     // ========================================
     // RATE LIMITING & ANTI-SPAM
     // ========================================
@@ -115,6 +133,9 @@ public enum ConfigKey {
     AUTO_SAVE_INTERVAL_TICKS("database.auto_save_interval_ticks", 6000L, ConfigType.LONG,
         "How often to auto-save all data (in ticks)"),
     
+    STARTUP_FIXUP_BUDGET_MS("database.startup_fixup_budget_ms", 5L, ConfigType.LONG,
+        "Main thread time per tick for startup multiblock/energy block fix-ups (in milliseconds)"),
+    
     // ========================================
     // SMELTER GUI LAYOUT
     // ========================================
@@ -133,6 +154,81 @@ public enum ConfigKey {
     MAX_RECIPE_COMPLEXITY("limits.max_recipe_complexity", 9, ConfigType.INT,
         "Maximum recipe complexity (number of unique items)"),
     
+    // ========================================
+    // PROFILING
+    // ========================================
+    PROFILER_HISTORY_TICKS("profiling.history_ticks", 6000, ConfigType.INT,
+        "Ticks kept by the tick profiler for worst-tick reports"),
+    
+    // ========================================
+    // METRICS EXPORT
+    // ========================================
+    METRICS_EXPORT_ENABLED("metrics_export.enabled", false, ConfigType.BOOLEAN,
+        "Whether to serve an OpenMetrics scrape endpoint"),
+    
+    METRICS_EXPORT_BIND_ADDRESS("metrics_export.bind_address", "127.0.0.1", ConfigType.STRING,
+        "Address the metrics endpoint binds to"),
+    
+    METRICS_EXPORT_PORT("metrics_export.port", 9464, ConfigType.INT,
+        "Port the metrics endpoint listens on"),
+    
+    METRICS_EXPORT_SNAPSHOT_INTERVAL_TICKS("metrics_export.snapshot_interval_ticks", 100L, ConfigType.LONG,
+        "How often main-thread state is copied for the metrics endpoint (in ticks)"),
+    
+    // ========================================
+    // METRICS HISTORY
+    // ========================================
+    METRICS_HISTORY_ENABLED("metrics_history.enabled", true, ConfigType.BOOLEAN,
+        "Whether per-minute metrics are kept in metrics-history.bin"),
+    
+    METRICS_HISTORY_RETENTION_DAYS("metrics_history.retention_days", 7, ConfigType.INT,
+        "Days of per-minute metrics history kept"),
+    
+    // ========================================
+    // SLOW-OPERATION TRACING
+    // ========================================
+    SLOW_TRACE_ENABLED("slow_trace.enabled", true, ConfigType.BOOLEAN,
+        "Whether operations over their threshold are traced"),
+    
+    SLOW_TRACE_RING_SIZE("slow_trace.ring_size", 100, ConfigType.INT,
+        "Traces kept in memory for /techfactory trace"),
+    
+    SLOW_TRACE_SAMPLE_INTERVAL_MS("slow_trace.sample_interval_ms", 10L, ConfigType.LONG,
+        "How often open operations are checked for a stack sample (in milliseconds)"),
+    
+    SLOW_TRACE_WRITE_JSON_LINES("slow_trace.write_json_lines", false, ConfigType.BOOLEAN,
+        "Whether traces are appended to slow-traces.jsonl"),
+    
+    SLOW_TRACE_BATCH_FLUSH_MS("slow_trace.thresholds_ms.batch_flush", 500L, ConfigType.LONG,
+        "Trace threshold for database batch flushes (in milliseconds, 0 = off)"),
+    
+    SLOW_TRACE_SQL_STATEMENT_MS("slow_trace.thresholds_ms.sql_statement", 250L, ConfigType.LONG,
+        "Trace threshold for single SQL statements (in milliseconds, 0 = off)"),
+    
+    SLOW_TRACE_CHUNK_LOAD_MS("slow_trace.thresholds_ms.chunk_load", 250L, ConfigType.LONG,
+        "Trace threshold for async chunk data loads (in milliseconds, 0 = off)"),
+    
+    SLOW_TRACE_CHUNK_RESTORE_MS("slow_trace.thresholds_ms.chunk_restore", 25L, ConfigType.LONG,
+        "Trace threshold for main-thread chunk restores (in milliseconds, 0 = off)"),
+    
+    SLOW_TRACE_GUI_OPEN_MS("slow_trace.thresholds_ms.gui_open", 25L, ConfigType.LONG,
+        "Trace threshold for machine GUI opens (in milliseconds, 0 = off)"),
+    
+    SLOW_TRACE_MACHINE_PROCESSOR_MS("slow_trace.thresholds_ms.machine_processor", 25L, ConfigType.LONG,
+        "Trace threshold for electric machine processor passes (in milliseconds, 0 = off)"),
+    
+    SLOW_TRACE_INVENTORY_SAVE_MS("slow_trace.thresholds_ms.inventory_save", 100L, ConfigType.LONG,
+        "Trace threshold for multiblock inventory saves (in milliseconds, 0 = off)"),
+    
+    // ========================================
+    // STARTUP
+    // ========================================
+    STARTUP_PARALLEL_PREPARE("startup.parallel_prepare", true, ConfigType.BOOLEAN,
+        "Whether manager preparation (database, files) runs on worker threads during startup"),
+    
+    STARTUP_TARGET_MS("startup.target_ms", 3000L, ConfigType.LONG,
+        "Manager startup time above which a warning is logged (in milliseconds)"),
+    
     // ========================================
     // LOGGING & DEBUGGING
     // ========================================
@@ -111,11 +111,6 @@ public class AutoSaveManager implements SystemManager {
             // Clean up player operation queues
             PlayerOperationQueue.cleanupDisconnectedPlayers();
 
-            // Clean up multiblock cache expired entries
-            if (plugin.getMultiblockCache() != null) {
-                plugin.getMultiblockCache().cleanupExpired();
-            }
-
             // TODO: Future cleanup tasks
             // - Remove blocks owned by players offline for 2+ weeks
             // - Clean up orphaned energy networks
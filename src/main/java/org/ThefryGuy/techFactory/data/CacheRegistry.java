@@ -0,0 +1,117 @@
+package org.ThefryGuy.techFactory.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of every cache in the plugin - one place for metrics to read cache statistics from
+ *
+ * InstrumentedCaches register themselves on construction. Caches with their own structure
+ * (MultiblockCache's position index) register a Stats supplier instead.
+ *
+ * NAMES: Registering a name again replaces the previous entry, so a plugin re-enable (new manager
+ * instances, same names) doesn't leave stale caches behind.
+ *
+ * CHUNK SCOPE: invalidateChunk() is called by ChunkUnloadListener and drops the chunk's entries
+ * from every CHUNK_SCOPED cache.
+ *
+ * THREADING: Thread-safe (ConcurrentHashMap); snapshot() can be called from any thread.
+ */
+public final class CacheRegistry {
+
+    private static final Map<String, Supplier<InstrumentedCache.Stats>> SOURCES = new ConcurrentHashMap<>();
+    private static final Map<String, InstrumentedCache<?, ?>> CHUNK_SCOPED = new ConcurrentHashMap<>();
+
+    private CacheRegistry() {
+        // Static utility
+    }
+
+    /**
+     * Register an InstrumentedCache (done by its constructor)
+     */
+    static void register(InstrumentedCache<?, ?> cache) {
+        SOURCES.put(cache.getName(), cache::stats);
+        if (cache.getPolicy() == InstrumentedCache.Policy.CHUNK_SCOPED) {
+            CHUNK_SCOPED.put(cache.getName(), cache);
+        } else {
+            CHUNK_SCOPED.remove(cache.getName());
+        }
+    }
+
+    /**
+     * Register statistics of a cache that isn't an InstrumentedCache
+     */
+    public static void register(String name, Supplier<InstrumentedCache.Stats> stats) {
+        SOURCES.put(name, stats);
+        CHUNK_SCOPED.remove(name);
+    }
+
+    /**
+     * Remove a cache (e.g. on manager shutdown)
+     */
+    public static void unregister(String name) {
+        SOURCES.remove(name);
+        CHUNK_SCOPED.remove(name);
+    }
+
+    /**
+     * Statistics of every registered cache, sorted by name
+     */
+    public static List<InstrumentedCache.Stats> snapshot() {
+        List<InstrumentedCache.Stats> stats = new ArrayList<>(SOURCES.size());
+        for (Supplier<InstrumentedCache.Stats> source : SOURCES.values()) {
+            stats.add(source.get());
+        }
+        stats.sort(Comparator.comparing(InstrumentedCache.Stats::getName));
+        return stats;
+    }
+
+    /**
+     * Drop a chunk's entries from every CHUNK_SCOPED cache
+     * @return Entries dropped
+     */
+    public static int invalidateChunk(String worldName, int chunkX, int chunkZ) {
+        if (CHUNK_SCOPED.isEmpty()) {
+            return 0;
+        }
+
+        String chunkKey = chunkKey(worldName, chunkX, chunkZ);
+        int dropped = 0;
+        for (InstrumentedCache<?, ?> cache : CHUNK_SCOPED.values()) {
+            dropped += cache.invalidateChunk(chunkKey);
+        }
+        return dropped;
+    }
+
+    /**
+     * Chunk key used by CHUNK_SCOPED caches
+     */
+    public static String chunkKey(String worldName, int chunkX, int chunkZ) {
+        return worldName + "," + chunkX + "," + chunkZ;
+    }
+
+    /**
+     * Chunk key of a location key ("world,x,y,z" - PlacedBlock.locationToKey() format)
+     * @return The chunk key, or null if the key isn't a location key
+     */
+    public static String chunkKeyOfLocationKey(String locationKey) {
+        int zComma = locationKey.lastIndexOf(',');
+        int yComma = zComma > 0 ? locationKey.lastIndexOf(',', zComma - 1) : -1;
+        int xComma = yComma > 0 ? locationKey.lastIndexOf(',', yComma - 1) : -1;
+        if (xComma <= 0) {
+            return null;
+        }
+
+        try {
+            int x = Integer.parseInt(locationKey, xComma + 1, yComma, 10);
+            int z = Integer.parseInt(locationKey, zComma + 1, locationKey.length(), 10);
+            return chunkKey(locationKey.substring(0, xComma), x >> 4, z >> 4);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -8,19 +8,20 @@ import org.bukkit.util.io.BukkitObjectInputStream;
 import org.bukkit.util.io.BukkitObjectOutputStream;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.registry.MachineRegistry;
+import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.registry.SystemManager;
 
 import java.io.*;
 import java.sql.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
  * Manages SQLite database for persistent storage of placed blocks
  * This handles thousands of blocks and hundreds of players efficiently
  *
- * THREAD-SAFE: Uses ConcurrentHashMap for caches and async operations for writes
+ * THREAD-SAFE: Uses InstrumentedCache (lock-free reads) for caches and async operations for writes
  * LIFECYCLE: Implements SystemManager for automatic initialization/shutdown via ManagerRegistry
  */
 public class DatabaseManager implements SystemManager {
@@ -29,24 +30,23 @@ public class DatabaseManager implements SystemManager {
     private Connection connection;
     private final String databasePath;
 
-    // PERFORMANCE FIX: Thread-safe LRU cache with max size to prevent unbounded memory growth
-    // With 100k+ blocks, unbounded cache could use 100+ MB of memory
-    // LRU eviction ensures we keep hot data while limiting memory usage
-    private final Map<String, PlacedBlock> blockCache = Collections.synchronizedMap(
-        new LinkedHashMap<String, PlacedBlock>(
-            TechFactoryConstants.BLOCK_CACHE_MAX_SIZE,
-            0.75f,  // Load factor
-            true    // Access-order (LRU)
-        ) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, PlacedBlock> eldest) {
-                return size() > TechFactoryConstants.BLOCK_CACHE_MAX_SIZE;
-            }
-        }
-    );
+    // Location key -> number of queued saves/energy updates not flushed to the database yet
+    private final Map<String, Integer> unflushedWrites = new java.util.concurrent.ConcurrentHashMap<>();
+
+    // Thread-safe in-memory store for placed blocks (location key -> PlacedBlock)
+    // REFACTORED: Lock-free reads instead of a synchronized access-ordered LinkedHashMap LRU
+    // MEMORY FIX: Chunk-scoped - a chunk's blocks are dropped when it unloads and loadChunkBlocks()
+    // brings them back, so memory follows the loaded chunks instead of everything loaded since startup.
+    // Blocks with an unflushed write are PINNED (this is their only current copy): they survive the
+    // unload and are dropped after the batch flush wrote them (evictFlushedUnloaded())
+    private final InstrumentedCache<String, PlacedBlock> blockCache = InstrumentedCache.chunkScoped("blocks",
+        CacheRegistry::chunkKeyOfLocationKey, block -> unflushedWrites.containsKey(block.getLocationKey()));
 
-    // Thread-safe in-memory cache for multiblocks (location key -> MultiblockData)
-    private final Map<String, MultiblockData> multiblockCache = new ConcurrentHashMap<>();
+    // Thread-safe in-memory store for multiblocks (location key -> MultiblockData) - never evicts
+    private final InstrumentedCache<String, MultiblockData> multiblockCache = InstrumentedCache.unbounded("multiblocks");
+
+    // PERFORMANCE FIX: Member block position -> multiblock (O(1) teardown on break/explosion/piston)
+    private final MultiblockIndex multiblockIndex = new MultiblockIndex();
 
     // BATCH WRITE SYSTEM: Queue pending operations and flush every second
     private final Queue<PlacedBlock> pendingSaves = new java.util.concurrent.ConcurrentLinkedQueue<>();
@@ -69,6 +69,24 @@ public class DatabaseManager implements SystemManager {
         }
     }
 
+    /** Chunks loaded at startup, captured on the main thread for prepare() (null afterwards) */
+    private List<StartupChunk> startupChunks;
+
+    /**
+     * A chunk loaded at startup
+     */
+    private static class StartupChunk {
+        final String worldName;
+        final int chunkX;
+        final int chunkZ;
+
+        StartupChunk(String worldName, int chunkX, int chunkZ) {
+            this.worldName = worldName;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+
     // ========================================
     // RETRY LOGIC CONSTANTS
     // ========================================
@@ -85,14 +103,35 @@ public class DatabaseManager implements SystemManager {
     }
     
     /**
-     * Initialize the database connection and create tables
+     * Remember the chunks loaded at startup (their blocks are loaded by prepare())
+     *
+     * Main thread: world.getLoadedChunks() isn't safe from the startup worker
+     */
+    @Override
+    public void capture() {
+        startupChunks = new ArrayList<>();
+        for (World world : org.bukkit.Bukkit.getWorlds()) {
+            for (org.bukkit.Chunk chunk : world.getLoadedChunks()) {
+                startupChunks.add(new StartupChunk(world.getName(), chunk.getX(), chunk.getZ()));
+            }
+        }
+    }
+
+    /**
+     * Open the database connection, create tables and load the captured chunks
      *
      * PERFORMANCE CRITICAL: Lazy-loads only blocks in currently loaded chunks
      * - Prevents server hang with 100k+ blocks
      * - Startup time: 10s → 100ms
      * - Rest of blocks load as chunks become active
+     *
+     * PERFORMANCE FIX: Runs on a startup worker thread (see ManagerRegistry) - connecting, migrating
+     * and the per-chunk queries overlap with item/recipe registration instead of stalling the main thread
+     *
+     * @throws IllegalStateException if the database can't be opened (initialize() is then skipped)
      */
-    public void initialize() {
+    @Override
+    public void prepare() {
         try {
             // Create plugin data folder if it doesn't exist
             if (!plugin.getDataFolder().exists()) {
@@ -121,25 +160,33 @@ public class DatabaseManager implements SystemManager {
             int totalMultiblocks = getTotalMultiblockCount();
             plugin.getLogger().info("Total in database: " + totalBlocks + " blocks, " + totalMultiblocks + " multiblocks (rest will load as chunks activate)");
 
-            // Validate multiblocks on startup (async to avoid blocking server start)
-            if (multiblockCache.size() > 0) {
-                org.bukkit.Bukkit.getScheduler().runTaskLater(plugin, this::validateMultiblocksOnStartup, 20L); // Wait 1 second after startup
-            }
-
-            // Restore placed energy blocks on startup (async to avoid blocking server start)
-            // CRITICAL: This restores physical blocks for spawn chunks (ChunkLoadListener doesn't fire for pre-loaded chunks!)
-            if (blockCache.size() > 0) {
-                org.bukkit.Bukkit.getScheduler().runTaskLater(plugin, this::restoreAllPlacedBlocksOnStartup, 40L); // Wait 2 seconds after startup
-            }
-
-            // Start batch write task (flushes every second)
-            startBatchWriteTask();
-
         } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to initialize database!", e);
+            throw new IllegalStateException("Failed to initialize database!", e);
+        } finally {
+            startupChunks = null;
         }
     }
 
+    /**
+     * Start validation of the loaded multiblocks and the batch write task
+     *
+     * Main thread, after prepare() opened the database
+     */
+    @Override
+    public void initialize() {
+        // Validate/index multiblocks and restore energy blocks of the chunks that were already
+        // loaded at startup (ChunkLoadListener doesn't fire for them!)
+        // PERFORMANCE FIX: Validated off-thread against chunk snapshots, fix-ups applied under a per-tick budget
+        if (multiblockCache.size() > 0 || blockCache.size() > 0) {
+            StartupValidator validator = new StartupValidator(plugin, this,
+                new ArrayList<>(multiblockCache.values()), new ArrayList<>(blockCache.values()));
+            org.bukkit.Bukkit.getScheduler().runTaskLater(plugin, validator::start, 20L); // Wait 1 second after startup
+        }
+
+        // Start batch write task (flushes every second)
+        startBatchWriteTask();
+    }
+
     // ========================================
     // RETRY LOGIC HELPER
     // ========================================
@@ -263,11 +310,18 @@ public class DatabaseManager implements SystemManager {
             return; // Nothing to flush
         }
 
-        // STRUCTURED LOGGING: Track flush time
-        long startTime = System.currentTimeMillis();
+        // STRUCTURED LOGGING: Track flush time (nanoTime - feeds the BATCH_FLUSH latency histogram)
+        long startNanos = System.nanoTime();
+        FlightRecorderEvents.BatchFlush flushEvent = new FlightRecorderEvents.BatchFlush();
+        flushEvent.begin();
+        SlowOperationTracer.Span flushSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.BATCH_FLUSH);
 
         // Use array wrapper to make variables effectively final for lambda
-        final int[] counts = new int[3]; // [0]=saves, [1]=deletes, [2]=energyUpdates
+        final int[] counts = new int[4]; // [0]=saves, [1]=deletes, [2]=energyUpdates, [3]=statements
+
+        // Polled saves/energy updates per location key (their cache pins are released after the flush)
+        final Map<String, Location> flushed = new HashMap<>();
+        final Map<String, Integer> writesPerKey = new HashMap<>();
 
         // Update metrics with current queue sizes BEFORE flush
         PerformanceMetrics metrics = PerformanceMetrics.getInstance();
@@ -289,7 +343,9 @@ public class DatabaseManager implements SystemManager {
                         PlacedBlock block;
                         while ((block = pendingSaves.poll()) != null) {
                             Location loc = block.getLocation();
+                            writesPerKey.merge(block.getLocationKey(), 1, Integer::sum);
                             if (loc == null) continue;
+                            flushed.put(block.getLocationKey(), loc);
 
                             stmt.setString(1, loc.getWorld().getName());
                             stmt.setInt(2, loc.getBlockX());
@@ -306,7 +362,8 @@ public class DatabaseManager implements SystemManager {
                         }
 
                         if (counts[0] > 0) {
-                            stmt.executeBatch();
+                            executeBatch(stmt, sql, "INSERT placed_blocks", counts[0]);
+                            counts[3]++;
                         }
                     }
                 }
@@ -336,7 +393,8 @@ public class DatabaseManager implements SystemManager {
                         }
 
                         if (counts[1] > 0) {
-                            stmt.executeBatch();
+                            executeBatch(stmt, sql, "DELETE placed_blocks", counts[1]);
+                            counts[3]++;
                         }
                     }
                 }
@@ -348,7 +406,11 @@ public class DatabaseManager implements SystemManager {
                         EnergyMetadataUpdate update;
                         while ((update = pendingEnergyUpdates.poll()) != null) {
                             Location loc = update.location;
-                            if (loc == null || loc.getWorld() == null) continue;
+                            if (loc == null) continue;
+                            String locationKey = PlacedBlock.locationToKey(loc);
+                            writesPerKey.merge(locationKey, 1, Integer::sum);
+                            flushed.put(locationKey, loc);
+                            if (loc.getWorld() == null) continue;
 
                             stmt.setString(1, update.metadata);
                             stmt.setString(2, loc.getWorld().getName());
@@ -360,7 +422,8 @@ public class DatabaseManager implements SystemManager {
                         }
 
                         if (counts[2] > 0) {
-                            stmt.executeBatch();
+                            executeBatch(stmt, sql, "UPDATE placed_blocks.metadata", counts[2]);
+                            counts[3]++;
                         }
                     }
                 }
@@ -371,7 +434,8 @@ public class DatabaseManager implements SystemManager {
             }, "Batch flush");
 
             // STRUCTURED LOGGING: Calculate and log flush time
-            long flushTime = System.currentTimeMillis() - startTime;
+            long flushNanos = System.nanoTime() - startNanos;
+            long flushTime = java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(flushNanos);
 
             // Extract counts from array
             int saveCount = counts[0];
@@ -379,8 +443,8 @@ public class DatabaseManager implements SystemManager {
             int energyUpdateCount = counts[2];
 
             // Record metrics
-            metrics.recordBatchFlush(flushTime, saveCount, deleteCount, energyUpdateCount);
-            metrics.updateCacheSizes(blockCache.size(), multiblockCache.size());
+            metrics.recordBatchFlush(flushNanos, saveCount, deleteCount, energyUpdateCount);
+            commitFlushEvent(flushEvent, counts, true);
 
             // Log summary (only if something was actually flushed)
             if (saveCount > 0 || deleteCount > 0 || energyUpdateCount > 0) {
@@ -402,6 +466,7 @@ public class DatabaseManager implements SystemManager {
             plugin.getLogger().log(Level.SEVERE,
                 String.format("Failed to flush batch writes! (saves=%d, deletes=%d, energy=%d)",
                     counts[0], counts[1], counts[2]), e);
+            commitFlushEvent(flushEvent, counts, false);
 
             try {
                 connection.rollback(); // Rollback on error
@@ -409,6 +474,44 @@ public class DatabaseManager implements SystemManager {
             } catch (SQLException ex) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to rollback transaction!", ex);
             }
+        } finally {
+            // Polled writes are gone either way (a failed flush is logged above) - don't pin forever
+            releaseFlushed(flushed, writesPerKey);
+
+            flushSpan.detail("saves", counts[0]).detail("deletes", counts[1])
+                     .detail("energyUpdates", counts[2]).detail("statements", counts[3]);
+            flushSpan.end();
+        }
+    }
+
+    /**
+     * executeBatch() with its JFR SlowSql event and slow-trace span (nested in the flush span)
+     */
+    private static void executeBatch(PreparedStatement stmt, String sql, String statement, int rows) throws SQLException {
+        FlightRecorderEvents.SlowSql sqlEvent = new FlightRecorderEvents.SlowSql();
+        sqlEvent.begin();
+        SlowOperationTracer.Span sqlSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.SQL_STATEMENT)
+            .sql(sql).detail("rows", rows);
+        try {
+            stmt.executeBatch();
+        } finally {
+            sqlSpan.end();
+        }
+        sqlEvent.finish(statement, rows);
+    }
+
+    /**
+     * Commit the JFR batch flush event (no-op unless techfactory.BatchFlush is enabled)
+     */
+    private static void commitFlushEvent(FlightRecorderEvents.BatchFlush event, int[] counts, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.saves = counts[0];
+            event.deletes = counts[1];
+            event.energyUpdates = counts[2];
+            event.statements = counts[3];
+            event.succeeded = succeeded;
+            event.commit();
         }
     }
 
@@ -635,95 +738,93 @@ public class DatabaseManager implements SystemManager {
      * - Old method: Load ALL blocks (10 seconds with 100k blocks)
      * - New method: Load only loaded chunks (100ms)
      * - Rest load automatically as chunks become active
+     *
+     * THREADING: Startup worker thread - reads the chunks captured by capture(), not the worlds
      */
     private void loadOnlyLoadedChunks() throws SQLException {
         blockCache.clear();
         multiblockCache.clear();
+        multiblockIndex.clear();
 
         int blocksLoaded = 0;
         int multiblocksLoaded = 0;
 
-        // Iterate through all loaded chunks in all worlds
-        for (org.bukkit.World world : org.bukkit.Bukkit.getWorlds()) {
-            for (org.bukkit.Chunk chunk : world.getLoadedChunks()) {
-                int chunkX = chunk.getX();
-                int chunkZ = chunk.getZ();
-                String worldName = world.getName();
+        String blockQuery = """
+            SELECT * FROM placed_blocks
+            WHERE world_name = ? AND chunk_x = ? AND chunk_z = ?
+        """;
+        String multiblockQuery = """
+            SELECT * FROM multiblocks
+            WHERE world_name = ? AND chunk_x = ? AND chunk_z = ?
+        """;
+
+        // Iterate through all chunks that were loaded at startup
+        // PERFORMANCE: Both statements are prepared once and re-bound per chunk
+        List<StartupChunk> chunks = startupChunks != null ? startupChunks : Collections.emptyList();
+        try (PreparedStatement blockStmt = connection.prepareStatement(blockQuery);
+             PreparedStatement multiblockStmt = connection.prepareStatement(multiblockQuery)) {
+            blockStmt.setQueryTimeout(TechFactoryConstants.DATABASE_QUERY_TIMEOUT_SECONDS);
+            multiblockStmt.setQueryTimeout(TechFactoryConstants.DATABASE_QUERY_TIMEOUT_SECONDS);
 
+            for (StartupChunk chunk : chunks) {
                 // Load blocks in this chunk
-                String blockQuery = """
-                    SELECT * FROM placed_blocks
-                    WHERE world_name = ? AND chunk_x = ? AND chunk_z = ?
-                """;
-
-                try (PreparedStatement pstmt = connection.prepareStatement(blockQuery)) {
-                    pstmt.setQueryTimeout(TechFactoryConstants.DATABASE_QUERY_TIMEOUT_SECONDS);
-                    pstmt.setString(1, worldName);
-                    pstmt.setInt(2, chunkX);
-                    pstmt.setInt(3, chunkZ);
-
-                    try (ResultSet rs = pstmt.executeQuery()) {
-                        while (rs.next()) {
-                            // Constructor: (id, worldName, x, y, z, blockType, ownerUUID, metadata, placedTimestamp)
-                            PlacedBlock block = new PlacedBlock(
-                                rs.getInt("id"),
-                                rs.getString("world_name"),
-                                rs.getInt("x"),
-                                rs.getInt("y"),
-                                rs.getInt("z"),
-                                rs.getString("block_type"),
-                                UUID.fromString(rs.getString("owner_uuid")),
-                                rs.getString("metadata"),
-                                rs.getLong("placed_timestamp")
-                            );
-                            blockCache.put(block.getLocationKey(), block);
-                            blocksLoaded++;
-                        }
+                blockStmt.setString(1, chunk.worldName);
+                blockStmt.setInt(2, chunk.chunkX);
+                blockStmt.setInt(3, chunk.chunkZ);
+
+                try (ResultSet rs = blockStmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Constructor: (id, worldName, x, y, z, blockType, ownerUUID, metadata, placedTimestamp)
+                        PlacedBlock block = new PlacedBlock(
+                            rs.getInt("id"),
+                            rs.getString("world_name"),
+                            rs.getInt("x"),
+                            rs.getInt("y"),
+                            rs.getInt("z"),
+                            rs.getString("block_type"),
+                            UUID.fromString(rs.getString("owner_uuid")),
+                            rs.getString("metadata"),
+                            rs.getLong("placed_timestamp")
+                        );
+                        blockCache.put(block.getLocationKey(), block);
+                        blocksLoaded++;
                     }
                 }
 
                 // Load multiblocks in this chunk
-                String multiblockQuery = """
-                    SELECT * FROM multiblocks
-                    WHERE world_name = ? AND chunk_x = ? AND chunk_z = ?
-                """;
-
-                try (PreparedStatement pstmt = connection.prepareStatement(multiblockQuery)) {
-                    pstmt.setQueryTimeout(TechFactoryConstants.DATABASE_QUERY_TIMEOUT_SECONDS);
-                    pstmt.setString(1, worldName);
-                    pstmt.setInt(2, chunkX);
-                    pstmt.setInt(3, chunkZ);
-
-                    try (ResultSet rs = pstmt.executeQuery()) {
-                        while (rs.next()) {
-                            MultiblockData multiblock = new MultiblockData(
-                                rs.getInt("id"),
-                                rs.getString("world_name"),
-                                rs.getInt("x"),
-                                rs.getInt("y"),
-                                rs.getInt("z"),
-                                rs.getString("multiblock_type"),
-                                UUID.fromString(rs.getString("owner_uuid")),
-                                rs.getString("metadata"),
-                                rs.getLong("created_timestamp")
-                            );
-                            multiblockCache.put(multiblock.getLocationKey(), multiblock);
-                            multiblocksLoaded++;
-                        }
+                multiblockStmt.setString(1, chunk.worldName);
+                multiblockStmt.setInt(2, chunk.chunkX);
+                multiblockStmt.setInt(3, chunk.chunkZ);
+
+                try (ResultSet rs = multiblockStmt.executeQuery()) {
+                    while (rs.next()) {
+                        MultiblockData multiblock = new MultiblockData(
+                            rs.getInt("id"),
+                            rs.getString("world_name"),
+                            rs.getInt("x"),
+                            rs.getInt("y"),
+                            rs.getInt("z"),
+                            rs.getString("multiblock_type"),
+                            UUID.fromString(rs.getString("owner_uuid")),
+                            rs.getString("metadata"),
+                            rs.getLong("created_timestamp")
+                        );
+                        multiblockCache.put(multiblock.getLocationKey(), multiblock);
+                        multiblocksLoaded++;
                     }
                 }
             }
         }
 
         plugin.getLogger().info("Lazy-loaded " + blocksLoaded + " blocks and " + multiblocksLoaded + " multiblocks from " +
-            org.bukkit.Bukkit.getWorlds().stream().mapToInt(w -> w.getLoadedChunks().length).sum() + " loaded chunks");
+            chunks.size() + " loaded chunks");
     }
 
     /**
      * Load multiblocks for a specific chunk from database into cache
      * Called by ChunkLoadListener when that chunk becomes loaded during gameplay
      *
-     * THREAD-SAFE: Can be called from async threads, uses ConcurrentHashMap
+     * THREAD-SAFE: Can be called from async threads, the caches are thread-safe
      * PERFORMANCE: Uses chunk_x and chunk_z indexes for fast queries
      *
      * WHY THIS EXISTS:
@@ -731,8 +832,10 @@ public class DatabaseManager implements SystemManager {
      * - When player travels far away, new chunks load
      * - This method is called to populate cache with those chunks' multiblocks
      * - Result: Cache stays synchronized with database for loaded chunks
+     *
+     * @return The loaded multiblocks (pass to indexMultiblocks() on the main thread)
      */
-    public void loadChunkMultiblocks(String worldName, int chunkX, int chunkZ) throws SQLException {
+    public List<MultiblockData> loadChunkMultiblocks(String worldName, int chunkX, int chunkZ) throws SQLException {
         String query = """
             SELECT * FROM multiblocks
             WHERE world_name = ? AND chunk_x = ? AND chunk_z = ?
@@ -744,8 +847,12 @@ public class DatabaseManager implements SystemManager {
             pstmt.setInt(2, chunkX);
             pstmt.setInt(3, chunkZ);
 
+            FlightRecorderEvents.SlowSql sqlEvent = new FlightRecorderEvents.SlowSql();
+            sqlEvent.begin();
+            SlowOperationTracer.Span sqlSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.SQL_STATEMENT)
+                .sql(query).chunk(worldName, chunkX, chunkZ);
             try (ResultSet rs = pstmt.executeQuery()) {
-                int count = 0;
+                List<MultiblockData> loaded = new ArrayList<>();
                 while (rs.next()) {
                     MultiblockData multiblock = new MultiblockData(
                         rs.getInt("id"),
@@ -759,14 +866,19 @@ public class DatabaseManager implements SystemManager {
                         rs.getLong("created_timestamp")
                     );
 
-                    // Add to cache (ConcurrentHashMap is thread-safe)
+                    // Add to cache (InstrumentedCache is thread-safe)
                     multiblockCache.put(multiblock.getLocationKey(), multiblock);
-                    count++;
+                    loaded.add(multiblock);
                 }
 
-                if (count > 0) {
-                    plugin.getLogger().fine("ChunkLoadListener: Loaded " + count + " multiblocks from chunk (" + chunkX + ", " + chunkZ + ")");
+                sqlEvent.finish("SELECT multiblocks BY chunk", loaded.size());
+
+                if (!loaded.isEmpty()) {
+                    plugin.getLogger().fine("ChunkLoadListener: Loaded " + loaded.size() + " multiblocks from chunk (" + chunkX + ", " + chunkZ + ")");
                 }
+                return loaded;
+            } finally {
+                sqlSpan.end();
             }
         }
     }
@@ -782,8 +894,10 @@ public class DatabaseManager implements SystemManager {
      * - Result: Cache stays synchronized with database for loaded chunks
      *
      * CRITICAL: This also triggers EnergyManager to restore networks!
+     *
+     * @return Number of placed blocks loaded
      */
-    public void loadChunkBlocks(String worldName, int chunkX, int chunkZ) throws SQLException {
+    public int loadChunkBlocks(String worldName, int chunkX, int chunkZ) throws SQLException {
         String query = """
             SELECT * FROM placed_blocks
             WHERE world_name = ? AND chunk_x = ? AND chunk_z = ?
@@ -795,6 +909,10 @@ public class DatabaseManager implements SystemManager {
             pstmt.setInt(2, chunkX);
             pstmt.setInt(3, chunkZ);
 
+            FlightRecorderEvents.SlowSql sqlEvent = new FlightRecorderEvents.SlowSql();
+            sqlEvent.begin();
+            SlowOperationTracer.Span sqlSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.SQL_STATEMENT)
+                .sql(query).chunk(worldName, chunkX, chunkZ);
             try (ResultSet rs = pstmt.executeQuery()) {
                 java.util.List<PlacedBlock> regulators = new java.util.ArrayList<>();
                 java.util.List<PlacedBlock> devices = new java.util.ArrayList<>();
@@ -813,8 +931,17 @@ public class DatabaseManager implements SystemManager {
                         rs.getLong("placed_timestamp")
                     );
 
-                    // Add to cache (ConcurrentHashMap is thread-safe)
-                    blockCache.put(block.getLocationKey(), block);
+                    // BUG FIX: Never overwrite a cached block with its database row. Every save updates
+                    // the cache first and reaches the database up to a second later, so on a quick
+                    // chunk reload the row can be stale (machine inventories reverted). Blocks with a
+                    // queued delete were broken - don't bring them back.
+                    if (pendingDeletes.contains(block.getLocationKey())) {
+                        continue;
+                    }
+                    PlacedBlock cached = blockCache.putIfAbsent(block.getLocationKey(), block);
+                    if (cached != null) {
+                        block = cached;
+                    }
                     count++;
 
                     // Separate regulators from devices for ordered restoration
@@ -826,6 +953,7 @@ public class DatabaseManager implements SystemManager {
                         devices.add(block);
                     }
                 }
+                sqlEvent.finish("SELECT placed_blocks BY chunk", count);
 
                 if (count > 0) {
                     plugin.getLogger().fine("Loaded " + count + " placed blocks from chunk (" + chunkX + ", " + chunkZ + ")");
@@ -834,16 +962,30 @@ public class DatabaseManager implements SystemManager {
                     // 1. First restore all regulators (creates networks)
                     // 2. Then restore devices in multiple passes (for chained connectors)
                     org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        // Pass 1: Restore regulators (create networks)
-                        for (PlacedBlock regulator : regulators) {
-                            restoreEnergyBlock(regulator);
+                        long restoreStart = System.nanoTime();
+                        SlowOperationTracer.Span restoreSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.CHUNK_RESTORE)
+                            .chunk(worldName, chunkX, chunkZ).detail("regulators", regulators.size()).detail("devices", devices.size());
+                        try {
+                            // Pass 1: Restore regulators (create networks)
+                            for (PlacedBlock regulator : regulators) {
+                                restoreEnergyBlock(regulator);
+                            }
+
+                            // Pass 2+: Restore devices in multiple passes until all are connected
+                            // This handles chained connectors (connector -> connector -> regulator)
+                            restoreDevicesInPasses(devices);
+                        } finally {
+                            restoreSpan.end();
                         }
 
-                        // Pass 2+: Restore devices in multiple passes until all are connected
-                        // This handles chained connectors (connector -> connector -> regulator)
-                        restoreDevicesInPasses(devices);
+                        long restoreNanos = System.nanoTime() - restoreStart;
+                        PerformanceMetrics.getInstance().recordLatency(PerformanceMetrics.Operation.MAIN_THREAD_RESTORE, restoreNanos);
+                        TickProfiler.record(TickProfiler.Subsystem.CHUNK_RESTORE, restoreNanos);
                     });
                 }
+                return count;
+            } finally {
+                sqlSpan.end();
             }
         }
     }
@@ -867,16 +1009,7 @@ public class DatabaseManager implements SystemManager {
 
             // Try to connect each remaining device
             for (PlacedBlock device : remaining) {
-                org.bukkit.Location location = device.getLocation();
-                if (location == null) continue;
-
-                // Check if this device can now connect to a network
-                org.ThefryGuy.techFactory.energy.EnergyNetwork network =
-                    plugin.getEnergyManager().findNearestNetwork(location, 6.0);
-
-                if (network != null) {
-                    // Found a network! Restore this device
-                    restoreEnergyBlock(device);
+                if (tryRestoreDevice(device)) {
                     connectedThisPass.add(device);
                 }
             }
@@ -898,11 +1031,35 @@ public class DatabaseManager implements SystemManager {
         }
     }
 
+    /**
+     * Restore a device (connector/generator) if a network is in range
+     * One step of restoreDevicesInPasses() - also used by the budgeted startup passes (StartupValidator)
+     *
+     * @return true if the device was restored (connected), false if no network is in range yet
+     */
+    boolean tryRestoreDevice(PlacedBlock device) {
+        org.bukkit.Location location = device.getLocation();
+        if (location == null) {
+            return false;
+        }
+
+        // Check if this device can now connect to a network
+        org.ThefryGuy.techFactory.energy.EnergyNetwork network =
+            plugin.getEnergyManager().findNearestNetwork(location, 6.0);
+
+        if (network != null) {
+            // Found a network! Restore this device
+            restoreEnergyBlock(device);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Restore an energy block when it's loaded from database
      * This recreates networks, restores physical blocks, etc.
      */
-    private void restoreEnergyBlock(PlacedBlock block) {
+    void restoreEnergyBlock(PlacedBlock block) {
         String blockType = block.getBlockType();
         org.bukkit.Location location = block.getLocation();
 
@@ -953,6 +1110,7 @@ public class DatabaseManager implements SystemManager {
                 if (network != null) {
                     network.connectConnector(location);
                     plugin.getEnergyManager().registerDeviceToNetwork(location, network);
+                    plugin.getEnergyManager().bindUnboundConsumersNear(location); // Network range grew
                     plugin.getLogger().fine("Restored energy connector at " + location);
                 }
                 break;
@@ -1188,7 +1346,8 @@ public class DatabaseManager implements SystemManager {
     public boolean updateMetadata(Location location, String metadata) {
         PlacedBlock block = getBlock(location);
         if (block == null) {
-            return false;
+            // Not cached because its chunk is unloaded - update the row by location
+            return !isChunkLoaded(location) && updateMetadataByLocation(location, metadata);
         }
         
         String update = "UPDATE placed_blocks SET metadata = ? WHERE id = ?";
@@ -1210,6 +1369,77 @@ public class DatabaseManager implements SystemManager {
         }
     }
     
+    /**
+     * Update a block row's metadata by location (blocks in unloaded chunks aren't cached)
+     */
+    private boolean updateMetadataByLocation(Location location, String metadata) {
+        String update = "UPDATE placed_blocks SET metadata = ? WHERE world_name = ? AND x = ? AND y = ? AND z = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(update)) {
+            pstmt.setQueryTimeout(TechFactoryConstants.DATABASE_QUERY_TIMEOUT_SECONDS);
+            pstmt.setString(1, metadata);
+            pstmt.setString(2, location.getWorld().getName());
+            pstmt.setInt(3, location.getBlockX());
+            pstmt.setInt(4, location.getBlockY());
+            pstmt.setInt(5, location.getBlockZ());
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to update block metadata!", e);
+            return false;
+        }
+    }
+
+    /**
+     * true if the location's chunk is loaded (its blocks are in the cache)
+     */
+    private static boolean isChunkLoaded(Location location) {
+        World world = location != null ? location.getWorld() : null;
+        return world != null && world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Pin a block in the cache until its queued write is flushed
+     */
+    private void markUnflushed(String locationKey) {
+        unflushedWrites.merge(locationKey, 1, Integer::sum);
+    }
+
+    /**
+     * Release the pins of flushed writes, then drop blocks whose chunk unloaded in the meantime
+     *
+     * @param flushed Location of each flushed write (location key -> location)
+     */
+    private void releaseFlushed(Map<String, Location> flushed, Map<String, Integer> writesPerKey) {
+        List<Location> released = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : writesPerKey.entrySet()) {
+            int written = entry.getValue();
+            Integer remaining = unflushedWrites.computeIfPresent(entry.getKey(), (k, n) -> n > written ? n - written : null);
+            Location location = flushed.get(entry.getKey());
+            if (remaining == null && location != null) {
+                released.add(location);
+            }
+        }
+
+        if (released.isEmpty() || !plugin.isEnabled()) {
+            return;
+        }
+        // Chunk state is main-thread data
+        org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> evictFlushedUnloaded(released));
+    }
+
+    /**
+     * Drop flushed blocks whose chunk is unloaded (they were pinned through the unload)
+     * MAIN THREAD ONLY
+     */
+    private void evictFlushedUnloaded(List<Location> released) {
+        for (Location location : released) {
+            String locationKey = PlacedBlock.locationToKey(location);
+            if (!unflushedWrites.containsKey(locationKey) && !isChunkLoaded(location)) {
+                blockCache.remove(locationKey);
+            }
+        }
+    }
+
     /**
      * Get total number of placed blocks
      */
@@ -1234,7 +1464,8 @@ public class DatabaseManager implements SystemManager {
         // Add to cache immediately for instant feedback
         blockCache.put(block.getLocationKey(), block);
 
-        // Queue for batch write (will be flushed within 1 second)
+        // Queue for batch write (will be flushed within 1 second) - pinned in the cache until then
+        markUnflushed(block.getLocationKey());
         pendingSaves.offer(block);
 
         // Run callback immediately since cache is updated
@@ -1290,15 +1521,18 @@ public class DatabaseManager implements SystemManager {
      */
     public void updateMetadataAsync(Location location, String metadata) {
         PlacedBlock block = getBlock(location);
-        if (block == null) {
-            return;
+        if (block != null) {
+            // Update cache immediately (so reads are always current)
+            block.setMetadata(metadata);
+        } else if (isChunkLoaded(location)) {
+            return; // No block here
         }
-
-        // Update cache immediately (so reads are always current)
-        block.setMetadata(metadata);
+        // else: The block's chunk is unloaded (not cached) - the row UPDATE still persists it
+        // (e.g. a network whose regulator chunk unloaded while its machines keep consuming)
 
         // PERFORMANCE FIX: Queue for batch update instead of immediate async task
         // This prevents 5k-10k async tasks/sec from energy networks
+        markUnflushed(PlacedBlock.locationToKey(location));
         pendingEnergyUpdates.offer(new EnergyMetadataUpdate(location, metadata));
 
         // METRICS: Track energy update rate
@@ -1314,6 +1548,7 @@ public class DatabaseManager implements SystemManager {
      */
     private void loadAllMultiblocks() throws SQLException {
         multiblockCache.clear();
+        multiblockIndex.clear();
 
         String query = "SELECT * FROM multiblocks";
         try (Statement stmt = connection.createStatement();
@@ -1450,6 +1685,7 @@ public class DatabaseManager implements SystemManager {
 
             // Remove from cache
             multiblockCache.remove(locationKey);
+            multiblockIndex.remove(locationKey);
 
             return true;
 
@@ -1467,6 +1703,13 @@ public class DatabaseManager implements SystemManager {
         return multiblockCache.get(locationKey);
     }
 
+    /**
+     * Get a multiblock by its location key (MultiblockData.getLocationKey())
+     */
+    public MultiblockData getMultiblock(String locationKey) {
+        return multiblockCache.get(locationKey);
+    }
+
     /**
      * Check if a multiblock exists at a location
      */
@@ -1577,6 +1820,7 @@ public class DatabaseManager implements SystemManager {
             if (!success) {
                 // If save failed, remove from cache
                 multiblockCache.remove(multiblock.getLocationKey());
+                multiblockIndex.remove(multiblock.getLocationKey());
             }
         });
     }
@@ -1601,6 +1845,7 @@ public class DatabaseManager implements SystemManager {
 
         // Remove from cache immediately for instant feedback
         multiblockCache.remove(locationKey);
+        multiblockIndex.remove(locationKey);
 
         // Remove from database asynchronously
         org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
@@ -1658,6 +1903,8 @@ public class DatabaseManager implements SystemManager {
             return false;
         }
 
+        long saveStart = System.nanoTime();
+        SlowOperationTracer.Span saveSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.INVENTORY_SAVE).location(location);
         try {
             // Serialize inventory to Base64
             String inventoryData = serializeInventory(inventory);
@@ -1677,7 +1924,11 @@ public class DatabaseManager implements SystemManager {
                 pstmt.setInt(4, location.getBlockY());
                 pstmt.setInt(5, location.getBlockZ());
 
+                FlightRecorderEvents.SlowSql sqlEvent = new FlightRecorderEvents.SlowSql();
+                sqlEvent.begin();
+                saveSpan.sql(sql);
                 int rowsAffected = pstmt.executeUpdate();
+                sqlEvent.finish("UPDATE multiblocks.metadata", rowsAffected);
 
                 if (rowsAffected > 0) {
                     // Update cache
@@ -1690,6 +1941,10 @@ public class DatabaseManager implements SystemManager {
             }
         } catch (SQLException | IOException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to save multiblock inventory at " + locationKey, e);
+        } finally {
+            PerformanceMetrics.getInstance().recordLatency(
+                PerformanceMetrics.Operation.INVENTORY_SAVE, System.nanoTime() - saveStart);
+            saveSpan.end();
         }
 
         return false;
@@ -1735,12 +1990,16 @@ public class DatabaseManager implements SystemManager {
 
     /**
      * Serialize ItemStack array to Base64 string using Bukkit serialization.
+     * Static - uses no database state (also exercised by the JMH benchmarks)
      */
-    private String serializeInventory(ItemStack[] items) throws IOException {
+    public static String serializeInventory(ItemStack[] items) throws IOException {
         if (items == null || items.length == 0) {
             return "{}";
         }
 
+        FlightRecorderEvents.InventorySerialization event = new FlightRecorderEvents.InventorySerialization();
+        event.begin();
+
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
 
@@ -1750,17 +2009,30 @@ public class DatabaseManager implements SystemManager {
         }
 
         dataOutput.close();
-        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+        String encoded = Base64.getEncoder().encodeToString(outputStream.toByteArray());
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.deserialize = false;
+            event.slots = items.length;
+            event.bytes = encoded.length();
+            event.commit();
+        }
+        return encoded;
     }
 
     /**
      * Deserialize Base64 string back to ItemStack array using Bukkit serialization.
+     * Static - uses no database state (also exercised by the JMH benchmarks)
      */
-    private ItemStack[] deserializeInventory(String data) throws IOException, ClassNotFoundException {
+    public static ItemStack[] deserializeInventory(String data) throws IOException, ClassNotFoundException {
         if (data == null || data.isEmpty() || data.equals("{}")) {
             return new ItemStack[0];
         }
 
+        FlightRecorderEvents.InventorySerialization event = new FlightRecorderEvents.InventorySerialization();
+        event.begin();
+
         ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64.getDecoder().decode(data));
         BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
 
@@ -1772,6 +2044,14 @@ public class DatabaseManager implements SystemManager {
         }
 
         dataInput.close();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.deserialize = true;
+            event.slots = length;
+            event.bytes = data.length();
+            event.commit();
+        }
         return items;
     }
 
@@ -1790,154 +2070,112 @@ public class DatabaseManager implements SystemManager {
     }
 
     /**
-     * Validate all multiblocks on server startup.
+     * Validate multiblocks and index their member blocks
      * Removes "ghost" multiblocks that no longer have valid structures in the world.
-     * This prevents the "duplicate block detected" issue.
+     *
+     * REFACTORED: Replaces the full validation pass on startup. Multiblocks are now validated
+     * per chunk as chunks load (ChunkLoadListener) and once for the chunks already loaded at
+     * startup; while the server runs, the member index tears broken multiblocks down immediately.
+     *
+     * MAIN THREAD ONLY (reads blocks)
+     *
+     * @param multiblocks The multiblocks to validate (e.g. the ones loadChunkMultiblocks() returned)
      */
-    private void validateMultiblocksOnStartup() {
-        long startTime = System.currentTimeMillis();
-        int totalMultiblocks = multiblockCache.size();
-
-        plugin.getLogger().info("Validating " + totalMultiblocks + " multiblocks...");
-
+    public void indexMultiblocks(Collection<MultiblockData> multiblocks) {
         int removed = 0;
-        int checked = 0;
-        java.util.List<String> toRemove = new java.util.ArrayList<>();
-
-        for (MultiblockData multiblock : multiblockCache.values()) {
-            checked++;
-            Location location = multiblock.getLocation();
-
-            // Skip if world doesn't exist
-            if (location == null) {
-                toRemove.add(multiblock.getLocationKey());
-                plugin.getLogger().log(Level.WARNING, "Removing multiblock in non-existent world: " + multiblock.getWorldName());
-                continue;
-            }
-
-            // Check if the core block still exists
-            org.bukkit.block.Block block = location.getBlock();
-            if (block.getType() == org.bukkit.Material.AIR) {
-                toRemove.add(multiblock.getLocationKey());
-                plugin.getLogger().log(Level.WARNING, "Removing ghost multiblock at " + multiblock.getLocationKey() +
-                    " (core block is air)");
-                continue;
-            }
 
-            // Validate structure based on type
-            boolean isValid = validateMultiblockStructure(block, multiblock.getMultiblockType());
-            if (!isValid) {
-                toRemove.add(multiblock.getLocationKey());
-                plugin.getLogger().log(Level.WARNING, "Removing invalid " + multiblock.getMultiblockType() +
-                    " multiblock at " + multiblock.getLocationKey() + " (structure broken)");
-            }
-        }
-
-        // Remove invalid multiblocks
-        for (String locationKey : toRemove) {
-            MultiblockData multiblock = multiblockCache.get(locationKey);
-            if (multiblock != null) {
-                removeMultiblock(multiblock.getLocation());
+        for (MultiblockData multiblock : multiblocks) {
+            if (validateAndIndexMultiblock(multiblock)) {
                 removed++;
             }
         }
 
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-
-        // Log results with performance metrics
         if (removed > 0) {
-            plugin.getLogger().info("✓ Validation complete! Checked " + checked + " multiblocks in " + duration + "ms");
-            plugin.getLogger().info("  Cleaned up " + removed + " invalid multiblock(s)");
-            plugin.getLogger().info("  " + (checked - removed) + " valid multiblocks remaining");
-        } else {
-            plugin.getLogger().info("✓ Validation complete! All " + checked + " multiblocks are valid! (" + duration + "ms)");
-        }
-
-        // Performance warning if it took too long
-        if (duration > 5000) {
-            plugin.getLogger().log(Level.WARNING, "Multiblock validation took " + duration + "ms - consider reducing multiblock count");
+            plugin.getLogger().info("Cleaned up " + removed + " invalid multiblock(s)");
         }
     }
 
     /**
-     * Restore all placed energy blocks on startup
+     * Validate one multiblock against the live world and index it, or remove it if its structure is broken
      *
-     * CRITICAL FIX: ChunkLoadListener doesn't fire for spawn chunks (they're already loaded before listener registers)
-     * This method restores physical blocks for all energy blocks in the cache (which were loaded from spawn chunks)
+     * MAIN THREAD ONLY (reads blocks)
      *
-     * Called 2 seconds after server startup to ensure worlds are fully loaded
+     * @return true if the multiblock was removed
      */
-    private void restoreAllPlacedBlocksOnStartup() {
-        long startTime = System.currentTimeMillis();
-        int totalBlocks = blockCache.size();
-
-        plugin.getLogger().info("Restoring " + totalBlocks + " placed blocks from startup cache...");
+    boolean validateAndIndexMultiblock(MultiblockData multiblock) {
+        // Skip if it was removed meanwhile
+        if (!isCurrentMultiblock(multiblock)) {
+            return false;
+        }
 
-        java.util.List<PlacedBlock> regulators = new java.util.ArrayList<>();
-        java.util.List<PlacedBlock> devices = new java.util.ArrayList<>();
-        int skipped = 0;
+        Location location = multiblock.getLocation();
+        if (location == null) {
+            return false; // World not loaded - keep it, it's indexed when its chunk loads
+        }
 
-        // Separate regulators from devices
-        for (PlacedBlock block : blockCache.values()) {
-            String blockType = block.getBlockType();
-
-            if (blockType.equals("energy_regulator")) {
-                regulators.add(block);
-            } else if (blockType.equals("energy_connector") || blockType.equals("solar_generator")) {
-                devices.add(block);
-            } else {
-                skipped++;
+        org.bukkit.block.Block block = location.getBlock();
+        org.ThefryGuy.techFactory.workstations.structure.StructureMatch match;
+        try {
+            MultiblockMachine machine = getMachine(multiblock);
+            if (machine == null) {
+                return false; // Unknown type - keep it to avoid accidental deletion
             }
+            match = machine.matchStructure(block);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Error validating multiblock structure: " + multiblock.getMultiblockType(), e);
+            return false; // Assume valid on error to avoid accidental deletion
         }
 
-        // CRITICAL: Restore in correct order!
-        // Pass 1: Restore all regulators (creates networks)
-        for (PlacedBlock regulator : regulators) {
-            restoreEnergyBlock(regulator);
+        if (match == null) {
+            removeInvalidMultiblock(multiblock);
+            return true;
         }
 
-        // Pass 2+: Restore devices in multiple passes (for chained connectors)
-        restoreDevicesInPasses(devices);
-
-        int restored = regulators.size() + devices.size();
+        multiblockIndex.index(multiblock.getLocationKey(), multiblock.getWorldName(), match);
+        return false;
+    }
 
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
+    /**
+     * Remove a multiblock whose structure is broken ("ghost" multiblock)
+     */
+    void removeInvalidMultiblock(MultiblockData multiblock) {
+        plugin.getLogger().log(Level.WARNING, "Removing invalid " + multiblock.getMultiblockType() +
+            " multiblock at " + multiblock.getLocationKey() + " (structure broken)");
+        removeMultiblockAsync(multiblock.getLocation(), null);
+    }
 
-        plugin.getLogger().info("✓ Restored " + restored + " energy blocks in " + duration + "ms (skipped " + skipped + " non-energy blocks)");
+    /**
+     * Check if a multiblock is still registered (not removed/replaced since it was loaded)
+     */
+    boolean isCurrentMultiblock(MultiblockData multiblock) {
+        return multiblockCache.get(multiblock.getLocationKey()) == multiblock;
     }
 
     /**
-     * Validate a multiblock structure based on its type
+     * Get the machine handler of a stored multiblock (logs unknown types)
+     *
+     * @return The machine, or null if the type is unknown
      */
-    private boolean validateMultiblockStructure(org.bukkit.block.Block block, String type) {
-        try {
-            switch (type) {
-                case "enhanced_crafting_table":
-                case "basic_workbench": // Legacy support
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.BasicWorkbenchMachine.isValidStructure(block);
-                case "smelter":
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.SmelterMachine.isValidStructure(block);
-                case "compressor":
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.CompressorMachine.isValidStructure(block);
-                case "pressure_chamber":
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.PressureChamberMachine.isValidStructure(block);
-                case "ore_washer":
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.OreWasherMachine.isValidStructure(block);
-                case "ore_crusher":
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.OreCrusherMachine.isValidStructure(block);
-                case "automated_panning":
-                    return org.ThefryGuy.techFactory.workstations.multiblocks.AutomatedPanningMachine.isValidStructure(block);
-                default:
-                    // Unknown type - assume valid to avoid accidental deletion
-                    plugin.getLogger().log(Level.WARNING, "Unknown multiblock type: " + type);
-                    return true;
-            }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Error validating multiblock structure: " + type, e);
-            return true; // Assume valid on error to avoid accidental deletion
+    MultiblockMachine getMachine(MultiblockData multiblock) {
+        MultiblockMachine machine = MachineRegistry.getMachine(getMachineType(multiblock.getMultiblockType()));
+        if (machine == null) {
+            plugin.getLogger().log(Level.WARNING, "Unknown multiblock type: " + multiblock.getMultiblockType());
         }
+        return machine;
+    }
+
+    /**
+     * Machine type for a stored multiblock type (legacy names included)
+     */
+    private static String getMachineType(String multiblockType) {
+        return "basic_workbench".equals(multiblockType) ? "enhanced_crafting_table" : multiblockType;
+    }
+
+    /**
+     * Get the member block -> multiblock index
+     */
+    public MultiblockIndex getMultiblockIndex() {
+        return multiblockIndex;
     }
 
     /**
@@ -2442,7 +2680,7 @@ public class DatabaseManager implements SystemManager {
      * 1. Close database connection
      * 2. Clear caches
      *
-     * NOTE: initialize() method already exists above (line 46) and satisfies the SystemManager interface
+     * NOTE: capture(), prepare() and initialize() are at the top of the class
      */
     @Override
     public void disable() {
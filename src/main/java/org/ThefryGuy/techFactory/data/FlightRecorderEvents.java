@@ -0,0 +1,242 @@
+package org.ThefryGuy.techFactory.data;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.bukkit.Location;
+
+import java.util.logging.Logger;
+
+/**
+ * Custom Java Flight Recorder events for TechFactory hot paths.
+ *
+ * WHY THIS EXISTS:
+ * - In a JFR recording of a lag spike, TechFactory work shows up as anonymous scheduler lambdas
+ * - These events name the work and carry world/chunk/count/byte fields, so they line up with
+ *   allocation, lock and GC events on the same thread and timeline
+ *
+ * DISABLED BY DEFAULT (@Enabled(false)):
+ * - A disabled event costs a shouldCommit() check - the JIT removes the allocation
+ * - Enable them in the recording settings, e.g.:
+ *     jcmd <pid> JFR.start name=tf duration=2m filename=tf.jfr +techfactory.BatchFlush#enabled=true ...
+ *   or build a reusable template:
+ *     jfr configure +techfactory.BatchFlush#enabled=true +techfactory.SlowSql#enabled=true --output techfactory.jfc
+ *
+ * USAGE (one event per operation, fields only filled when the event will be recorded):
+ *   BatchFlush event = new BatchFlush();
+ *   event.begin();
+ *   ... work ...
+ *   event.end();
+ *   if (event.shouldCommit()) { event.saves = ...; event.commit(); }
+ */
+public final class FlightRecorderEvents {
+
+    private static final String CATEGORY = "TechFactory";
+
+    private FlightRecorderEvents() {
+        // Utility class
+    }
+
+    /**
+     * Register all event types up front so they appear in JMC / `jfr configure` before first use
+     * Called once during plugin startup
+     */
+    public static void registerAll(Logger logger) {
+        try {
+            FlightRecorder.register(BatchFlush.class);
+            FlightRecorder.register(ChunkDataLoad.class);
+            FlightRecorder.register(NetworkTopologyChange.class);
+            FlightRecorder.register(MachineProcessorPass.class);
+            FlightRecorder.register(RecipeMatch.class);
+            FlightRecorder.register(InventorySerialization.class);
+            FlightRecorder.register(SlowSql.class);
+        } catch (IllegalStateException | SecurityException e) {
+            // Events still work when first used - only the up-front listing is lost
+            logger.fine("Could not pre-register JFR events: " + e.getMessage());
+        }
+    }
+
+    // ========================================
+    // DATABASE
+    // ========================================
+
+    @Name("techfactory.BatchFlush")
+    @Label("Batch Flush")
+    @Category({CATEGORY, "Database"})
+    @Description("One DatabaseManager batch write transaction")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class BatchFlush extends Event {
+        @Label("Saves")
+        public int saves;
+
+        @Label("Deletes")
+        public int deletes;
+
+        @Label("Energy Updates")
+        public int energyUpdates;
+
+        @Label("Statements")
+        @Description("Batched statements executed (executeBatch calls)")
+        public int statements;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name("techfactory.SlowSql")
+    @Label("Slow SQL Statement")
+    @Category({CATEGORY, "Database"})
+    @Description("A hot-path SQL statement that took longer than the threshold")
+    @Enabled(false)
+    @Threshold("20 ms")
+    public static final class SlowSql extends Event {
+        @Label("Statement")
+        @Description("Statement kind and table, e.g. \"INSERT placed_blocks\"")
+        public String statement;
+
+        @Label("Rows")
+        @Description("Rows written (batch size) or read")
+        public int rows;
+
+        /**
+         * End the statement and commit it if it crossed the threshold
+         */
+        public void finish(String statement, int rows) {
+            end();
+            if (shouldCommit()) {
+                this.statement = statement;
+                this.rows = rows;
+                commit();
+            }
+        }
+    }
+
+    @Name("techfactory.ChunkDataLoad")
+    @Label("Chunk Data Load")
+    @Category({CATEGORY, "Database"})
+    @Description("Async load of one chunk's placed blocks and multiblocks")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ChunkDataLoad extends Event {
+        @Label("World")
+        public String world;
+
+        @Label("Chunk X")
+        public int chunkX;
+
+        @Label("Chunk Z")
+        public int chunkZ;
+
+        @Label("Placed Blocks")
+        public int blocks;
+
+        @Label("Multiblocks")
+        public int multiblocks;
+    }
+
+    @Name("techfactory.InventorySerialization")
+    @Label("Inventory Serialization")
+    @Category({CATEGORY, "Database"})
+    @Description("Bukkit serialization of an inventory to or from Base64")
+    @Enabled(false)
+    public static final class InventorySerialization extends Event {
+        @Label("Deserialize")
+        @Description("true = Base64 to items, false = items to Base64")
+        public boolean deserialize;
+
+        @Label("Slots")
+        public int slots;
+
+        @Label("Encoded Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    // ========================================
+    // ENERGY
+    // ========================================
+
+    @Name("techfactory.NetworkTopologyChange")
+    @Label("Network Topology Change")
+    @Category({CATEGORY, "Energy"})
+    @Description("An energy network was created/removed or a device was bound/unbound")
+    @Enabled(false)
+    public static final class NetworkTopologyChange extends Event {
+        @Label("Change")
+        @Description("NETWORK_CREATED, NETWORK_REMOVED, DEVICE_BOUND or DEVICE_UNBOUND")
+        public String change;
+
+        @Label("World")
+        public String world;
+
+        @Label("Chunk X")
+        public int chunkX;
+
+        @Label("Chunk Z")
+        public int chunkZ;
+
+        @Label("Devices")
+        @Description("Devices in the affected network (or moved out of it, for NETWORK_REMOVED)")
+        public int devices;
+
+        @Label("Networks")
+        @Description("Total networks after the change")
+        public int networks;
+
+        /**
+         * Fill the location fields from a block location
+         */
+        public void setLocation(Location location) {
+            if (location != null && location.getWorld() != null) {
+                this.world = location.getWorld().getName();
+                this.chunkX = location.getBlockX() >> 4;
+                this.chunkZ = location.getBlockZ() >> 4;
+            }
+        }
+    }
+
+    // ========================================
+    // MACHINES & RECIPES
+    // ========================================
+
+    @Name("techfactory.MachineProcessorPass")
+    @Label("Machine Processor Pass")
+    @Category({CATEGORY, "Machines"})
+    @Description("One pass of the global electric machine processor")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class MachineProcessorPass extends Event {
+        @Label("Machines Visited")
+        public int visited;
+
+        @Label("Allocated")
+        @Description("Bytes allocated by the main thread during the pass (-1 if unsupported)")
+        @DataAmount
+        public long allocatedBytes;
+    }
+
+    @Name("techfactory.RecipeMatch")
+    @Label("Recipe Match")
+    @Category({CATEGORY, "Machines"})
+    @Description("A recipe index lookup")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class RecipeMatch extends Event {
+        @Label("Machine Type")
+        public String machineType;
+
+        @Label("Distinct Items")
+        public int distinctItems;
+
+        @Label("Matched")
+        public boolean matched;
+    }
+}
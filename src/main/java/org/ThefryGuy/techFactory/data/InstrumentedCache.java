@@ -0,0 +1,520 @@
+package org.ThefryGuy.techFactory.data;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One cache component for every in-memory cache in the plugin, with shared statistics
+ *
+ * REFACTORED: Replaces the ad-hoc caches that each had their own semantics and no (or non-atomic)
+ * statistics - DatabaseManager's synchronized LinkedHashMap LRU and unbounded multiblock map,
+ * the furnace recipe map, the smelting queue map and the message throttle map.
+ *
+ * POLICIES (chosen by the factory method):
+ * - UNBOUNDED: Never evicts. For small fixed sets (recipes) and maps that ARE the in-memory data
+ *   (multiblocks) - instrumented only
+ * - TTL: Entries expire a fixed time after they were written (checked on read, swept by cleanUp())
+ * - CHUNK_SCOPED: Entries belong to the chunk of their key and are dropped when it unloads
+ *   (CacheRegistry.invalidateChunk() from ChunkUnloadListener). Optionally with a "pinned" check:
+ *   pinned entries (e.g. writes not flushed to the database yet) survive the unload and are
+ *   dropped once the owner removes them
+ *
+ * REMOVED: The W_TINY_LFU policy (frequency-sketch admission) had no callers left. Admission may
+ * reject any new entry, so it only fits caches rebuilt on a miss - the placed blocks are the current
+ * copy of unflushed writes, and the one loader-backed cache (smelting queues) is already bounded by
+ * its chunk scope. Bounded memory comes from chunk scoping instead.
+ *
+ * PERFORMANCE: Reads and writes are lock-free - one ConcurrentHashMap operation. The old LRU took a
+ * global lock on every read, because an access-ordered LinkedHashMap reorders itself on get()
+ *
+ * STATISTICS: hits, misses, evictions (incl. expirations and chunk drops), loads and load time, all
+ * LongAdders. Every cache registers itself in CacheRegistry under its name, which is what
+ * /techfactory metrics and the metrics endpoint read.
+ *
+ * THREADING: Thread-safe. values() is weakly consistent (like ConcurrentHashMap's views).
+ *
+ * @param <K> Key type (needs proper equals/hashCode)
+ * @param <V> Value type
+ */
+public final class InstrumentedCache<K, V> {
+
+    /**
+     * Admission/eviction policy
+     */
+    public enum Policy {
+        UNBOUNDED("unbounded"),
+        TTL("ttl"),
+        CHUNK_SCOPED("chunk-scoped");
+
+        private final String displayName;
+
+        Policy(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final String name;
+    private final Policy policy;
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+
+    // TTL
+    private final long ttlNanos;
+
+    // CHUNK_SCOPED: key -> chunk key ("world,chunkX,chunkZ"), chunk key -> keys, entries kept on unload
+    private final Function<K, String> chunkKeyOf;
+    private final Map<String, Set<K>> keysByChunk;
+    private final Predicate<? super V> pinned;
+
+    // Statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    private InstrumentedCache(String name, Policy policy, long ttlNanos, Function<K, String> chunkKeyOf,
+                              Predicate<? super V> pinned) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Cache name must not be empty");
+        }
+        this.name = name;
+        this.policy = policy;
+        this.map = new ConcurrentHashMap<>();
+
+        this.ttlNanos = ttlNanos;
+        this.chunkKeyOf = chunkKeyOf;
+        this.keysByChunk = policy == Policy.CHUNK_SCOPED ? new ConcurrentHashMap<>() : null;
+        this.pinned = pinned;
+
+        CacheRegistry.register(this);
+    }
+
+    // ========================================
+    // FACTORIES
+    // ========================================
+
+    /**
+     * Cache that never evicts (instrumented map)
+     */
+    public static <K, V> InstrumentedCache<K, V> unbounded(String name) {
+        return new InstrumentedCache<>(name, Policy.UNBOUNDED, 0, null, null);
+    }
+
+    /**
+     * Cache whose entries expire a fixed time after they were written
+     * @param ttlMillis Time to live in milliseconds (> 0)
+     */
+    public static <K, V> InstrumentedCache<K, V> expireAfterWrite(String name, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis must be > 0, got " + ttlMillis);
+        }
+        return new InstrumentedCache<>(name, Policy.TTL, TimeUnit.MILLISECONDS.toNanos(ttlMillis), null, null);
+    }
+
+    /**
+     * Cache whose entries are dropped when the chunk of their key unloads
+     * @param chunkKeyOf Maps a key to its chunk key (CacheRegistry.chunkKey()), or null for "no chunk"
+     */
+    public static <K, V> InstrumentedCache<K, V> chunkScoped(String name, Function<K, String> chunkKeyOf) {
+        return chunkScoped(name, chunkKeyOf, null);
+    }
+
+    /**
+     * Cache whose entries are dropped when the chunk of their key unloads, unless they are pinned
+     *
+     * Pinned entries stay (and stay indexed under their chunk) - for caches that are the only copy
+     * of a write until it is flushed. The owner removes them once they are safe to drop.
+     *
+     * @param chunkKeyOf Maps a key to its chunk key (CacheRegistry.chunkKey()), or null for "no chunk"
+     * @param pinned true for values that must survive a chunk unload, or null for "never pinned"
+     */
+    public static <K, V> InstrumentedCache<K, V> chunkScoped(String name, Function<K, String> chunkKeyOf,
+                                                             Predicate<? super V> pinned) {
+        if (chunkKeyOf == null) {
+            throw new IllegalArgumentException("chunkKeyOf must not be null");
+        }
+        return new InstrumentedCache<>(name, Policy.CHUNK_SCOPED, 0, chunkKeyOf, pinned);
+    }
+
+    // ========================================
+    // READS (lock-free)
+    // ========================================
+
+    /**
+     * Get a value (counts a hit or miss)
+     * @return The value, or null if absent (or expired)
+     */
+    public V get(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null || isExpired(node)) {
+            if (node != null) {
+                expire(node);
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * Get a value, loading (and caching) it on a miss - the load is timed for the statistics
+     *
+     * The loader runs outside any lock, so two threads missing the same key may both load
+     * (the later put wins). A null result is not cached.
+     *
+     * @return The cached or loaded value, or null if the loader returned null
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+
+        long start = System.nanoTime();
+        value = loader.apply(key);
+        loads.increment();
+        loadNanos.add(System.nanoTime() - start);
+
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Check for a key without touching statistics (existence checks, not lookups)
+     */
+    public boolean containsKey(K key) {
+        Node<K, V> node = map.get(key);
+        return node != null && !isExpired(node);
+    }
+
+    // ========================================
+    // WRITES
+    // ========================================
+
+    /**
+     * Put a value (replaces any existing value for the key)
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Cache keys and values must not be null (" + name + ")");
+        }
+
+        Node<K, V> node = new Node<>(key, value, ttlNanos > 0 ? System.nanoTime() : 0L);
+        Node<K, V> previous = map.put(key, node);
+        if (previous == null && keysByChunk != null) {
+            indexChunk(key);
+        }
+    }
+
+    /**
+     * Put a value only if the key has no (unexpired) value yet
+     * @return The existing value, or null if the value was added
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Cache keys and values must not be null (" + name + ")");
+        }
+
+        Node<K, V> node = new Node<>(key, value, ttlNanos > 0 ? System.nanoTime() : 0L);
+        Node<K, V> existing = map.putIfAbsent(key, node);
+        if (existing != null && isExpired(existing)) {
+            // Expired entries count as absent (retry if another thread replaced it first)
+            return map.replace(key, existing, node) ? null : putIfAbsent(key, value);
+        }
+        if (existing == null && keysByChunk != null) {
+            indexChunk(key);
+        }
+        return existing != null ? existing.value : null;
+    }
+
+    /**
+     * Remove a key
+     * @return The removed value, or null if absent
+     */
+    public V remove(K key) {
+        Node<K, V> node = map.remove(key);
+        if (node != null && keysByChunk != null) {
+            unindexChunk(key);
+        }
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Remove everything (statistics are kept - they describe the cache's lifetime)
+     */
+    public void clear() {
+        map.clear();
+        if (keysByChunk != null) {
+            keysByChunk.clear();
+        }
+    }
+
+    /**
+     * Drop every entry of a chunk (CHUNK_SCOPED only, no-op for other policies)
+     * Pinned entries are kept and stay indexed under the chunk
+     *
+     * @param chunkKey CacheRegistry.chunkKey(world, chunkX, chunkZ)
+     * @return Entries dropped
+     */
+    public int invalidateChunk(String chunkKey) {
+        if (keysByChunk == null) {
+            return 0;
+        }
+
+        if (pinned == null) {
+            Set<K> keys = keysByChunk.remove(chunkKey);
+            if (keys == null) {
+                return 0;
+            }
+
+            int dropped = 0;
+            for (K key : keys) {
+                if (map.remove(key) != null) {
+                    dropped++;
+                }
+            }
+            evictions.add(dropped);
+            return dropped;
+        }
+
+        Set<K> keys = keysByChunk.get(chunkKey);
+        if (keys == null) {
+            return 0;
+        }
+
+        int dropped = 0;
+        for (K key : keys) {
+            Node<K, V> node = map.get(key);
+            if (node != null && pinned.test(node.value)) {
+                continue;
+            }
+            if (node != null && map.remove(key, node)) {
+                dropped++;
+            }
+            keys.remove(key);
+        }
+        keysByChunk.computeIfPresent(chunkKey, (k, remaining) -> remaining.isEmpty() ? null : remaining);
+        evictions.add(dropped);
+        return dropped;
+    }
+
+    /**
+     * Sweep expired entries (TTL only - reads already skip them, this frees the memory)
+     * @return Entries removed
+     */
+    public int cleanUp() {
+        if (ttlNanos <= 0) {
+            return 0;
+        }
+
+        int removed = 0;
+        for (Node<K, V> node : map.values()) {
+            if (isExpired(node) && map.remove(node.key, node)) {
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    // ========================================
+    // VIEWS & STATISTICS
+    // ========================================
+
+    /**
+     * Number of entries (may include expired entries not swept yet)
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Read-only, weakly consistent view of the values (no statistics)
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                Iterator<Node<K, V>> nodes = map.values().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return nodes.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return nodes.next().value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Snapshot of the statistics
+     */
+    public Stats stats() {
+        return new Stats(name, policy.getDisplayName(), map.size(), -1,
+            hits.sum(), misses.sum(), evictions.sum(), loads.sum(), loadNanos.sum());
+    }
+
+    // ========================================
+    // INTERNALS
+    // ========================================
+
+    private boolean isExpired(Node<K, V> node) {
+        return ttlNanos > 0 && System.nanoTime() - node.writeNanos > ttlNanos;
+    }
+
+    private void expire(Node<K, V> node) {
+        if (map.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    private void indexChunk(K key) {
+        String chunkKey = chunkKeyOf.apply(key);
+        if (chunkKey != null) {
+            keysByChunk.computeIfAbsent(chunkKey, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unindexChunk(K key) {
+        String chunkKey = chunkKeyOf.apply(key);
+        if (chunkKey == null) {
+            return;
+        }
+        keysByChunk.computeIfPresent(chunkKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Cache entry
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long writeNanos;
+
+        Node(K key, V value, long writeNanos) {
+            this.key = key;
+            this.value = value;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    /**
+     * Immutable statistics snapshot (also used by caches that aren't InstrumentedCaches,
+     * see CacheRegistry.register(String, Supplier))
+     */
+    public static final class Stats {
+        private final String name;
+        private final String policy;
+        private final int size;
+        private final int maximumSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long loads;
+        private final long totalLoadNanos;
+
+        /**
+         * @param maximumSize Maximum entries, or -1 if unbounded
+         */
+        public Stats(String name, String policy, int size, int maximumSize, long hits, long misses,
+                     long evictions, long loads, long totalLoadNanos) {
+            this.name = name;
+            this.policy = policy;
+            this.size = size;
+            this.maximumSize = maximumSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.loads = loads;
+            this.totalLoadNanos = totalLoadNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPolicy() {
+            return policy;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getTotalLoadNanos() {
+            return totalLoadNanos;
+        }
+
+        /**
+         * @return Hit rate in percent (0 if never read)
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : hits * 100.0 / total;
+        }
+
+        /**
+         * @return Average load time in milliseconds (0 if nothing was loaded)
+         */
+        public double getAvgLoadMs() {
+            return loads == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+        }
+    }
+}
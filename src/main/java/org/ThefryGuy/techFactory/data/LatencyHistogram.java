@@ -0,0 +1,267 @@
+package org.ThefryGuy.techFactory.data;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, log-bucketed latency histogram with 1m / 5m / 15m windows.
+ *
+ * BUCKETING (HdrHistogram-style, log-linear):
+ * - Every power of two is split into 8 linear sub-buckets
+ * - Relative error is at most 12.5%, from nanoseconds up to ~18 minutes
+ * - 0-7ns get one exact bucket each, values above the range land in the last bucket
+ *
+ * WINDOWING:
+ * - One slot per wall-clock minute in a ring of 16 slots
+ * - A window of N minutes merges the current (partial) minute and the N full minutes before it
+ * - A slot is reset the first time it is written in a new minute
+ * - Lifetime count and sum are kept separately (monotonic, for OpenMetrics summaries)
+ *
+ * THREADING:
+ * - record() is lock-free: one LongAdder increment per bucket, LongAccumulator for the max
+ * - The only synchronization is the once-per-minute slot rotation
+ * - snapshot() can run on any thread; it reads a slightly moving target, which is fine for metrics
+ *
+ * PERFORMANCE: LongAdder keeps contended recording (async DB threads + main thread) off a single
+ * cache line, where a plain AtomicLong array would serialize every writer.
+ */
+public class LatencyHistogram {
+
+    /** Sub-buckets per power of two (2^SUB_BUCKET_BITS) */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Highest tracked power of two (2^40 ns ≈ 18 minutes) */
+    private static final int MAX_EXPONENT = 40;
+
+    /** Total bucket count: exact buckets for 0-7, then 8 sub-buckets per power of two */
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    /** Ring size: 15 full minutes plus the current one */
+    private static final int SLOT_COUNT = 16;
+
+    /** Longest supported window in minutes */
+    public static final int MAX_WINDOW_MINUTES = SLOT_COUNT - 1;
+
+    private static final long MINUTE_MS = 60_000L;
+
+    private final Slot[] slots = new Slot[SLOT_COUNT];
+
+    // Lifetime totals (never reset)
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Record one latency sample
+     * @param nanos Duration in nanoseconds (negative values are recorded as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        Slot slot = currentSlot(System.currentTimeMillis() / MINUTE_MS);
+        slot.buckets[bucketIndex(value)].increment();
+        slot.count.increment();
+        slot.sum.add(value);
+        slot.max.accumulate(value);
+        totalCount.increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * Samples recorded since startup
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Sum of all samples since startup (nanoseconds)
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Merge the last N minutes into a snapshot
+     * @param windowMinutes Window length, 1 to MAX_WINDOW_MINUTES
+     * @return Snapshot of the window (empty if nothing was recorded)
+     */
+    public Snapshot snapshot(int windowMinutes) {
+        if (windowMinutes < 1 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Window must be 1-" + MAX_WINDOW_MINUTES + " minutes: " + windowMinutes);
+        }
+
+        long nowMinute = System.currentTimeMillis() / MINUTE_MS;
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+
+        for (Slot slot : slots) {
+            long minute = slot.minute;
+            if (minute > nowMinute || minute < nowMinute - windowMinutes) {
+                continue; // Outside the window (or a stale slot nobody rotated yet)
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += slot.buckets[i].sum();
+            }
+            count += slot.count.sum();
+            sum += slot.sum.sum();
+            max = Math.max(max, slot.max.get());
+        }
+
+        return new Snapshot(counts, count, sum, max);
+    }
+
+    /**
+     * One full wall-clock minute (for once-a-minute downsampling, see MetricsHistory)
+     * @param minute Epoch minute (currentTimeMillis / 60000), at most MAX_WINDOW_MINUTES ago
+     * @return Snapshot of that minute (empty if nothing was recorded in it)
+     */
+    public Snapshot snapshotMinute(long minute) {
+        Slot slot = slots[(int) (minute % SLOT_COUNT)];
+        long[] counts = new long[BUCKET_COUNT];
+        if (slot.minute != minute) {
+            return new Snapshot(counts, 0, 0, 0);
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = slot.buckets[i].sum();
+        }
+        return new Snapshot(counts, slot.count.sum(), slot.sum.sum(), slot.max.get());
+    }
+
+    /**
+     * Get the slot for this minute, resetting it if it still holds an older minute
+     */
+    private Slot currentSlot(long minute) {
+        Slot slot = slots[(int) (minute % SLOT_COUNT)];
+        if (slot.minute != minute) {
+            synchronized (slot) {
+                if (slot.minute != minute) {
+                    slot.reset();
+                    slot.minute = minute;
+                }
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Map a value to its bucket
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value that maps to a bucket (percentiles report this upper edge)
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * One minute of samples
+     */
+    private static class Slot {
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        /** Wall-clock minute this slot holds (-1 = never used) */
+        private volatile long minute = -1;
+
+        private Slot() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+
+    /**
+     * Immutable merged view of a window
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxNanos() {
+            return max;
+        }
+
+        public long getSumNanos() {
+            return sum;
+        }
+
+        public long getMeanNanos() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Value at a percentile
+         * @param percentile 0.0 to 100.0
+         * @return Upper edge of the bucket holding that rank (capped at the exact max), 0 if empty
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1L, (long) Math.ceil(total * (percentile / 100.0)));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
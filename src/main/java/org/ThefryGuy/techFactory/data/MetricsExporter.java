@@ -0,0 +1,373 @@
+package org.ThefryGuy.techFactory.data;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.registry.SystemManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * Opt-in Prometheus / OpenMetrics scrape endpoint (metrics_export.enabled, default off).
+ *
+ * Serves GET /metrics on metrics_export.bind_address:port (default 127.0.0.1:9464) using the JDK's
+ * built-in com.sun.net.httpserver - no extra dependency. Try it with:
+ *   curl http://127.0.0.1:9464/metrics
+ *
+ * EXPOSED:
+ * - Every PerformanceMetrics counter and gauge (flushes, queues, errors, cache, electric machines)
+ * - Latency histograms as summaries (p50/p95/p99 over 5m, lifetime _count/_sum) plus 1m max
+ * - Structure cache, output router and block caches
+ * - Energy networks, devices, stored energy and multiblocks per world; electric machines per type and world
+ *
+ * THREADING:
+ * - A sync task captures a MetricsSnapshot every metrics_export.snapshot_interval_ticks and publishes
+ *   it through an AtomicReference (main thread work = one snapshot copy, no formatting)
+ * - Rendering runs on a single daemon "TechFactory-Metrics" thread, reading only the published
+ *   snapshot and the thread-safe PerformanceMetrics - a slow scraper never touches the tick
+ *
+ * LIFECYCLE: Implements SystemManager for automatic initialization/shutdown via ManagerRegistry
+ */
+public class MetricsExporter implements SystemManager {
+
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /** Summary quantiles and the window they are computed over */
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final int QUANTILE_WINDOW_MINUTES = 5;
+
+    private final TechFactory plugin;
+
+    private final AtomicReference<MetricsSnapshot> latestSnapshot = new AtomicReference<>();
+
+    private HttpServer server = null;
+    private ExecutorService executor = null;
+    private BukkitTask snapshotTask = null;
+
+    public MetricsExporter(TechFactory plugin) {
+        this.plugin = plugin;
+    }
+
+    // ========================================
+    // SYSTEM MANAGER INTERFACE
+    // ========================================
+
+    /**
+     * Start the HTTP server and the snapshot task (only if metrics_export.enabled)
+     */
+    @Override
+    public void initialize() {
+        if (!TechFactoryConstants.METRICS_EXPORT_ENABLED()) {
+            return;
+        }
+
+        String bindAddress = TechFactoryConstants.METRICS_EXPORT_BIND_ADDRESS();
+        int port = TechFactoryConstants.METRICS_EXPORT_PORT();
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        } catch (IOException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to start metrics endpoint on " + bindAddress + ":" + port, e);
+            server = null;
+            return;
+        }
+
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TechFactory-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handleScrape);
+        server.start();
+
+        long interval = Math.max(1L, TechFactoryConstants.METRICS_EXPORT_SNAPSHOT_INTERVAL_TICKS());
+        snapshotTask = Bukkit.getScheduler().runTaskTimer(plugin,
+            TickProfiler.wrap(TickProfiler.Subsystem.METRICS_SNAPSHOT, this::publishSnapshot), 1L, interval);
+
+        plugin.getLogger().info("Metrics endpoint listening on http://" + bindAddress + ":" + port + "/metrics");
+    }
+
+    /**
+     * Stop the snapshot task and the HTTP server
+     */
+    @Override
+    public void disable() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            snapshotTask = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        latestSnapshot.set(null);
+    }
+
+    /**
+     * Capture and publish a new snapshot
+     * MAIN THREAD ONLY
+     */
+    private void publishSnapshot() {
+        try {
+            latestSnapshot.set(MetricsSnapshot.capture(plugin));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to capture metrics snapshot", e);
+        }
+    }
+
+    // ========================================
+    // HTTP
+    // ========================================
+
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render(latestSnapshot.get(), PerformanceMetrics.getInstance()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to render metrics", e);
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ========================================
+    // OPENMETRICS RENDERING
+    // ========================================
+
+    /**
+     * Render all metrics in OpenMetrics text format
+     * Safe on any thread: reads only the immutable snapshot and thread-safe PerformanceMetrics
+     *
+     * @param snapshot Latest main-thread snapshot (null before the first capture - those families are skipped)
+     * @param metrics Performance metrics
+     * @return OpenMetrics exposition, terminated by "# EOF"
+     */
+    static String render(MetricsSnapshot snapshot, PerformanceMetrics metrics) {
+        StringBuilder sb = new StringBuilder(8192);
+
+        // ---- PerformanceMetrics ----
+        counter(sb, "techfactory_batch_flushes", "Batch flushes performed", metrics.getTotalBatchFlushes());
+        counter(sb, "techfactory_batch_flushes_slow", "Batch flushes slower than 1s", metrics.getSlowBatchFlushCount());
+        counter(sb, "techfactory_block_saves_flushed", "Block saves written by batch flushes", metrics.getTotalSavesFlushed());
+        counter(sb, "techfactory_block_deletes_flushed", "Block deletes written by batch flushes", metrics.getTotalDeletesFlushed());
+        counter(sb, "techfactory_energy_updates", "Energy metadata updates queued", metrics.getTotalEnergyUpdates());
+        gauge(sb, "techfactory_energy_updates_peak_per_second", "Peak energy updates in one second", metrics.getPeakEnergyUpdatesPerSecond());
+        counter(sb, "techfactory_database_errors", "Database errors", metrics.getTotalDatabaseErrors());
+        counter(sb, "techfactory_database_retries", "Database retries", metrics.getTotalDatabaseRetries());
+
+        family(sb, "techfactory_pending_writes", "gauge", "Writes waiting for the next batch flush");
+        sample(sb, "techfactory_pending_writes", "kind", "save", metrics.getPendingSavesCount());
+        sample(sb, "techfactory_pending_writes", "kind", "delete", metrics.getPendingDeletesCount());
+        sample(sb, "techfactory_pending_writes", "kind", "energy", metrics.getPendingEnergyUpdatesCount());
+
+        // ---- Caches (CacheRegistry) ----
+        List<InstrumentedCache.Stats> caches = CacheRegistry.snapshot();
+        family(sb, "techfactory_cache_size", "gauge", "Entries per cache");
+        for (InstrumentedCache.Stats cache : caches) {
+            sample(sb, "techfactory_cache_size", "cache", cache.getName(), cache.getSize());
+        }
+        family(sb, "techfactory_cache_hits", "counter", "Cache hits");
+        for (InstrumentedCache.Stats cache : caches) {
+            sample(sb, "techfactory_cache_hits_total", "cache", cache.getName(), cache.getHits());
+        }
+        family(sb, "techfactory_cache_misses", "counter", "Cache misses");
+        for (InstrumentedCache.Stats cache : caches) {
+            sample(sb, "techfactory_cache_misses_total", "cache", cache.getName(), cache.getMisses());
+        }
+        family(sb, "techfactory_cache_evictions", "counter", "Cache evictions, expirations and invalidations");
+        for (InstrumentedCache.Stats cache : caches) {
+            sample(sb, "techfactory_cache_evictions_total", "cache", cache.getName(), cache.getEvictions());
+        }
+        family(sb, "techfactory_cache_loads", "counter", "Values loaded on a cache miss");
+        for (InstrumentedCache.Stats cache : caches) {
+            sample(sb, "techfactory_cache_loads_total", "cache", cache.getName(), cache.getLoads());
+        }
+        family(sb, "techfactory_cache_load_seconds", "counter", "Time spent loading values on a cache miss");
+        for (InstrumentedCache.Stats cache : caches) {
+            sample(sb, "techfactory_cache_load_seconds_total", "cache", cache.getName(), seconds(cache.getTotalLoadNanos()));
+        }
+
+        counter(sb, "techfactory_electric_machine_visits", "Electric machine processor visits", metrics.getElectricMachineVisits());
+        family(sb, "techfactory_electric_machine_allocated_bytes", "counter", "Bytes allocated by the electric machine processor");
+        sb.append("techfactory_electric_machine_allocated_bytes_total ").append(metrics.getElectricMachineAllocatedBytes()).append('\n');
+
+        gauge(sb, "techfactory_uptime_seconds", "Seconds since the plugin started", metrics.getUptimeSeconds());
+
+        // ---- Latency ----
+        String latency = "techfactory_operation_latency_seconds";
+        family(sb, latency, "summary", "Operation latency (quantiles over " + QUANTILE_WINDOW_MINUTES + "m, count/sum since startup)");
+        sb.append("# UNIT ").append(latency).append(" seconds\n");
+        for (PerformanceMetrics.Operation operation : PerformanceMetrics.Operation.values()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            LatencyHistogram histogram = metrics.getLatencyHistogram(operation);
+            LatencyHistogram.Snapshot window = histogram.snapshot(QUANTILE_WINDOW_MINUTES);
+            for (double quantile : QUANTILES) {
+                sb.append(latency).append("{operation=\"").append(name).append("\",quantile=\"").append(quantile).append("\"} ")
+                  .append(seconds(window.getPercentileNanos(quantile * 100.0))).append('\n');
+            }
+            sb.append(latency).append("_count{operation=\"").append(name).append("\"} ").append(histogram.getTotalCount()).append('\n');
+            sb.append(latency).append("_sum{operation=\"").append(name).append("\"} ").append(seconds(histogram.getTotalNanos())).append('\n');
+        }
+
+        family(sb, "techfactory_operation_latency_max_seconds", "gauge", "Slowest operation in the last minute");
+        for (PerformanceMetrics.Operation operation : PerformanceMetrics.Operation.values()) {
+            sample(sb, "techfactory_operation_latency_max_seconds", "operation", operation.name().toLowerCase(Locale.ROOT),
+                seconds(metrics.getLatency(operation, 1).getMaxNanos()));
+        }
+
+        // ---- Main-thread snapshot ----
+        if (snapshot != null) {
+            renderSnapshot(sb, snapshot);
+        }
+
+        sb.append("# EOF\n");
+        return sb.toString();
+    }
+
+    private static void renderSnapshot(StringBuilder sb, MetricsSnapshot snapshot) {
+        gauge(sb, "techfactory_snapshot_age_seconds", "Age of the main-thread snapshot",
+            (System.currentTimeMillis() - snapshot.getCapturedAtMs()) / 1000.0);
+
+        gauge(sb, "techfactory_smelting_active", "Active smelting operations", snapshot.getActiveSmelts());
+
+        family(sb, "techfactory_cached_entries", "gauge", "Entries in the in-memory data caches");
+        sample(sb, "techfactory_cached_entries", "cache", "placed_blocks", snapshot.getCachedBlocks());
+        sample(sb, "techfactory_cached_entries", "cache", "multiblocks", snapshot.getCachedMultiblocks());
+        sample(sb, "techfactory_cached_entries", "cache", "structures", snapshot.getStructureCacheSize());
+        sample(sb, "techfactory_cached_entries", "cache", "output_routes", snapshot.getOutputRoutes());
+
+        counter(sb, "techfactory_structure_cache_hits", "Structure cache hits", snapshot.getStructureCacheHits());
+        counter(sb, "techfactory_structure_cache_misses", "Structure cache misses", snapshot.getStructureCacheMisses());
+        counter(sb, "techfactory_structure_cache_invalidations", "Structure cache invalidations", snapshot.getStructureCacheInvalidations());
+        long structureLookups = snapshot.getStructureCacheHits() + snapshot.getStructureCacheMisses();
+        gauge(sb, "techfactory_structure_cache_hit_ratio", "Structure cache hit ratio (0-1)",
+            structureLookups == 0 ? 0 : snapshot.getStructureCacheHits() / (double) structureLookups);
+
+        counter(sb, "techfactory_output_route_hits", "Machine outputs served by a cached route", snapshot.getOutputRouteHits());
+        counter(sb, "techfactory_output_route_resolves", "Output routes resolved from blocks", snapshot.getOutputRouteResolves());
+        counter(sb, "techfactory_output_overflow_items", "Output items dropped because every target was full", snapshot.getOutputOverflowItems());
+
+        // Per world
+        Map<String, MetricsSnapshot.WorldStats> worlds = snapshot.getWorlds();
+
+        family(sb, "techfactory_energy_networks", "gauge", "Energy networks per world");
+        for (Map.Entry<String, MetricsSnapshot.WorldStats> world : worlds.entrySet()) {
+            sample(sb, "techfactory_energy_networks", "world", world.getKey(), world.getValue().getNetworks());
+        }
+
+        family(sb, "techfactory_energy_devices", "gauge", "Devices connected to energy networks per world");
+        for (Map.Entry<String, MetricsSnapshot.WorldStats> world : worlds.entrySet()) {
+            MetricsSnapshot.WorldStats stats = world.getValue();
+            sample2(sb, "techfactory_energy_devices", world.getKey(), "device", "solar_generator", stats.getPanels());
+            sample2(sb, "techfactory_energy_devices", world.getKey(), "device", "consumer", stats.getConsumers());
+            sample2(sb, "techfactory_energy_devices", world.getKey(), "device", "connector", stats.getConnectors());
+            sample2(sb, "techfactory_energy_devices", world.getKey(), "device", "capacitor", stats.getCapacitors());
+        }
+
+        family(sb, "techfactory_energy_stored_joules", "gauge", "Energy stored in networks per world");
+        for (Map.Entry<String, MetricsSnapshot.WorldStats> world : worlds.entrySet()) {
+            sample(sb, "techfactory_energy_stored_joules", "world", world.getKey(), world.getValue().getStoredEnergy());
+        }
+
+        family(sb, "techfactory_energy_capacity_joules", "gauge", "Energy capacity of networks per world");
+        for (Map.Entry<String, MetricsSnapshot.WorldStats> world : worlds.entrySet()) {
+            sample(sb, "techfactory_energy_capacity_joules", "world", world.getKey(), world.getValue().getMaxCapacity());
+        }
+
+        family(sb, "techfactory_multiblocks", "gauge", "Loaded multiblocks per world and type");
+        for (Map.Entry<String, MetricsSnapshot.WorldStats> world : worlds.entrySet()) {
+            for (Map.Entry<String, Integer> type : world.getValue().getMultiblocksByType().entrySet()) {
+                sample2(sb, "techfactory_multiblocks", world.getKey(), "type", type.getKey(), type.getValue());
+            }
+        }
+
+        // Electric machines
+        family(sb, "techfactory_electric_machines_active", "gauge", "Electric machines currently processing");
+        for (MetricsSnapshot.MachineStats machine : snapshot.getMachines()) {
+            sample(sb, "techfactory_electric_machines_active", "type", machine.getMachineType(), machine.getActive());
+        }
+
+        family(sb, "techfactory_electric_machines_loaded", "gauge", "Electric machines loaded in memory per world");
+        for (MetricsSnapshot.MachineStats machine : snapshot.getMachines()) {
+            for (Map.Entry<String, Integer> world : machine.getLoadedByWorld().entrySet()) {
+                sample2(sb, "techfactory_electric_machines_loaded", world.getKey(), "type", machine.getMachineType(), world.getValue());
+            }
+        }
+    }
+
+    // ========================================
+    // FORMAT HELPERS
+    // ========================================
+
+    private static void family(StringBuilder sb, String name, String type, String help) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        family(sb, name, "counter", help);
+        sb.append(name).append("_total ").append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, double value) {
+        family(sb, name, "gauge", help);
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String label, String labelValue, double value) {
+        sb.append(name).append('{').append(label).append("=\"").append(escape(labelValue)).append("\"} ")
+          .append(value).append('\n');
+    }
+
+    private static void sample2(StringBuilder sb, String name, String world, String label, String labelValue, double value) {
+        sb.append(name).append("{world=\"").append(escape(world)).append("\",").append(label).append("=\"")
+          .append(escape(labelValue)).append("\"} ").append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    /**
+     * Escape a label value (backslash, double quote, newline)
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,516 @@
+package org.ThefryGuy.techFactory.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.registry.SystemManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Persistent per-minute metrics history - lets a lag report from two days ago be lined up with what
+ * the plugin was doing at the time, without an external metrics stack.
+ *
+ * Once per wall-clock minute, the minute that just ended is downsampled into one float per Series
+ * (flush latency percentiles, DB write rates, queue depths, machine/network counts, tick time) and
+ * written to plugins/TechFactory/metrics-history.bin. /techfactory metrics history <series> renders
+ * a text sparkline from it.
+ *
+ * FILE FORMAT (fixed size ring, ~1MB for 7 days):
+ * - Header: magic, version, slot count, series count, series layout hash
+ * - Slots: [epoch minute (long)][one float per series], slot index = minute % slot count
+ * - A slot whose minute doesn't match the requested one is a gap (server offline, or overwritten)
+ * - A header that doesn't match (retention or series changed) recreates the file
+ *
+ * SOURCES:
+ * - Latencies and tick time come from the PerformanceMetrics histograms of that exact minute
+ *   (LatencyHistogram.snapshotMinute), rates from deltas of the lifetime counters
+ * - Tick time per subsystem uses the always-on histograms of the main-thread operations -
+ *   TickProfiler only collects while /techfactory profile is running
+ *
+ * THREADING:
+ * - Sampling runs on the main thread (one MetricsSnapshot per minute, checked every second)
+ * - File writes and reads run on a single daemon "TechFactory-MetricsHistory" thread
+ *
+ * LIFECYCLE: Implements SystemManager for automatic initialization/shutdown via ManagerRegistry
+ */
+public class MetricsHistory implements SystemManager {
+
+    /**
+     * How a series is reduced when several minutes share one sparkline column
+     */
+    public enum Aggregate {
+        AVG, MAX, MIN
+    }
+
+    /**
+     * Recorded series (the order is the file layout - append new series at the end)
+     */
+    public enum Series {
+        FLUSH_P50("flush_p50", "ms", Aggregate.MAX, "Batch flush latency p50"),
+        FLUSH_P99("flush_p99", "ms", Aggregate.MAX, "Batch flush latency p99"),
+        FLUSH_MAX("flush_max", "ms", Aggregate.MAX, "Slowest batch flush"),
+        FLUSHES("flushes", "/min", Aggregate.AVG, "Batch flushes"),
+        SAVES("saves", "/min", Aggregate.AVG, "Block saves written"),
+        DELETES("deletes", "/min", Aggregate.AVG, "Block deletes written"),
+        ENERGY_UPDATES("energy_updates", "/min", Aggregate.AVG, "Energy metadata updates"),
+        ENERGY_UPDATES_PEAK("energy_updates_peak", "/s", Aggregate.MAX, "Peak energy updates per second"),
+        DB_ERRORS("db_errors", "/min", Aggregate.MAX, "Database errors"),
+        QUEUE_SAVES("queue_saves", "", Aggregate.MAX, "Pending saves at the last flush"),
+        QUEUE_DELETES("queue_deletes", "", Aggregate.MAX, "Pending deletes at the last flush"),
+        QUEUE_ENERGY("queue_energy", "", Aggregate.MAX, "Pending energy updates at the last flush"),
+        CHUNK_LOAD_P99("chunk_load_p99", "ms", Aggregate.MAX, "Chunk data load latency p99"),
+        NETWORKS("networks", "", Aggregate.AVG, "Energy networks"),
+        MULTIBLOCKS("multiblocks", "", Aggregate.AVG, "Cached multiblocks"),
+        MACHINES_ACTIVE("machines_active", "", Aggregate.AVG, "Active electric machines"),
+        MACHINES_LOADED("machines_loaded", "", Aggregate.AVG, "Loaded electric machines"),
+        TPS("tps", "", Aggregate.MIN, "Server TPS (1m average)"),
+        MSPT("mspt", "ms", Aggregate.MAX, "Server tick time (average)"),
+        TICK_MACHINES("tick_machines", "ms/tick", Aggregate.MAX, "Electric machine processor time per tick"),
+        TICK_CHUNK_RESTORE("tick_chunk_restore", "ms/tick", Aggregate.MAX, "Chunk restore time per tick"),
+        TICK_RECIPE_MATCH("tick_recipe_match", "ms/tick", Aggregate.MAX, "Recipe matching time per tick");
+
+        private final String key;
+        private final String unit;
+        private final Aggregate aggregate;
+        private final String description;
+
+        Series(String key, String unit, Aggregate aggregate, String description) {
+            this.key = key;
+            this.unit = unit;
+            this.aggregate = aggregate;
+            this.description = description;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public Aggregate getAggregate() {
+            return aggregate;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return The series with this key, or null
+         */
+        public static Series byKey(String key) {
+            for (Series series : values()) {
+                if (series.key.equalsIgnoreCase(key)) {
+                    return series;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final String FILE_NAME = "metrics-history.bin";
+    private static final int MAGIC = 0x54464D48; // "TFMH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SERIES_COUNT = Series.values().length;
+    private static final int SLOT_BYTES = Long.BYTES + SERIES_COUNT * Float.BYTES;
+    private static final long MINUTE_MS = 60_000L;
+
+    private final TechFactory plugin;
+
+    private FileChannel channel = null;
+    private int slotCount = 0;
+    private ExecutorService io = null;
+    private BukkitTask sampleTask = null;
+
+    // Sampler state (main thread only)
+    private long currentMinute = -1;
+    private long lastFlushes;
+    private long lastSaves;
+    private long lastDeletes;
+    private long lastEnergyUpdates;
+    private long lastDatabaseErrors;
+    private int lastTick;
+
+    // Deltas of the last sampleRates() call
+    private long lastFlushesDelta;
+    private long lastSavesDelta;
+    private long lastDeletesDelta;
+    private long lastEnergyUpdatesDelta;
+    private long lastDatabaseErrorsDelta;
+
+    public MetricsHistory(TechFactory plugin) {
+        this.plugin = plugin;
+    }
+
+    // ========================================
+    // SYSTEM MANAGER INTERFACE
+    // ========================================
+
+    /**
+     * Open (or create) the history file (only if metrics_history.enabled)
+     * Startup worker thread - reads the header, recreates the file if the layout changed
+     */
+    @Override
+    public void prepare() {
+        if (!TechFactoryConstants.METRICS_HISTORY_ENABLED()) {
+            return;
+        }
+
+        slotCount = Math.max(1, TechFactoryConstants.METRICS_HISTORY_RETENTION_DAYS()) * 24 * 60;
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        try {
+            channel = openFile(file);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open metrics history " + file, e);
+            channel = null;
+        }
+    }
+
+    /**
+     * Start the minute sampler (only if prepare() opened the file)
+     */
+    @Override
+    public void initialize() {
+        if (channel == null) {
+            return;
+        }
+
+        io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TechFactory-MetricsHistory");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Check every second; the work happens once per wall-clock minute
+        sampleTask = Bukkit.getScheduler().runTaskTimer(plugin,
+            TickProfiler.wrap(TickProfiler.Subsystem.METRICS_SNAPSHOT, this::checkMinute), 20L, 20L);
+
+        plugin.getLogger().info("Metrics history enabled (" + (slotCount / 1440) + " days, " + FILE_NAME + ")");
+    }
+
+    /**
+     * Stop sampling and close the file (pending writes finish first)
+     */
+    @Override
+    public void disable() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        if (io != null) {
+            io.shutdown();
+            try {
+                if (!io.awaitTermination(2, TimeUnit.SECONDS)) {
+                    io.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                io.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            io = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to close metrics history", e);
+            }
+            channel = null;
+        }
+        currentMinute = -1;
+    }
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    public int getRetentionMinutes() {
+        return slotCount;
+    }
+
+    // ========================================
+    // SAMPLING (main thread)
+    // ========================================
+
+    /**
+     * Record the previous minute once the wall-clock minute changes
+     */
+    private void checkMinute() {
+        long minute = System.currentTimeMillis() / MINUTE_MS;
+        if (minute == currentMinute) {
+            return;
+        }
+
+        long finished = currentMinute;
+        currentMinute = minute;
+        if (finished < 0) {
+            // First check after startup: only set the counter baselines (that minute is partial)
+            sampleRates();
+            return;
+        }
+
+        float[] values;
+        try {
+            values = sample(finished);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to sample metrics history", e);
+            return;
+        }
+        submit(() -> writeSlot(finished, values));
+    }
+
+    /**
+     * Downsample one finished minute
+     * MAIN THREAD ONLY (MetricsSnapshot)
+     */
+    private float[] sample(long minute) {
+        float[] values = new float[SERIES_COUNT];
+        Arrays.fill(values, Float.NaN);
+        PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+
+        LatencyHistogram.Snapshot flushes = metrics.getLatencyHistogram(PerformanceMetrics.Operation.BATCH_FLUSH).snapshotMinute(minute);
+        if (flushes.getCount() > 0) {
+            set(values, Series.FLUSH_P50, millis(flushes.getPercentileNanos(50)));
+            set(values, Series.FLUSH_P99, millis(flushes.getPercentileNanos(99)));
+            set(values, Series.FLUSH_MAX, millis(flushes.getMaxNanos()));
+        }
+        LatencyHistogram.Snapshot chunkLoads = metrics.getLatencyHistogram(PerformanceMetrics.Operation.CHUNK_LOAD).snapshotMinute(minute);
+        if (chunkLoads.getCount() > 0) {
+            set(values, Series.CHUNK_LOAD_P99, millis(chunkLoads.getPercentileNanos(99)));
+        }
+
+        // Rates since the previous sample (one minute, unless the server stalled)
+        int ticks = sampleRates();
+        set(values, Series.FLUSHES, lastFlushesDelta);
+        set(values, Series.SAVES, lastSavesDelta);
+        set(values, Series.DELETES, lastDeletesDelta);
+        set(values, Series.ENERGY_UPDATES, lastEnergyUpdatesDelta);
+        set(values, Series.DB_ERRORS, lastDatabaseErrorsDelta);
+        set(values, Series.ENERGY_UPDATES_PEAK, metrics.takeMinutePeakEnergyUpdates());
+
+        set(values, Series.QUEUE_SAVES, metrics.getPendingSavesCount());
+        set(values, Series.QUEUE_DELETES, metrics.getPendingDeletesCount());
+        set(values, Series.QUEUE_ENERGY, metrics.getPendingEnergyUpdatesCount());
+
+        MetricsSnapshot snapshot = MetricsSnapshot.capture(plugin);
+        int networks = 0;
+        for (MetricsSnapshot.WorldStats world : snapshot.getWorlds().values()) {
+            networks += world.getNetworks();
+        }
+        int active = 0;
+        int loaded = 0;
+        for (MetricsSnapshot.MachineStats machine : snapshot.getMachines()) {
+            active += machine.getActive();
+            loaded += machine.getLoaded();
+        }
+        set(values, Series.NETWORKS, networks);
+        set(values, Series.MULTIBLOCKS, snapshot.getCachedMultiblocks());
+        set(values, Series.MACHINES_ACTIVE, active);
+        set(values, Series.MACHINES_LOADED, loaded);
+
+        set(values, Series.TPS, Math.min(20.0, Bukkit.getTPS()[0]));
+        set(values, Series.MSPT, Bukkit.getAverageTickTime());
+        if (ticks > 0) {
+            set(values, Series.TICK_MACHINES, msPerTick(metrics, PerformanceMetrics.Operation.MACHINE_PROCESSOR, minute, ticks));
+            set(values, Series.TICK_CHUNK_RESTORE, msPerTick(metrics, PerformanceMetrics.Operation.MAIN_THREAD_RESTORE, minute, ticks));
+            set(values, Series.TICK_RECIPE_MATCH, msPerTick(metrics, PerformanceMetrics.Operation.RECIPE_MATCH, minute, ticks));
+        }
+        return values;
+    }
+
+    /**
+     * Advance the lifetime counter baselines
+     * @return Server ticks since the previous call
+     */
+    private int sampleRates() {
+        PerformanceMetrics metrics = PerformanceMetrics.getInstance();
+        long flushes = metrics.getTotalBatchFlushes();
+        long saves = metrics.getTotalSavesFlushed();
+        long deletes = metrics.getTotalDeletesFlushed();
+        long energyUpdates = metrics.getTotalEnergyUpdates();
+        long errors = metrics.getTotalDatabaseErrors();
+        int tick = Bukkit.getCurrentTick();
+
+        lastFlushesDelta = flushes - lastFlushes;
+        lastSavesDelta = saves - lastSaves;
+        lastDeletesDelta = deletes - lastDeletes;
+        lastEnergyUpdatesDelta = energyUpdates - lastEnergyUpdates;
+        lastDatabaseErrorsDelta = errors - lastDatabaseErrors;
+        int ticks = tick - lastTick;
+
+        lastFlushes = flushes;
+        lastSaves = saves;
+        lastDeletes = deletes;
+        lastEnergyUpdates = energyUpdates;
+        lastDatabaseErrors = errors;
+        lastTick = tick;
+        return ticks;
+    }
+
+    private static double msPerTick(PerformanceMetrics metrics, PerformanceMetrics.Operation operation, long minute, int ticks) {
+        return metrics.getLatencyHistogram(operation).snapshotMinute(minute).getSumNanos() / 1_000_000.0 / ticks;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void set(float[] values, Series series, double value) {
+        values[series.ordinal()] = (float) value;
+    }
+
+    // ========================================
+    // QUERIES
+    // ========================================
+
+    /**
+     * Read the last N minutes of a series (oldest first, NaN = no data)
+     * The callback runs on the main thread; it gets null if the history is disabled or unreadable
+     */
+    public void read(Series series, int minutes, Consumer<float[]> callback) {
+        int window = Math.max(1, Math.min(minutes, slotCount));
+        if (!submit(() -> {
+            float[] values = readSeries(series, window);
+            Bukkit.getScheduler().runTask(plugin, () -> callback.accept(values));
+        })) {
+            callback.accept(null);
+        }
+    }
+
+    // ========================================
+    // FILE I/O (history thread)
+    // ========================================
+
+    /**
+     * Open the ring file, recreating it if its layout doesn't match
+     */
+    private FileChannel openFile(File file) throws IOException {
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+
+        FileChannel fileChannel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long expectedSize = HEADER_BYTES + (long) slotCount * SLOT_BYTES;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        boolean valid = false;
+        if (fileChannel.size() == expectedSize && fileChannel.read(header, 0) == HEADER_BYTES) {
+            header.flip();
+            valid = header.getInt() == MAGIC && header.getInt() == VERSION && header.getInt() == slotCount
+                && header.getInt() == SERIES_COUNT && header.getLong() == layoutHash();
+        }
+
+        if (!valid) {
+            if (fileChannel.size() > 0) {
+                plugin.getLogger().info("Metrics history layout changed - starting a new " + FILE_NAME);
+            }
+            // Zero-filled slots hold minute 0, which never matches a real minute (= empty)
+            fileChannel.truncate(0);
+            header.clear();
+            header.putInt(MAGIC).putInt(VERSION).putInt(slotCount).putInt(SERIES_COUNT).putLong(layoutHash());
+            header.flip();
+            fileChannel.write(header, 0);
+            fileChannel.write(ByteBuffer.allocate(1), expectedSize - 1);
+        }
+        return fileChannel;
+    }
+
+    private void writeSlot(long minute, float[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_BYTES);
+        buffer.putLong(minute);
+        for (float value : values) {
+            buffer.putFloat(value);
+        }
+        buffer.flip();
+        try {
+            channel.write(buffer, slotOffset(minute));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write metrics history", e);
+        }
+    }
+
+    private float[] readSeries(Series series, int minutes) {
+        long lastMinute = System.currentTimeMillis() / MINUTE_MS - 1;
+        float[] values = new float[minutes];
+        Arrays.fill(values, Float.NaN);
+
+        // One bulk read of the whole ring (~1MB for 7 days) instead of one read per minute
+        ByteBuffer data = ByteBuffer.allocate(slotCount * SLOT_BYTES);
+        try {
+            long position = HEADER_BYTES;
+            while (data.hasRemaining()) {
+                int read = channel.read(data, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read metrics history", e);
+            return null;
+        }
+
+        for (int i = 0; i < minutes; i++) {
+            long minute = lastMinute - (minutes - 1 - i);
+            int slot = (int) (minute % slotCount) * SLOT_BYTES;
+            if (data.getLong(slot) == minute) {
+                values[i] = data.getFloat(slot + Long.BYTES + series.ordinal() * Float.BYTES);
+            }
+        }
+        return values;
+    }
+
+    private long slotOffset(long minute) {
+        return HEADER_BYTES + (minute % slotCount) * SLOT_BYTES;
+    }
+
+    /**
+     * Hash of the series keys in order - adding or reordering series invalidates old files
+     */
+    private static long layoutHash() {
+        long hash = 1125899906842597L;
+        for (Series series : Series.values()) {
+            for (char c : series.key.toLowerCase(Locale.ROOT).toCharArray()) {
+                hash = 31 * hash + c;
+            }
+            hash = 31 * hash + '|';
+        }
+        return hash;
+    }
+
+    /**
+     * Run on the history thread
+     * @return false if the history is disabled or shutting down
+     */
+    private boolean submit(Runnable task) {
+        ExecutorService executor = io;
+        if (executor == null || channel == null) {
+            return false;
+        }
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+}
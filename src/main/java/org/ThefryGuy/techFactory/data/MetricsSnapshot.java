@@ -0,0 +1,252 @@
+package org.ThefryGuy.techFactory.data;
+
+import org.bukkit.Location;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.energy.EnergyNetwork;
+import org.ThefryGuy.techFactory.machines.electric.ElectricMachineRuntime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable point-in-time copy of the plugin state that is only safe to read on the main thread.
+ *
+ * Captured by MetricsExporter on a sync task and published through an AtomicReference, so the
+ * HTTP thread renders from plain final fields and never touches managers, blocks or worlds.
+ * (PerformanceMetrics is thread-safe and is read live by the renderer instead.)
+ *
+ * THREADING: capture() - MAIN THREAD ONLY. Getters - any thread (all fields final, maps unmodifiable).
+ */
+public class MetricsSnapshot {
+
+    private final long capturedAtMs;
+
+    private final int activeSmelts;
+    private final int cachedBlocks;
+    private final int cachedMultiblocks;
+
+    private final int structureCacheSize;
+    private final long structureCacheHits;
+    private final long structureCacheMisses;
+    private final long structureCacheInvalidations;
+
+    private final int outputRoutes;
+    private final long outputRouteHits;
+    private final long outputRouteResolves;
+    private final long outputOverflowItems;
+
+    private final Map<String, WorldStats> worlds;
+    private final List<MachineStats> machines;
+
+    private MetricsSnapshot(TechFactory plugin) {
+        this.capturedAtMs = System.currentTimeMillis();
+
+        this.activeSmelts = plugin.getSmeltingManager().getActiveCount();
+        this.cachedBlocks = plugin.getDatabaseManager().getCachedBlockCount();
+        this.cachedMultiblocks = plugin.getDatabaseManager().getCachedMultiblockCount();
+
+        MultiblockCache structureCache = plugin.getMultiblockCache();
+        this.structureCacheSize = structureCache.size();
+        this.structureCacheHits = structureCache.getHits();
+        this.structureCacheMisses = structureCache.getMisses();
+        this.structureCacheInvalidations = structureCache.getInvalidations();
+
+        OutputRouter router = plugin.getOutputRouter();
+        this.outputRoutes = router.size();
+        this.outputRouteHits = router.getRouteHits();
+        this.outputRouteResolves = router.getRouteResolves();
+        this.outputOverflowItems = router.getOverflowItems();
+
+        // Per-world breakdown (TreeMap = stable output order)
+        Map<String, WorldStats> worldStats = new TreeMap<>();
+        for (EnergyNetwork network : plugin.getEnergyManager().getAllNetworks()) {
+            Location regulator = network.getRegulatorLocation();
+            if (regulator == null || regulator.getWorld() == null) {
+                continue;
+            }
+            worldStats.computeIfAbsent(regulator.getWorld().getName(), name -> new WorldStats()).addNetwork(network);
+        }
+        for (MultiblockData multiblock : plugin.getDatabaseManager().getAllMultiblocks()) {
+            worldStats.computeIfAbsent(multiblock.getWorldName(), name -> new WorldStats())
+                .multiblocksByType.merge(multiblock.getMultiblockType(), 1, Integer::sum);
+        }
+        for (WorldStats stats : worldStats.values()) {
+            stats.freeze();
+        }
+        this.worlds = Collections.unmodifiableMap(worldStats);
+
+        List<MachineStats> machineStats = new ArrayList<>();
+        for (ElectricMachineRuntime runtime : ElectricMachineRuntime.getAll()) {
+            machineStats.add(new MachineStats(runtime.getMachineType(), runtime.getActiveCount(),
+                runtime.getLoadedCount(), new TreeMap<>(runtime.getLoadedCountByWorld())));
+        }
+        this.machines = Collections.unmodifiableList(machineStats);
+    }
+
+    /**
+     * Copy the current plugin state
+     * MAIN THREAD ONLY
+     */
+    public static MetricsSnapshot capture(TechFactory plugin) {
+        return new MetricsSnapshot(plugin);
+    }
+
+    // ========================================
+    // GETTERS
+    // ========================================
+
+    public long getCapturedAtMs() {
+        return capturedAtMs;
+    }
+
+    public int getActiveSmelts() {
+        return activeSmelts;
+    }
+
+    public int getCachedBlocks() {
+        return cachedBlocks;
+    }
+
+    public int getCachedMultiblocks() {
+        return cachedMultiblocks;
+    }
+
+    public int getStructureCacheSize() {
+        return structureCacheSize;
+    }
+
+    public long getStructureCacheHits() {
+        return structureCacheHits;
+    }
+
+    public long getStructureCacheMisses() {
+        return structureCacheMisses;
+    }
+
+    public long getStructureCacheInvalidations() {
+        return structureCacheInvalidations;
+    }
+
+    public int getOutputRoutes() {
+        return outputRoutes;
+    }
+
+    public long getOutputRouteHits() {
+        return outputRouteHits;
+    }
+
+    public long getOutputRouteResolves() {
+        return outputRouteResolves;
+    }
+
+    public long getOutputOverflowItems() {
+        return outputOverflowItems;
+    }
+
+    /** World name -> stats (sorted by name) */
+    public Map<String, WorldStats> getWorlds() {
+        return worlds;
+    }
+
+    public List<MachineStats> getMachines() {
+        return machines;
+    }
+
+    /**
+     * Energy networks and multiblocks of one world
+     */
+    public static class WorldStats {
+        private int networks;
+        private int panels;
+        private int consumers;
+        private int connectors;
+        private int capacitors;
+        private long storedEnergy;
+        private long maxCapacity;
+        private Map<String, Integer> multiblocksByType = new TreeMap<>();
+
+        private void addNetwork(EnergyNetwork network) {
+            networks++;
+            panels += network.getPanelCount();
+            consumers += network.getConsumerCount();
+            connectors += network.getConnectorCount();
+            capacitors += network.getCapacitorCount();
+            storedEnergy += network.getStoredEnergy();
+            maxCapacity += network.getMaxCapacity();
+        }
+
+        private void freeze() {
+            multiblocksByType = Collections.unmodifiableMap(multiblocksByType);
+        }
+
+        public int getNetworks() {
+            return networks;
+        }
+
+        public int getPanels() {
+            return panels;
+        }
+
+        public int getConsumers() {
+            return consumers;
+        }
+
+        public int getConnectors() {
+            return connectors;
+        }
+
+        public int getCapacitors() {
+            return capacitors;
+        }
+
+        public long getStoredEnergy() {
+            return storedEnergy;
+        }
+
+        public long getMaxCapacity() {
+            return maxCapacity;
+        }
+
+        /** Multiblock type -> count (sorted by type) */
+        public Map<String, Integer> getMultiblocksByType() {
+            return multiblocksByType;
+        }
+    }
+
+    /**
+     * One electric machine type
+     */
+    public static class MachineStats {
+        private final String machineType;
+        private final int active;
+        private final int loaded;
+        private final Map<String, Integer> loadedByWorld;
+
+        private MachineStats(String machineType, int active, int loaded, Map<String, Integer> loadedByWorld) {
+            this.machineType = machineType;
+            this.active = active;
+            this.loaded = loaded;
+            this.loadedByWorld = Collections.unmodifiableMap(loadedByWorld);
+        }
+
+        public String getMachineType() {
+            return machineType;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /** World name -> loaded machines (sorted by world) */
+        public Map<String, Integer> getLoadedByWorld() {
+            return loadedByWorld;
+        }
+    }
+}
@@ -1,138 +1,323 @@
 package org.ThefryGuy.techFactory.data;
 
-import org.bukkit.Location;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.registry.SystemManager;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * High-performance cache for frequently accessed multiblock data
+ * Structure validity cache for formed multiblocks
  *
- * PERFORMANCE CRITICAL: Reduces database queries by 90%+ for hot data
+ * PERFORMANCE CRITICAL: Every right-click on a machine block ran isValidStructure() for every
+ * candidate machine (8-15 block reads each), and every smelting completion re-validated the smelter.
  *
- * Features:
- * - Thread-safe concurrent access
- * - Time-based expiration (30 seconds)
- * - Automatic cleanup of expired entries
- * - Cache hit/miss statistics
+ * NOW: A successful StructurePattern match is remembered together with its member positions and
+ * stays valid until one of those positions changes. Clicks and completions on an intact structure
+ * cost a hash lookup plus one core-block read.
  *
- * Use this for:
- * - Checking if a multiblock exists at a location
- * - Getting multiblock type/metadata
- * - Validating multiblock structures
+ * REFACTORED: Replaces the old 30-second TTL cache of MultiblockData (which nothing read) and its
+ * non-atomic hit counters.
  *
- * DO NOT use for:
- * - Long-term storage (use DatabaseManager)
- * - Data that must be 100% accurate (cache can be stale)
+ * INVALIDATION: StructureCacheListener forwards block place/break/piston/explode/fluid/burn/
+ * cauldron/entity changes to invalidate(), which uses the position -> structure index to drop
+ * every cached structure that contains the changed block.
+ *
+ * SAFETY NET: A hit still checks the core block against the pattern, so a change we never hear
+ * about (e.g. another plugin calling setType) at least can't keep a removed core "valid".
+ *
+ * THREADING: MAIN THREAD ONLY (block reads, Bukkit events). Counters are LongAdders so
+ * /techfactory status can read them from any thread.
  *
  * LIFECYCLE: Implements SystemManager for automatic initialization/shutdown via ManagerRegistry
  */
 public class MultiblockCache implements SystemManager {
-    
+
+    /** Name in CacheRegistry */
+    private static final String CACHE_NAME = "structures";
+
     private final TechFactory plugin;
-    private final Map<String, CachedMultiblockState> cache = new ConcurrentHashMap<>();
-    
-    // Cache expiration time (30 seconds)
-    private static final long CACHE_EXPIRY_MS = 30000;
-    
+
+    // World -> core position -> formed structures with that core (usually one)
+    private final Map<UUID, Map<Long, List<FormedStructure>>> structuresByCore = new HashMap<>();
+
+    // World -> member position -> formed structures containing that position
+    private final Map<UUID, Map<Long, List<FormedStructure>>> structuresByMember = new HashMap<>();
+
+    private int size = 0;
+
     // Statistics
-    private long cacheHits = 0;
-    private long cacheMisses = 0;
-    
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
     public MultiblockCache(TechFactory plugin) {
         this.plugin = plugin;
-        // Cleanup task is now started in initialize() method
     }
-    
+
     /**
-     * Get cached multiblock state
-     * Returns null if not in cache or expired
+     * Match a structure through the cache of the running plugin
+     *
+     * Used by the static machine classes; falls back to a plain pattern match when the plugin
+     * or cache isn't available (startup, shutdown).
+     *
+     * @param pattern The structure pattern
+     * @param core The block in the core position
+     * @return The match, or null if the structure isn't built correctly
      */
-    public CachedMultiblockState get(Location location) {
-        String key = locationToKey(location);
-        CachedMultiblockState cached = cache.get(key);
-        
-        if (cached != null && !cached.isExpired()) {
-            cacheHits++;
-            return cached;
-        }
-        
-        cacheMisses++;
-        return null;
+    public static StructureMatch matchCached(StructurePattern pattern, Block core) {
+        TechFactory instance = TechFactory.getInstance();
+        MultiblockCache cache = instance != null ? instance.getMultiblockCache() : null;
+        return cache != null ? cache.match(pattern, core) : pattern.match(core);
     }
-    
+
     /**
-     * Put multiblock state in cache
+     * Match a structure, using the cached result while none of its blocks changed
+     *
+     * Misses are not cached: a failed match usually exits on the first block anyway, and caching
+     * it would require indexing every position that COULD complete the structure.
+     *
+     * @param pattern The structure pattern
+     * @param core The block in the core position
+     * @return The match, or null if the structure isn't built correctly
      */
-    public void put(Location location, MultiblockData data) {
-        String key = locationToKey(location);
-        cache.put(key, new CachedMultiblockState(data));
+    public StructureMatch match(StructurePattern pattern, Block core) {
+        World world = core.getWorld();
+        if (world == null) {
+            return pattern.match(core);
+        }
+
+        long coreKey = positionKey(core.getX(), core.getY(), core.getZ());
+        FormedStructure cached = find(world.getUID(), coreKey, pattern);
+        if (cached != null) {
+            if (pattern.matchesCore(core)) {
+                cacheHits.increment();
+                return cached.match;
+            }
+            // Core changed without an event we listen to - drop it and match from scratch
+            remove(world.getUID(), cached);
+        }
+
+        cacheMisses.increment();
+        StructureMatch match = pattern.match(core);
+        if (match != null) {
+            add(world.getUID(), new FormedStructure(pattern, coreKey, match));
+        }
+        return match;
     }
-    
+
     /**
-     * Remove from cache (when multiblock is broken)
+     * Drop every cached structure containing this block
+     * Call BEFORE or AFTER the block changes - both are fine, the next match re-validates
+     *
+     * @param block The changed block
      */
-    public void remove(Location location) {
-        String key = locationToKey(location);
-        cache.remove(key);
+    public void invalidate(Block block) {
+        if (block == null || block.getWorld() == null || size == 0) {
+            return;
+        }
+        invalidate(block.getWorld().getUID(), block.getX(), block.getY(), block.getZ());
     }
-    
+
     /**
-     * Clear all cache
+     * Drop every cached structure containing this position
      */
-    public void clear() {
-        cache.clear();
-        cacheHits = 0;
-        cacheMisses = 0;
+    public void invalidate(UUID worldId, int x, int y, int z) {
+        Map<Long, List<FormedStructure>> members = structuresByMember.get(worldId);
+        if (members == null) {
+            return;
+        }
+
+        List<FormedStructure> affected = members.get(positionKey(x, y, z));
+        if (affected == null) {
+            return;
+        }
+
+        // Copy: remove() edits the list we're iterating
+        for (FormedStructure structure : new ArrayList<>(affected)) {
+            remove(worldId, structure);
+            invalidations.increment();
+        }
     }
-    
+
     /**
-     * Get cache statistics
+     * Drop cached structures whose core is in an unloading chunk (memory only - they re-validate on demand)
      */
-    public String getStats() {
-        long total = cacheHits + cacheMisses;
-        double hitRate = total > 0 ? (cacheHits * 100.0 / total) : 0;
-        return String.format("Cache: %d entries, %.1f%% hit rate (%d hits, %d misses)", 
-            cache.size(), hitRate, cacheHits, cacheMisses);
+    public void invalidateChunk(Chunk chunk) {
+        if (chunk == null || chunk.getWorld() == null) {
+            return;
+        }
+
+        UUID worldId = chunk.getWorld().getUID();
+        Map<Long, List<FormedStructure>> cores = structuresByCore.get(worldId);
+        if (cores == null) {
+            return;
+        }
+
+        List<FormedStructure> unloaded = new ArrayList<>();
+        for (List<FormedStructure> structures : cores.values()) {
+            for (FormedStructure structure : structures) {
+                if ((structure.match.getCore().getX() >> 4) == chunk.getX()
+                        && (structure.match.getCore().getZ() >> 4) == chunk.getZ()) {
+                    unloaded.add(structure);
+                }
+            }
+        }
+        for (FormedStructure structure : unloaded) {
+            remove(worldId, structure);
+        }
     }
-    
+
     /**
-     * Manually cleanup expired entries
-     * Called by AutoSaveManager periodically
+     * Drop all cached structures of an unloading world
      */
-    public void cleanupExpired() {
-        int removed = 0;
-        for (Map.Entry<String, CachedMultiblockState> entry : cache.entrySet()) {
-            if (entry.getValue().isExpired()) {
-                cache.remove(entry.getKey());
-                removed++;
+    public void invalidateWorld(World world) {
+        if (world == null) {
+            return;
+        }
+
+        Map<Long, List<FormedStructure>> cores = structuresByCore.remove(world.getUID());
+        structuresByMember.remove(world.getUID());
+        if (cores != null) {
+            for (List<FormedStructure> structures : cores.values()) {
+                size -= structures.size();
+            }
+        }
+    }
+
+    private FormedStructure find(UUID worldId, long coreKey, StructurePattern pattern) {
+        Map<Long, List<FormedStructure>> cores = structuresByCore.get(worldId);
+        if (cores == null) {
+            return null;
+        }
+
+        List<FormedStructure> structures = cores.get(coreKey);
+        if (structures == null) {
+            return null;
+        }
+
+        for (FormedStructure structure : structures) {
+            if (structure.pattern == pattern) {
+                return structure;
+            }
+        }
+        return null;
+    }
+
+    private void add(UUID worldId, FormedStructure structure) {
+        structuresByCore.computeIfAbsent(worldId, k -> new HashMap<>())
+                .computeIfAbsent(structure.coreKey, k -> new ArrayList<>(1))
+                .add(structure);
+
+        Map<Long, List<FormedStructure>> members = structuresByMember.computeIfAbsent(worldId, k -> new HashMap<>());
+        for (long memberKey : structure.memberKeys) {
+            members.computeIfAbsent(memberKey, k -> new ArrayList<>(1)).add(structure);
+        }
+        size++;
+    }
+
+    private void remove(UUID worldId, FormedStructure structure) {
+        Map<Long, List<FormedStructure>> cores = structuresByCore.get(worldId);
+        if (cores == null || !removeFrom(cores, structure.coreKey, structure)) {
+            return; // Already removed
+        }
+
+        Map<Long, List<FormedStructure>> members = structuresByMember.get(worldId);
+        if (members != null) {
+            for (long memberKey : structure.memberKeys) {
+                removeFrom(members, memberKey, structure);
             }
         }
+        size--;
+    }
 
-        if (removed > 0) {
-            plugin.getLogger().fine("Cleaned up " + removed + " expired cache entries");
+    private static boolean removeFrom(Map<Long, List<FormedStructure>> index, long key, FormedStructure structure) {
+        List<FormedStructure> structures = index.get(key);
+        if (structures == null) {
+            return false;
         }
+
+        // Identity removal (FormedStructure doesn't override equals)
+        boolean removed = false;
+        for (Iterator<FormedStructure> it = structures.iterator(); it.hasNext(); ) {
+            if (it.next() == structure) {
+                it.remove();
+                removed = true;
+                break;
+            }
+        }
+        if (structures.isEmpty()) {
+            index.remove(key);
+        }
+        return removed;
     }
 
     /**
-     * Start cleanup task to remove expired entries
+     * Pack a block position into a long (26 bits x, 26 bits z, 12 bits y)
      */
-    private void startCleanupTask() {
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            cleanupExpired();
-        }, 600L, 600L); // Run every 30 seconds
+    static long positionKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
     }
 
     /**
-     * Convert location to cache key
+     * Number of cached formed structures
      */
-    private String locationToKey(Location loc) {
-        if (loc == null || loc.getWorld() == null) {
-            return "INVALID";
-        }
-        return loc.getWorld().getName() + "," + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ();
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Clear all cache
+     */
+    public void clear() {
+        structuresByCore.clear();
+        structuresByMember.clear();
+        size = 0;
+        cacheHits.reset();
+        cacheMisses.reset();
+        invalidations.reset();
+    }
+
+    public long getHits() {
+        return cacheHits.sum();
+    }
+
+    public long getMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Statistics for CacheRegistry (invalidations count as evictions, nothing is "loaded")
+     */
+    private InstrumentedCache.Stats cacheStats() {
+        return new InstrumentedCache.Stats(CACHE_NAME, "invalidate-on-change", size, -1,
+            cacheHits.sum(), cacheMisses.sum(), invalidations.sum(), 0, 0);
+    }
+
+    /**
+     * Get cache statistics
+     */
+    public String getStats() {
+        long hits = cacheHits.sum();
+        long misses = cacheMisses.sum();
+        long total = hits + misses;
+        double hitRate = total > 0 ? (hits * 100.0 / total) : 0;
+        return String.format("Structure cache: %d formed, %.1f%% hit rate (%d hits, %d misses, %d invalidations)",
+            size, hitRate, hits, misses, invalidations.sum());
     }
 
     // ========================================
@@ -143,12 +328,12 @@ public class MultiblockCache implements SystemManager {
      * Initialize method for SystemManager interface
      * Called by ManagerRegistry during plugin startup
      *
-     * LIFECYCLE:
-     * 1. Start cleanup task
+     * Nothing to load: structures are cached the first time they're matched.
+     * Registers the statistics in CacheRegistry (this cache is a position index, not an InstrumentedCache).
      */
     @Override
     public void initialize() {
-        startCleanupTask();
+        CacheRegistry.register(CACHE_NAME, this::cacheStats);
     }
 
     /**
@@ -157,37 +342,35 @@ public class MultiblockCache implements SystemManager {
      *
      * LIFECYCLE:
      * 1. Log cache statistics
-     * 2. Clear cache
+     * 2. Clear cache and leave CacheRegistry
      */
     @Override
     public void disable() {
         plugin.getLogger().info(getStats());
         clear();
+        CacheRegistry.unregister(CACHE_NAME);
     }
-    
+
     /**
-     * Cached multiblock state with expiration
+     * A formed (validated) structure and the positions it occupies
      */
-    public static class CachedMultiblockState {
-        private final MultiblockData data;
-        private final long cachedAt;
-        
-        public CachedMultiblockState(MultiblockData data) {
-            this.data = data;
-            this.cachedAt = System.currentTimeMillis();
-        }
-        
-        public MultiblockData getData() {
-            return data;
-        }
-        
-        public boolean isExpired() {
-            return System.currentTimeMillis() - cachedAt > CACHE_EXPIRY_MS;
-        }
-        
-        public long getAge() {
-            return System.currentTimeMillis() - cachedAt;
+    private static class FormedStructure {
+        private final StructurePattern pattern;
+        private final long coreKey;
+        private final long[] memberKeys;
+        private final StructureMatch match;
+
+        FormedStructure(StructurePattern pattern, long coreKey, StructureMatch match) {
+            this.pattern = pattern;
+            this.coreKey = coreKey;
+            this.match = match;
+
+            Block core = match.getCore();
+            int[][] offsets = match.getMemberOffsets();
+            this.memberKeys = new long[offsets.length];
+            for (int i = 0; i < offsets.length; i++) {
+                memberKeys[i] = positionKey(core.getX() + offsets[i][0], core.getY() + offsets[i][1], core.getZ() + offsets[i][2]);
+            }
         }
     }
 }
-
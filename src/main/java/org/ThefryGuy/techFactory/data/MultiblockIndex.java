@@ -0,0 +1,186 @@
+package org.ThefryGuy.techFactory.data;
+
+import org.bukkit.block.Block;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse index: member block position -> registered multiblock(s)
+ *
+ * PERFORMANCE FIX: Multiblocks are stored by their registered location only, so breaking a
+ * member (e.g. a smelter brick) had no link back to the multiblock. Listeners only looked up exact
+ * core locations and "ghost" multiblocks were cleaned up by a full validation pass on startup.
+ *
+ * NOW: Every member position of a formed/validated multiblock points at the multiblock's location
+ * key (the key used by DatabaseManager's multiblock cache). Break/explosion/piston handlers look up
+ * each changed block in O(1) and tear down affected multiblocks immediately.
+ *
+ * PARTITIONED BY CHUNK: world -> chunk -> position, so a chunk's entries can be found without
+ * scanning the whole world and lookups for blocks in chunks without multiblocks stop at the chunk.
+ *
+ * A position can point at more than one multiblock (the same structure registered from its GUI
+ * block and its trigger block, or two structures sharing a block).
+ *
+ * THREAD-SAFE: All methods are synchronized (called from the main thread; the lock is uncontended).
+ */
+public class MultiblockIndex {
+
+    // World name -> chunk key -> position key -> multiblock location keys
+    private final Map<String, Map<Long, Map<Long, List<String>>>> index = new HashMap<>();
+
+    // Multiblock location key -> indexed member positions (for removal)
+    private final Map<String, IndexedMultiblock> byMultiblock = new HashMap<>();
+
+    /**
+     * Index (or re-index) every member position of a multiblock
+     *
+     * @param multiblockKey Location key of the registered multiblock (MultiblockData.getLocationKey())
+     * @param worldName The world name
+     * @param match The structure match (member positions)
+     */
+    public synchronized void index(String multiblockKey, String worldName, StructureMatch match) {
+        remove(multiblockKey);
+
+        Block core = match.getCore();
+        int[][] offsets = match.getMemberOffsets();
+        int[] positions = new int[offsets.length * 3];
+        Map<Long, Map<Long, List<String>>> chunks = index.computeIfAbsent(worldName, k -> new HashMap<>());
+
+        for (int i = 0; i < offsets.length; i++) {
+            int x = core.getX() + offsets[i][0];
+            int y = core.getY() + offsets[i][1];
+            int z = core.getZ() + offsets[i][2];
+            positions[i * 3] = x;
+            positions[i * 3 + 1] = y;
+            positions[i * 3 + 2] = z;
+
+            chunks.computeIfAbsent(chunkKey(x >> 4, z >> 4), k -> new HashMap<>())
+                    .computeIfAbsent(MultiblockCache.positionKey(x, y, z), k -> new ArrayList<>(1))
+                    .add(multiblockKey);
+        }
+
+        byMultiblock.put(multiblockKey, new IndexedMultiblock(worldName, positions));
+    }
+
+    /**
+     * Remove a multiblock from the index (no-op if it isn't indexed)
+     *
+     * @param multiblockKey Location key of the registered multiblock
+     */
+    public synchronized void remove(String multiblockKey) {
+        IndexedMultiblock indexed = byMultiblock.remove(multiblockKey);
+        if (indexed == null) {
+            return;
+        }
+
+        Map<Long, Map<Long, List<String>>> chunks = index.get(indexed.worldName);
+        if (chunks == null) {
+            return;
+        }
+
+        int[] positions = indexed.positions;
+        for (int i = 0; i < positions.length; i += 3) {
+            int x = positions[i];
+            int y = positions[i + 1];
+            int z = positions[i + 2];
+
+            long chunkKey = chunkKey(x >> 4, z >> 4);
+            Map<Long, List<String>> chunk = chunks.get(chunkKey);
+            if (chunk == null) {
+                continue;
+            }
+
+            long positionKey = MultiblockCache.positionKey(x, y, z);
+            List<String> keys = chunk.get(positionKey);
+            if (keys != null) {
+                keys.remove(multiblockKey);
+                if (keys.isEmpty()) {
+                    chunk.remove(positionKey);
+                }
+            }
+            if (chunk.isEmpty()) {
+                chunks.remove(chunkKey);
+            }
+        }
+        if (chunks.isEmpty()) {
+            index.remove(indexed.worldName);
+        }
+    }
+
+    /**
+     * Get the multiblocks a block belongs to
+     *
+     * @param block The block
+     * @return Location keys of the multiblocks containing this block (copy, may be empty)
+     */
+    public synchronized List<String> getMultiblocksAt(Block block) {
+        if (block == null || block.getWorld() == null) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Map<Long, List<String>>> chunks = index.get(block.getWorld().getName());
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<String>> chunk = chunks.get(chunkKey(block.getX() >> 4, block.getZ() >> 4));
+        if (chunk == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> keys = chunk.get(MultiblockCache.positionKey(block.getX(), block.getY(), block.getZ()));
+        return keys != null ? new ArrayList<>(keys) : Collections.emptyList();
+    }
+
+    /**
+     * Check if a multiblock is indexed
+     */
+    public synchronized boolean isIndexed(String multiblockKey) {
+        return byMultiblock.containsKey(multiblockKey);
+    }
+
+    /**
+     * Drop all entries of an unloading world
+     */
+    public synchronized void clearWorld(String worldName) {
+        index.remove(worldName);
+        byMultiblock.values().removeIf(indexed -> indexed.worldName.equals(worldName));
+    }
+
+    /**
+     * Drop everything (shutdown)
+     */
+    public synchronized void clear() {
+        index.clear();
+        byMultiblock.clear();
+    }
+
+    /**
+     * Number of indexed multiblocks
+     */
+    public synchronized int size() {
+        return byMultiblock.size();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Indexed member positions of one multiblock, flattened as x, y, z triples
+     */
+    private static class IndexedMultiblock {
+        private final String worldName;
+        private final int[] positions;
+
+        IndexedMultiblock(String worldName, int[] positions) {
+            this.worldName = worldName;
+            this.positions = positions;
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package org.ThefryGuy.techFactory.data;
+
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Directional;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.registry.SystemManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes machine output into the containers next to a multiblock
+ *
+ * PERFORMANCE FIX: ItemUtils.outputToChest() ran for every craft and every smelting completion:
+ * - Built 6 neighbour arrays per member block and did List.contains() on the member list
+ * - Called block.getState() (a full tile entity snapshot) to reach the chest inventory
+ * - Ignored the leftover map of addItem() - output that didn't fit was silently destroyed
+ *
+ * NOW: A machine's output targets are resolved once and cached per structure (anchor = first member
+ * block), together with every position that could change them (members + neighbours). The cache
+ * entry is dropped when one of those positions changes (StructureCacheListener) and re-resolved
+ * on the next output.
+ * - Items go into the LIVE container inventory (getState(false) - no snapshot)
+ * - Targets are filled in order; what doesn't fit spills into the next target
+ * - Overflow is returned to the caller (fallback slot/inventory), and dropped at the machine as a
+ *   last resort - never destroyed
+ *
+ * TARGETS: Chests, trapped chests, barrels and hoppers adjacent to any member block
+ * BUG FIX: Hoppers pointing into a member block are skipped - they feed the machine, so output
+ * pushed into them looped back into the input dispenser
+ *
+ * SAFETY NET: Each insert checks the target's type, so a container removed without an event we
+ * listen to (another plugin calling setType) is skipped and the route re-resolved.
+ *
+ * THREADING: MAIN THREAD ONLY (block/inventory access, Bukkit events). Counters are LongAdders so
+ * /techfactory status can read them from any thread.
+ *
+ * LIFECYCLE: Implements SystemManager for automatic initialization/shutdown via ManagerRegistry
+ */
+public class OutputRouter implements SystemManager {
+
+    private static final Set<Material> TARGET_TYPES = EnumSet.of(
+            Material.CHEST, Material.TRAPPED_CHEST, Material.BARREL, Material.HOPPER);
+
+    // East, west, south, north, up, down (same order as the old outputToChest)
+    private static final int[][] NEIGHBOURS = {
+            {1, 0, 0}, {-1, 0, 0}, {0, 0, 1}, {0, 0, -1}, {0, 1, 0}, {0, -1, 0}
+    };
+
+    /** Name in CacheRegistry */
+    private static final String CACHE_NAME = "output_routes";
+
+    private final TechFactory plugin;
+
+    // World -> anchor position -> cached route
+    private final Map<UUID, Map<Long, OutputRoute>> routesByAnchor = new HashMap<>();
+
+    // World -> watched position (member or neighbour) -> routes depending on it
+    private final Map<UUID, Map<Long, List<OutputRoute>>> routesByWatched = new HashMap<>();
+
+    private int size = 0;
+
+    // Statistics
+    private final LongAdder routeHits = new LongAdder();
+    private final LongAdder routeResolves = new LongAdder();
+    private final LongAdder overflowItems = new LongAdder();
+
+    public OutputRouter(TechFactory plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Output items through the router of the running plugin
+     *
+     * Used by the static machine classes; falls back to resolving the targets without caching
+     * when the plugin or router isn't available (startup, shutdown).
+     *
+     * @param members All blocks of the multiblock (first = anchor, also the drop location)
+     * @param fallback Inventory for items that don't fit in any target (e.g. the dispenser), or null
+     * @param items The items to output
+     * @return true if everything went into output targets
+     */
+    public static boolean route(List<Block> members, Inventory fallback, ItemStack... items) {
+        TechFactory instance = TechFactory.getInstance();
+        OutputRouter router = instance != null ? instance.getOutputRouter() : null;
+        List<ItemStack> leftovers = router != null ? router.insert(members, items) : insertInto(resolveTargets(members), null, items);
+        if (leftovers.isEmpty()) {
+            return true;
+        }
+
+        overflow(members, fallback, leftovers, router);
+        return false;
+    }
+
+    /**
+     * Insert items into the output targets of a structure
+     *
+     * @param members All blocks of the multiblock (first = anchor)
+     * @param items The items to insert
+     * @return Items that didn't fit (empty if everything was inserted) - the caller decides where they go
+     */
+    public List<ItemStack> insert(List<Block> members, ItemStack... items) {
+        if (members == null || members.isEmpty() || members.get(0).getWorld() == null) {
+            return nonNull(items);
+        }
+
+        OutputRoute route = getRoute(members);
+        List<ItemStack> leftovers = insertInto(route.targets, route, items);
+        if (route.stale) {
+            // A target disappeared without an event - resolve again next time
+            remove(members.get(0).getWorld().getUID(), route);
+        }
+        return leftovers;
+    }
+
+    /**
+     * Put items that didn't fit anywhere into the fallback inventory, then drop the rest at the machine
+     */
+    private static void overflow(List<Block> members, Inventory fallback, List<ItemStack> leftovers, OutputRouter router) {
+        Map<Integer, ItemStack> remaining = fallback != null
+                ? fallback.addItem(leftovers.toArray(new ItemStack[0]))
+                : toMap(leftovers);
+        if (remaining.isEmpty() || members == null || members.isEmpty()) {
+            return;
+        }
+
+        Block dropAt = members.get(0);
+        if (dropAt.getWorld() == null) {
+            return;
+        }
+        for (ItemStack item : remaining.values()) {
+            dropAt.getWorld().dropItemNaturally(dropAt.getLocation().add(0.5, 1.0, 0.5), item);
+            if (router != null) {
+                router.overflowItems.add(item.getAmount());
+            }
+        }
+    }
+
+    private OutputRoute getRoute(List<Block> members) {
+        Block anchor = members.get(0);
+        UUID worldId = anchor.getWorld().getUID();
+        long anchorKey = MultiblockCache.positionKey(anchor.getX(), anchor.getY(), anchor.getZ());
+
+        Map<Long, OutputRoute> anchors = routesByAnchor.get(worldId);
+        OutputRoute cached = anchors != null ? anchors.get(anchorKey) : null;
+        if (cached != null) {
+            if (cached.hasMembers(members)) {
+                routeHits.increment();
+                return cached;
+            }
+            remove(worldId, cached); // Different structure at the same anchor
+        }
+
+        routeResolves.increment();
+        OutputRoute route = new OutputRoute(anchorKey, members, resolveTargets(members));
+        add(worldId, route);
+        return route;
+    }
+
+    /**
+     * Find the containers adjacent to a multiblock (members excluded, each container once)
+     */
+    private static List<Block> resolveTargets(List<Block> members) {
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> memberKeys = new HashSet<>();
+        for (Block member : members) {
+            memberKeys.add(MultiblockCache.positionKey(member.getX(), member.getY(), member.getZ()));
+        }
+
+        List<Block> targets = new ArrayList<>(1);
+        Set<Long> seen = new HashSet<>();
+        for (Block member : members) {
+            for (int[] offset : NEIGHBOURS) {
+                int x = member.getX() + offset[0];
+                int y = member.getY() + offset[1];
+                int z = member.getZ() + offset[2];
+                long key = MultiblockCache.positionKey(x, y, z);
+                if (memberKeys.contains(key) || !seen.add(key)) {
+                    continue;
+                }
+
+                Block block = member.getRelative(offset[0], offset[1], offset[2]);
+                if (TARGET_TYPES.contains(block.getType()) && !feedsMember(block, memberKeys)) {
+                    targets.add(block);
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * true if the block is a hopper pointing into a member block (e.g. the hopper feeding the
+     * input dispenser) - output pushed into it would be fed straight back in as input
+     */
+    private static boolean feedsMember(Block block, Set<Long> memberKeys) {
+        if (block.getType() != Material.HOPPER) {
+            return false;
+        }
+        BlockData data = block.getBlockData();
+        if (!(data instanceof Directional)) {
+            return false;
+        }
+        BlockFace facing = ((Directional) data).getFacing();
+        return memberKeys.contains(MultiblockCache.positionKey(
+                block.getX() + facing.getModX(), block.getY() + facing.getModY(), block.getZ() + facing.getModZ()));
+    }
+
+    /**
+     * Fill targets in order through their live inventories
+     *
+     * @param route The cached route (marked stale if a target isn't a container anymore), or null
+     */
+    private static List<ItemStack> insertInto(List<Block> targets, OutputRoute route, ItemStack... items) {
+        List<ItemStack> remaining = nonNull(items);
+        for (Block target : targets) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+
+            Inventory inventory = getLiveInventory(target);
+            if (inventory == null) {
+                if (route != null) {
+                    route.stale = true;
+                }
+                continue;
+            }
+
+            Map<Integer, ItemStack> leftovers = inventory.addItem(remaining.toArray(new ItemStack[0]));
+            remaining = new ArrayList<>(leftovers.values());
+        }
+        return remaining;
+    }
+
+    /**
+     * Live inventory of a container block (no tile entity snapshot), or null if it isn't a container anymore
+     */
+    private static Inventory getLiveInventory(Block block) {
+        if (!TARGET_TYPES.contains(block.getType())) {
+            return null;
+        }
+        BlockState state = block.getState(false);
+        return state instanceof Container ? ((Container) state).getInventory() : null;
+    }
+
+    private static List<ItemStack> nonNull(ItemStack... items) {
+        List<ItemStack> list = new ArrayList<>(items.length);
+        for (ItemStack item : items) {
+            if (item != null && item.getAmount() > 0) {
+                list.add(item);
+            }
+        }
+        return list;
+    }
+
+    private static Map<Integer, ItemStack> toMap(List<ItemStack> items) {
+        Map<Integer, ItemStack> map = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            map.put(i, items.get(i));
+        }
+        return map;
+    }
+
+    /**
+     * Drop cached routes that depend on this block (member or neighbour)
+     * Call BEFORE or AFTER the block changes - both are fine, the next output re-resolves
+     *
+     * @param block The changed block
+     */
+    public void invalidate(Block block) {
+        if (block == null || block.getWorld() == null || size == 0) {
+            return;
+        }
+
+        UUID worldId = block.getWorld().getUID();
+        Map<Long, List<OutputRoute>> watched = routesByWatched.get(worldId);
+        if (watched == null) {
+            return;
+        }
+
+        List<OutputRoute> affected = watched.get(MultiblockCache.positionKey(block.getX(), block.getY(), block.getZ()));
+        if (affected == null) {
+            return;
+        }
+
+        // Copy: remove() edits the list we're iterating
+        for (OutputRoute route : new ArrayList<>(affected)) {
+            remove(worldId, route);
+        }
+    }
+
+    /**
+     * Drop routes anchored in an unloading chunk (their containers are unloaded with it)
+     */
+    public void invalidateChunk(Chunk chunk) {
+        if (chunk == null || chunk.getWorld() == null) {
+            return;
+        }
+
+        UUID worldId = chunk.getWorld().getUID();
+        Map<Long, OutputRoute> anchors = routesByAnchor.get(worldId);
+        if (anchors == null) {
+            return;
+        }
+
+        List<OutputRoute> unloaded = new ArrayList<>();
+        for (OutputRoute route : anchors.values()) {
+            if ((route.anchorX >> 4) == chunk.getX() && (route.anchorZ >> 4) == chunk.getZ()) {
+                unloaded.add(route);
+            }
+        }
+        for (OutputRoute route : unloaded) {
+            remove(worldId, route);
+        }
+    }
+
+    /**
+     * Drop all routes of an unloading world
+     */
+    public void invalidateWorld(World world) {
+        if (world == null) {
+            return;
+        }
+
+        Map<Long, OutputRoute> anchors = routesByAnchor.remove(world.getUID());
+        routesByWatched.remove(world.getUID());
+        if (anchors != null) {
+            size -= anchors.size();
+        }
+    }
+
+    private void add(UUID worldId, OutputRoute route) {
+        routesByAnchor.computeIfAbsent(worldId, k -> new HashMap<>()).put(route.anchorKey, route);
+
+        Map<Long, List<OutputRoute>> watched = routesByWatched.computeIfAbsent(worldId, k -> new HashMap<>());
+        for (long key : route.watchedKeys) {
+            watched.computeIfAbsent(key, k -> new ArrayList<>(1)).add(route);
+        }
+        size++;
+    }
+
+    private void remove(UUID worldId, OutputRoute route) {
+        Map<Long, OutputRoute> anchors = routesByAnchor.get(worldId);
+        if (anchors == null || anchors.get(route.anchorKey) != route) {
+            return; // Already removed
+        }
+        anchors.remove(route.anchorKey);
+        if (anchors.isEmpty()) {
+            routesByAnchor.remove(worldId);
+        }
+
+        Map<Long, List<OutputRoute>> watched = routesByWatched.get(worldId);
+        if (watched != null) {
+            for (long key : route.watchedKeys) {
+                List<OutputRoute> routes = watched.get(key);
+                if (routes == null) {
+                    continue;
+                }
+                // Identity removal (OutputRoute doesn't override equals)
+                for (Iterator<OutputRoute> it = routes.iterator(); it.hasNext(); ) {
+                    if (it.next() == route) {
+                        it.remove();
+                        break;
+                    }
+                }
+                if (routes.isEmpty()) {
+                    watched.remove(key);
+                }
+            }
+        }
+        size--;
+    }
+
+    /**
+     * Number of cached routes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Clear all routes
+     */
+    public void clear() {
+        routesByAnchor.clear();
+        routesByWatched.clear();
+        size = 0;
+        routeHits.reset();
+        routeResolves.reset();
+        overflowItems.reset();
+    }
+
+    public long getRouteHits() {
+        return routeHits.sum();
+    }
+
+    public long getRouteResolves() {
+        return routeResolves.sum();
+    }
+
+    public long getOverflowItems() {
+        return overflowItems.sum();
+    }
+
+    /**
+     * Statistics for CacheRegistry (a resolve is a miss; routes are dropped by invalidation, not counted)
+     */
+    private InstrumentedCache.Stats cacheStats() {
+        return new InstrumentedCache.Stats(CACHE_NAME, "invalidate-on-change", size, -1,
+            routeHits.sum(), routeResolves.sum(), 0, 0, 0);
+    }
+
+    /**
+     * Get router statistics
+     */
+    public String getStats() {
+        return String.format("Output router: %d routes (%d hits, %d resolves, %d overflow items dropped)",
+            size, routeHits.sum(), routeResolves.sum(), overflowItems.sum());
+    }
+
+    // ========================================
+    // SYSTEM MANAGER INTERFACE
+    // ========================================
+
+    /**
+     * Initialize method for SystemManager interface
+     * Called by ManagerRegistry during plugin startup
+     *
+     * Nothing to load: routes are resolved the first time a machine outputs.
+     * Registers the statistics in CacheRegistry.
+     */
+    @Override
+    public void initialize() {
+        CacheRegistry.register(CACHE_NAME, this::cacheStats);
+    }
+
+    /**
+     * Disable method for SystemManager interface
+     * Called by ManagerRegistry during plugin shutdown
+     */
+    @Override
+    public void disable() {
+        plugin.getLogger().info(getStats());
+        clear();
+        CacheRegistry.unregister(CACHE_NAME);
+    }
+
+    /**
+     * Cached output targets of one structure and the positions they depend on
+     */
+    private static class OutputRoute {
+        private final long anchorKey;
+        private final int anchorX;
+        private final int anchorZ;
+        private final long[] memberKeys;
+        private final long[] watchedKeys;
+        private final List<Block> targets;
+
+        // Set on insert when a target isn't a container anymore (changed without an event)
+        private boolean stale = false;
+
+        OutputRoute(long anchorKey, List<Block> members, List<Block> targets) {
+            this.anchorKey = anchorKey;
+            this.anchorX = members.get(0).getX();
+            this.anchorZ = members.get(0).getZ();
+            this.targets = targets;
+
+            // Members + their neighbours: a container placed/broken there changes the targets
+            Set<Long> watched = new HashSet<>();
+            this.memberKeys = new long[members.size()];
+            for (int i = 0; i < members.size(); i++) {
+                Block member = members.get(i);
+                memberKeys[i] = MultiblockCache.positionKey(member.getX(), member.getY(), member.getZ());
+                watched.add(memberKeys[i]);
+                for (int[] offset : NEIGHBOURS) {
+                    watched.add(MultiblockCache.positionKey(member.getX() + offset[0], member.getY() + offset[1], member.getZ() + offset[2]));
+                }
+            }
+            this.watchedKeys = new long[watched.size()];
+            int i = 0;
+            for (long key : watched) {
+                watchedKeys[i++] = key;
+            }
+        }
+
+        boolean hasMembers(List<Block> members) {
+            if (members.size() != memberKeys.length) {
+                return false;
+            }
+            for (int i = 0; i < memberKeys.length; i++) {
+                Block member = members.get(i);
+                if (memberKeys[i] != MultiblockCache.positionKey(member.getX(), member.getY(), member.getZ())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package org.ThefryGuy.techFactory.data;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Performance metrics tracker for TechFactory.
@@ -10,10 +15,15 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - Batch flush times and counts
  * - Energy update rates
  * - Database operation performance
- * - Cache hit/miss rates
+ * - Cache statistics live in CacheRegistry (one entry per InstrumentedCache)
+ * - Electric machine visits and allocation per visit
+ * - Latency histograms (p50/p95/p99/max over 1m/5m/15m) for every hot operation
  * 
  * Thread-safe using atomic operations.
  * 
+ * LATENCY: Averages hide the tail spikes that cost TPS, so each Operation gets a
+ * LatencyHistogram. Call sites measure with System.nanoTime() and call recordLatency().
+ * 
  * USAGE:
  * - DatabaseManager updates metrics during batch flushes
  * - MetricsCommand reads metrics to display system health
@@ -34,15 +44,27 @@ public class PerformanceMetrics {
     /** Last batch flush duration in milliseconds */
     private volatile long lastBatchFlushTimeMs = 0;
     
-    /** Longest batch flush duration in milliseconds (since startup) */
-    private volatile long maxBatchFlushTimeMs = 0;
+    /**
+     * Longest batch flush duration in milliseconds (since startup)
+     * BUG FIX: Was a volatile read-compare-write, which loses updates under concurrent flushes
+     */
+    private final LongAccumulator maxBatchFlushTimeMs = new LongAccumulator(Math::max, 0L);
     
-    /** Average batch flush time in milliseconds (rolling average) */
-    private volatile long avgBatchFlushTimeMs = 0;
+    /**
+     * Total batch flush time in milliseconds (average = total / count)
+     * BUG FIX: Replaces a volatile rolling average that was recomputed non-atomically
+     */
+    private final LongAdder totalBatchFlushTimeMs = new LongAdder();
     
     /** Number of slow batch flushes (>1000ms) */
     private final AtomicLong slowBatchFlushCount = new AtomicLong(0);
     
+    /** Block saves written by batch flushes (since startup) - DB write volume */
+    private final AtomicLong totalSavesFlushed = new AtomicLong(0);
+    
+    /** Block deletes written by batch flushes (since startup) - DB write volume */
+    private final AtomicLong totalDeletesFlushed = new AtomicLong(0);
+    
     // ========================================
     // ENERGY UPDATE METRICS
     // ========================================
@@ -53,6 +75,9 @@ public class PerformanceMetrics {
     /** Peak energy updates per second (since startup) */
     private volatile int peakEnergyUpdatesPerSecond = 0;
     
+    /** Peak energy updates per second since the last takeMinutePeakEnergyUpdates() (MetricsHistory) */
+    private final AtomicInteger minutePeakEnergyUpdates = new AtomicInteger(0);
+    
     /** Total energy updates processed (since startup) */
     private final AtomicLong totalEnergyUpdates = new AtomicLong(0);
     
@@ -76,20 +101,47 @@ public class PerformanceMetrics {
     private final AtomicLong totalDatabaseRetries = new AtomicLong(0);
     
     // ========================================
-    // CACHE METRICS
+    // ELECTRIC MACHINE METRICS
     // ========================================
     
-    /** Block cache size */
-    private volatile int blockCacheSize = 0;
+    /** Total electric machine visits (since startup) */
+    private final AtomicLong electricMachineVisits = new AtomicLong(0);
+    
+    /** Bytes allocated by the electric machine processor (since startup) */
+    private final AtomicLong electricMachineAllocatedBytes = new AtomicLong(0);
     
-    /** Multiblock cache size */
-    private volatile int multiblockCacheSize = 0;
+    /** Bytes allocated per visit during the last processor tick */
+    private volatile long lastBytesPerMachineVisit = 0;
     
-    /** Cache hit count (since last reset) */
-    private final AtomicLong cacheHits = new AtomicLong(0);
+    // ========================================
+    // LATENCY HISTOGRAMS
+    // ========================================
+    
+    /**
+     * Hot operations with a latency histogram
+     */
+    public enum Operation {
+        BATCH_FLUSH("Batch Flush"),
+        CHUNK_LOAD("Chunk Data Load"),
+        MAIN_THREAD_RESTORE("Main-Thread Restore"),
+        ENERGY_UPDATE("Energy Update"),
+        MACHINE_PROCESSOR("Machine Processor Pass"),
+        RECIPE_MATCH("Recipe Match"),
+        INVENTORY_SAVE("Inventory Save");
+        
+        private final String displayName;
+        
+        Operation(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
     
-    /** Cache miss count (since last reset) */
-    private final AtomicLong cacheMisses = new AtomicLong(0);
+    /** One histogram per operation (filled in the constructor, read-only afterwards) */
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
     
     // ========================================
     // TIMING
@@ -107,6 +159,9 @@ public class PerformanceMetrics {
     
     private PerformanceMetrics() {
         // Private constructor for singleton
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
     }
     
     public static PerformanceMetrics getInstance() {
@@ -119,23 +174,21 @@ public class PerformanceMetrics {
     
     /**
      * Record a batch flush operation
-     * @param durationMs Duration in milliseconds
+     * @param durationNanos Duration in nanoseconds (also recorded in the BATCH_FLUSH histogram)
      * @param saveCount Number of saves in batch
      * @param deleteCount Number of deletes in batch
      * @param energyUpdateCount Number of energy updates in batch
      */
-    public void recordBatchFlush(long durationMs, int saveCount, int deleteCount, int energyUpdateCount) {
+    public void recordBatchFlush(long durationNanos, int saveCount, int deleteCount, int energyUpdateCount) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        
         totalBatchFlushes.incrementAndGet();
+        totalSavesFlushed.addAndGet(saveCount);
+        totalDeletesFlushed.addAndGet(deleteCount);
         lastBatchFlushTimeMs = durationMs;
-        
-        // Update max flush time
-        if (durationMs > maxBatchFlushTimeMs) {
-            maxBatchFlushTimeMs = durationMs;
-        }
-        
-        // Update rolling average (simple moving average)
-        long flushCount = totalBatchFlushes.get();
-        avgBatchFlushTimeMs = (avgBatchFlushTimeMs * (flushCount - 1) + durationMs) / flushCount;
+        maxBatchFlushTimeMs.accumulate(durationMs);
+        totalBatchFlushTimeMs.add(durationMs);
+        recordLatency(Operation.BATCH_FLUSH, durationNanos);
         
         // Track slow flushes
         if (durationMs > 1000) {
@@ -143,6 +196,16 @@ public class PerformanceMetrics {
         }
     }
     
+    /**
+     * Record how long one run of an operation took
+     * Lock-free - safe to call from the main thread and async tasks
+     * @param operation The operation
+     * @param durationNanos Duration in nanoseconds (System.nanoTime() delta)
+     */
+    public void recordLatency(Operation operation, long durationNanos) {
+        latencies.get(operation).record(durationNanos);
+    }
+    
     /**
      * Record an energy update
      */
@@ -166,17 +229,15 @@ public class PerformanceMetrics {
     }
     
     /**
-     * Record a cache hit
+     * Record one electric machine processor tick
+     * Called by ElectricMachineProcessor (allocation measured with the thread allocation counter)
+     * @param visits Machines visited this tick
+     * @param allocatedBytes Bytes allocated on the main thread while visiting them
      */
-    public void recordCacheHit() {
-        cacheHits.incrementAndGet();
-    }
-    
-    /**
-     * Record a cache miss
-     */
-    public void recordCacheMiss() {
-        cacheMisses.incrementAndGet();
+    public void recordElectricMachineTick(int visits, long allocatedBytes) {
+        electricMachineVisits.addAndGet(visits);
+        electricMachineAllocatedBytes.addAndGet(allocatedBytes);
+        lastBytesPerMachineVisit = allocatedBytes / visits;
     }
     
     // ========================================
@@ -193,15 +254,6 @@ public class PerformanceMetrics {
         this.pendingEnergyUpdatesCount = energyUpdates;
     }
     
-    /**
-     * Update cache sizes
-     * Called by DatabaseManager periodically
-     */
-    public void updateCacheSizes(int blockCache, int multiblockCache) {
-        this.blockCacheSize = blockCache;
-        this.multiblockCacheSize = multiblockCache;
-    }
-    
     // ========================================
     // PERIODIC RESET (for per-second rates)
     // ========================================
@@ -211,14 +263,14 @@ public class PerformanceMetrics {
      * Should be called every second by a scheduled task
      */
     public void resetPerSecondCounters() {
+        // Read and reset in one step so updates between get() and set(0) aren't lost
+        int currentRate = energyUpdatesThisSecond.getAndSet(0);
+        
         // Update peak energy updates
-        int currentRate = energyUpdatesThisSecond.get();
         if (currentRate > peakEnergyUpdatesPerSecond) {
             peakEnergyUpdatesPerSecond = currentRate;
         }
-        
-        // Reset counter
-        energyUpdatesThisSecond.set(0);
+        minutePeakEnergyUpdates.accumulateAndGet(currentRate, Math::max);
         
         // Update reset time
         lastResetTime = System.currentTimeMillis();
@@ -237,17 +289,26 @@ public class PerformanceMetrics {
     }
     
     public long getMaxBatchFlushTimeMs() {
-        return maxBatchFlushTimeMs;
+        return maxBatchFlushTimeMs.get();
     }
     
     public long getAvgBatchFlushTimeMs() {
-        return avgBatchFlushTimeMs;
+        long flushes = totalBatchFlushes.get();
+        return flushes == 0 ? 0 : totalBatchFlushTimeMs.sum() / flushes;
     }
     
     public long getSlowBatchFlushCount() {
         return slowBatchFlushCount.get();
     }
     
+    public long getTotalSavesFlushed() {
+        return totalSavesFlushed.get();
+    }
+    
+    public long getTotalDeletesFlushed() {
+        return totalDeletesFlushed.get();
+    }
+    
     public int getEnergyUpdatesThisSecond() {
         return energyUpdatesThisSecond.get();
     }
@@ -256,6 +317,14 @@ public class PerformanceMetrics {
         return peakEnergyUpdatesPerSecond;
     }
     
+    /**
+     * Peak per-second energy update rate since the previous call (resets it)
+     * Called once a minute by MetricsHistory - the per-second counter itself is gone by then
+     */
+    public int takeMinutePeakEnergyUpdates() {
+        return minutePeakEnergyUpdates.getAndSet(0);
+    }
+    
     public long getTotalEnergyUpdates() {
         return totalEnergyUpdates.get();
     }
@@ -280,36 +349,42 @@ public class PerformanceMetrics {
         return totalDatabaseRetries.get();
     }
     
-    public int getBlockCacheSize() {
-        return blockCacheSize;
+    public long getElectricMachineVisits() {
+        return electricMachineVisits.get();
+    }
+    
+    public long getElectricMachineAllocatedBytes() {
+        return electricMachineAllocatedBytes.get();
     }
     
-    public int getMultiblockCacheSize() {
-        return multiblockCacheSize;
+    public long getLastBytesPerMachineVisit() {
+        return lastBytesPerMachineVisit;
     }
     
-    public long getCacheHits() {
-        return cacheHits.get();
+    /**
+     * Get average bytes allocated per electric machine visit
+     * @return Average bytes, or 0 if no visits yet
+     */
+    public long getAvgBytesPerMachineVisit() {
+        long visits = electricMachineVisits.get();
+        return visits == 0 ? 0 : electricMachineAllocatedBytes.get() / visits;
     }
     
-    public long getCacheMisses() {
-        return cacheMisses.get();
+    /**
+     * Get the histogram of an operation (for exporters that need lifetime totals)
+     */
+    public LatencyHistogram getLatencyHistogram(Operation operation) {
+        return latencies.get(operation);
     }
     
     /**
-     * Get cache hit rate as a percentage
-     * @return Hit rate 0.0 to 100.0, or 0.0 if no cache operations
+     * Get the latency distribution of an operation over a window
+     * @param operation The operation
+     * @param windowMinutes 1, 5 or 15 (anything up to LatencyHistogram.MAX_WINDOW_MINUTES)
+     * @return Snapshot with count, percentiles and max
      */
-    public double getCacheHitRate() {
-        long hits = cacheHits.get();
-        long misses = cacheMisses.get();
-        long total = hits + misses;
-        
-        if (total == 0) {
-            return 0.0;
-        }
-        
-        return (hits * 100.0) / total;
+    public LatencyHistogram.Snapshot getLatency(Operation operation, int windowMinutes) {
+        return latencies.get(operation).snapshot(windowMinutes);
     }
     
     /**
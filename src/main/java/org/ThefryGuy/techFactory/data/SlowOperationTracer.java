@@ -0,0 +1,685 @@
+package org.ThefryGuy.techFactory.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Slow-operation tracer - records WHY an operation stalled, not just that it did.
+ *
+ * PerformanceMetrics says a chunk restore took 80ms. A trace says which chunk, what the stalled thread
+ * was executing while it was stuck, and which nested steps (SQL statements) the time went to.
+ *
+ * HOW IT WORKS:
+ * - Operations are wrapped in spans:
+ *     SlowOperationTracer.Span span = SlowOperationTracer.begin(Operation.GUI_OPEN).player(player).location(loc);
+ *     try { ... } finally { span.end(); }
+ *   (Span is AutoCloseable, so try-with-resources works too)
+ * - A span begun while another span is open on the same thread is nested: the parent keeps its duration
+ * - A sampler thread polls the open spans every slow_trace.sample_interval_ms. Once a span is past its
+ *   threshold, it takes ONE stack sample of the span's thread - the main thread for main-thread
+ *   operations - so the stack shows where the stall is, not where the code was after it returned
+ * - A span that ends over its threshold (slow_trace.thresholds_ms.<operation>) becomes a Trace:
+ *   kept in a bounded ring (slow_trace.ring_size) and, if slow_trace.write_json_lines is on,
+ *   appended to slow-traces.jsonl as one JSON object per line
+ * - /techfactory trace lists and shows the ring and dumps it to a JSON lines file
+ *
+ * OVERHEAD:
+ * - Disabled: begin() is one volatile read and returns a shared no-op span
+ * - Enabled: one small allocation and two nanoTime() calls per span. Context values are kept as given
+ *   and only turned into strings when a trace is recorded
+ * - Stack samples (a safepoint) are only taken for spans that are already slow, once per span
+ *
+ * THREADING: Spans can be used on any thread but must end on the thread that began them - always end
+ * them in a finally block, or later spans on that thread nest under the leaked one.
+ * The ring, the sampler and the JSON lines writer are thread-safe.
+ */
+public final class SlowOperationTracer {
+
+    /**
+     * Traced operations, each with its own threshold
+     */
+    public enum Operation {
+        BATCH_FLUSH("Batch Flush", TechFactoryConstants::SLOW_TRACE_BATCH_FLUSH_MS),
+        SQL_STATEMENT("SQL Statement", TechFactoryConstants::SLOW_TRACE_SQL_STATEMENT_MS),
+        CHUNK_LOAD("Chunk Data Load", TechFactoryConstants::SLOW_TRACE_CHUNK_LOAD_MS),
+        CHUNK_RESTORE("Chunk Restore", TechFactoryConstants::SLOW_TRACE_CHUNK_RESTORE_MS),
+        GUI_OPEN("GUI Open", TechFactoryConstants::SLOW_TRACE_GUI_OPEN_MS),
+        MACHINE_PROCESSOR("Machine Processor Pass", TechFactoryConstants::SLOW_TRACE_MACHINE_PROCESSOR_MS),
+        INVENTORY_SAVE("Inventory Save", TechFactoryConstants::SLOW_TRACE_INVENTORY_SAVE_MS);
+
+        private final String displayName;
+        private final LongSupplier thresholdMs;
+
+        Operation(String displayName, LongSupplier thresholdMs) {
+            this.displayName = displayName;
+            this.thresholdMs = thresholdMs;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /** Frames kept per stack sample (deeper frames are Bukkit scheduler / server internals) */
+    private static final int MAX_STACK_FRAMES = 48;
+
+    /** Nested spans kept per span (e.g. one per SQL statement of a flush) */
+    private static final int MAX_NESTED_SPANS = 32;
+
+    /** slow-traces.jsonl is rotated to slow-traces.jsonl.1 above this size */
+    private static final long MAX_JSON_LINES_BYTES = 16L * 1024 * 1024;
+
+    /** At most one console line per operation per interval (the ring and the file get every trace) */
+    private static final long LOG_INTERVAL_MS = 60_000;
+
+    private static final String JSON_LINES_FILE = "slow-traces.jsonl";
+    private static final String DUMP_FOLDER = "traces";
+
+    private static final Span NOOP = new Span();
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final Set<Span> OPEN = ConcurrentHashMap.newKeySet();
+    private static final Deque<Trace> RING = new ArrayDeque<>();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final long[] lastLoggedMs = new long[Operation.values().length];
+    private static final int[] suppressedLogs = new int[Operation.values().length];
+
+    /** Fast-path flag - the only thing disabled spans touch */
+    private static volatile boolean enabled = false;
+
+    /** Per-operation threshold (Long.MAX_VALUE = never traced), replaced wholesale on start */
+    private static volatile long[] thresholdNanos = new long[Operation.values().length];
+
+    private static volatile int ringCapacity = 100;
+    private static volatile Path jsonLinesFile = null;
+    private static ScheduledExecutorService executor = null;
+    private static Logger logger = null;
+    private static File dataFolder = null;
+
+    private SlowOperationTracer() {
+        // Static utility
+    }
+
+    // ========================================
+    // LIFECYCLE
+    // ========================================
+
+    /**
+     * Start tracing with the current config (no-op if slow_trace.enabled is false)
+     * Called on enable and by reload(). Recorded traces are kept.
+     */
+    public static synchronized void start(Plugin plugin) {
+        if (enabled) {
+            return;
+        }
+        logger = plugin.getLogger();
+        dataFolder = plugin.getDataFolder();
+        if (!TechFactoryConstants.SLOW_TRACE_ENABLED()) {
+            return;
+        }
+
+        long[] thresholds = new long[Operation.values().length];
+        for (Operation operation : Operation.values()) {
+            long ms = operation.thresholdMs.getAsLong();
+            thresholds[operation.ordinal()] = ms > 0 ? TimeUnit.MILLISECONDS.toNanos(ms) : Long.MAX_VALUE;
+        }
+        thresholdNanos = thresholds;
+
+        ringCapacity = Math.max(1, TechFactoryConstants.SLOW_TRACE_RING_SIZE());
+        synchronized (RING) {
+            while (RING.size() > ringCapacity) {
+                RING.removeFirst();
+            }
+        }
+        jsonLinesFile = TechFactoryConstants.SLOW_TRACE_WRITE_JSON_LINES()
+            ? dataFolder.toPath().resolve(JSON_LINES_FILE) : null;
+
+        // One daemon thread: stack sampler + file writes (never the main thread)
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TechFactory-SlowTrace");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = Math.max(1, TechFactoryConstants.SLOW_TRACE_SAMPLE_INTERVAL_MS());
+        executor.scheduleAtFixedRate(SlowOperationTracer::sampleOpenSpans, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        enabled = true;
+    }
+
+    /**
+     * Stop tracing (pending JSON lines are written first, the ring is kept)
+     */
+    public static synchronized void stop() {
+        if (!enabled) {
+            return;
+        }
+        enabled = false;
+        OPEN.clear();
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Re-read thresholds and settings after /techfactory reload
+     */
+    public static void reload(Plugin plugin) {
+        stop();
+        start(plugin);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ========================================
+    // SPANS
+    // ========================================
+
+    /**
+     * Open a span for an operation (nested under the span open on this thread, if any)
+     * @return The span - a shared no-op span while tracing is disabled
+     */
+    public static Span begin(Operation operation) {
+        if (!enabled) {
+            return NOOP;
+        }
+        Span span = new Span(operation, thresholdNanos[operation.ordinal()], CURRENT.get());
+        CURRENT.set(span);
+        OPEN.add(span);
+        return span;
+    }
+
+    /**
+     * An open operation. Context setters return the span, so they chain off begin().
+     */
+    public static final class Span implements AutoCloseable {
+        private final Operation operation;
+        private final Thread thread;
+        private final long startNanos;
+        private final long thresholdNanos;
+        private final Span parent;
+
+        // Context (stored as given - formatted only if the span becomes a trace)
+        private Object location;
+        private String player;
+        private String machine;
+        private String sql;
+        private Map<String, Object> details;
+
+        private List<NestedSpan> nested;
+        private int nestedDropped;
+        private volatile boolean ended;
+
+        // Written by the sampler thread
+        private volatile StackTraceElement[] stack;
+        private volatile long stackSampledNanos;
+
+        private Span() {
+            this.operation = null;
+            this.thread = null;
+            this.startNanos = 0;
+            this.thresholdNanos = Long.MAX_VALUE;
+            this.parent = null;
+            this.ended = true;
+        }
+
+        private Span(Operation operation, long thresholdNanos, Span parent) {
+            this.operation = operation;
+            this.thread = Thread.currentThread();
+            this.thresholdNanos = thresholdNanos;
+            this.parent = parent;
+            this.startNanos = System.nanoTime();
+        }
+
+        public Span location(Location location) {
+            if (this != NOOP) {
+                this.location = location;
+            }
+            return this;
+        }
+
+        public Span chunk(String worldName, int chunkX, int chunkZ) {
+            if (this != NOOP) {
+                this.location = CacheRegistry.chunkKey(worldName, chunkX, chunkZ);
+            }
+            return this;
+        }
+
+        public Span player(Player player) {
+            if (this != NOOP && player != null) {
+                this.player = player.getName();
+            }
+            return this;
+        }
+
+        public Span machine(String machineType) {
+            if (this != NOOP) {
+                this.machine = machineType;
+            }
+            return this;
+        }
+
+        public Span sql(String sql) {
+            if (this != NOOP) {
+                this.sql = sql;
+            }
+            return this;
+        }
+
+        /**
+         * Any other context (counts, flags) - the value is stringified only if the span is traced
+         */
+        public Span detail(String key, Object value) {
+            if (this != NOOP) {
+                if (details == null) {
+                    details = new LinkedHashMap<>();
+                }
+                details.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * End the span: report it to its parent and record a trace if it ran over its threshold
+         */
+        public void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            long durationNanos = System.nanoTime() - startNanos;
+            OPEN.remove(this);
+
+            if (Thread.currentThread() == thread) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+            if (parent != null && !parent.ended) {
+                parent.addNested(new NestedSpan(this, durationNanos, startNanos - parent.startNanos));
+            }
+            if (durationNanos >= thresholdNanos) {
+                record(new Trace(SEQUENCE.incrementAndGet(), this, durationNanos));
+            }
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+
+        private void addNested(NestedSpan span) {
+            if (nested == null) {
+                nested = new ArrayList<>(4);
+            }
+            if (nested.size() < MAX_NESTED_SPANS) {
+                nested.add(span);
+            } else {
+                nestedDropped++;
+            }
+        }
+
+        /**
+         * Context as strings, in a fixed order
+         */
+        private Map<String, String> context() {
+            Map<String, String> context = new LinkedHashMap<>();
+            if (location instanceof Location loc) {
+                context.put("location", (loc.getWorld() != null ? loc.getWorld().getName() : "?") + "," +
+                    loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ());
+            } else if (location != null) {
+                context.put("chunk", location.toString());
+            }
+            if (player != null) {
+                context.put("player", player);
+            }
+            if (machine != null) {
+                context.put("machine", machine);
+            }
+            if (sql != null) {
+                context.put("sql", sql.strip().replaceAll("\\s+", " "));
+            }
+            if (details != null) {
+                for (Map.Entry<String, Object> entry : details.entrySet()) {
+                    context.put(entry.getKey(), String.valueOf(entry.getValue()));
+                }
+            }
+            return context;
+        }
+    }
+
+    /**
+     * A span that ran inside another one (kept by the parent with its own nested spans)
+     */
+    public static final class NestedSpan {
+        private final Operation operation;
+        private final long durationNanos;
+        private final long offsetNanos;
+        private final Map<String, String> context;
+        private final List<NestedSpan> nested;
+        private final int nestedDropped;
+
+        private NestedSpan(Span span, long durationNanos, long offsetNanos) {
+            this.operation = span.operation;
+            this.durationNanos = durationNanos;
+            this.offsetNanos = offsetNanos;
+            this.context = span.context();
+            this.nested = span.nested != null ? span.nested : Collections.emptyList();
+            this.nestedDropped = span.nestedDropped;
+        }
+
+        public Operation getOperation() { return operation; }
+        public double getDurationMs() { return durationNanos / 1_000_000.0; }
+        /** Start relative to the parent's start */
+        public double getOffsetMs() { return offsetNanos / 1_000_000.0; }
+        public Map<String, String> getContext() { return context; }
+        public List<NestedSpan> getNested() { return nested; }
+
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("operation", operation.name());
+            json.addProperty("offsetMs", round(getOffsetMs()));
+            json.addProperty("durationMs", round(getDurationMs()));
+            if (!context.isEmpty()) {
+                json.add("context", toJson(context));
+            }
+            if (!nested.isEmpty()) {
+                json.add("spans", toJson(nested, nestedDropped));
+            }
+            return json;
+        }
+
+        private static JsonObject toJson(Map<String, String> context) {
+            JsonObject json = new JsonObject();
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                json.addProperty(entry.getKey(), entry.getValue());
+            }
+            return json;
+        }
+
+        private static JsonArray toJson(List<NestedSpan> spans, int dropped) {
+            JsonArray array = new JsonArray();
+            for (NestedSpan span : spans) {
+                array.add(span.toJson());
+            }
+            if (dropped > 0) {
+                JsonObject more = new JsonObject();
+                more.addProperty("dropped", dropped);
+                array.add(more);
+            }
+            return array;
+        }
+    }
+
+    /**
+     * An operation that ran over its threshold (immutable)
+     */
+    public static final class Trace {
+        private final long id;
+        private final Operation operation;
+        private final long startedAtMs;
+        private final long durationNanos;
+        private final long thresholdNanos;
+        private final String thread;
+        private final Map<String, String> context;
+        private final List<NestedSpan> nested;
+        private final int nestedDropped;
+        private final List<String> stack;
+        private final long stackSampledNanos;
+
+        private Trace(long id, Span span, long durationNanos) {
+            this.id = id;
+            this.operation = span.operation;
+            this.startedAtMs = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            this.durationNanos = durationNanos;
+            this.thresholdNanos = span.thresholdNanos;
+            this.thread = span.thread.getName();
+            this.context = span.context();
+            this.nested = span.nested != null ? span.nested : Collections.emptyList();
+            this.nestedDropped = span.nestedDropped;
+
+            StackTraceElement[] frames = span.stack;
+            if (frames != null) {
+                List<String> lines = new ArrayList<>(Math.min(frames.length, MAX_STACK_FRAMES));
+                for (int i = 0; i < frames.length && i < MAX_STACK_FRAMES; i++) {
+                    lines.add(frames[i].toString());
+                }
+                this.stack = lines;
+                this.stackSampledNanos = span.stackSampledNanos;
+            } else {
+                this.stack = Collections.emptyList();
+                this.stackSampledNanos = -1;
+            }
+        }
+
+        public long getId() { return id; }
+        public Operation getOperation() { return operation; }
+        public long getStartedAtMs() { return startedAtMs; }
+        public double getDurationMs() { return durationNanos / 1_000_000.0; }
+        public double getThresholdMs() { return thresholdNanos / 1_000_000.0; }
+        public String getThread() { return thread; }
+        public Map<String, String> getContext() { return context; }
+        public List<NestedSpan> getNested() { return nested; }
+        /** Stack of the span's thread during the stall (empty if it ended before the sampler saw it) */
+        public List<String> getStack() { return stack; }
+        /** How far into the operation the stack was sampled (-1 = no sample) */
+        public double getStackSampledAtMs() { return stackSampledNanos < 0 ? -1 : stackSampledNanos / 1_000_000.0; }
+
+        /**
+         * One JSON object - the format of slow-traces.jsonl and /techfactory trace dump
+         */
+        public JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("id", id);
+            json.addProperty("operation", operation.name());
+            json.addProperty("startedAt", startedAtMs);
+            json.addProperty("durationMs", round(getDurationMs()));
+            json.addProperty("thresholdMs", round(getThresholdMs()));
+            json.addProperty("thread", thread);
+            json.add("context", NestedSpan.toJson(context));
+            json.add("spans", NestedSpan.toJson(nested, nestedDropped));
+            if (!stack.isEmpty()) {
+                JsonObject sample = new JsonObject();
+                sample.addProperty("sampledAtMs", round(getStackSampledAtMs()));
+                JsonArray frames = new JsonArray();
+                for (String frame : stack) {
+                    frames.add(frame);
+                }
+                sample.add("frames", frames);
+                json.add("stack", sample);
+            }
+            return json;
+        }
+    }
+
+    // ========================================
+    // RING & OUTPUT
+    // ========================================
+
+    /**
+     * Recorded traces, oldest first
+     */
+    public static List<Trace> getTraces() {
+        synchronized (RING) {
+            return new ArrayList<>(RING);
+        }
+    }
+
+    /**
+     * @return The trace, or null if it isn't in the ring (anymore)
+     */
+    public static Trace getTrace(long id) {
+        synchronized (RING) {
+            for (Trace trace : RING) {
+                if (trace.id == id) {
+                    return trace;
+                }
+            }
+        }
+        return null;
+    }
+
+    public static void clear() {
+        synchronized (RING) {
+            RING.clear();
+        }
+    }
+
+    /**
+     * Write the ring to traces/slow-traces-<timestamp>.jsonl in the plugin folder
+     * BLOCKING: File I/O - call from an async task
+     * @return The written file
+     * @throws IllegalStateException if the tracer was never started
+     */
+    public static Path dump() throws IOException {
+        File folder = dataFolder;
+        if (folder == null) {
+            throw new IllegalStateException("Slow-operation tracer was never started");
+        }
+        Path file = folder.toPath().resolve(DUMP_FOLDER)
+            .resolve("slow-traces-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jsonl");
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Trace trace : getTraces()) {
+                writer.write(trace.toJson().toString());
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    private static void record(Trace trace) {
+        synchronized (RING) {
+            RING.addLast(trace);
+            while (RING.size() > ringCapacity) {
+                RING.removeFirst();
+            }
+        }
+        logThrottled(trace);
+
+        Path file = jsonLinesFile;
+        ScheduledExecutorService writer = executor;
+        if (file != null && writer != null) {
+            try {
+                writer.execute(() -> appendJsonLine(file, trace));
+            } catch (java.util.concurrent.RejectedExecutionException e) {
+                // Stopping - the trace is still in the ring
+            }
+        }
+    }
+
+    private static void logThrottled(Trace trace) {
+        Logger log = logger;
+        if (log == null) {
+            return;
+        }
+        int index = trace.operation.ordinal();
+        int suppressed;
+        synchronized (lastLoggedMs) {
+            long now = System.currentTimeMillis();
+            if (now - lastLoggedMs[index] < LOG_INTERVAL_MS) {
+                suppressedLogs[index]++;
+                return;
+            }
+            lastLoggedMs[index] = now;
+            suppressed = suppressedLogs[index];
+            suppressedLogs[index] = 0;
+        }
+        log.warning(String.format("⚠ Slow %s: %.1fms (threshold %.0fms) %s - /techfactory trace show %d%s",
+            trace.operation.getDisplayName(), trace.getDurationMs(), trace.getThresholdMs(), trace.context,
+            trace.id, suppressed > 0 ? " (" + suppressed + " more since last warning)" : ""));
+    }
+
+    /**
+     * Append one trace to slow-traces.jsonl (runs on the tracer thread)
+     */
+    private static void appendJsonLine(Path file, Trace trace) {
+        try {
+            if (Files.exists(file) && Files.size(file) > MAX_JSON_LINES_BYTES) {
+                Files.move(file, file.resolveSibling(JSON_LINES_FILE + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.writeString(file, trace.toJson().toString() + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            Logger log = logger;
+            if (log != null) {
+                log.log(Level.WARNING, "Failed to write slow trace #" + trace.id + " to " + file, e);
+            }
+        }
+    }
+
+    // ========================================
+    // SAMPLER
+    // ========================================
+
+    /**
+     * Take one stack sample of every thread whose open span has passed its threshold
+     * Runs on the tracer thread every slow_trace.sample_interval_ms
+     */
+    private static void sampleOpenSpans() {
+        if (OPEN.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Map<Thread, StackTraceElement[]> sampled = null;
+        for (Span span : OPEN) {
+            if (span.stack != null || now - span.startNanos < span.thresholdNanos) {
+                continue;
+            }
+            // Nested slow spans share one sample of their thread
+            if (sampled == null) {
+                sampled = new HashMap<>(4);
+            }
+            StackTraceElement[] stack = sampled.computeIfAbsent(span.thread, Thread::getStackTrace);
+            if (!span.ended && stack.length > 0) {
+                span.stackSampledNanos = now - span.startNanos;
+                span.stack = stack;
+            }
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
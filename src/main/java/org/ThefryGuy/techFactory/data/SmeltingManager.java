@@ -11,6 +11,7 @@ import org.ThefryGuy.techFactory.TechFactoryConstants;
 import org.ThefryGuy.techFactory.recipes.RecipeItem;
 import org.ThefryGuy.techFactory.registry.SystemManager;
 import org.ThefryGuy.techFactory.workstations.multiblocks.SmelterMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,21 +25,30 @@ import java.util.logging.Level;
  */
 public class SmeltingManager implements SystemManager {
 
+    /** Message throttle entries are dropped 5 minutes after a player's last message */
+    private static final long MESSAGE_THROTTLE_TTL_MS = 5 * 60 * 1000L;
+
     private final TechFactory plugin;
     private final Map<String, SmeltingOperation> activeOperations = new ConcurrentHashMap<>();
     private int taskId = -1;
 
     // BUG FIX 4: Message spam throttling
     // Tracks last message time per player to prevent spam when 50+ smelters complete at once
-    private final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
+    // Entries expire after MESSAGE_THROTTLE_TTL_MS (reads ignore them, cleanupMessageThrottling() frees them)
+    private final InstrumentedCache<UUID, Long> lastMessageTime =
+        InstrumentedCache.expireAfterWrite("smelting_message_throttle", MESSAGE_THROTTLE_TTL_MS);
 
     // BUG FIX 4: Batch messages per tick
     // Collects all completions in current tick, sends summary instead of individual messages
     private final Map<UUID, List<String>> pendingMessages = new ConcurrentHashMap<>();
 
     // PHASE 3: Recipe queueing
-    // In-memory cache of queues per smelter location
-    private final Map<String, SmeltingQueue> queueCache = new ConcurrentHashMap<>();
+    // In-memory cache of queues per smelter location, loaded from the database on first use
+    // Chunk-scoped: queues of unloaded chunks are dropped and reload when the smelter is used again
+    // LIMITATION: Every queue change is saved right away (saveQueue), so a dropped queue is never newer
+    // than its row - unless the chunk unloads and the smelter is used again before that async save ran
+    private final InstrumentedCache<String, SmeltingQueue> queueCache =
+        InstrumentedCache.chunkScoped("smelting_queues", CacheRegistry::chunkKeyOfLocationKey);
 
     public SmeltingManager(TechFactory plugin) {
         this.plugin = plugin;
@@ -120,16 +130,21 @@ public class SmeltingManager implements SystemManager {
 
         // Run every 5 ticks (4 times per second) - still very responsive but much more efficient
         taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, () -> {
+            long span = TickProfiler.begin();
             checkCompletedOperations();
+            TickProfiler.end(TickProfiler.Subsystem.SMELTING_TICK, span);
+
+            span = TickProfiler.begin();
             flushPendingMessages(); // BUG FIX 4: Flush batched messages every tick
+            TickProfiler.end(TickProfiler.Subsystem.SMELTING_MESSAGES, span);
         }, 0L, TechFactoryConstants.SMELTING_CHECK_INTERVAL_TICKS());
 
         plugin.getLogger().info("Smelting Manager started (checking every " + TechFactoryConstants.SMELTING_CHECK_INTERVAL_TICKS() + " ticks)");
 
         // BUG FIX 4: Schedule periodic cleanup of message throttling map (every 30 seconds)
-        Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, () -> {
-            cleanupMessageThrottling();
-        }, 600L, 600L); // 600 ticks = 30 seconds
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin,
+            TickProfiler.wrap(TickProfiler.Subsystem.MAINTENANCE, this::cleanupMessageThrottling),
+            600L, 600L); // 600 ticks = 30 seconds
     }
 
     /**
@@ -148,6 +163,14 @@ public class SmeltingManager implements SystemManager {
      * BUG FIX 3: Added null checks to prevent NullPointerException
      */
     public void startSmelting(Location blastFurnaceLocation, RecipeItem output, long durationMs) {
+        startSmelting(blastFurnaceLocation, output, System.currentTimeMillis(), durationMs);
+    }
+
+    /**
+     * Start a new smelting operation with a specific start time
+     * VIRTUAL TIME: Queued recipes start when the previous one finished, not when it was noticed
+     */
+    public void startSmelting(Location blastFurnaceLocation, RecipeItem output, long startTime, long durationMs) {
         // BUG FIX 3: Null checks
         if (blastFurnaceLocation == null) {
             plugin.getLogger().log(Level.WARNING, "Cannot start smelting: location is null");
@@ -159,7 +182,7 @@ public class SmeltingManager implements SystemManager {
         }
 
         String key = locationToKey(blastFurnaceLocation);
-        SmeltingOperation operation = new SmeltingOperation(blastFurnaceLocation, output, durationMs);
+        SmeltingOperation operation = new SmeltingOperation(blastFurnaceLocation, output, startTime, durationMs);
         activeOperations.put(key, operation);
 
         // PRIORITY 2: Save to database (async to avoid lag)
@@ -212,6 +235,10 @@ public class SmeltingManager implements SystemManager {
      *
      * CHUNK LOADING PROTECTION: Only processes smelters in loaded chunks
      * PRIORITY 2: Now deletes completed operations from database
+     *
+     * BUG FIX: Completed operations are removed BEFORE completing them.
+     * Completing can auto-start the next queued recipe under the same key, which the
+     * old "collect keys, remove afterwards" loop immediately threw away again.
      */
     private void checkCompletedOperations() {
         List<String> toRemove = new ArrayList<>();
@@ -234,14 +261,20 @@ public class SmeltingManager implements SystemManager {
             }
 
             if (operation.isComplete()) {
+                // Remove first - completing may start the next queued recipe at this key
+                activeOperations.remove(entry.getKey(), operation);
+
                 // Complete the smelting
                 completeSmelting(operation);
-                toRemove.add(entry.getKey());
 
                 // PRIORITY 2: Delete from database (async to avoid lag)
-                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                    dbManager.deleteSmeltingOperation(loc);
-                });
+                // Skipped if a queued recipe started here - its save replaces this row
+                // (async tasks aren't ordered, a delete could otherwise wipe the new row)
+                if (!activeOperations.containsKey(entry.getKey())) {
+                    Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                        dbManager.deleteSmeltingOperation(loc);
+                    });
+                }
             }
         }
 
@@ -274,8 +307,9 @@ public class SmeltingManager implements SystemManager {
             return;
         }
 
-        // Verify the multiblock is still valid
-        if (!SmelterMachine.isValidStructure(blastFurnace)) {
+        // Verify the multiblock is still valid (the match also tells us which bricks belong to it)
+        StructureMatch structure = MultiblockCache.matchCached(SmelterMachine.STRUCTURE, blastFurnace);
+        if (structure == null) {
             return; // Multiblock was broken
         }
 
@@ -292,49 +326,22 @@ public class SmeltingManager implements SystemManager {
             return;
         }
 
-        // Try to output to chest first, then to GUI output slot
-        // Build multiblock blocks list for chest detection
-        Block ironBars = blastFurnace.getRelative(0, 1, 0);
-        Block campfire = blastFurnace.getRelative(0, -1, 0);
-
-        // Determine which bricks are actually part of the structure
-        Block side1 = blastFurnace.getRelative(1, 0, 0);
-        Block side2 = blastFurnace.getRelative(-1, 0, 0);
-        Block bottom1 = campfire.getRelative(1, 0, 0);
-        Block bottom2 = campfire.getRelative(-1, 0, 0);
-        boolean xAxisValid = side1.getType() == org.bukkit.Material.BRICKS && side2.getType() == org.bukkit.Material.BRICKS
-                && bottom1.getType() == org.bukkit.Material.BRICKS && bottom2.getType() == org.bukkit.Material.BRICKS;
-
-        Block side3 = blastFurnace.getRelative(0, 0, 1);
-        Block side4 = blastFurnace.getRelative(0, 0, -1);
-        Block bottom3 = campfire.getRelative(0, 0, 1);
-        Block bottom4 = campfire.getRelative(0, 0, -1);
-        boolean zAxisValid = side3.getType() == org.bukkit.Material.BRICKS && side4.getType() == org.bukkit.Material.BRICKS
-                && bottom3.getType() == org.bukkit.Material.BRICKS && bottom4.getType() == org.bukkit.Material.BRICKS;
-
-        java.util.List<Block> multiblockBlocks = new java.util.ArrayList<>();
-        multiblockBlocks.add(blastFurnace);
-        multiblockBlocks.add(ironBars);
-        multiblockBlocks.add(campfire);
-
-        if (xAxisValid) {
-            multiblockBlocks.add(side1);
-            multiblockBlocks.add(side2);
-            multiblockBlocks.add(bottom1);
-            multiblockBlocks.add(bottom2);
-        } else if (zAxisValid) {
-            multiblockBlocks.add(side3);
-            multiblockBlocks.add(side4);
-            multiblockBlocks.add(bottom3);
-            multiblockBlocks.add(bottom4);
-        }
-
-        boolean outputToChest = org.ThefryGuy.techFactory.util.ItemUtils.outputToChest(multiblockBlocks, outputItem);
-        boolean outputToGUI = false;
-
-        if (!outputToChest) {
-            // No chest found, try to put in GUI output slot
-            outputToGUI = SmelterMachine.outputToGUI(loc, outputItem);
+        // Try to output to an adjacent container first, then to GUI output slot
+        // REFACTORED: Multiblock blocks come from the structure match (no axis re-probing)
+        // PERFORMANCE FIX: Cached output targets, live inventory insert (OutputRouter)
+        java.util.List<Block> multiblockBlocks = structure.getBlocks();
+
+        List<ItemStack> leftovers = plugin.getOutputRouter().insert(multiblockBlocks, outputItem);
+        boolean outputToChest = leftovers.isEmpty();
+        boolean outputToGUI = !outputToChest;
+
+        for (ItemStack leftover : leftovers) {
+            // No container (or it's full), try to put in GUI output slot
+            if (!SmelterMachine.outputToGUI(loc, leftover)) {
+                // BUG FIX: Output slot full - drop at the smelter instead of destroying the item
+                loc.getWorld().dropItemNaturally(loc.clone().add(0.5, 1.0, 0.5), leftover);
+                outputToGUI = false;
+            }
         }
 
         // BUG FIX 4: Throttled notification to nearby players
@@ -342,7 +349,26 @@ public class SmeltingManager implements SystemManager {
         notifyNearbyPlayers(loc, output, outputToChest, outputToGUI);
 
         // PHASE 3: Check for queued recipes and auto-start next one
-        processNextQueuedRecipe(loc);
+        processNextQueuedRecipe(loc, nextStartTime(operation));
+    }
+
+    /**
+     * Start time for the next queued recipe
+     *
+     * VIRTUAL TIME: If enabled, the next recipe starts when this one actually finished
+     * (possibly while the chunk was unloaded), capped by virtual_time.max_catchup_seconds.
+     * Queued recipes that would have finished while unloaded then complete on the next
+     * checks after the chunk loads, instead of restarting from zero one by one.
+     */
+    private long nextStartTime(SmeltingOperation operation) {
+        long now = System.currentTimeMillis();
+        if (!TechFactoryConstants.VIRTUAL_TIME_ENABLED()) {
+            return now;
+        }
+
+        long finishedAt = operation.getStartTime() + operation.getDuration();
+        long earliest = now - TechFactoryConstants.VIRTUAL_TIME_MAX_CATCHUP_SECONDS() * 1000L;
+        return Math.min(now, Math.max(finishedAt, earliest));
     }
 
     /**
@@ -367,7 +393,7 @@ public class SmeltingManager implements SystemManager {
         } else if (outputToGUI) {
             message += ChatColor.YELLOW + " → Output Slot";
         } else {
-            message += ChatColor.RED + " (Output full!)";
+            message += ChatColor.RED + " (Output full - dropped!)";
         }
 
         for (Player player : Bukkit.getOnlinePlayers()) {
@@ -475,15 +501,7 @@ public class SmeltingManager implements SystemManager {
      * Called every 30 seconds by background task
      */
     private void cleanupMessageThrottling() {
-        long now = System.currentTimeMillis();
-        long maxAge = 5 * 60 * 1000; // 5 minutes
-
-        int sizeBefore = lastMessageTime.size();
-        lastMessageTime.entrySet().removeIf(entry ->
-            (now - entry.getValue()) > maxAge
-        );
-
-        int removed = sizeBefore - lastMessageTime.size();
+        int removed = lastMessageTime.cleanUp();
         if (removed > 0 && TechFactoryConstants.LOG_RATE_LIMITER_CLEANUP()) {
             plugin.getLogger().fine("Cleaned up " + removed + " old message throttling entries");
         }
@@ -503,24 +521,13 @@ public class SmeltingManager implements SystemManager {
     public SmeltingQueue getQueue(Location location) {
         String key = locationToKey(location);
 
-        // Check cache first
-        SmeltingQueue queue = queueCache.get(key);
-        if (queue != null) {
-            return queue;
-        }
-
-        // Try to load from database
-        DatabaseManager dbManager = plugin.getDatabaseManager();
-        queue = dbManager.loadSmeltingQueue(location);
+        // Cache first, then the database (load time is tracked by the cache)
+        return queueCache.get(key, k -> {
+            SmeltingQueue queue = plugin.getDatabaseManager().loadSmeltingQueue(location);
 
-        // If no queue in database, create new empty queue
-        if (queue == null) {
-            queue = new SmeltingQueue(location);
-        }
-
-        // Cache it
-        queueCache.put(key, queue);
-        return queue;
+            // If no queue in database, create new empty queue
+            return queue != null ? queue : new SmeltingQueue(location);
+        });
     }
 
     /**
@@ -540,8 +547,9 @@ public class SmeltingManager implements SystemManager {
      * Called automatically when a smelting operation completes
      *
      * @param location The smelter location
+     * @param startTime When the next recipe starts (now, or earlier with virtual time)
      */
-    private void processNextQueuedRecipe(Location location) {
+    private void processNextQueuedRecipe(Location location, long startTime) {
         SmeltingQueue queue = getQueue(location);
 
         // Check if there's a next recipe
@@ -555,12 +563,12 @@ public class SmeltingManager implements SystemManager {
         if (recipe == null) {
             plugin.getLogger().log(Level.WARNING, "Queued recipe not found: " + nextRecipeId + " at " + location);
             // Continue processing queue (skip invalid recipe)
-            processNextQueuedRecipe(location);
+            processNextQueuedRecipe(location, startTime);
             return;
         }
 
         // Start the smelting operation
-        startSmelting(location, recipe, TechFactoryConstants.SMELTING_DURATION_MS());
+        startSmelting(location, recipe, startTime, TechFactoryConstants.SMELTING_DURATION_MS());
 
         // Save updated queue to database
         saveQueue(queue);
@@ -0,0 +1,373 @@
+package org.ThefryGuy.techFactory.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.registry.MultiblockMachine;
+import org.ThefryGuy.techFactory.workstations.structure.SnapshotBlockSource;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Startup validation of multiblocks and restore of energy blocks in the chunks loaded at startup
+ *
+ * PERFORMANCE FIX: Startup used to validate every multiblock with live block reads and then restore
+ * every energy block, each in a single main-thread task. With thousands of entries in spawn chunks
+ * that was one multi-second stall right after the server started.
+ *
+ * NOW: Work is split into phases, and nothing on the main thread runs longer than the per-tick budget
+ * (database.startup_fixup_budget_ms):
+ * 1. CAPTURE (main, budgeted): snapshot the loaded chunks around each multiblock (ChunkSnapshot, no lighting)
+ * 2. EVALUATE (async): match each multiblock's structure against the snapshots
+ * 3. FIX-UP (main, budgeted): index valid multiblocks, remove broken ones, live-check the ones
+ *    whose chunks couldn't be captured
+ * 4. RESTORE (main, budgeted): energy regulators first (they create networks), then connectors/generators
+ *    in passes until a pass connects nothing - same order as a chunk load
+ *
+ * Progress is logged every 5 seconds, and a summary when done.
+ *
+ * THREADING: Only EVALUATE runs off the main thread; it reads nothing but the captured snapshots.
+ */
+class StartupValidator extends BukkitRunnable {
+
+    private static final int MAX_DEVICE_PASSES = 10; // Safety limit, same as restoreDevicesInPasses()
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+
+    private enum Phase { CAPTURE, EVALUATE, FIXUP, RESTORE_REGULATORS, RESTORE_DEVICES }
+
+    private final TechFactory plugin;
+    private final DatabaseManager databaseManager;
+
+    // Multiblocks to validate + their patterns (same order; pattern null = unknown type)
+    private final List<MultiblockData> multiblocks;
+    private final List<StructurePattern> patterns = new ArrayList<>();
+
+    // Energy blocks to restore
+    private final List<PlacedBlock> regulators = new ArrayList<>();
+    private List<PlacedBlock> devices = new ArrayList<>();
+
+    // CAPTURE: chunks still to snapshot + world name -> captured chunks
+    private final ArrayDeque<ChunkRequest> chunkRequests = new ArrayDeque<>();
+    private final Map<String, SnapshotBlockSource> sources = new HashMap<>();
+
+    // EVALUATE -> FIXUP: {coreX, coreY, coreZ, orientation}, null (broken) or StructurePattern.UNKNOWN per multiblock
+    private int[][] results;
+
+    // Written by the async EVALUATE step, read by the timer
+    private volatile Phase phase = Phase.CAPTURE;
+
+    // Progress
+    private int cursor = 0;
+    private int devicePass = 1;
+    private int connectedThisPass = 0;
+    private List<PlacedBlock> stillUnconnected = new ArrayList<>();
+    private long startNanos;
+    private long lastProgressNanos;
+    private int ticks = 0;
+
+    // Statistics
+    private int snapshotValid = 0;
+    private int liveChecked = 0;
+    private int removed = 0;
+    private int restoredBlocks = 0;
+
+    StartupValidator(TechFactory plugin, DatabaseManager databaseManager,
+                     List<MultiblockData> multiblocks, List<PlacedBlock> placedBlocks) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.multiblocks = multiblocks;
+
+        // Separate regulators from devices (regulators create the networks devices connect to)
+        for (PlacedBlock block : placedBlocks) {
+            String blockType = block.getBlockType();
+            if (blockType.equals("energy_regulator")) {
+                regulators.add(block);
+            } else if (blockType.equals("energy_connector") || blockType.equals("solar_generator")) {
+                devices.add(block);
+            }
+        }
+    }
+
+    /**
+     * Plan the chunk captures and start the timer (main thread)
+     */
+    void start() {
+        startNanos = System.nanoTime();
+        lastProgressNanos = startNanos;
+
+        // The registered block can be any member (GUI or trigger block), so capture
+        // twice the structure's horizontal radius around it
+        Map<StructurePattern, Integer> reaches = new HashMap<>();
+        Set<String> planned = new HashSet<>();
+        for (MultiblockData multiblock : multiblocks) {
+            MultiblockMachine machine = databaseManager.getMachine(multiblock);
+            StructurePattern pattern = machine != null ? machine.getStructure() : null;
+            patterns.add(pattern);
+            if (pattern == null) {
+                continue;
+            }
+
+            int reach = reaches.computeIfAbsent(pattern, StartupValidator::horizontalRadius) * 2;
+            for (int chunkX = (multiblock.getX() - reach) >> 4; chunkX <= (multiblock.getX() + reach) >> 4; chunkX++) {
+                for (int chunkZ = (multiblock.getZ() - reach) >> 4; chunkZ <= (multiblock.getZ() + reach) >> 4; chunkZ++) {
+                    if (planned.add(multiblock.getWorldName() + ":" + chunkX + ":" + chunkZ)) {
+                        chunkRequests.add(new ChunkRequest(multiblock.getWorldName(), chunkX, chunkZ));
+                    }
+                }
+            }
+        }
+
+        plugin.getLogger().info("Validating " + multiblocks.size() + " multiblocks (" + chunkRequests.size() +
+            " chunks) and restoring " + (regulators.size() + devices.size()) + " energy blocks from startup cache...");
+        runTaskTimer(plugin, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        ticks++;
+        long deadline = System.nanoTime() + TechFactoryConstants.STARTUP_FIXUP_BUDGET_MS() * 1_000_000L;
+
+        try {
+            switch (phase) {
+                case CAPTURE:
+                    capture(deadline);
+                    break;
+                case EVALUATE:
+                    return; // Waiting for the async step
+                case FIXUP:
+                    fixup(deadline);
+                    break;
+                case RESTORE_REGULATORS:
+                    restoreRegulators(deadline);
+                    break;
+                case RESTORE_DEVICES:
+                    restoreDevices(deadline);
+                    break;
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Startup validation failed in phase " + phase, e);
+            cancel();
+            return;
+        }
+
+        logProgress();
+    }
+
+    /**
+     * Snapshot loaded chunks (unloaded ones are validated live when they load - ChunkLoadListener)
+     */
+    private void capture(long deadline) {
+        while (!chunkRequests.isEmpty() && System.nanoTime() < deadline) {
+            ChunkRequest request = chunkRequests.poll();
+            World world = Bukkit.getWorld(request.worldName);
+            if (world != null && world.isChunkLoaded(request.chunkX, request.chunkZ)) {
+                sources.computeIfAbsent(request.worldName, k -> new SnapshotBlockSource())
+                        .add(world.getChunkAt(request.chunkX, request.chunkZ).getChunkSnapshot(false, false, false));
+            }
+        }
+
+        if (chunkRequests.isEmpty()) {
+            phase = Phase.EVALUATE;
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, this::evaluate);
+        }
+    }
+
+    /**
+     * Match every multiblock against the snapshots (ASYNC - snapshots only, no world access)
+     */
+    private void evaluate() {
+        int[][] evaluated = new int[multiblocks.size()][];
+        for (int i = 0; i < multiblocks.size(); i++) {
+            MultiblockData multiblock = multiblocks.get(i);
+            StructurePattern pattern = patterns.get(i);
+            SnapshotBlockSource source = sources.get(multiblock.getWorldName());
+            if (pattern == null || source == null) {
+                evaluated[i] = StructurePattern.UNKNOWN;
+                continue;
+            }
+
+            try {
+                evaluated[i] = pattern.matchContaining(source, multiblock.getX(), multiblock.getY(), multiblock.getZ());
+            } catch (Exception e) {
+                evaluated[i] = StructurePattern.UNKNOWN; // Fall back to a live check
+            }
+        }
+
+        results = evaluated;
+        phase = Phase.FIXUP; // Volatile write publishes the results to the main thread
+    }
+
+    /**
+     * Apply the evaluation: index, remove, or live-check (main thread)
+     */
+    private void fixup(long deadline) {
+        while (cursor < multiblocks.size() && System.nanoTime() < deadline) {
+            MultiblockData multiblock = multiblocks.get(cursor);
+            StructurePattern pattern = patterns.get(cursor);
+            int[] result = results[cursor];
+            cursor++;
+
+            if (pattern == null || !databaseManager.isCurrentMultiblock(multiblock)) {
+                continue; // Unknown type (kept) or removed meanwhile
+            }
+
+            if (result == StructurePattern.UNKNOWN) {
+                // A member chunk wasn't captured (or evaluation failed) - validate against the world
+                liveChecked++;
+                if (databaseManager.validateAndIndexMultiblock(multiblock)) {
+                    removed++;
+                }
+            } else if (result == null) {
+                databaseManager.removeInvalidMultiblock(multiblock);
+                removed++;
+            } else {
+                Location location = multiblock.getLocation();
+                if (location == null) {
+                    continue; // World unloaded meanwhile
+                }
+                Block core = location.getWorld().getBlockAt(result[0], result[1], result[2]);
+                databaseManager.getMultiblockIndex().index(multiblock.getLocationKey(), multiblock.getWorldName(),
+                    pattern.createMatch(core, result[3]));
+                snapshotValid++;
+            }
+        }
+
+        if (cursor >= multiblocks.size()) {
+            sources.clear(); // Release the snapshots
+            cursor = 0;
+            phase = Phase.RESTORE_REGULATORS;
+        }
+    }
+
+    /**
+     * Restore regulators first - they create the networks devices connect to
+     */
+    private void restoreRegulators(long deadline) {
+        while (cursor < regulators.size() && System.nanoTime() < deadline) {
+            databaseManager.restoreEnergyBlock(regulators.get(cursor++));
+            restoredBlocks++;
+        }
+
+        if (cursor >= regulators.size()) {
+            cursor = 0;
+            phase = Phase.RESTORE_DEVICES;
+        }
+    }
+
+    /**
+     * Restore devices in passes (chained connectors: connector -> connector -> regulator)
+     * Same algorithm as DatabaseManager.restoreDevicesInPasses(), resumable across ticks
+     */
+    private void restoreDevices(long deadline) {
+        while (System.nanoTime() < deadline) {
+            if (cursor >= devices.size()) {
+                // End of a pass
+                devices = stillUnconnected;
+                stillUnconnected = new ArrayList<>();
+                cursor = 0;
+
+                if (devices.isEmpty() || connectedThisPass == 0 || devicePass >= MAX_DEVICE_PASSES) {
+                    finish();
+                    return;
+                }
+                devicePass++;
+                connectedThisPass = 0;
+                continue;
+            }
+
+            PlacedBlock device = devices.get(cursor++);
+            if (databaseManager.tryRestoreDevice(device)) {
+                connectedThisPass++;
+                restoredBlocks++;
+            } else {
+                stillUnconnected.add(device);
+            }
+        }
+    }
+
+    private void finish() {
+        cancel();
+
+        // Log any orphaned devices
+        if (!devices.isEmpty()) {
+            plugin.getLogger().warning("Failed to restore " + devices.size() + " device(s) - no network in range");
+        }
+        if (removed > 0) {
+            plugin.getLogger().info("Cleaned up " + removed + " invalid multiblock(s)");
+        }
+
+        long duration = (System.nanoTime() - startNanos) / 1_000_000L;
+        plugin.getLogger().info("✓ Startup validation done in " + duration + "ms over " + ticks + " ticks: " +
+            snapshotValid + " multiblocks valid (snapshot), " + liveChecked + " checked live, " + removed +
+            " removed, " + restoredBlocks + " energy blocks restored");
+    }
+
+    private void logProgress() {
+        long now = System.nanoTime();
+        if (now - lastProgressNanos < PROGRESS_INTERVAL_NANOS || isCancelled()) {
+            return;
+        }
+        lastProgressNanos = now;
+
+        String detail;
+        switch (phase) {
+            case CAPTURE:
+                detail = sources.values().stream().mapToInt(SnapshotBlockSource::size).sum() + " chunks captured, " +
+                    chunkRequests.size() + " left";
+                break;
+            case EVALUATE:
+                detail = "evaluating " + multiblocks.size() + " multiblocks";
+                break;
+            case FIXUP:
+                detail = cursor + "/" + multiblocks.size() + " multiblocks applied";
+                break;
+            case RESTORE_REGULATORS:
+                detail = cursor + "/" + regulators.size() + " regulators restored";
+                break;
+            default:
+                detail = "device pass " + devicePass + ", " + cursor + "/" + devices.size() + " checked";
+                break;
+        }
+        plugin.getLogger().info("Startup validation in progress: " + detail);
+    }
+
+    /**
+     * Largest horizontal distance of a member from the core (over all orientations)
+     */
+    private static int horizontalRadius(StructurePattern pattern) {
+        int radius = 0;
+        for (int[][] members : pattern.getAllMemberOffsets()) {
+            for (int[] offset : members) {
+                radius = Math.max(radius, Math.max(Math.abs(offset[0]), Math.abs(offset[2])));
+            }
+        }
+        return radius;
+    }
+
+    /**
+     * A chunk to snapshot
+     */
+    private static class ChunkRequest {
+        private final String worldName;
+        private final int chunkX;
+        private final int chunkZ;
+
+        ChunkRequest(String worldName, int chunkX, int chunkZ) {
+            this.worldName = worldName;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package org.ThefryGuy.techFactory.data;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tick-time attribution profiler - tells which TechFactory subsystem is eating the tick.
+ *
+ * HOW IT WORKS:
+ * - Scheduled tasks and event handlers are wrapped in nanoTime spans (begin()/end(), wrap(), registerEvents())
+ * - Spans add their time to the current tick's per-subsystem accumulator
+ * - Paper's ServerTickEndEvent closes the tick: the accumulators go into a ring buffer
+ *   (profiling.history_ticks entries) together with the server's own tick duration
+ * - /techfactory profile report shows the top consumers and the worst ticks
+ *
+ * OVERHEAD:
+ * - Disabled (default): begin() is one volatile read, end() returns on the first check
+ * - Running: two System.nanoTime() calls per span, no allocation (ring is preallocated on start)
+ *
+ * THREADING: Main thread only. Spans that end on another thread are ignored, and start/stop/report
+ * are called from commands (main thread). Spans must not nest, or time is counted twice.
+ */
+public class TickProfiler {
+
+    /**
+     * Subsystems that get their own line in the report
+     */
+    public enum Subsystem {
+        ELECTRIC_MACHINES("Electric Machine Processor"),
+        SMELTING_TICK("Smelting Tick"),
+        SMELTING_MESSAGES("Smelting Message Flush"),
+        HOLOGRAMS("Energy Holograms"),
+        CHUNK_RESTORE("Chunk Restore"),
+        MAINTENANCE("Cleanup Tasks"),
+        METRICS_SNAPSHOT("Metrics Snapshot"),
+        MULTIBLOCK_LISTENER("MultiblockListener"),
+        ENERGY_BLOCK_LISTENER("EnergyBlockListener"),
+        ELECTRIC_MACHINE_LISTENER("ElectricMachineListener"),
+        PROTECTION_LISTENER("BlockProtectionListener"),
+        STRUCTURE_CACHE_LISTENER("StructureCacheListener"),
+        CHUNK_LISTENERS("Chunk/World Listeners"),
+        GUI_LISTENERS("Menu/Tool/Guidebook Listeners");
+
+        private final String displayName;
+
+        Subsystem(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final int SUBSYSTEM_COUNT = Subsystem.values().length;
+
+    /** Fast-path flag - the only thing disabled spans touch */
+    private static volatile boolean enabled = false;
+
+    private static Listener tickListener = null;
+
+    // Current tick (reset at every tick end)
+    private static final long[] currentNanos = new long[SUBSYSTEM_COUNT];
+    private static final long[] currentCalls = new long[SUBSYSTEM_COUNT];
+
+    // Ring buffer of finished ticks (allocated on start)
+    private static long[][] ringNanos = null;
+    private static int[] ringTickNumber = null;
+    private static double[] ringServerTickMs = null;
+    private static int ringHead = 0;
+    private static int ringFilled = 0;
+
+    // Totals since start
+    private static final long[] totalNanos = new long[SUBSYSTEM_COUNT];
+    private static final long[] totalCalls = new long[SUBSYSTEM_COUNT];
+    private static final long[] maxTickNanos = new long[SUBSYSTEM_COUNT];
+    private static long ticksProfiled = 0;
+    private static double totalServerTickMs = 0;
+    private static long startedAtMs = 0;
+    private static long stoppedAtMs = 0;
+
+    private TickProfiler() {
+        // Static utility
+    }
+
+    // ========================================
+    // LIFECYCLE
+    // ========================================
+
+    /**
+     * Start a new profile (clears the previous one)
+     * @return false if already running
+     */
+    public static boolean start(Plugin plugin) {
+        if (enabled) {
+            return false;
+        }
+
+        int capacity = Math.max(20, TechFactoryConstants.PROFILER_HISTORY_TICKS());
+        ringNanos = new long[capacity][SUBSYSTEM_COUNT];
+        ringTickNumber = new int[capacity];
+        ringServerTickMs = new double[capacity];
+        ringHead = 0;
+        ringFilled = 0;
+
+        Arrays.fill(currentNanos, 0);
+        Arrays.fill(currentCalls, 0);
+        Arrays.fill(totalNanos, 0);
+        Arrays.fill(totalCalls, 0);
+        Arrays.fill(maxTickNanos, 0);
+        ticksProfiled = 0;
+        totalServerTickMs = 0;
+        startedAtMs = System.currentTimeMillis();
+        stoppedAtMs = 0;
+
+        tickListener = new TickEndListener();
+        Bukkit.getPluginManager().registerEvents(tickListener, plugin);
+        enabled = true;
+        return true;
+    }
+
+    /**
+     * Stop profiling (data is kept for report())
+     * @return false if not running
+     */
+    public static boolean stop() {
+        if (!enabled) {
+            return false;
+        }
+        enabled = false;
+        stoppedAtMs = System.currentTimeMillis();
+
+        if (tickListener != null) {
+            HandlerList.unregisterAll(tickListener);
+            tickListener = null;
+        }
+        return true;
+    }
+
+    public static boolean isRunning() {
+        return enabled;
+    }
+
+    // ========================================
+    // SPANS
+    // ========================================
+
+    /**
+     * Open a span
+     * @return Start timestamp, or 0 when the profiler is off (pass it to end() unchanged)
+     */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Close a span opened with begin()
+     */
+    public static void end(Subsystem subsystem, long startNanos) {
+        if (startNanos == 0L) {
+            return; // Profiler was off when the span started
+        }
+        record(subsystem, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Add an already measured duration (for call sites that time themselves anyway)
+     */
+    public static void record(Subsystem subsystem, long durationNanos) {
+        if (!enabled || !Bukkit.isPrimaryThread()) {
+            return;
+        }
+        currentNanos[subsystem.ordinal()] += durationNanos;
+        currentCalls[subsystem.ordinal()]++;
+    }
+
+    /**
+     * Wrap a scheduled task in a span
+     */
+    public static Runnable wrap(Subsystem subsystem, Runnable task) {
+        return () -> {
+            long start = begin();
+            try {
+                task.run();
+            } finally {
+                end(subsystem, start);
+            }
+        };
+    }
+
+    /**
+     * Register a listener with every @EventHandler wrapped in a span.
+     * Same semantics as PluginManager.registerEvents (priority, ignoreCancelled), but each
+     * handler goes through a timing EventExecutor attributed to the given subsystem.
+     *
+     * @param listener The listener
+     * @param subsystem Subsystem its handlers are attributed to
+     * @param plugin The owning plugin
+     */
+    public static void registerEvents(Listener listener, Subsystem subsystem, Plugin plugin) {
+        Set<Method> methods = new HashSet<>(Arrays.asList(listener.getClass().getMethods()));
+        methods.addAll(Arrays.asList(listener.getClass().getDeclaredMethods()));
+
+        for (Method method : methods) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+
+            Class<?>[] params = method.getParameterTypes();
+            if (params.length != 1 || !Event.class.isAssignableFrom(params[0])) {
+                plugin.getLogger().severe("Invalid @EventHandler " + listener.getClass().getName() + "." + method.getName() +
+                    " - expected a single Event parameter");
+                continue;
+            }
+
+            Class<? extends Event> eventClass = params[0].asSubclass(Event.class);
+            method.setAccessible(true);
+            EventExecutor handlerExecutor = EventExecutor.create(method, eventClass);
+
+            EventExecutor timedExecutor = (target, event) -> {
+                long start = begin();
+                try {
+                    handlerExecutor.execute(target, event);
+                } finally {
+                    end(subsystem, start);
+                }
+            };
+
+            Bukkit.getPluginManager().registerEvent(eventClass, listener, handler.priority(),
+                timedExecutor, plugin, handler.ignoreCancelled());
+        }
+    }
+
+    // ========================================
+    // TICK ROLL-UP
+    // ========================================
+
+    /**
+     * Close the current tick: push it into the ring and update totals
+     */
+    private static void onTickEnd(int tickNumber, double serverTickMs) {
+        if (!enabled) {
+            return;
+        }
+
+        long[] slot = ringNanos[ringHead];
+        for (int i = 0; i < SUBSYSTEM_COUNT; i++) {
+            long nanos = currentNanos[i];
+            slot[i] = nanos;
+            totalNanos[i] += nanos;
+            totalCalls[i] += currentCalls[i];
+            if (nanos > maxTickNanos[i]) {
+                maxTickNanos[i] = nanos;
+            }
+            currentNanos[i] = 0;
+            currentCalls[i] = 0;
+        }
+        ringTickNumber[ringHead] = tickNumber;
+        ringServerTickMs[ringHead] = serverTickMs;
+
+        ringHead = (ringHead + 1) % ringNanos.length;
+        ringFilled = Math.min(ringFilled + 1, ringNanos.length);
+        ticksProfiled++;
+        totalServerTickMs += serverTickMs;
+    }
+
+    /**
+     * Listens for tick ends while the profiler runs (unregistered on stop)
+     */
+    private static final class TickEndListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onTickEnd(ServerTickEndEvent event) {
+            TickProfiler.onTickEnd(event.getTickNumber(), event.getTickDuration());
+        }
+    }
+
+    // ========================================
+    // REPORT
+    // ========================================
+
+    /**
+     * Build a report of the current (or last) profile
+     * @param worstTickCount How many worst ticks to include
+     * @return The report, or null if the profiler never ran
+     */
+    public static Report report(int worstTickCount) {
+        if (ringNanos == null) {
+            return null;
+        }
+
+        // Worst ticks by TechFactory time (selection over the ring - report is rare, ring is small)
+        List<TickSample> worst = new ArrayList<>();
+        boolean[] taken = new boolean[ringFilled];
+        for (int n = 0; n < worstTickCount; n++) {
+            int best = -1;
+            long bestNanos = 0;
+            for (int i = 0; i < ringFilled; i++) {
+                long sum = sum(ringNanos[i]);
+                if (!taken[i] && sum > bestNanos) {
+                    best = i;
+                    bestNanos = sum;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            taken[best] = true;
+            worst.add(new TickSample(ringTickNumber[best], ringServerTickMs[best], bestNanos, ringNanos[best].clone()));
+        }
+
+        long end = enabled ? System.currentTimeMillis() : stoppedAtMs;
+        return new Report(enabled, ticksProfiled, ringFilled, end - startedAtMs, totalServerTickMs,
+            totalNanos.clone(), totalCalls.clone(), maxTickNanos.clone(), worst);
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Immutable profile summary
+     */
+    public static class Report {
+        private final boolean running;
+        private final long ticks;
+        private final int historyTicks;
+        private final long durationMs;
+        private final double totalServerTickMs;
+        private final long[] totalNanos;
+        private final long[] totalCalls;
+        private final long[] maxTickNanos;
+        private final List<TickSample> worstTicks;
+
+        private Report(boolean running, long ticks, int historyTicks, long durationMs, double totalServerTickMs,
+                       long[] totalNanos, long[] totalCalls, long[] maxTickNanos, List<TickSample> worstTicks) {
+            this.running = running;
+            this.ticks = ticks;
+            this.historyTicks = historyTicks;
+            this.durationMs = durationMs;
+            this.totalServerTickMs = totalServerTickMs;
+            this.totalNanos = totalNanos;
+            this.totalCalls = totalCalls;
+            this.maxTickNanos = maxTickNanos;
+            this.worstTicks = worstTicks;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        /** Ticks still in the ring (what getWorstTicks() was picked from) */
+        public int getHistoryTicks() {
+            return historyTicks;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        /** Average server tick duration (all plugins + vanilla) */
+        public double getAvgServerTickMs() {
+            return ticks == 0 ? 0 : totalServerTickMs / ticks;
+        }
+
+        /** Average TechFactory time per tick (all subsystems) */
+        public double getAvgTechFactoryTickMs() {
+            return ticks == 0 ? 0 : sum(totalNanos) / 1_000_000.0 / ticks;
+        }
+
+        public long getTotalNanos(Subsystem subsystem) {
+            return totalNanos[subsystem.ordinal()];
+        }
+
+        public long getTotalCalls(Subsystem subsystem) {
+            return totalCalls[subsystem.ordinal()];
+        }
+
+        public long getMaxTickNanos(Subsystem subsystem) {
+            return maxTickNanos[subsystem.ordinal()];
+        }
+
+        /**
+         * Subsystems that did any work, most expensive first
+         */
+        public List<Subsystem> getTopConsumers() {
+            List<Subsystem> consumers = new ArrayList<>();
+            for (Subsystem subsystem : Subsystem.values()) {
+                if (totalCalls[subsystem.ordinal()] > 0) {
+                    consumers.add(subsystem);
+                }
+            }
+            consumers.sort((a, b) -> Long.compare(totalNanos[b.ordinal()], totalNanos[a.ordinal()]));
+            return consumers;
+        }
+
+        /** Worst ticks in the ring, by TechFactory time */
+        public List<TickSample> getWorstTicks() {
+            return worstTicks;
+        }
+    }
+
+    /**
+     * One tick from the ring buffer
+     */
+    public static class TickSample {
+        private final int tickNumber;
+        private final double serverTickMs;
+        private final long totalNanos;
+        private final long[] subsystemNanos;
+
+        private TickSample(int tickNumber, double serverTickMs, long totalNanos, long[] subsystemNanos) {
+            this.tickNumber = tickNumber;
+            this.serverTickMs = serverTickMs;
+            this.totalNanos = totalNanos;
+            this.subsystemNanos = subsystemNanos;
+        }
+
+        public int getTickNumber() {
+            return tickNumber;
+        }
+
+        public double getServerTickMs() {
+            return serverTickMs;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getNanos(Subsystem subsystem) {
+            return subsystemNanos[subsystem.ordinal()];
+        }
+    }
+}
@@ -13,11 +13,15 @@ import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.data.FlightRecorderEvents;
+import org.ThefryGuy.techFactory.data.PerformanceMetrics;
 import org.ThefryGuy.techFactory.data.PlacedBlock;
+import org.ThefryGuy.techFactory.data.TickProfiler;
 import org.ThefryGuy.techFactory.registry.SystemManager;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 /**
@@ -52,6 +56,17 @@ public class EnergyManager implements SystemManager {
     // These will be retried when chunks load or when new networks are created
     private final Set<PlacedBlock> orphanedDevices = ConcurrentHashMap.newKeySet();
 
+    // EVENT-DRIVEN BINDING: Consumers with no network in range
+    // Bound automatically when a network is created nearby
+    private final Set<Location> unboundConsumers = ConcurrentHashMap.newKeySet();
+
+    // EVENT-DRIVEN BINDING: Notified whenever a device's entry in locationToNetwork changes
+    private final List<BindingListener> bindingListeners = new CopyOnWriteArrayList<>();
+
+    // Consumer connection range (same as machine placement range) - distance to the
+    // network's regulator or any of its connectors, used for binding AND adoption
+    private static final double CONSUMER_RANGE = 6.0;
+
     // CRITICAL FIX: Gson instance for proper JSON serialization/deserialization
     // Prevents database desync and data corruption from manual string concatenation
     private final Gson gson = new Gson();
@@ -60,6 +75,28 @@ public class EnergyManager implements SystemManager {
     // CRITICAL FIX: Removed tickCounter - no longer needed since energy saves on every change
     private int hologramTickCounter = 0;  // Counter for hologram updates (slower than energy updates)
 
+    /**
+     * Listener for network binding changes
+     *
+     * EVENT-DRIVEN BINDING: Machines keep a direct reference to their network and are told when
+     * it changes (network created/removed, merge, split) instead of re-running spatial searches.
+     * Called on whichever thread changed the binding (main thread, or async during chunk loads).
+     */
+    public interface BindingListener {
+        /**
+         * @param deviceLocation The device whose binding changed
+         * @param network The new network, or null if the device is no longer connected
+         */
+        void onBindingChanged(Location deviceLocation, EnergyNetwork network);
+
+        /**
+         * A network gained energy (generation) - consumers that stopped for lack of energy can resume
+         * Called on the main thread once per network per generation update
+         */
+        default void onEnergyAdded(EnergyNetwork network) {
+        }
+    }
+
     public EnergyManager(TechFactory plugin) {
         this.plugin = plugin;
         this.networks = new ConcurrentHashMap<>();       // Thread-safe for async operations
@@ -121,7 +158,10 @@ public class EnergyManager implements SystemManager {
             public void run() {
                 // Run network updates asynchronously (calculations, energy transfer, etc.)
                 // This is safe because networks use ConcurrentHashMap
+                long updateStart = System.nanoTime();
                 updateAllNetworks();
+                PerformanceMetrics.getInstance().recordLatency(
+                    PerformanceMetrics.Operation.ENERGY_UPDATE, System.nanoTime() - updateStart);
 
                 // OPTIMIZATION: Update holograms less frequently (every 3 seconds instead of 1 second)
                 // Holograms are just visual - they don't need to be real-time
@@ -131,9 +171,8 @@ public class EnergyManager implements SystemManager {
                     hologramTickCounter = 0;
 
                     // Schedule hologram updates on main thread (entities require main thread)
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        updateAllHolograms();
-                    });
+                    Bukkit.getScheduler().runTask(plugin,
+                        TickProfiler.wrap(TickProfiler.Subsystem.HOLOGRAMS, () -> updateAllHolograms()));
                 }
             }
         };
@@ -223,6 +262,8 @@ public class EnergyManager implements SystemManager {
             }
         }
 
+        unboundConsumers.removeIf(loc -> loc.getWorld() == null || loc.getWorld().getName().equals(worldName));
+
         if (networksRemoved > 0 || devicesRemoved > 0) {
             plugin.getLogger().info("Cleaned up world '" + worldName + "': " +
                 networksRemoved + " networks, " +
@@ -256,6 +297,9 @@ public class EnergyManager implements SystemManager {
             return networks.get(locationKey);
         }
 
+        FlightRecorderEvents.NetworkTopologyChange event = new FlightRecorderEvents.NetworkTopologyChange();
+        event.begin();
+
         // Create new network
         EnergyNetwork network = new EnergyNetwork(regulatorLocation);
         networks.put(locationKey, network);
@@ -275,6 +319,10 @@ public class EnergyManager implements SystemManager {
         // Create hologram
         createHologram(regulatorLocation, network);
 
+        // EVENT-DRIVEN BINDING: Connect consumers that were waiting for a network
+        bindUnboundConsumersNear(regulatorLocation);
+
+        commitTopologyEvent(event, "NETWORK_CREATED", regulatorLocation, deviceCount(network));
         plugin.getLogger().info("Created energy network at " + locationKey);
         return network;
     }
@@ -284,9 +332,15 @@ public class EnergyManager implements SystemManager {
      */
     public void removeNetwork(Location regulatorLocation) {
         String locationKey = PlacedBlock.locationToKey(regulatorLocation);
+        FlightRecorderEvents.NetworkTopologyChange event = new FlightRecorderEvents.NetworkTopologyChange();
+        event.begin();
 
         // Get network before removing
         EnergyNetwork network = networks.get(locationKey);
+        int devices = deviceCount(network);
+
+        // Consumers are re-bound to another network (if any in range) once this one is gone
+        List<Location> consumers = network != null ? new ArrayList<>(network.getConnectedConsumers()) : Collections.emptyList();
 
         // Remove all device locations from reverse map
         if (network != null) {
@@ -302,9 +356,9 @@ public class EnergyManager implements SystemManager {
                 locationToNetwork.remove(PlacedBlock.locationToKey(panelLoc));
             }
 
-            // Remove all consumers
-            for (Location consumerLoc : network.getConnectedConsumers()) {
-                locationToNetwork.remove(PlacedBlock.locationToKey(consumerLoc));
+            // Remove all consumers (listeners are told they're unbound)
+            for (Location consumerLoc : consumers) {
+                unregisterDevice(consumerLoc);
             }
         }
 
@@ -325,9 +379,39 @@ public class EnergyManager implements SystemManager {
         // Remove hologram
         removeHologram(locationKey);
 
+        // EVENT-DRIVEN BINDING: Move consumers to another network in range (or mark unbound)
+        for (Location consumerLoc : consumers) {
+            bindConsumer(consumerLoc);
+        }
+
+        commitTopologyEvent(event, "NETWORK_REMOVED", regulatorLocation, devices);
         plugin.getLogger().info("Removed energy network at " + locationKey);
     }
 
+    /**
+     * Devices connected to a network (0 for null)
+     */
+    private static int deviceCount(EnergyNetwork network) {
+        if (network == null) {
+            return 0;
+        }
+        return network.getConnectorCount() + network.getPanelCount() + network.getConsumerCount() + network.getCapacitorCount();
+    }
+
+    /**
+     * Commit a JFR topology event (no-op unless techfactory.NetworkTopologyChange is enabled)
+     */
+    private void commitTopologyEvent(FlightRecorderEvents.NetworkTopologyChange event, String change, Location location, int devices) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.change = change;
+            event.setLocation(location);
+            event.devices = devices;
+            event.networks = networks.size();
+            event.commit();
+        }
+    }
+
     /**
      * Get an energy network by regulator location
      */
@@ -526,8 +610,8 @@ public class EnergyManager implements SystemManager {
             }
 
             // Add generated energy to network
-            if (totalGeneration > 0) {
-                network.addEnergy(totalGeneration);
+            if (totalGeneration > 0 && network.addEnergy(totalGeneration) > 0) {
+                fireEnergyAdded(network);
             }
 
             // TODO: In the future, this will also:
@@ -906,7 +990,7 @@ public class EnergyManager implements SystemManager {
             final List<PlacedBlock> finalOrphanedConnectors = new ArrayList<>(orphanedConnectors);
             final int initialOrphanedCount = orphanedConnectors.size();
 
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            Bukkit.getScheduler().runTaskLater(plugin, TickProfiler.wrap(TickProfiler.Subsystem.CHUNK_RESTORE, () -> {
                 int reconnectedCount = 0;
                 List<PlacedBlock> stillOrphaned = new ArrayList<>();
 
@@ -940,7 +1024,7 @@ public class EnergyManager implements SystemManager {
                     // Add to orphaned tracking set - will retry when chunks load
                     orphanedDevices.addAll(stillOrphaned);
                 }
-            }, 100L); // 5 seconds (100 ticks)
+            }), 100L); // 5 seconds (100 ticks)
         }
 
         // Step 3: Load all solar generators and connect them to networks
@@ -1113,12 +1197,10 @@ public class EnergyManager implements SystemManager {
                     continue;
                 }
 
-                // Find nearest network within 6 blocks
-                EnergyNetwork network = findNearestNetwork(location, 6.0);
+                // Find nearest network within 6 blocks (unbound consumers are tracked for later)
+                EnergyNetwork network = bindConsumer(location);
 
                 if (network != null) {
-                    network.connectConsumer(location);
-                    registerDeviceToNetwork(location, network);
                     connected++;
                     plugin.getLogger().info("✓ Connected " + consumerType + " at " +
                         location.getWorld().getName() + " " +
@@ -1242,7 +1324,13 @@ public class EnergyManager implements SystemManager {
     public void registerDeviceToNetwork(Location deviceLocation, EnergyNetwork network) {
         if (deviceLocation != null && network != null) {
             String locationKey = PlacedBlock.locationToKey(deviceLocation);
-            locationToNetwork.put(locationKey, network);
+            FlightRecorderEvents.NetworkTopologyChange event = new FlightRecorderEvents.NetworkTopologyChange();
+            event.begin();
+            EnergyNetwork previous = locationToNetwork.put(locationKey, network);
+            if (previous != network) {
+                fireBindingChanged(deviceLocation, network);
+                commitTopologyEvent(event, "DEVICE_BOUND", deviceLocation, deviceCount(network));
+            }
         }
     }
 
@@ -1253,10 +1341,194 @@ public class EnergyManager implements SystemManager {
     public void unregisterDevice(Location deviceLocation) {
         if (deviceLocation != null) {
             String locationKey = PlacedBlock.locationToKey(deviceLocation);
-            locationToNetwork.remove(locationKey);
+            FlightRecorderEvents.NetworkTopologyChange event = new FlightRecorderEvents.NetworkTopologyChange();
+            event.begin();
+            EnergyNetwork previous = locationToNetwork.remove(locationKey);
+            if (previous != null) {
+                fireBindingChanged(deviceLocation, null);
+                commitTopologyEvent(event, "DEVICE_UNBOUND", deviceLocation, deviceCount(previous));
+            }
         }
     }
 
+    // ========================================
+    // EVENT-DRIVEN CONSUMER BINDING
+    // ========================================
+
+    /**
+     * Register a listener for binding changes
+     */
+    public void addBindingListener(BindingListener listener) {
+        bindingListeners.add(listener);
+    }
+
+    /**
+     * Remove a binding listener
+     */
+    public void removeBindingListener(BindingListener listener) {
+        bindingListeners.remove(listener);
+    }
+
+    /**
+     * Notify listeners that a network gained energy
+     */
+    private void fireEnergyAdded(EnergyNetwork network) {
+        for (BindingListener listener : bindingListeners) {
+            try {
+                listener.onEnergyAdded(network);
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Energy listener failed for network " + network.getNetworkId(), e);
+            }
+        }
+    }
+
+    /**
+     * Notify listeners that a device's binding changed
+     */
+    private void fireBindingChanged(Location deviceLocation, EnergyNetwork network) {
+        for (BindingListener listener : bindingListeners) {
+            try {
+                listener.onBindingChanged(deviceLocation, network);
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Energy binding listener failed for " + deviceLocation, e);
+            }
+        }
+    }
+
+    /**
+     * Bind a consumer to the nearest network in range (or unbind it if there is none)
+     *
+     * This is the ONLY place consumers are (re)bound. Spatial search happens here, at event time
+     * (placement, network created/removed, connector removed) - never during machine ticks.
+     *
+     * @return The network the consumer is now bound to, or null if none in range
+     */
+    public EnergyNetwork bindConsumer(Location consumerLocation) {
+        if (consumerLocation == null) {
+            return null;
+        }
+
+        EnergyNetwork current = getNetworkByLocation(consumerLocation);
+        EnergyNetwork nearest = findNearestNetwork(consumerLocation, CONSUMER_RANGE);
+
+        if (nearest == null) {
+            if (current != null) {
+                current.disconnectConsumer(consumerLocation);
+                unregisterDevice(consumerLocation);
+            }
+            unboundConsumers.add(consumerLocation);
+            return null;
+        }
+
+        unboundConsumers.remove(consumerLocation);
+        if (nearest != current) {
+            if (current != null) {
+                current.disconnectConsumer(consumerLocation);
+            }
+            nearest.connectConsumer(consumerLocation);
+            registerDeviceToNetwork(consumerLocation, nearest);
+        }
+        return nearest;
+    }
+
+    /**
+     * Disconnect a consumer for good (consumer block was broken)
+     */
+    public void releaseConsumer(Location consumerLocation) {
+        if (consumerLocation == null) {
+            return;
+        }
+
+        unboundConsumers.remove(consumerLocation);
+        EnergyNetwork network = getNetworkByLocation(consumerLocation);
+        if (network != null) {
+            network.disconnectConsumer(consumerLocation);
+            unregisterDevice(consumerLocation);
+        }
+    }
+
+    /**
+     * SPLIT: Re-check every consumer of a network after it lost connectors
+     * Consumers that are now out of range move to another network or become unbound
+     */
+    public void revalidateConsumers(EnergyNetwork network) {
+        if (network == null) {
+            return;
+        }
+
+        for (Location consumerLoc : new ArrayList<>(network.getConnectedConsumers())) {
+            bindConsumer(consumerLoc);
+        }
+    }
+
+    /**
+     * MERGE: Let a new network take over consumers that are now closer to it
+     * Only consumers within CONSUMER_RANGE of the new network (regulator or connectors it took
+     * over) are checked - other networks' consumers and unbound ones
+     */
+    public void adoptNearbyConsumers(EnergyNetwork network) {
+        if (network == null || network.getRegulatorLocation() == null || network.getRegulatorLocation().getWorld() == null) {
+            return;
+        }
+
+        for (EnergyNetwork otherNetwork : networks.values()) {
+            if (otherNetwork == network) {
+                continue;
+            }
+            for (Location consumerLoc : new ArrayList<>(otherNetwork.getConnectedConsumers())) {
+                if (isInConsumerRange(consumerLoc, network)) {
+                    bindConsumer(consumerLoc);
+                }
+            }
+        }
+
+        for (Location consumerLoc : new ArrayList<>(unboundConsumers)) {
+            if (isInConsumerRange(consumerLoc, network)) {
+                bindConsumer(consumerLoc);
+            }
+        }
+    }
+
+    /**
+     * Bind unbound consumers near a device that was just added to a network
+     * (new regulator, or a connector that extended a network)
+     */
+    public void bindUnboundConsumersNear(Location deviceLoc) {
+        if (unboundConsumers.isEmpty() || deviceLoc == null || deviceLoc.getWorld() == null) {
+            return;
+        }
+
+        for (Location consumerLoc : new ArrayList<>(unboundConsumers)) {
+            if (isInConsumerRange(consumerLoc, deviceLoc)) {
+                bindConsumer(consumerLoc);
+            }
+        }
+    }
+
+    /**
+     * Check if a consumer is within CONSUMER_RANGE of a network's regulator or connectors
+     */
+    private static boolean isInConsumerRange(Location consumerLoc, EnergyNetwork network) {
+        if (isInConsumerRange(consumerLoc, network.getRegulatorLocation())) {
+            return true;
+        }
+        for (Location connectorLoc : network.getConnectedConnectors()) {
+            if (isInConsumerRange(consumerLoc, connectorLoc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a consumer is within CONSUMER_RANGE of a device (same world)
+     */
+    private static boolean isInConsumerRange(Location consumerLoc, Location deviceLoc) {
+        return consumerLoc != null && deviceLoc != null && consumerLoc.getWorld() != null &&
+               consumerLoc.getWorld().equals(deviceLoc.getWorld()) &&
+               consumerLoc.distanceSquared(deviceLoc) <= CONSUMER_RANGE * CONSUMER_RANGE;
+    }
+
     /**
      * CRITICAL FIX: Retry connecting orphaned devices when a chunk loads
      * Called by ChunkLoadListener when chunks load during gameplay
@@ -1303,6 +1575,9 @@ public class EnergyManager implements SystemManager {
                     network.connectPanel(location);
                 }
                 registerDeviceToNetwork(location, network);
+                if (blockType.equals("energy_connector")) {
+                    bindUnboundConsumersNear(location); // Network range grew
+                }
                 reconnected.add(device);
 
                 plugin.getLogger().info("Reconnected orphaned " + blockType + " at " +
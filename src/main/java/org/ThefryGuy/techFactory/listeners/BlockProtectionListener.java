@@ -203,6 +203,9 @@ public class BlockProtectionListener implements Listener {
                 if (network != null) {
                     network.disconnectConnector(location);
                     energyManager.unregisterDevice(location);
+
+                    // SPLIT: Consumers that lost their path move to another network or become unbound
+                    energyManager.revalidateConsumers(network);
                 }
             }
 
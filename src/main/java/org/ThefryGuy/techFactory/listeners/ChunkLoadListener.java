@@ -6,6 +6,10 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.data.DatabaseManager;
+import org.ThefryGuy.techFactory.data.FlightRecorderEvents;
+import org.ThefryGuy.techFactory.data.PerformanceMetrics;
+import org.ThefryGuy.techFactory.data.SlowOperationTracer;
+import org.ThefryGuy.techFactory.data.TickProfiler;
 
 import java.util.logging.Level;
 
@@ -19,8 +23,9 @@ import java.util.logging.Level;
  * - Result: Cache stays in sync with what's actually in the world
  *
  * LOADS:
- * - Multiblocks (smelters, crushers, etc.)
+ * - Multiblocks (smelters, crushers, etc.) - validated and indexed on the main thread
  * - Placed blocks (energy regulators, connectors, generators)
+ * - Electric machines that were checkpointed when the chunk unloaded
  *
  * PERFORMANCE:
  * - Runs asynchronously to avoid blocking the main thread
@@ -60,18 +65,60 @@ public class ChunkLoadListener implements Listener {
 
         // Run asynchronously to avoid blocking the server
         org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            SlowOperationTracer.Span loadSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.CHUNK_LOAD)
+                .chunk(worldName, chunkX, chunkZ);
             try {
+                long loadStart = System.nanoTime();
+                FlightRecorderEvents.ChunkDataLoad loadEvent = new FlightRecorderEvents.ChunkDataLoad();
+                loadEvent.begin();
+
                 // Load multiblocks in this chunk
-                databaseManager.loadChunkMultiblocks(worldName, chunkX, chunkZ);
+                java.util.List<org.ThefryGuy.techFactory.data.MultiblockData> multiblocks =
+                    databaseManager.loadChunkMultiblocks(worldName, chunkX, chunkZ);
 
                 // Load placed blocks (energy blocks) in this chunk
-                databaseManager.loadChunkBlocks(worldName, chunkX, chunkZ);
+                int blocks = databaseManager.loadChunkBlocks(worldName, chunkX, chunkZ);
+                PerformanceMetrics.getInstance().recordLatency(
+                    PerformanceMetrics.Operation.CHUNK_LOAD, System.nanoTime() - loadStart);
+
+                loadEvent.end();
+                if (loadEvent.shouldCommit()) {
+                    loadEvent.world = worldName;
+                    loadEvent.chunkX = chunkX;
+                    loadEvent.chunkZ = chunkZ;
+                    loadEvent.blocks = blocks;
+                    loadEvent.multiblocks = multiblocks.size();
+                    loadEvent.commit();
+                }
 
                 // CRITICAL FIX: Retry orphaned energy devices when chunk loads
                 // This solves the problem where connector chains span multiple chunks
                 // and can't connect at startup because chunks aren't loaded yet
                 org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                    plugin.getEnergyManager().retryOrphanedDevicesInChunk(worldName, chunkX, chunkZ);
+                    long restoreStart = System.nanoTime();
+                    SlowOperationTracer.Span restoreSpan = SlowOperationTracer.begin(SlowOperationTracer.Operation.CHUNK_RESTORE)
+                        .chunk(worldName, chunkX, chunkZ).detail("multiblocks", multiblocks.size());
+                    try {
+                        // Validate this chunk's multiblocks and index their member blocks (removes ghosts)
+                        if (!multiblocks.isEmpty()) {
+                            databaseManager.indexMultiblocks(multiblocks);
+                        }
+
+                        plugin.getEnergyManager().retryOrphanedDevicesInChunk(worldName, chunkX, chunkZ);
+
+                        // Restore electric machines checkpointed by ChunkUnloadListener
+                        // (after networks reconnect, so catch-up sees the right network)
+                        for (org.ThefryGuy.techFactory.machines.electric.ElectricMachineRuntime runtime :
+                                org.ThefryGuy.techFactory.machines.electric.ElectricMachineRuntime.getAll()) {
+                            runtime.onChunkLoad(worldName, chunkX, chunkZ, plugin);
+                        }
+                    } finally {
+                        restoreSpan.end();
+                    }
+
+                    long restoreNanos = System.nanoTime() - restoreStart;
+                    PerformanceMetrics.getInstance().recordLatency(PerformanceMetrics.Operation.MAIN_THREAD_RESTORE, restoreNanos);
+                    TickProfiler.record(TickProfiler.Subsystem.CHUNK_RESTORE, restoreNanos);
                 });
 
                 // Log for debugging (use FINE level to avoid spam)
@@ -79,6 +126,8 @@ public class ChunkLoadListener implements Listener {
 
             } catch (Exception e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to load data for chunk (" + chunkX + ", " + chunkZ + ")", e);
+            } finally {
+                loadSpan.end();
             }
         });
     }
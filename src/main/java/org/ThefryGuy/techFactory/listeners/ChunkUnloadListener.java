@@ -0,0 +1,57 @@
+package org.ThefryGuy.techFactory.listeners;
+
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.CacheRegistry;
+import org.ThefryGuy.techFactory.machines.electric.ElectricMachineRuntime;
+
+/**
+ * Listens for chunks unloading and checkpoints the electric machines in them.
+ *
+ * WHY THIS EXISTS:
+ * - Machine states (inventory + GUI) used to stay in memory after their chunk unloaded
+ * - Each runtime saves the machine, keeps a small checkpoint and drops the state
+ * - ChunkLoadListener restores the machines (and runs virtual time catch-up if enabled)
+ *
+ * PRIORITY: MONITOR - Only react to unloads that actually happen
+ */
+public class ChunkUnloadListener implements Listener {
+
+    private final TechFactory plugin;
+
+    public ChunkUnloadListener(TechFactory plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        String worldName = chunk.getWorld().getName();
+        int chunkX = chunk.getX();
+        int chunkZ = chunk.getZ();
+
+        int evicted = 0;
+        for (ElectricMachineRuntime runtime : ElectricMachineRuntime.getAll()) {
+            evicted += runtime.onChunkUnload(worldName, chunkX, chunkZ, plugin);
+        }
+
+        // Formed structures re-validate on demand when the chunk comes back
+        if (plugin.getMultiblockCache() != null) {
+            plugin.getMultiblockCache().invalidateChunk(chunk);
+        }
+        if (plugin.getOutputRouter() != null) {
+            plugin.getOutputRouter().invalidateChunk(chunk);
+        }
+
+        // Chunk-scoped caches (e.g. smelting queues) drop their entries for this chunk
+        CacheRegistry.invalidateChunk(worldName, chunkX, chunkZ);
+
+        if (evicted > 0) {
+            plugin.getLogger().fine("ChunkUnload: Checkpointed " + evicted + " electric machines in chunk (" + chunkX + ", " + chunkZ + ") in world " + worldName);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package org.ThefryGuy.techFactory.listeners;
 
-import org.bukkit.ChatColor;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -11,16 +9,18 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.registry.ElectricMachine;
 import org.ThefryGuy.techFactory.registry.ElectricMachineRegistry;
 import org.ThefryGuy.techFactory.util.ItemUtils;
-import org.ThefryGuy.techFactory.machines.electric.ElectricFurnaceMachine;
-import org.ThefryGuy.techFactory.machines.electric.ElectricGoldPanMachine;
+import org.ThefryGuy.techFactory.machines.electric.ElectricMachineRuntime;
 
 /**
  * Unified listener for ALL electric machines
@@ -142,26 +142,20 @@ public class ElectricMachineListener implements Listener {
             return;
         }
 
-        // Handle Electric Furnace
-        if (title.equals(ChatColor.YELLOW + "Electric Furnace")) {
-            Location furnaceLoc = ElectricFurnaceMachine.getViewingLocation(player);
-            if (furnaceLoc != null) {
-                ElectricFurnaceMachine.onClose(player, inv, plugin, furnaceLoc);
-                ElectricFurnaceMachine.stopViewing(player);
-            }
-        }
-        // Handle Electric Gold Pan
-        else if (title.equals(ChatColor.GOLD + "Electric Gold Pan")) {
-            Location machineLoc = ElectricGoldPanMachine.getViewingLocation(player);
-            if (machineLoc != null) {
-                ElectricGoldPanMachine.onClose(player, inv, plugin, machineLoc);
-                ElectricGoldPanMachine.stopViewing(player);
-            }
+        // Dispatch to the runtime that owns this GUI title
+        ElectricMachineRuntime runtime = ElectricMachineRuntime.getByTitle(title);
+        if (runtime != null && runtime.getViewingLocation(player) != null) {
+            runtime.onClose(player);
         }
     }
 
     /**
-     * Prevent clicking on decorative items in the GUI and prevent placing items in output slots
+     * Prevent clicking on decorative items in the GUI, prevent placing items in output slots,
+     * and only allow Machine Upgrades in the upgrade slot
+     *
+     * BUG FIX: Shift-clicks from the player inventory used to fall through the "slot >= 45" early
+     * return, so vanilla MOVE_TO_OTHER_INVENTORY could drop any item into the upgrade slot (or an
+     * upgrade into an input slot). They are now cancelled and routed by routeShiftClick() instead.
      */
     @EventHandler(priority = EventPriority.HIGH)
     public void onInventoryClick(InventoryClickEvent event) {
@@ -176,64 +170,153 @@ public class ElectricMachineListener implements Listener {
             return;
         }
 
+        // Check if this is an electric machine inventory (runtime owns the slot layout)
+        ElectricMachineRuntime runtime = ElectricMachineRuntime.getByTitle(title);
+        if (runtime == null) {
+            return; // Not an electric machine
+        }
+
         int slot = event.getRawSlot();
 
-        // Allow clicking in player inventory (slots 45+)
+        // Double-click collecting could pull decorative panes out of the GUI
+        if (event.getAction() == InventoryAction.COLLECT_TO_CURSOR) {
+            event.setCancelled(true);
+            return;
+        }
+
+        // Player inventory (slots 45+): only shift-clicks reach into the machine GUI
         if (slot >= 45) {
+            if (event.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
+                event.setCancelled(true);
+                routeShiftClick(event, runtime, inv);
+            }
             return;
         }
 
-        // Check if this is an electric machine inventory and get the correct slots
-        int[] inputSlots;
-        int[] outputSlots;
+        ItemStack incoming = event.getClick() == ClickType.NUMBER_KEY
+                ? event.getWhoClicked().getInventory().getItem(event.getHotbarButton())
+                : event.getCursor();
+        boolean placing = incoming != null && incoming.getType() != Material.AIR;
 
-        if (title.equals(ChatColor.YELLOW + "Electric Furnace")) {
-            inputSlots = new int[]{10, 11, 19, 20};
-            outputSlots = new int[]{14, 15, 23, 24};
-        } else if (title.equals(ChatColor.GOLD + "Electric Gold Pan")) {
-            inputSlots = new int[]{10, 11, 19, 20};
-            outputSlots = new int[]{24, 25};
-        } else {
-            return; // Not an electric machine
+        // Upgrade slot only accepts Machine Upgrades (taking them out is always allowed)
+        if (runtime.isUpgradeSlot(slot)) {
+            if (placing && !ElectricMachineRuntime.isUpgradeItem(incoming)) {
+                event.setCancelled(true);
+            }
+            return;
         }
 
-        boolean isInputSlot = false;
-        boolean isOutputSlot = false;
-
-        for (int inputSlot : inputSlots) {
-            if (slot == inputSlot) {
-                isInputSlot = true;
-                break;
+        // Input slots take anything except Machine Upgrades
+        if (runtime.isInputSlot(slot)) {
+            if (placing && ElectricMachineRuntime.isUpgradeItem(incoming)) {
+                event.setCancelled(true);
             }
+            return;
         }
 
-        for (int outputSlot : outputSlots) {
-            if (slot == outputSlot) {
-                isOutputSlot = true;
-                break;
+        // Output slots: only allow TAKING items (cursor empty, shift-click out), never placing
+        if (runtime.isOutputSlot(slot)) {
+            if (placing) {
+                event.setCancelled(true);
             }
+            return;
         }
 
-        // If clicking on a decorative slot (not input or output), cancel
-        if (!isInputSlot && !isOutputSlot) {
-            event.setCancelled(true);
+        // Decorative slot (not input, output or upgrade)
+        event.setCancelled(true);
+    }
+
+    /**
+     * Prevent dragging items across the upgrade, output or decorative slots
+     *
+     * BUG FIX: Drags never fire InventoryClickEvent, so without this a player could paint any
+     * item into the upgrade or output slots.
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) {
             return;
         }
 
-        // If clicking on output slot, only allow TAKING items (not placing)
-        if (isOutputSlot) {
-            ItemStack cursor = event.getCursor();
-            ItemStack slotItem = event.getCurrentItem();
+        Inventory inv = event.getInventory();
+        if (inv.getSize() != 45) {
+            return;
+        }
 
-            // Prevent placing items in output slots
-            // Allow: Taking items (cursor is empty), shift-clicking out
-            // Deny: Placing items (cursor has item and slot is empty or different item)
-            if (cursor != null && cursor.getType() != Material.AIR) {
-                // Player is trying to place an item in output slot
+        ElectricMachineRuntime runtime = ElectricMachineRuntime.getByTitle(event.getView().getTitle());
+        if (runtime == null) {
+            return; // Not an electric machine
+        }
+
+        boolean upgrade = ElectricMachineRuntime.isUpgradeItem(event.getOldCursor());
+        for (int slot : event.getRawSlots()) {
+            if (slot >= 45) {
+                continue; // Player inventory
+            }
+            boolean allowed = runtime.isUpgradeSlot(slot) ? upgrade : runtime.isInputSlot(slot) && !upgrade;
+            if (!allowed) {
                 event.setCancelled(true);
                 return;
             }
         }
     }
-}
 
+    /**
+     * Move a shift-clicked stack from the player inventory into the machine GUI
+     *
+     * Machine Upgrades go to the upgrade slot, everything else to the input slots (in order).
+     * Whatever doesn't fit stays in the player's inventory.
+     */
+    private void routeShiftClick(InventoryClickEvent event, ElectricMachineRuntime runtime, Inventory inv) {
+        ItemStack moving = event.getCurrentItem();
+        if (moving == null || moving.getType() == Material.AIR) {
+            return;
+        }
+
+        boolean upgrade = ElectricMachineRuntime.isUpgradeItem(moving);
+        int remaining = moving.getAmount();
+        for (int slot = 0; slot < 45 && remaining > 0; slot++) {
+            boolean target = upgrade ? runtime.isUpgradeSlot(slot) : runtime.isInputSlot(slot);
+            if (target) {
+                remaining = mergeInto(inv, slot, moving, remaining);
+            }
+        }
+
+        if (remaining == moving.getAmount()) {
+            return; // Nothing fit
+        }
+        if (remaining <= 0) {
+            event.setCurrentItem(null);
+        } else {
+            ItemStack left = moving.clone();
+            left.setAmount(remaining);
+            event.setCurrentItem(left);
+        }
+    }
+
+    /**
+     * Merge up to amount of the given item into one GUI slot
+     *
+     * @return How many items are left over
+     */
+    private int mergeInto(Inventory inv, int slot, ItemStack item, int amount) {
+        ItemStack existing = inv.getItem(slot);
+        if (existing == null || existing.getType() == Material.AIR) {
+            int placed = Math.min(amount, item.getMaxStackSize());
+            ItemStack stack = item.clone();
+            stack.setAmount(placed);
+            inv.setItem(slot, stack);
+            return amount - placed;
+        }
+        if (!existing.isSimilar(item)) {
+            return amount;
+        }
+        int placed = Math.min(amount, existing.getMaxStackSize() - existing.getAmount());
+        if (placed <= 0) {
+            return amount;
+        }
+        existing.setAmount(existing.getAmount() + placed);
+        inv.setItem(slot, existing);
+        return amount - placed;
+    }
+}
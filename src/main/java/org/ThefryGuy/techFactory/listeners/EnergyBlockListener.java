@@ -19,6 +19,7 @@ import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.TechFactoryConstants;
 import org.ThefryGuy.techFactory.data.DatabaseManager;
 import org.ThefryGuy.techFactory.data.PlacedBlock;
+import org.ThefryGuy.techFactory.data.TickProfiler;
 import org.ThefryGuy.techFactory.energy.EnergyDeviceTypes;
 import org.ThefryGuy.techFactory.energy.EnergyManager;
 import org.ThefryGuy.techFactory.energy.EnergyNetwork;
@@ -183,6 +184,9 @@ public class EnergyBlockListener implements Listener {
                 }
             }
 
+            // MERGE: Consumers now closer to this network move over (machines are notified)
+            energyManager.adoptNearbyConsumers(network);
+
             // PART 2: Scan for truly orphaned devices (not in any network) - ASYNC to avoid lag
             // This handles devices left behind when a regulator was removed
             // Run asynchronously to avoid blocking the main thread
@@ -213,10 +217,11 @@ public class EnergyBlockListener implements Listener {
                         double distance = connectorLoc.distance(finalLocation);
                         if (distance <= 6.0) {
                             // Orphaned connector found - connect it on main thread!
-                            org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
+                            org.bukkit.Bukkit.getScheduler().runTask(plugin, TickProfiler.wrap(TickProfiler.Subsystem.ENERGY_BLOCK_LISTENER, () -> {
                                 finalNetwork.connectConnector(connectorLoc);
                                 energyManager.registerDeviceToNetwork(connectorLoc, finalNetwork);
-                            });
+                                energyManager.bindUnboundConsumersNear(connectorLoc); // Network range grew
+                            }));
                             asyncReconnectedConnectors++;
                         }
                     }
@@ -240,10 +245,10 @@ public class EnergyBlockListener implements Listener {
                         double distance = generatorLoc.distance(finalLocation);
                         if (distance <= 6.0) {
                             // Orphaned generator found - connect it on main thread!
-                            org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
+                            org.bukkit.Bukkit.getScheduler().runTask(plugin, TickProfiler.wrap(TickProfiler.Subsystem.ENERGY_BLOCK_LISTENER, () -> {
                                 finalNetwork.connectPanel(generatorLoc);
                                 energyManager.registerDeviceToNetwork(generatorLoc, finalNetwork);
-                            });
+                            }));
                             asyncReconnectedGenerators++;
                         }
                     }
@@ -303,6 +308,9 @@ public class EnergyBlockListener implements Listener {
             network.connectConnector(location);
             energyManager.registerDeviceToNetwork(location, network);
 
+            // BUG FIX: The network's range grew - bind machines that were waiting for one
+            energyManager.bindUnboundConsumersNear(location);
+
             // Visual feedback: Spawn particles showing connection
             spawnConnectionParticles(location, network.getRegulatorLocation());
 
@@ -536,6 +544,9 @@ public class EnergyBlockListener implements Listener {
                 energyManager.unregisterDevice(orphaned);
             }
 
+            // SPLIT: Consumers that lost their path move to another network or become unbound
+            energyManager.revalidateConsumers(network);
+
             // Notify player if other connectors were orphaned
             if (!orphanedConnectors.isEmpty()) {
                 player.sendMessage(ChatColor.YELLOW + "⚠ " + orphanedConnectors.size() + " connector(s) orphaned (out of range)");
@@ -11,6 +11,10 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
@@ -22,13 +26,17 @@ import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.TechFactoryConstants;
 import org.ThefryGuy.techFactory.data.DatabaseManager;
 import org.ThefryGuy.techFactory.data.MultiblockData;
+import org.ThefryGuy.techFactory.data.MultiblockIndex;
+import org.ThefryGuy.techFactory.data.TickProfiler;
 import org.ThefryGuy.techFactory.registry.MachineRegistry;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.workstations.multiblocks.*;
 import org.ThefryGuy.techFactory.util.RateLimiter;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
 
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +50,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Handles:
  * - Right-clicking multiblocks to open them
  * - Closing multiblock inventories to process recipes
- * - Breaking multiblocks
+ * - Breaking multiblocks (any member block, explosions, pistons)
  *
  * SECURITY HARDENED:
  * - Rate limiting on all interactions
@@ -53,6 +61,7 @@ public class MultiblockListener implements Listener {
 
     private final TechFactory plugin;
     private final DatabaseManager databaseManager;
+    private final MultiblockIndex multiblockIndex;
 
     // REFACTORED: Use RateLimiter utility for cleaner, reusable rate limiting
     private final RateLimiter clickLimiter = new RateLimiter(TechFactoryConstants.MULTIBLOCK_CLICK_COOLDOWN_MS());
@@ -61,9 +70,11 @@ public class MultiblockListener implements Listener {
     public MultiblockListener(TechFactory plugin) {
         this.plugin = plugin;
         this.databaseManager = plugin.getDatabaseManager();
+        this.multiblockIndex = databaseManager.getMultiblockIndex();
 
         // Start cleanup task to prevent memory leaks (runs every 30 seconds)
-        plugin.getServer().getScheduler().runTaskTimer(plugin, this::cleanupOldCooldowns,
+        plugin.getServer().getScheduler().runTaskTimer(plugin,
+            TickProfiler.wrap(TickProfiler.Subsystem.MAINTENANCE, this::cleanupOldCooldowns),
             TechFactoryConstants.RATE_LIMITER_CLEANUP_INTERVAL_TICKS(),
             TechFactoryConstants.RATE_LIMITER_CLEANUP_INTERVAL_TICKS());
     }
@@ -139,15 +150,16 @@ public class MultiblockListener implements Listener {
 
         // Find the first valid machine at this location
         for (MultiblockMachine machine : candidates) {
-            if (!machine.isValidStructure(clicked)) {
+            StructureMatch match = machine.matchStructure(clicked);
+            if (match == null) {
                 continue; // Not a valid structure for this machine
             }
 
             // Valid machine found!
             event.setCancelled(true); // Prevent vanilla block interaction
 
-            // Register multiblock in database
-            registerMultiblock(clicked, machine.getMachineType(), player);
+            // Register multiblock in database (and index its member blocks)
+            registerMultiblock(clicked, machine.getMachineType(), player, match);
 
             // Handle GUI or trigger interaction
             // BUG FIX: Check if it's the GUI block first, otherwise treat as trigger
@@ -171,8 +183,9 @@ public class MultiblockListener implements Listener {
      * Shows "Successfully built" message on first registration
      * ASYNC OPTIMIZED: Database save happens in background
      * BUG FIX 3: Added null checks to prevent NullPointerException
+     * PERFORMANCE FIX: Indexes every member block so breaking any of them tears the multiblock down
      */
-    private void registerMultiblock(Block coreBlock, String multiblockType, Player player) {
+    private void registerMultiblock(Block coreBlock, String multiblockType, Player player, StructureMatch match) {
         // BUG FIX 3: Null checks
         if (coreBlock == null || multiblockType == null || player == null) {
             plugin.getLogger().log(Level.WARNING, "Cannot register multiblock: null parameter");
@@ -186,12 +199,18 @@ public class MultiblockListener implements Listener {
         }
 
         // Check if already registered
-        if (databaseManager.hasMultiblock(location)) {
-            return; // Already registered
+        MultiblockData existing = databaseManager.getMultiblock(location);
+        if (existing != null) {
+            // Already registered - make sure its members are indexed (e.g. world was loaded late)
+            if (!multiblockIndex.isIndexed(existing.getLocationKey())) {
+                multiblockIndex.index(existing.getLocationKey(), existing.getWorldName(), match);
+            }
+            return;
         }
 
         // Create multiblock data
         MultiblockData multiblock = new MultiblockData(location, multiblockType, player.getUniqueId());
+        multiblockIndex.index(multiblock.getLocationKey(), multiblock.getWorldName(), match);
 
         // Show success message to player immediately (like Slimefun)
         String displayName = getMultiblockDisplayName(multiblockType);
@@ -405,37 +424,111 @@ public class MultiblockListener implements Listener {
      * Handle block breaking to remove multiblocks from database
      * ASYNC OPTIMIZED: Database removal happens in background
      * MEMORY LEAK FIX: Clears smelter inventories when multiblocks are destroyed
+     * PERFORMANCE FIX: Breaking ANY member block (not just the registered core) tears the
+     * multiblock down, found in O(1) through the member index
+     * BUG FIX: MONITOR + ignoreCancelled - a break cancelled by a protection plugin no longer
+     * unregisters the multiblock
      */
-    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = false)
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        Block broken = event.getBlock();
-        Location location = broken.getLocation();
+        if (destroyMultiblocksAt(event.getBlock()) > 0) {
+            event.getPlayer().sendMessage(ChatColor.YELLOW + "Multiblock destroyed!");
+        }
+    }
 
-        // Check if this block is a registered multiblock
-        if (databaseManager.hasMultiblock(location)) {
-            MultiblockData multiblock = databaseManager.getMultiblock(location);
+    /**
+     * Tear down multiblocks whose blocks are destroyed by an entity explosion
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            destroyMultiblocksAt(block);
+        }
+    }
+
+    /**
+     * Tear down multiblocks whose blocks are destroyed by a block explosion (beds, respawn anchors)
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            destroyMultiblocksAt(block);
+        }
+    }
+
+    /**
+     * Tear down multiblocks whose blocks are pushed away by a piston
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        destroyMovedMultiblocks(event.getBlocks());
+    }
+
+    /**
+     * Tear down multiblocks whose blocks are pulled away by a sticky piston
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        destroyMovedMultiblocks(event.getBlocks());
+    }
+
+    /**
+     * Tear down only the multiblocks that have a member block among the moved blocks
+     *
+     * BUG FIX: Piston moves used the same exact-location fallback as breaks, so a move that
+     * shifted no indexed member could still unregister (and empty) a multiblock. Cores are
+     * tile entities that pistons can't move, so only the member index is consulted here.
+     */
+    private void destroyMovedMultiblocks(List<Block> movedBlocks) {
+        for (Block block : movedBlocks) {
+            if (!multiblockIndex.getMultiblocksAt(block).isEmpty()) {
+                destroyMultiblocksAt(block);
+            }
+        }
+    }
+
+    /**
+     * Remove every registered multiblock that contains this block
+     *
+     * @param block The destroyed/moved block
+     * @return Number of multiblocks removed
+     */
+    private int destroyMultiblocksAt(Block block) {
+        List<String> multiblockKeys = multiblockIndex.getMultiblocksAt(block);
+        if (multiblockKeys.isEmpty()) {
+            // Not indexed (yet) - fall back to the exact registered location
+            if (!databaseManager.hasMultiblock(block.getLocation())) {
+                return 0;
+            }
+            multiblockKeys = Collections.singletonList(MultiblockData.locationToKey(block.getLocation()));
+        }
+
+        int destroyed = 0;
+        for (String multiblockKey : multiblockKeys) {
+            MultiblockData multiblock = databaseManager.getMultiblock(multiblockKey);
+            Location location = multiblock != null ? multiblock.getLocation() : null;
+            if (location == null) {
+                multiblockIndex.remove(multiblockKey);
+                continue;
+            }
 
-            // Send message immediately
             plugin.getLogger().info("Removed " + multiblock.getMultiblockType() + " multiblock at " +
                 location.getBlockX() + ", " + location.getBlockY() + ", " + location.getBlockZ());
 
-            event.getPlayer().sendMessage(ChatColor.YELLOW + "Multiblock destroyed!");
-
             // MEMORY LEAK FIX: Clear smelter inventory from memory
+            // BUG FIX: Drop the stored items and the in-progress smelt first (they used to vanish)
             if (multiblock.getMultiblockType().equals("smelter")) {
+                SmelterMachine.dropContents(location, plugin);
                 SmelterMachine.clearInventory(location);
                 // PHASE 3: Clear smelting queue from memory and database
                 plugin.getSmeltingManager().clearQueueCache(location);
             }
 
-            // Remove from database asynchronously (won't block server)
+            // Remove from database asynchronously (won't block server) - also unindexes it
             databaseManager.removeMultiblockAsync(location, null);
+            destroyed++;
         }
-
-        // FUTURE ENHANCEMENTS (not needed for current design):
-        // - Check if breaking ANY part of a multiblock (not just core block)
-        // - Prevent breaking if player doesn't own it (ownership system)
-        // - Drop special controller items (current design uses vanilla blocks)
+        return destroyed;
     }
 
     /**
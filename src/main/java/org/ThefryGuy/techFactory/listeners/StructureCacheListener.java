@@ -0,0 +1,132 @@
+package org.ThefryGuy.techFactory.listeners;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.CauldronLevelChangeEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
+import org.ThefryGuy.techFactory.data.OutputRouter;
+
+import java.util.List;
+
+/**
+ * Invalidates cached multiblock structures and output routes when one of their blocks changes
+ *
+ * Every event that can change a block's type or facing is forwarded to
+ * MultiblockCache.invalidate() and OutputRouter.invalidate(), each a single hash lookup
+ * for blocks that aren't part of (or next to) any cached structure.
+ *
+ * Covered:
+ * - Place / break (players)
+ * - Pistons (moved blocks, their destinations and the piston itself)
+ * - Explosions (entity + block)
+ * - Fluids flowing into a block, cauldrons filling/draining (CAULDRON -> WATER_CAULDRON)
+ * - Fire burning a block, blocks fading, entities changing blocks (endermen, falling blocks)
+ *
+ * PRIORITY: MONITOR + ignoreCancelled - only react to changes that actually happen
+ */
+public class StructureCacheListener implements Listener {
+
+    private final MultiblockCache cache;
+    private final OutputRouter router;
+
+    public StructureCacheListener(MultiblockCache cache, OutputRouter router) {
+        this.cache = cache;
+        this.router = router;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidate(event.getBlockPlaced());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        invalidateMoved(event.getBlock(), event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        invalidateMoved(event.getBlock(), event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        invalidateAll(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        invalidateAll(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFluidFlow(BlockFromToEvent event) {
+        invalidate(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCauldronLevelChange(CauldronLevelChangeEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    /**
+     * Piston: the piston block and its head change state, every moved block leaves its position
+     * and lands one block further along the piston axis (both neighbours are invalidated, so
+     * this doesn't depend on which way getDirection() points for retraction)
+     */
+    private void invalidateMoved(Block piston, List<Block> moved, BlockFace direction) {
+        BlockFace opposite = direction.getOppositeFace();
+        invalidate(piston);
+        invalidate(piston.getRelative(direction));
+        invalidate(piston.getRelative(opposite));
+        for (Block block : moved) {
+            invalidate(block);
+            invalidate(block.getRelative(direction));
+            invalidate(block.getRelative(opposite));
+        }
+    }
+
+    private void invalidate(Block block) {
+        cache.invalidate(block);
+        router.invalidate(block);
+    }
+
+    private void invalidateAll(List<Block> blocks) {
+        for (Block block : blocks) {
+            invalidate(block);
+        }
+    }
+}
@@ -49,6 +49,15 @@ public class WorldUnloadListener implements Listener {
         
         // Clean up all energy networks and devices in this world
         plugin.getEnergyManager().cleanupWorld(worldName);
+
+        // Drop cached multiblock structures, output routes and member index entries of this world
+        if (plugin.getMultiblockCache() != null) {
+            plugin.getMultiblockCache().invalidateWorld(event.getWorld());
+        }
+        if (plugin.getOutputRouter() != null) {
+            plugin.getOutputRouter().invalidateWorld(event.getWorld());
+        }
+        plugin.getDatabaseManager().getMultiblockIndex().clearWorld(worldName);
     }
 }
 
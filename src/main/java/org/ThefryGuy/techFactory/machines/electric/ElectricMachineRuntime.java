@@ -0,0 +1,1550 @@
+package org.ThefryGuy.techFactory.machines.electric;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.data.PlacedBlock;
+import org.ThefryGuy.techFactory.data.SlowOperationTracer;
+import org.ThefryGuy.techFactory.energy.EnergyManager;
+import org.ThefryGuy.techFactory.energy.EnergyNetwork;
+import org.ThefryGuy.techFactory.energy.EnergyTransaction;
+import org.ThefryGuy.techFactory.util.ItemIdResolver;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Generic runtime for ALL electric machines
+ *
+ * REFACTORED: Replaces the static scaffolding that was copy-pasted into every machine class
+ * (Electric Furnace, Electric Gold Pan, ...):
+ * - *_STATES map, PLAYER_VIEWING map, active set, PROCESSING_QUEUE
+ * - getNetworkCached() with SoftReference TTL cache
+ * - debounced saveInventory() / loadInventory()
+ * - drop handling and GUI setup
+ *
+ * One runtime instance exists per machine type. The machine type only provides a
+ * ProcessingFunction (its recipe), the runtime owns everything else:
+ * - Scheduling: queue-based round-robin, driven by ElectricMachineProcessor
+ * - Energy: reserved when an operation starts, committed when output is delivered
+ * - Tiers: Machine Upgrades in the upgrade slot raise the batch size (items per cycle)
+ * - Network binding: pushed by EnergyManager binding events, no lookups during ticks
+ * - Idle: idle machines leave the active set; ones starved of energy are woken by EnergyManager
+ *   events (network gained energy, new binding) instead of being polled
+ * - Persistence: dirty-flag debounced saves, serialized off the main thread
+ * - Viewers: which player has which machine GUI open
+ * - GUI: progress indicator rendered only while viewed, quantized to prebuilt steps
+ * - Chunks: state is checkpointed and evicted on chunk unload, restored on chunk load
+ *   (optionally with "virtual time" catch-up, see catchUp())
+ *
+ * BENEFIT: New electric machines get the optimized hot path for free, and there is
+ * exactly one place to profile/benchmark it.
+ *
+ * THREADING: Everything except the async serialization runs on the main thread.
+ *
+ * GUI Layout (5 rows x 9 columns = 45 slots):
+ * Row 1: G G G G G G G G G  (Gray border)
+ * Row 2: B B B B G O O O O  (B=Blue input, O=Orange output)
+ * Row 3: B _ _ B P O _ _ O  (P=Processing indicator, _=Empty slot)
+ * Row 4: B B B B U O O O O  (U=Upgrade slot, Machine Upgrades only)
+ * Row 5: G G G G G G G G G  (Gray border)
+ */
+public class ElectricMachineRuntime implements EnergyManager.BindingListener {
+
+    /**
+     * Per-machine state (one object per placed machine that has been opened)
+     */
+    static class MachineState {
+        final Location location;
+        final Inventory inventory;
+        int ticksRemaining;              // Processing visits left for the current operation
+        List<ItemStack> pendingOutput;   // Output of the current batch (rolled once per item at start)
+        EnergyTransaction reservation;   // Energy reserved for the current batch
+        int batchSize = 1;               // Items per cycle (from Machine Upgrades in the upgrade slot)
+        // EVENT-DRIVEN BINDING: Set from EnergyManager's locationToNetwork and updated by
+        // binding events (network created/removed, merge, split) - always current
+        volatile EnergyNetwork network;
+        int ticksSinceActivity;
+        boolean active;                  // In the active set (being processed)
+        // Went idle with input but no energy (or no network) - an EnergyManager event wakes it up
+        volatile boolean starved;
+        boolean queued;                  // Currently sitting in the processing queue
+        boolean removed;                 // Machine was broken - drop from queue on next poll
+        int viewerCount;                 // Players with this GUI open (indicator only rendered if > 0)
+        int renderedStep = STEP_UNKNOWN; // Indicator step currently in the processing slot
+
+        MachineState(Location location, Inventory inventory) {
+            this.location = location;
+            this.inventory = inventory;
+        }
+
+        boolean isProcessing() {
+            return pendingOutput != null;
+        }
+    }
+
+    /**
+     * Checkpoint of a machine whose chunk unloaded (the MachineState itself is evicted)
+     * Inventory and in-progress output are persisted to the database, this only keeps
+     * what's needed to resume: when it unloaded, progress, and the energy it could use
+     */
+    static class Checkpoint {
+        final long unloadedAt;
+        final int ticksRemaining;
+        final int energyBudget;          // Network stored energy at unload time
+
+        Checkpoint(long unloadedAt, int ticksRemaining, int energyBudget) {
+            this.unloadedAt = unloadedAt;
+            this.ticksRemaining = ticksRemaining;
+            this.energyBudget = energyBudget;
+        }
+    }
+
+    // All runtimes by machine type (LinkedHashMap = stable processing order)
+    private static final Map<String, ElectricMachineRuntime> RUNTIMES = new LinkedHashMap<>();
+
+    // Minimum time between two saves of the same machine
+    private static final long SAVE_DEBOUNCE_MS = 1000;
+
+    // Inventory size (5 rows)
+    private static final int GUI_SIZE = 45;
+
+    // Processing indicator slot
+    private static final int PROCESSING_SLOT = 22;
+
+    // Upgrade slot (below the processing indicator, accepts Machine Upgrades only)
+    private static final int UPGRADE_SLOT = 31;
+
+    // Machine Upgrade item id (interned - compared as int, no string compare per check)
+    private static final int UPGRADE_ITEM_ID = ItemIdResolver.intern("machine_upgrade");
+
+    // Indicator steps (>= 0 = processing step index)
+    private static final int STEP_IDLE = -1;
+    private static final int STEP_UNKNOWN = -2;
+
+    // Machine definition
+    private final String machineType;
+    private final String displayName;
+    private final String title;
+    private final String processingVerb;
+    private final Material processingMaterial;
+    private final Material idleMaterial;
+    private final int[] inputSlots;
+    private final int[] outputSlots;
+    private final int processingTicks;
+    private final int energyPerOperation;
+    private final ProcessingFunction processingFunction;
+
+    // PERFORMANCE: Prebuilt indicator items (one per progress step + idle)
+    // Rendering = one setItem() when the step changes, no ItemMeta/lore allocation
+    private final int progressStepPercent;
+    private final ItemStack[] processingIndicators;
+    private final ItemStack idleIndicator;
+
+    // Runtime state
+    private final Map<Location, MachineState> states = new ConcurrentHashMap<>();
+    private final Map<Player, Location> viewers = new ConcurrentHashMap<>();
+    private final Map<Location, Long> dirty = new ConcurrentHashMap<>();
+    private final Map<Location, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+    // SCALABILITY: Round-robin queue (main thread only)
+    private final ArrayDeque<MachineState> processingQueue = new ArrayDeque<>();
+    private int activeCount = 0;
+    // EVENT-DRIVEN WAKE-UP: Starved machines per network (woken when it gains energy), and machines
+    // to re-activate on the next pass (events can arrive on any thread, the queue is main thread only)
+    private final Map<EnergyNetwork, Set<MachineState>> starved = new ConcurrentHashMap<>();
+    private final Queue<MachineState> wakeups = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create a runtime for one electric machine type
+     *
+     * @param machineType Machine type id (matches PlacedBlock type, e.g. "electric_furnace")
+     * @param displayName Name shown to players (e.g. "Electric Furnace")
+     * @param titleColor Color of the GUI title (title is used to identify the GUI)
+     * @param processingVerb Verb shown on the indicator while working (e.g. "Smelting")
+     * @param processingMaterial Indicator material while working
+     * @param idleMaterial Indicator material while idle
+     * @param inputSlots GUI slots that accept input
+     * @param outputSlots GUI slots that receive output
+     * @param processingTicks Processing visits per operation
+     * @param energyPerOperation Energy cost per operation (in Joules)
+     * @param processingFunction The machine's recipe
+     */
+    public ElectricMachineRuntime(String machineType, String displayName, ChatColor titleColor,
+                                  String processingVerb, Material processingMaterial, Material idleMaterial,
+                                  int[] inputSlots, int[] outputSlots, int processingTicks,
+                                  int energyPerOperation, ProcessingFunction processingFunction) {
+        this.machineType = machineType;
+        this.displayName = displayName;
+        this.title = titleColor + displayName;
+        this.processingVerb = processingVerb;
+        this.processingMaterial = processingMaterial;
+        this.idleMaterial = idleMaterial;
+        this.inputSlots = inputSlots.clone();
+        this.outputSlots = outputSlots.clone();
+        this.processingTicks = processingTicks;
+        this.energyPerOperation = energyPerOperation;
+        this.processingFunction = processingFunction;
+
+        this.progressStepPercent = Math.max(1, Math.min(100, TechFactoryConstants.ELECTRIC_MACHINE_PROGRESS_STEP_PERCENT()));
+        this.processingIndicators = buildProcessingIndicators();
+        this.idleIndicator = buildIdleIndicator();
+    }
+
+    // ========================================
+    // REGISTRY
+    // ========================================
+
+    /**
+     * Register a runtime so ElectricMachineProcessor and ElectricMachineListener pick it up
+     *
+     * @throws IllegalArgumentException if the machine type is already registered
+     */
+    public static ElectricMachineRuntime register(ElectricMachineRuntime runtime) {
+        if (RUNTIMES.containsKey(runtime.machineType)) {
+            throw new IllegalArgumentException("Electric machine runtime already registered: " + runtime.machineType);
+        }
+        RUNTIMES.put(runtime.machineType, runtime);
+        return runtime;
+    }
+
+    /**
+     * Get all registered runtimes
+     */
+    public static Collection<ElectricMachineRuntime> getAll() {
+        return Collections.unmodifiableCollection(RUNTIMES.values());
+    }
+
+    /**
+     * Get a runtime by machine type
+     */
+    public static ElectricMachineRuntime get(String machineType) {
+        return RUNTIMES.get(machineType);
+    }
+
+    /**
+     * Find the runtime that owns a GUI title (used by inventory listeners)
+     *
+     * @return The runtime, or null if the title isn't an electric machine GUI
+     */
+    public static ElectricMachineRuntime getByTitle(String title) {
+        for (ElectricMachineRuntime runtime : RUNTIMES.values()) {
+            if (runtime.title.equals(title)) {
+                return runtime;
+            }
+        }
+        return null;
+    }
+
+    // ========================================
+    // SCHEDULING
+    // ========================================
+
+    /**
+     * SCALABILITY: Queue-based round-robin processing (Slimefun-style)
+     *
+     * - Process up to maxPerTick machines from queue
+     * - Re-add processed machines to end of queue
+     * - Result: Each machine processed every N ticks instead of every tick
+     *
+     * Package-private so ElectricMachineProcessor can call it
+     *
+     * @return Number of machines visited
+     */
+    int processQueued(TechFactory plugin, int maxPerTick) {
+        MachineState woken;
+        while ((woken = wakeups.poll()) != null) {
+            if (!woken.removed) {
+                activate(woken);
+            }
+        }
+
+        int processed = 0;
+        int visited = 0;
+        int toVisit = processingQueue.size();
+
+        while (processed < maxPerTick && toVisit-- > 0) {
+            MachineState state = processingQueue.poll();
+            if (state == null) break;
+
+            // Machine was broken or went idle - drop it from the queue
+            if (state.removed || !state.active) {
+                state.queued = false;
+                continue;
+            }
+
+            visit(state, plugin);
+            visited++;
+
+            if (!state.active) {
+                state.queued = false;
+                continue; // Went idle during this visit, don't re-add
+            }
+
+            // Re-add to end of queue for next cycle (round-robin)
+            processingQueue.add(state);
+            processed++;
+        }
+
+        flushDirty(plugin, false);
+        return visited;
+    }
+
+    /**
+     * Mark a machine as active (needs processing)
+     * Called when the GUI is opened/closed and when a machine is loaded
+     */
+    private void activate(MachineState state) {
+        state.ticksSinceActivity = 0;
+        if (!state.active) {
+            state.active = true;
+            activeCount++;
+        }
+        if (!state.queued) {
+            state.queued = true;
+            processingQueue.add(state);
+        }
+    }
+
+    /**
+     * Remove a machine from the active set (it stays in memory, just isn't processed)
+     */
+    private void deactivate(MachineState state) {
+        if (state.active) {
+            state.active = false;
+            activeCount--;
+        }
+    }
+
+    /**
+     * Process one machine (one visit from the round-robin queue)
+     */
+    private void visit(MachineState state, TechFactory plugin) {
+        // Currently processing - count down
+        if (state.isProcessing()) {
+            state.ticksSinceActivity = 0;
+
+            if (state.ticksRemaining > 0) {
+                state.ticksRemaining--;
+                renderIndicator(state);
+                return;
+            }
+
+            // Done - deliver output (keeps waiting while output is full)
+            finishOperation(state, plugin);
+            return;
+        }
+
+        // Try to start a new operation
+        if (startOperation(state, plugin)) {
+            state.ticksSinceActivity = 0;
+            return;
+        }
+
+        renderIndicator(state);
+
+        // PERFORMANCE: Remove from active set if idle too long
+        // Uses configurable threshold (default 20 ticks = 1 second)
+        state.ticksSinceActivity++;
+        if (state.ticksSinceActivity > TechFactoryConstants.ELECTRIC_MACHINE_IDLE_THRESHOLD_TICKS()) {
+            deactivate(state);
+
+            // BUG FIX: Input waiting for energy used to sit idle until the GUI was opened again.
+            // Now the machine is woken by its network gaining energy or by a new binding (no polling).
+            // Input waiting for output space resumes when the GUI closes (only players empty it).
+            EnergyNetwork network = state.network;
+            if ((network == null || !network.hasEnergy(energyPerOperation)) && hasProcessableInput(state.inventory)) {
+                markStarved(state, network);
+            }
+        }
+    }
+
+    /**
+     * Check if any input slot holds an item the machine can process
+     * PERFORMANCE: Uses ProcessingFunction.accepts() - no output is rolled or allocated
+     */
+    private boolean hasProcessableInput(Inventory inv) {
+        for (int inputSlot : inputSlots) {
+            ItemStack input = inv.getItem(inputSlot);
+            if (input != null && input.getType() != Material.AIR && processingFunction.accepts(input.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remember a machine that went idle for lack of energy (unbound machines wait for onBindingChanged())
+     */
+    private void markStarved(MachineState state, EnergyNetwork network) {
+        state.starved = true;
+        if (network != null) {
+            starved.computeIfAbsent(network, key -> ConcurrentHashMap.newKeySet()).add(state);
+        }
+    }
+
+    /**
+     * Forget a starved machine (broken or unloaded)
+     */
+    private void clearStarved(MachineState state) {
+        if (!state.starved) {
+            return;
+        }
+        state.starved = false;
+        EnergyNetwork network = state.network;
+        Set<MachineState> waiting = network != null ? starved.get(network) : null;
+        if (waiting != null) {
+            waiting.remove(state);
+        }
+    }
+
+    /**
+     * Queue a starved machine for re-activation on the next pass (any thread)
+     */
+    private void wake(MachineState state) {
+        if (state.starved) {
+            state.starved = false;
+            wakeups.add(state);
+        }
+    }
+
+    /**
+     * Try to start an operation: find a processable input with output space, reserve energy, take the inputs
+     *
+     * SCALABILITY: Upgraded machines process a batch of up to batchSize items of the SAME input
+     * per cycle. Energy is charged per item, output space is checked for the whole batch.
+     *
+     * @return true if an operation was started
+     */
+    private boolean startOperation(MachineState state, TechFactory plugin) {
+        Inventory inv = state.inventory;
+
+        EnergyNetwork network = state.network;
+        if (network == null || !network.hasEnergy(energyPerOperation)) {
+            return false; // Not connected or not enough energy
+        }
+
+        // Upgrades can only change while the GUI is open
+        if (state.viewerCount > 0) {
+            state.batchSize = readBatchSize(inv);
+        }
+        int affordable = network.getStoredEnergy() / Math.max(1, energyPerOperation);
+        int maxItems = Math.max(1, Math.min(state.batchSize, affordable));
+
+        List<ItemStack> outputs = new ArrayList<>(2);
+        int[] slot = new int[1];
+        int items = planBatch(inv, maxItems, outputs, slot);
+        if (items <= 0) {
+            return false; // Nothing to process, or output is full
+        }
+
+        // ENERGY RESERVATION: Take energy now, commit when output is delivered
+        // Prevents two machines from starting on the same last few Joules
+        EnergyTransaction tx = new EnergyTransaction(network);
+        if (!tx.tryRemove(items * energyPerOperation)) {
+            tx.rollback();
+            return false;
+        }
+
+        takeInput(inv, slot[0], items);
+
+        state.reservation = tx;
+        state.pendingOutput = outputs;
+        state.ticksRemaining = processingTicks;
+        markDirty(state.location);
+        renderIndicator(state);
+        return true;
+    }
+
+    /**
+     * Plan a batch: the first input slot that can be processed, and how many of its items fit the output
+     *
+     * Outputs are rolled per item (random outputs like the Gold Pan's stay random) and merged
+     * into as few stacks as possible. The batch stops at the first item whose output wouldn't fit.
+     *
+     * @param maxItems Maximum items in the batch (tier and energy limit)
+     * @param outputs Receives the merged outputs of the batch
+     * @param slot Receives the input slot (index 0)
+     * @return Number of items in the batch, or 0 if nothing can be processed
+     */
+    private int planBatch(Inventory inv, int maxItems, List<ItemStack> outputs, int[] slot) {
+        for (int inputSlot : inputSlots) {
+            ItemStack input = inv.getItem(inputSlot);
+            if (input == null || input.getType() == Material.AIR || !processingFunction.accepts(input.getType())) {
+                continue;
+            }
+
+            int limit = Math.min(maxItems, input.getAmount());
+            int items = 0;
+            while (items < limit) {
+                ItemStack output = processingFunction.process(input);
+                if (output == null) {
+                    break; // Can't process this item
+                }
+                mergeOutput(outputs, output);
+                if (!canAddAllToOutput(inv, outputs)) {
+                    unmergeOutput(outputs, output);
+                    break; // Output is full
+                }
+                items++;
+            }
+
+            if (items > 0) {
+                slot[0] = inputSlot;
+                return items;
+            }
+            outputs.clear();
+        }
+        return 0;
+    }
+
+    /**
+     * Add one rolled output to a batch (stacks with a similar output if it fits)
+     */
+    private static void mergeOutput(List<ItemStack> outputs, ItemStack output) {
+        for (ItemStack existing : outputs) {
+            if (existing.isSimilar(output) && existing.getAmount() + output.getAmount() <= existing.getMaxStackSize()) {
+                existing.setAmount(existing.getAmount() + output.getAmount());
+                return;
+            }
+        }
+        outputs.add(output.clone());
+    }
+
+    /**
+     * Undo mergeOutput() for the last rolled output
+     */
+    private static void unmergeOutput(List<ItemStack> outputs, ItemStack output) {
+        for (int i = outputs.size() - 1; i >= 0; i--) {
+            ItemStack existing = outputs.get(i);
+            if (existing.isSimilar(output)) {
+                if (existing.getAmount() > output.getAmount()) {
+                    existing.setAmount(existing.getAmount() - output.getAmount());
+                } else {
+                    outputs.remove(i);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Take items from an input slot
+     */
+    private static void takeInput(Inventory inv, int slot, int amount) {
+        ItemStack input = inv.getItem(slot);
+        if (input == null) {
+            return;
+        }
+        if (input.getAmount() > amount) {
+            input.setAmount(input.getAmount() - amount);
+        } else {
+            inv.setItem(slot, null);
+        }
+    }
+
+    /**
+     * Batch size from the Machine Upgrades in the upgrade slot
+     * batch = 1 + upgrades * items_per_upgrade (upgrades capped at max_upgrades)
+     */
+    private static int readBatchSize(Inventory inv) {
+        ItemStack upgrades = inv.getItem(UPGRADE_SLOT);
+        if (ItemIdResolver.resolve(upgrades, false) != UPGRADE_ITEM_ID) {
+            return 1;
+        }
+        int count = Math.min(upgrades.getAmount(), Math.max(0, TechFactoryConstants.ELECTRIC_MACHINE_MAX_UPGRADES()));
+        return 1 + count * Math.max(0, TechFactoryConstants.ELECTRIC_MACHINE_ITEMS_PER_UPGRADE());
+    }
+
+    /**
+     * Deliver the pending output and commit the energy reservation
+     * CRITICAL FIX: If output is full, keep the output and the reservation and retry next visit
+     * The whole batch is delivered at once (never half a batch)
+     */
+    private void finishOperation(MachineState state, TechFactory plugin) {
+        try {
+            if (!deliverOutput(state.inventory, state.pendingOutput)) {
+                return; // Output full - retry next visit
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning(displayName + " at " + state.location + " failed to complete processing: " + e.getMessage());
+            return;
+        }
+
+        if (state.reservation != null) {
+            state.reservation.commit();
+            state.reservation = null;
+        }
+        state.pendingOutput = null;
+        state.ticksRemaining = 0;
+        markDirty(state.location);
+        renderIndicator(state);
+    }
+
+    /**
+     * EVENT-DRIVEN BINDING: EnergyManager tells us when a machine's network changes
+     * Replaces the 5 second TTL cache that re-ran findNearestNetwork() and could hold a
+     * removed network for up to 5 seconds
+     */
+    @Override
+    public void onBindingChanged(Location deviceLocation, EnergyNetwork network) {
+        MachineState state = states.get(deviceLocation);
+        if (state != null) {
+            boolean wasStarved = state.starved;
+            clearStarved(state);
+            state.network = network;
+            if (network != null && wasStarved) {
+                // Was waiting for a network (or had an empty one) - may have energy now
+                state.starved = true;
+                wake(state);
+            }
+        }
+    }
+
+    /**
+     * EVENT-DRIVEN WAKE-UP: A network gained energy - wake the machines that went idle waiting for it
+     */
+    @Override
+    public void onEnergyAdded(EnergyNetwork network) {
+        if (starved.isEmpty()) {
+            return;
+        }
+        Set<MachineState> waiting = starved.get(network);
+        if (waiting == null || !network.hasEnergy(energyPerOperation) || !starved.remove(network, waiting)) {
+            return;
+        }
+        for (MachineState state : waiting) {
+            wake(state);
+        }
+    }
+
+    /**
+     * Get the network a machine should bind to (binds it now if it isn't bound yet)
+     * Called when a state is created or opened - NOT during ticks
+     */
+    private static EnergyNetwork resolveNetwork(Location loc, TechFactory plugin) {
+        EnergyNetwork network = plugin.getEnergyManager().getNetworkByLocation(loc);
+        if (network == null) {
+            network = plugin.getEnergyManager().bindConsumer(loc);
+        }
+        return network;
+    }
+
+    // ========================================
+    // GUI & VIEWERS
+    // ========================================
+
+    /**
+     * Open the machine GUI (creates and loads the machine state on first open)
+     */
+    public void openInventory(Block machineBlock, Player player, TechFactory plugin) {
+        Location loc = machineBlock.getLocation();
+        SlowOperationTracer.Span span = SlowOperationTracer.begin(SlowOperationTracer.Operation.GUI_OPEN)
+            .player(player).location(loc).machine(machineType);
+        try {
+            MachineState state = states.get(loc);
+            if (state == null) {
+                // Check if connected to energy network
+                if (resolveNetwork(loc, plugin) == null) {
+                    player.sendMessage(ChatColor.RED + "✗ " + displayName + " not connected to energy network!");
+                    player.sendMessage(ChatColor.GRAY + "Place an Energy Regulator or Connector within 6 blocks");
+                    return;
+                }
+
+                // First open loads the saved inventory from the database
+                span.detail("firstOpen", true);
+                state = createState(loc, plugin);
+                states.put(loc, state);
+                checkpoints.remove(loc);
+            } else if (state.network == null) {
+                // BUG FIX: The machine lost (or never had) its network - look again on open
+                // (still opens when nothing is in range, so items can be taken out)
+                state.network = resolveNetwork(loc, plugin);
+            }
+
+            // BUG FIX: Re-activate on every open (idle machines used to never resume)
+            activate(state);
+
+            addViewer(player, state);
+            player.openInventory(state.inventory);
+            player.sendMessage(ChatColor.GREEN + "✓ " + displayName + " opened!");
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Create machine state with its GUI and saved inventory (not registered yet)
+     */
+    private MachineState createState(Location loc, TechFactory plugin) {
+        Inventory inv = Bukkit.createInventory(null, GUI_SIZE, title);
+        setupGUI(inv);
+
+        MachineState state = new MachineState(loc, inv);
+        state.network = resolveNetwork(loc, plugin);
+        loadInventory(state, plugin);
+        return state;
+    }
+
+    /**
+     * Called when GUI is closed - player may have changed inputs/outputs
+     */
+    public void onClose(Player player) {
+        MachineState state = removeViewer(player);
+        if (state != null) {
+            state.batchSize = readBatchSize(state.inventory);
+            markDirty(state.location);
+            activate(state);
+        }
+    }
+
+    /**
+     * Get the machine location that a player is viewing
+     */
+    public Location getViewingLocation(Player player) {
+        return viewers.get(player);
+    }
+
+    /**
+     * Remove player from viewing map
+     */
+    public void stopViewing(Player player) {
+        removeViewer(player);
+    }
+
+    /**
+     * Track a viewer and render the current indicator (it isn't updated while nobody watches)
+     */
+    private void addViewer(Player player, MachineState state) {
+        Location previous = viewers.put(player, state.location);
+        if (state.location.equals(previous)) {
+            return; // Already counted
+        }
+        if (previous != null) {
+            MachineState previousState = states.get(previous);
+            if (previousState != null && previousState.viewerCount > 0) {
+                previousState.viewerCount--;
+            }
+        }
+
+        state.viewerCount++;
+        state.renderedStep = STEP_UNKNOWN;
+        renderIndicator(state);
+    }
+
+    /**
+     * Stop tracking a viewer
+     *
+     * @return State of the machine the player was viewing, or null
+     */
+    private MachineState removeViewer(Player player) {
+        Location loc = viewers.remove(player);
+        if (loc == null) {
+            return null;
+        }
+
+        MachineState state = states.get(loc);
+        if (state != null && state.viewerCount > 0) {
+            state.viewerCount--;
+        }
+        return state;
+    }
+
+    /**
+     * Close all viewers of a specific machine (called when machine is broken)
+     * EXPLOIT FIX: Prevents taking items out of an open GUI after they were dropped
+     */
+    public void closeAllViewers(Location location) {
+        viewers.entrySet().removeIf(entry -> {
+            if (entry.getValue().equals(location)) {
+                entry.getKey().closeInventory();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Check if a raw GUI slot is an input slot
+     */
+    public boolean isInputSlot(int slot) {
+        for (int inputSlot : inputSlots) {
+            if (inputSlot == slot) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a raw GUI slot is the upgrade slot
+     */
+    public boolean isUpgradeSlot(int slot) {
+        return slot == UPGRADE_SLOT;
+    }
+
+    /**
+     * Check if an item can go in the upgrade slot
+     */
+    public static boolean isUpgradeItem(ItemStack item) {
+        return ItemIdResolver.resolve(item, false) == UPGRADE_ITEM_ID;
+    }
+
+    /**
+     * Check if a raw GUI slot is an output slot
+     */
+    public boolean isOutputSlot(int slot) {
+        for (int outputSlot : outputSlots) {
+            if (outputSlot == slot) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Setup the GUI with decorative borders and frames
+     *
+     * Layout:
+     * Row 1 (0-8):   G G G G G G G G G
+     * Row 2 (9-17):  B B B B G O O O O
+     * Row 3 (18-26): B _ _ B P O _ _ O
+     * Row 4 (27-35): B B B B U O O O O
+     * Row 5 (36-44): G G G G G G G G G
+     */
+    private void setupGUI(Inventory inv) {
+        ItemStack grayGlass = createGlassPane(Material.GRAY_STAINED_GLASS_PANE, " ");
+        ItemStack blueGlass = createGlassPane(Material.BLUE_STAINED_GLASS_PANE, ChatColor.BLUE + "Input");
+        ItemStack orangeGlass = createGlassPane(Material.ORANGE_STAINED_GLASS_PANE, ChatColor.GOLD + "Output");
+
+        // Row 1 (slots 0-8): All gray border
+        for (int i = 0; i < 9; i++) {
+            inv.setItem(i, grayGlass);
+        }
+
+        // Row 2 (slots 9-17): B B B B G O O O O
+        for (int i = 9; i <= 12; i++) {
+            inv.setItem(i, blueGlass);
+        }
+        inv.setItem(13, grayGlass);
+        for (int i = 14; i <= 17; i++) {
+            inv.setItem(i, orangeGlass);
+        }
+
+        // Row 3 (slots 18-26): B _ _ B P O _ _ O
+        inv.setItem(18, blueGlass);
+        // 19, 20 are empty (input slots)
+        inv.setItem(21, blueGlass);
+        // 22 is processing indicator
+        inv.setItem(23, orangeGlass);
+        // 24, 25 are empty (output slots)
+        inv.setItem(26, orangeGlass);
+
+        // Row 4 (slots 27-35): B B B B U O O O O
+        for (int i = 27; i <= 30; i++) {
+            inv.setItem(i, blueGlass);
+        }
+        // 31 is the upgrade slot (empty until a Machine Upgrade is placed)
+        for (int i = 32; i <= 35; i++) {
+            inv.setItem(i, orangeGlass);
+        }
+
+        // Row 5 (slots 36-44): All gray border
+        for (int i = 36; i < GUI_SIZE; i++) {
+            inv.setItem(i, grayGlass);
+        }
+
+        inv.setItem(PROCESSING_SLOT, idleIndicator);
+    }
+
+    /**
+     * Create a glass pane with a custom name
+     */
+    private static ItemStack createGlassPane(Material material, String name) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(name);
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * Render the processing indicator
+     *
+     * PERFORMANCE: Skipped entirely when nobody has the GUI open, and only touches the
+     * inventory when progress crosses a step (default 5%). Uses prebuilt items.
+     */
+    private void renderIndicator(MachineState state) {
+        if (state.viewerCount <= 0) {
+            return;
+        }
+
+        int step = state.isProcessing() ? progressStep(state.ticksRemaining) : STEP_IDLE;
+        if (step == state.renderedStep) {
+            return;
+        }
+
+        state.inventory.setItem(PROCESSING_SLOT, step == STEP_IDLE ? idleIndicator : processingIndicators[step]);
+        state.renderedStep = step;
+    }
+
+    /**
+     * Convert remaining ticks to an indicator step index
+     */
+    private int progressStep(int ticksRemaining) {
+        int progress = ((processingTicks - ticksRemaining) * 100) / processingTicks;
+        progress = Math.max(0, Math.min(100, progress));
+        return Math.min(progress / progressStepPercent, processingIndicators.length - 1);
+    }
+
+    /**
+     * Build one indicator item per progress step (0%, step%, 2*step%, ... 100%)
+     */
+    private ItemStack[] buildProcessingIndicators() {
+        int steps = 100 / progressStepPercent + 1;
+        ItemStack[] indicators = new ItemStack[steps];
+
+        for (int i = 0; i < steps; i++) {
+            int progress = Math.min(100, i * progressStepPercent);
+            int secondsRemaining = (processingTicks * (100 - progress)) / 100 / 20;
+
+            ItemStack indicator = new ItemStack(processingMaterial);
+            ItemMeta meta = indicator.getItemMeta();
+            if (meta != null) {
+                meta.setDisplayName(ChatColor.RED + "⚡ " + processingVerb + "...");
+                List<String> lore = new ArrayList<>();
+                lore.add(ChatColor.GRAY + "Progress: " + ChatColor.YELLOW + progress + "%");
+                lore.add(ChatColor.GRAY + "Time: " + ChatColor.YELLOW + secondsRemaining + "s");
+                meta.setLore(lore);
+                indicator.setItemMeta(meta);
+            }
+            indicators[i] = indicator;
+        }
+        return indicators;
+    }
+
+    /**
+     * Build the idle indicator item
+     */
+    private ItemStack buildIdleIndicator() {
+        ItemStack indicator = new ItemStack(idleMaterial);
+        ItemMeta meta = indicator.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(ChatColor.GRAY + "⚡ Idle");
+            indicator.setItemMeta(meta);
+        }
+        return indicator;
+    }
+
+    // ========================================
+    // OUTPUT HANDLING
+    // ========================================
+
+    /**
+     * Check if ALL items can be added to output slots (bulk check for a batch)
+     * Simulates the stacking of addToOutput() on amounts only, the inventory isn't touched
+     */
+    private boolean canAddAllToOutput(Inventory inv, List<ItemStack> items) {
+        ItemStack[] slots = new ItemStack[outputSlots.length];
+        int[] amounts = new int[outputSlots.length];
+        for (int i = 0; i < outputSlots.length; i++) {
+            ItemStack existing = inv.getItem(outputSlots[i]);
+            if (existing != null && existing.getType() != Material.AIR) {
+                slots[i] = existing;
+                amounts[i] = existing.getAmount();
+            }
+        }
+
+        for (ItemStack item : items) {
+            int remaining = item.getAmount();
+
+            // Stack with existing (and already simulated) items first
+            for (int i = 0; i < slots.length && remaining > 0; i++) {
+                if (slots[i] != null && slots[i].isSimilar(item)) {
+                    int toAdd = Math.min(slots[i].getMaxStackSize() - amounts[i], remaining);
+                    if (toAdd > 0) {
+                        amounts[i] += toAdd;
+                        remaining -= toAdd;
+                    }
+                }
+            }
+
+            // Then empty slots
+            for (int i = 0; i < slots.length && remaining > 0; i++) {
+                if (slots[i] == null) {
+                    slots[i] = item;
+                    amounts[i] = remaining;
+                    remaining = 0;
+                }
+            }
+
+            if (remaining > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a whole batch to output slots, or nothing if it doesn't fit
+     * @return true if the batch was added, false if output is full
+     */
+    private boolean deliverOutput(Inventory inv, List<ItemStack> items) {
+        if (!canAddAllToOutput(inv, items)) {
+            return false;
+        }
+        for (ItemStack item : items) {
+            addToOutput(inv, item.clone());
+        }
+        return true;
+    }
+
+    /**
+     * Add item to output slots (tries to stack with existing items first)
+     * @return true if item was added, false if output is full
+     */
+    private boolean addToOutput(Inventory inv, ItemStack item) {
+        // Try to add to existing stacks first
+        for (int slot : outputSlots) {
+            ItemStack existing = inv.getItem(slot);
+            if (existing != null && existing.isSimilar(item)) {
+                int space = existing.getMaxStackSize() - existing.getAmount();
+                if (space > 0) {
+                    int toAdd = Math.min(space, item.getAmount());
+                    existing.setAmount(existing.getAmount() + toAdd);
+                    item.setAmount(item.getAmount() - toAdd);
+                    if (item.getAmount() <= 0) {
+                        return true; // All items added
+                    }
+                }
+            }
+        }
+
+        // Add to empty slots
+        for (int slot : outputSlots) {
+            ItemStack existing = inv.getItem(slot);
+            if (existing == null || existing.getType() == Material.AIR) {
+                inv.setItem(slot, item.clone());
+                return true;
+            }
+        }
+
+        return false; // Output is full
+    }
+
+    // ========================================
+    // PERSISTENCE
+    // ========================================
+
+    /**
+     * Mark a machine as dirty (needs database save)
+     * PERFORMANCE FIX: Debounced - saved at most once per SAVE_DEBOUNCE_MS, but never skipped
+     */
+    private void markDirty(Location location) {
+        dirty.putIfAbsent(location, System.currentTimeMillis());
+    }
+
+    /**
+     * Save dirty machines
+     *
+     * @param force true = save everything now, synchronously (shutdown)
+     */
+    private void flushDirty(TechFactory plugin, boolean force) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Location, Long>> iterator = dirty.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Location, Long> entry = iterator.next();
+            if (!force && now - entry.getValue() < SAVE_DEBOUNCE_MS) {
+                continue;
+            }
+            iterator.remove();
+
+            MachineState state = states.get(entry.getKey());
+            if (state != null) {
+                saveInventory(state, plugin, !force);
+            }
+        }
+    }
+
+    /**
+     * Save machine inventory to database
+     * Snapshot is taken on the main thread, serialization runs async (unless shutting down)
+     */
+    private void saveInventory(MachineState state, TechFactory plugin, boolean async) {
+        Location location = state.location;
+
+        // Get only the input, output and upgrade slots (not decorative items)
+        // In-progress output is stored in the indicator slot (input was already consumed),
+        // extra stacks of a batch are appended after the GUI slots
+        int pendingStacks = state.pendingOutput != null ? state.pendingOutput.size() : 0;
+        ItemStack[] toSave = new ItemStack[GUI_SIZE + Math.max(0, pendingStacks - 1)];
+        for (int slot : inputSlots) {
+            toSave[slot] = snapshot(state.inventory.getItem(slot));
+        }
+        for (int slot : outputSlots) {
+            toSave[slot] = snapshot(state.inventory.getItem(slot));
+        }
+        toSave[UPGRADE_SLOT] = snapshot(state.inventory.getItem(UPGRADE_SLOT));
+        for (int i = 0; i < pendingStacks; i++) {
+            toSave[i == 0 ? PROCESSING_SLOT : GUI_SIZE + i - 1] = state.pendingOutput.get(i).clone();
+        }
+
+        Runnable save = () -> {
+            try {
+                String serialized = plugin.getDatabaseManager().serializeInventoryPublic(toSave);
+                PlacedBlock placedBlock = plugin.getDatabaseManager().getBlock(location);
+                if (placedBlock != null) {
+                    placedBlock.setMetadata(serialized);
+                    plugin.getDatabaseManager().saveBlockAsync(placedBlock, null);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to save " + displayName + " inventory: " + e.getMessage());
+            }
+        };
+
+        if (async) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, save);
+        } else {
+            save.run();
+        }
+    }
+
+    /**
+     * Copy a slot for saving (skips empty slots and decorative glass)
+     */
+    private static ItemStack snapshot(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR || isDecorativeItem(item)) {
+            return null;
+        }
+        return item.clone();
+    }
+
+    /**
+     * Load machine inventory from database
+     */
+    private void loadInventory(MachineState state, TechFactory plugin) {
+        ItemStack[] loaded = loadSavedItems(state.location, plugin);
+        if (loaded == null) {
+            return;
+        }
+
+        Inventory inv = state.inventory;
+
+        for (int slot : inputSlots) {
+            if (slot < loaded.length && loaded[slot] != null) {
+                inv.setItem(slot, loaded[slot]);
+            }
+        }
+        for (int slot : outputSlots) {
+            if (slot < loaded.length && loaded[slot] != null) {
+                inv.setItem(slot, loaded[slot]);
+            }
+        }
+        if (UPGRADE_SLOT < loaded.length && loaded[UPGRADE_SLOT] != null) {
+            inv.setItem(UPGRADE_SLOT, loaded[UPGRADE_SLOT]);
+        }
+        state.batchSize = readBatchSize(inv);
+
+        // Resume in-progress batch (energy was paid when it started)
+        if (PROCESSING_SLOT < loaded.length && loaded[PROCESSING_SLOT] != null) {
+            List<ItemStack> pending = new ArrayList<>(2);
+            pending.add(loaded[PROCESSING_SLOT]);
+            for (int i = GUI_SIZE; i < loaded.length; i++) {
+                if (loaded[i] != null) {
+                    pending.add(loaded[i]);
+                }
+            }
+            state.pendingOutput = pending;
+            state.ticksRemaining = processingTicks;
+        }
+    }
+
+    /**
+     * Read saved items for a machine from the database
+     *
+     * @return Saved slot array, or null if nothing is saved
+     */
+    private ItemStack[] loadSavedItems(Location location, TechFactory plugin) {
+        PlacedBlock placedBlock = plugin.getDatabaseManager().getBlock(location);
+        if (placedBlock == null || placedBlock.getMetadata() == null || placedBlock.getMetadata().equals("{}")) {
+            return null; // No saved inventory
+        }
+
+        try {
+            ItemStack[] loaded = plugin.getDatabaseManager().deserializeInventoryPublic(placedBlock.getMetadata());
+            return loaded != null && loaded.length > 0 ? loaded : null;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to load " + displayName + " inventory: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ========================================
+    // LIFECYCLE
+    // ========================================
+
+    /**
+     * Drop all items from machine inventory when broken
+     *
+     * BUG FIX: The output of an unfinished operation is dropped too - its input was already
+     * consumed, so breaking a machine mid-operation used to destroy the items.
+     */
+    public void dropInventoryItems(Location location, TechFactory plugin) {
+        MachineState state = states.get(location);
+
+        // If inventory is in memory, drop from there
+        ItemStack[] items;
+        if (state != null) {
+            items = state.inventory.getContents();
+        } else {
+            // Otherwise, load from database and drop
+            items = loadSavedItems(location, plugin);
+            if (items == null) {
+                return;
+            }
+        }
+
+        for (int slot : inputSlots) {
+            dropItem(location, items, slot);
+        }
+        for (int slot : outputSlots) {
+            dropItem(location, items, slot);
+        }
+        dropItem(location, items, UPGRADE_SLOT);
+
+        // In-progress output (same layout as saveInventory: indicator slot + appended stacks)
+        if (state != null) {
+            if (state.pendingOutput != null) {
+                for (ItemStack output : state.pendingOutput) {
+                    location.getWorld().dropItemNaturally(location, output);
+                }
+                state.pendingOutput = null;
+                state.ticksRemaining = 0;
+
+                // The output was delivered, so its energy stays spent (remove() won't refund it)
+                if (state.reservation != null) {
+                    state.reservation.commit();
+                    state.reservation = null;
+                }
+            }
+        } else {
+            dropItem(location, items, PROCESSING_SLOT);
+            for (int slot = GUI_SIZE; slot < items.length; slot++) {
+                dropItem(location, items, slot);
+            }
+        }
+    }
+
+    /**
+     * Drop one slot of an item array (only actual items, not decorative glass)
+     */
+    private static void dropItem(Location location, ItemStack[] items, int slot) {
+        if (slot >= items.length) {
+            return;
+        }
+        ItemStack item = items[slot];
+        if (item != null && item.getType() != Material.AIR && !isDecorativeItem(item)) {
+            location.getWorld().dropItemNaturally(location, item);
+        }
+    }
+
+    /**
+     * Check if an item is a decorative GUI item (glass panes)
+     */
+    private static boolean isDecorativeItem(ItemStack item) {
+        Material type = item.getType();
+        return type == Material.GRAY_STAINED_GLASS_PANE ||
+               type == Material.BLUE_STAINED_GLASS_PANE ||
+               type == Material.ORANGE_STAINED_GLASS_PANE;
+    }
+
+    /**
+     * Remove machine state when machine is broken
+     * Refunds any energy reserved for an unfinished operation
+     */
+    public void remove(Location location) {
+        closeAllViewers(location);
+
+        MachineState state = states.remove(location);
+        if (state != null) {
+            deactivate(state);
+            clearStarved(state);
+            state.removed = true;
+            if (state.reservation != null) {
+                state.reservation.rollback();
+                state.reservation = null;
+            }
+        }
+        dirty.remove(location);
+        checkpoints.remove(location);
+    }
+
+    // ========================================
+    // CHUNK UNLOAD / LOAD (VIRTUAL TIME)
+    // ========================================
+
+    /**
+     * Checkpoint and evict all machines in an unloaded chunk
+     *
+     * MEMORY FIX: States (inventory + GUI) used to stay in memory forever after their chunk unloaded.
+     * Now they're saved (synchronously into the cached PlacedBlock, the database write is batched
+     * as usual), replaced by a small Checkpoint and restored by onChunkLoad().
+     *
+     * @return Number of machines evicted
+     */
+    public int onChunkUnload(String worldName, int chunkX, int chunkZ, TechFactory plugin) {
+        if (states.isEmpty()) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+
+        Iterator<MachineState> iterator = states.values().iterator();
+        while (iterator.hasNext()) {
+            MachineState state = iterator.next();
+            if (!isInChunk(state.location, worldName, chunkX, chunkZ)) {
+                continue;
+            }
+
+            closeAllViewers(state.location);
+
+            // Only machines that were working need to resume on chunk load
+            if (state.active || state.isProcessing()) {
+                EnergyNetwork network = state.network;
+                int energyBudget = network != null ? network.getStoredEnergy() : 0;
+                checkpoints.put(state.location, new Checkpoint(now, state.ticksRemaining, energyBudget));
+            }
+
+            // Energy for the running operation is spent, its output is saved with the inventory
+            if (state.reservation != null) {
+                state.reservation.commit();
+                state.reservation = null;
+            }
+
+            // BUG FIX: Synchronous - the cached PlacedBlock must hold the final inventory before the
+            // state is dropped. An async save raced a quick reload: onChunkLoad() restored the old
+            // metadata (and the stale write landed afterwards). Serializing one GUI is cheap.
+            saveInventory(state, plugin, false);
+            dirty.remove(state.location);
+
+            iterator.remove();
+            deactivate(state);
+            clearStarved(state);
+            state.removed = true;
+            evicted++;
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Restore checkpointed machines in a loaded chunk
+     * Must run on the main thread AFTER the chunk's placed blocks are loaded into the cache
+     *
+     * @return Number of machines restored
+     */
+    public int onChunkLoad(String worldName, int chunkX, int chunkZ, TechFactory plugin) {
+        if (checkpoints.isEmpty()) {
+            return 0;
+        }
+
+        boolean virtualTime = TechFactoryConstants.VIRTUAL_TIME_ENABLED();
+        int restored = 0;
+
+        Iterator<Map.Entry<Location, Checkpoint>> iterator = checkpoints.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Location, Checkpoint> entry = iterator.next();
+            Location loc = entry.getKey();
+            if (!isInChunk(loc, worldName, chunkX, chunkZ)) {
+                continue;
+            }
+            iterator.remove();
+
+            // Machine may have been broken or replaced while unloaded
+            PlacedBlock placedBlock = plugin.getDatabaseManager().getBlock(loc);
+            if (placedBlock == null || !machineType.equals(placedBlock.getBlockType()) || states.containsKey(loc)) {
+                continue;
+            }
+
+            MachineState state = createState(loc, plugin);
+            if (state.isProcessing()) {
+                state.ticksRemaining = Math.min(entry.getValue().ticksRemaining, processingTicks);
+            }
+            if (virtualTime) {
+                catchUp(state, entry.getValue(), plugin);
+            }
+
+            states.put(loc, state);
+            activate(state);
+            restored++;
+        }
+
+        return restored;
+    }
+
+    /**
+     * VIRTUAL TIME: Produce what the machine would have produced while its chunk was unloaded
+     *
+     * Replays whole operations instead of ticks:
+     * - visits       = elapsed ticks / processor interval (capped by virtual_time.max_catchup_seconds)
+     * - cycles       = visits / cycle, cycle = start visit + processingTicks + finish visit
+     * - items        = min(cycles * batch size, energy / cost)
+     * - each cycle plans one batch like a live operation (input items, output space, and random
+     *   outputs like the Gold Pan's are rolled normally), so the loop stops early when input,
+     *   output space or energy runs out
+     *
+     * COST: At most one planBatch() per cycle, and cycles <= max_catchup_seconds * 20 /
+     * (interval * (processingTicks + 2)) - e.g. 3600s at interval 1 for the 200-tick furnace is
+     * 356 batches. Not closed form: random outputs and stack limits need per-batch planning.
+     *
+     * Energy is limited by the network's stored energy at unload time AND right now, and is
+     * actually removed from the network. Generation while unloaded isn't simulated here -
+     * EnergyManager already skips panels in unloaded chunks, and several machines can share
+     * one network (crediting it per machine would double-count).
+     */
+    private void catchUp(MachineState state, Checkpoint checkpoint, TechFactory plugin) {
+        long elapsedMs = System.currentTimeMillis() - checkpoint.unloadedAt;
+        elapsedMs = Math.min(elapsedMs, TechFactoryConstants.VIRTUAL_TIME_MAX_CATCHUP_SECONDS() * 1000L);
+        long visits = (elapsedMs / 50) / Math.max(1L, TechFactoryConstants.ELECTRIC_MACHINE_TASK_INTERVAL_TICKS());
+        if (visits <= 0) {
+            return;
+        }
+
+        Inventory inv = state.inventory;
+
+        // 1. Finish the operation that was running at unload (already paid for)
+        if (state.isProcessing()) {
+            if (visits <= state.ticksRemaining) {
+                state.ticksRemaining -= (int) visits;
+                return;
+            }
+            visits -= state.ticksRemaining + 1;
+            state.ticksRemaining = 0;
+            if (!deliverOutput(inv, state.pendingOutput)) {
+                return; // Output full - stays pending
+            }
+            state.pendingOutput = null;
+            markDirty(state.location);
+        }
+
+        // 2. Whole operations, bounded by time and energy
+        EnergyNetwork network = state.network;
+        if (network == null) {
+            return;
+        }
+
+        long cycles = visits / (processingTicks + 2);
+        long byEnergy = Math.min(checkpoint.energyBudget, network.getStoredEnergy()) / Math.max(1, energyPerOperation);
+
+        // 3. Bounded by input stock and output space (one batch per cycle)
+        List<ItemStack> outputs = new ArrayList<>(2);
+        int[] slot = new int[1];
+        long items = 0;
+        for (long cycle = 0; cycle < cycles && items < byEnergy; cycle++) {
+            outputs.clear();
+            int batch = planBatch(inv, (int) Math.min(state.batchSize, byEnergy - items), outputs, slot);
+            if (batch <= 0) {
+                break;
+            }
+            takeInput(inv, slot[0], batch);
+            deliverOutput(inv, outputs);
+            items += batch;
+        }
+
+        if (items > 0) {
+            EnergyTransaction tx = new EnergyTransaction(network);
+            tx.tryRemove((int) (items * energyPerOperation));
+            tx.commit();
+            markDirty(state.location);
+            plugin.getLogger().fine("Virtual time: " + displayName + " at " + state.location + " caught up " + items + " items");
+        }
+    }
+
+    /**
+     * Check if a location is in a chunk (block coordinates >> 4)
+     */
+    private static boolean isInChunk(Location loc, String worldName, int chunkX, int chunkZ) {
+        return (loc.getBlockX() >> 4) == chunkX &&
+               (loc.getBlockZ() >> 4) == chunkZ &&
+               loc.getWorld() != null &&
+               loc.getWorld().getName().equals(worldName);
+    }
+
+    /**
+     * Shutdown: save dirty machines synchronously and clear all state
+     * Must run BEFORE DatabaseManager is disabled (its final flush writes our saves)
+     */
+    public void shutdown(TechFactory plugin) {
+        flushDirty(plugin, true);
+        states.clear();
+        viewers.clear();
+        dirty.clear();
+        checkpoints.clear();
+        processingQueue.clear();
+        starved.clear();
+        wakeups.clear();
+        activeCount = 0;
+    }
+
+    // ========================================
+    // GETTERS
+    // ========================================
+
+    public String getMachineType() {
+        return machineType;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getProcessingTicks() {
+        return processingTicks;
+    }
+
+    public int getEnergyPerOperation() {
+        return energyPerOperation;
+    }
+
+    /**
+     * Number of machines currently being processed
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Number of machines loaded in memory (active or idle)
+     */
+    public int getLoadedCount() {
+        return states.size();
+    }
+
+    /**
+     * Loaded machines per world name (for metrics export)
+     */
+    public Map<String, Integer> getLoadedCountByWorld() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Location location : states.keySet()) {
+            if (location.getWorld() != null) {
+                counts.merge(location.getWorld().getName(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,68 @@
+package org.ThefryGuy.techFactory.machines.electric;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Recipe/processing function for an electric machine
+ *
+ * This is the ONLY machine-specific logic an electric machine has to provide.
+ * Everything else (scheduling, energy, network lookup, persistence, GUI, viewers)
+ * is owned by ElectricMachineRuntime.
+ *
+ * EXAMPLES:
+ * - Electric Furnace: vanilla furnace recipe lookup (deterministic)
+ * - Electric Gold Pan: weighted random drop table (non-deterministic)
+ *
+ * @see ElectricMachineRuntime
+ */
+public interface ProcessingFunction {
+
+    /**
+     * Check if an input can be processed, without producing anything
+     *
+     * PERFORMANCE: Side-effect free and allocation free - the runtime calls this to decide whether
+     * an idle machine still has work (no random rolls, no output stacks built just to be dropped)
+     *
+     * @param material The input's material
+     * @return true if process() returns an output for this input
+     */
+    boolean accepts(Material material);
+
+    /**
+     * Produce the output for ONE unit of the given input
+     *
+     * Called once when an operation starts. The returned stack is held by the
+     * runtime until the operation completes, so random outputs are rolled once.
+     *
+     * @param input The input stack (amount is ignored, treat as a single item)
+     * @return The output for one input item, or null if this input can't be processed
+     */
+    ItemStack process(ItemStack input);
+
+    /**
+     * Build a processing function from an input check and the output function
+     *
+     * @param accepts Side-effect free input check (see accepts())
+     * @param process Output for one input item (see process())
+     */
+    static ProcessingFunction of(Predicate<Material> accepts, Function<ItemStack, ItemStack> process) {
+        if (accepts == null || process == null) {
+            throw new IllegalArgumentException("Processing function needs an input check and an output function");
+        }
+        return new ProcessingFunction() {
+            @Override
+            public boolean accepts(Material material) {
+                return accepts.test(material);
+            }
+
+            @Override
+            public ItemStack process(ItemStack input) {
+                return process.apply(input);
+            }
+        };
+    }
+}
@@ -0,0 +1,295 @@
+package org.ThefryGuy.techFactory.recipes;
+
+import org.ThefryGuy.techFactory.util.ItemIdResolver;
+
+import java.util.*;
+
+/**
+ * Compiled recipe index: one hash lookup per craft
+ *
+ * PERFORMANCE FIX: findRecipeWithQuantities() used to loop over EVERY recipe of a machine and,
+ * for each one, re-parse its "item_id:qty|item_id:qty" key with split() and build a fresh HashMap.
+ * That ran on every Smelter, Ore Crusher, Compressor, Pressure Chamber and Workbench craft.
+ *
+ * NOW: Recipes are compiled once at registration:
+ * - Item ids are interned to small ints (shared with ItemIdResolver, so inventory scans match directly)
+ * - The ingredient SET becomes a signature (sorted int array) used as hash key
+ * - Quantities are stored as an int array aligned with the signature
+ *
+ * A craft = intern the available ids, sort, one hash lookup, one int array compare.
+ * Cost no longer grows with the number of recipes per machine.
+ *
+ * Recipes with the same ingredient set but different quantities share a signature; they are
+ * tried most demanding first (deterministic, the old HashMap iteration order was not).
+ *
+ * IMMUTABLE ONCE SEALED: RecipeLoader builds an index (off the main thread on reload), seals it,
+ * and RecipeRegistry publishes it with a single volatile write. A craft reads the reference once,
+ * so it sees either the old index or the new one - never a half-built one.
+ */
+public class RecipeIndex {
+
+    /**
+     * One compiled recipe
+     */
+    static class CompiledRecipe {
+        final int[] itemIds;           // Sorted interned item ids (the signature)
+        final int[] quantities;        // Required quantity per item id (same order)
+        final int totalQuantity;       // Sum of quantities (more demanding recipes are tried first)
+        final RecipeRegistry.RecipeMatch match; // Prebuilt result (no allocation per craft)
+
+        CompiledRecipe(int[] itemIds, int[] quantities, RecipeRegistry.RecipeMatch match) {
+            this.itemIds = itemIds;
+            this.quantities = quantities;
+            this.match = match;
+            int total = 0;
+            for (int quantity : quantities) {
+                total += quantity;
+            }
+            this.totalQuantity = total;
+        }
+    }
+
+    /**
+     * Hash key for an ingredient set (sorted interned item ids)
+     */
+    private static final class Signature {
+        private final int[] itemIds;
+        private final int hash;
+
+        Signature(int[] itemIds) {
+            this.itemIds = itemIds;
+            this.hash = Arrays.hashCode(itemIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature && Arrays.equals(itemIds, ((Signature) o).itemIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final CompiledRecipe[] NO_RECIPES = new CompiledRecipe[0];
+
+    // Interned ids used by at least one recipe of this index
+    private final BitSet usedIds = new BitSet();
+
+    // Machine type -> signature -> recipes with that ingredient set (most demanding first)
+    private final Map<String, Map<Signature, CompiledRecipe[]>> recipesByMachine = new HashMap<>();
+
+    // Machine type -> sorted item key ("copper_dust:1|tin_dust:1") -> output (duplicate detection, findRecipe())
+    private final Map<String, Map<String, RecipeItem>> recipesByKey = new HashMap<>();
+
+    // All recipes in registration order, and per machine (listing/GUI)
+    private final List<RecipeRegistry.RecipeEntry> allRecipes = new ArrayList<>();
+    private final Map<String, List<RecipeRegistry.RecipeEntry>> entriesByMachine = new HashMap<>();
+
+    private boolean sealed = false;
+
+    /**
+     * Compile and add a recipe
+     *
+     * @param machineType The machine type (e.g., "Smelter")
+     * @param itemIds Input item ids (no duplicates)
+     * @param quantities Required quantity per input item (same order as itemIds)
+     * @param output The recipe output
+     * @throws IllegalArgumentException if the arrays don't match, an item id is repeated or the recipe is a duplicate
+     * @throws IllegalStateException if the index is sealed
+     */
+    public void add(String machineType, String[] itemIds, int[] quantities, RecipeItem output) {
+        if (sealed) {
+            throw new IllegalStateException("Recipe index is sealed, cannot add recipes for " + machineType);
+        }
+        if (itemIds.length != quantities.length) {
+            throw new IllegalArgumentException("Recipe for " + machineType + " has " + itemIds.length + " items but " + quantities.length + " quantities");
+        }
+
+        // Intern ids and sort (id, quantity) pairs by interned id
+        long[] pairs = new long[itemIds.length];
+        Map<String, Integer> required = new HashMap<>();
+        for (int i = 0; i < itemIds.length; i++) {
+            if (required.put(itemIds[i], quantities[i]) != null) {
+                throw new IllegalArgumentException("Recipe for " + machineType + " lists '" + itemIds[i] + "' more than once");
+            }
+            int id = ItemIdResolver.intern(itemIds[i]);
+            pairs[i] = ((long) id << 32) | (quantities[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs);
+
+        // Sorted item key (order-independent, same format as before)
+        String[] keyParts = new String[itemIds.length];
+        for (int i = 0; i < itemIds.length; i++) {
+            keyParts[i] = itemIds[i] + ":" + quantities[i];
+        }
+        Arrays.sort(keyParts);
+        String recipeKey = String.join("|", keyParts);
+
+        Map<String, RecipeItem> machineKeys = recipesByKey.computeIfAbsent(machineType, k -> new HashMap<>());
+        RecipeItem existingOutput = machineKeys.get(recipeKey);
+        if (existingOutput != null) {
+            throw new IllegalArgumentException("Duplicate recipe for " + machineType + ": '" + recipeKey + "' already outputs " + existingOutput.getDisplayName() + ", cannot also output " + output.getDisplayName());
+        }
+
+        int[] sortedIds = new int[pairs.length];
+        int[] sortedQuantities = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            sortedIds[i] = (int) (pairs[i] >>> 32);
+            sortedQuantities[i] = (int) pairs[i];
+            usedIds.set(sortedIds[i]);
+        }
+
+        RecipeRegistry.RecipeMatch match = new RecipeRegistry.RecipeMatch(output, Collections.unmodifiableMap(required), sortedIds, sortedQuantities);
+        CompiledRecipe recipe = new CompiledRecipe(sortedIds, sortedQuantities, match);
+
+        // Insert, keeping recipes with the same ingredient set ordered most demanding first
+        Map<Signature, CompiledRecipe[]> machineRecipes = recipesByMachine.computeIfAbsent(machineType, k -> new HashMap<>());
+        Signature signature = new Signature(sortedIds);
+        CompiledRecipe[] existing = machineRecipes.getOrDefault(signature, NO_RECIPES);
+        CompiledRecipe[] updated = Arrays.copyOf(existing, existing.length + 1);
+        updated[existing.length] = recipe;
+        Arrays.sort(updated, (a, b) -> Integer.compare(b.totalQuantity, a.totalQuantity));
+        machineRecipes.put(signature, updated);
+
+        machineKeys.put(recipeKey, output);
+        RecipeRegistry.RecipeEntry entry = new RecipeRegistry.RecipeEntry(machineType, recipeKey, output);
+        allRecipes.add(entry);
+        entriesByMachine.computeIfAbsent(machineType, k -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * Seal the index: no more recipes can be added, it is safe to publish
+     *
+     * @return this index
+     */
+    public RecipeIndex seal() {
+        sealed = true;
+        return this;
+    }
+
+    /**
+     * Find a recipe whose ingredient set is exactly the available item ids and whose
+     * quantities are all available ("at least" matching - stacks can craft multiple times)
+     *
+     * @param machineType The machine type (e.g., "Pressure Chamber")
+     * @param availableItems Map of item_id -> quantity available
+     * @return The matching recipe, or null if no match
+     */
+    public RecipeRegistry.RecipeMatch find(String machineType, Map<String, Integer> availableItems) {
+        if (availableItems.isEmpty()) {
+            return null;
+        }
+
+        // An id no recipe uses can never match - extra items aren't allowed
+        int[] itemIds = new int[availableItems.size()];
+        int[] amounts = new int[availableItems.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : availableItems.entrySet()) {
+            int id = ItemIdResolver.getId(entry.getKey());
+            if (id == ItemIdResolver.NONE) {
+                return null;
+            }
+            itemIds[i] = id;
+            amounts[i++] = entry.getValue();
+        }
+        return find(machineType, itemIds, amounts, i);
+    }
+
+    /**
+     * Find a recipe from primitive id/amount arrays (ItemIdResolver.count output)
+     *
+     * @param machineType The machine type (e.g., "Pressure Chamber")
+     * @param itemIds Distinct interned item ids available
+     * @param amounts Quantity available per item id (same order)
+     * @param length Number of valid entries in the arrays
+     * @return The matching recipe, or null if no match
+     */
+    public RecipeRegistry.RecipeMatch find(String machineType, int[] itemIds, int[] amounts, int length) {
+        Map<Signature, CompiledRecipe[]> machineRecipes = recipesByMachine.get(machineType);
+        if (machineRecipes == null || length == 0) {
+            return null;
+        }
+
+        long[] pairs = new long[length];
+        for (int i = 0; i < length; i++) {
+            if (!usedIds.get(itemIds[i])) {
+                return null;
+            }
+            pairs[i] = ((long) itemIds[i] << 32) | (amounts[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs);
+
+        int[] ids = new int[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = (int) (pairs[i] >>> 32);
+        }
+
+        // One hash lookup on the exact ingredient set
+        CompiledRecipe[] candidates = machineRecipes.get(new Signature(ids));
+        if (candidates == null) {
+            return null;
+        }
+
+        // Quantity check against int arrays
+        for (CompiledRecipe candidate : candidates) {
+            if (hasQuantities(pairs, candidate.quantities)) {
+                return candidate.match;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check available quantities (low 32 bits of the sorted pairs) against required quantities
+     */
+    private static boolean hasQuantities(long[] pairs, int[] required) {
+        for (int i = 0; i < required.length; i++) {
+            if ((int) pairs[i] < required[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find a recipe by machine type and sorted item key
+     *
+     * @param recipeKey The sorted item key (e.g., "copper_dust:3|tin_dust:1")
+     * @return The output RecipeItem, or null if no match
+     */
+    public RecipeItem findByKey(String machineType, String recipeKey) {
+        Map<String, RecipeItem> machineKeys = recipesByKey.get(machineType);
+        return machineKeys != null ? machineKeys.get(recipeKey) : null;
+    }
+
+    /**
+     * All recipes of a machine type, in registration order (read-only)
+     */
+    public List<RecipeRegistry.RecipeEntry> getRecipesFor(String machineType) {
+        List<RecipeRegistry.RecipeEntry> entries = entriesByMachine.get(machineType);
+        return entries != null ? Collections.unmodifiableList(entries) : Collections.emptyList();
+    }
+
+    /**
+     * All recipes, in registration order (read-only)
+     */
+    public List<RecipeRegistry.RecipeEntry> getAllRecipes() {
+        return Collections.unmodifiableList(allRecipes);
+    }
+
+    /**
+     * Number of compiled recipes
+     */
+    public int getRecipeCount() {
+        return allRecipes.size();
+    }
+
+    /**
+     * Number of distinct item ids used by recipes
+     */
+    public int getInternedItemCount() {
+        return usedIds.cardinality();
+    }
+}
@@ -6,7 +6,7 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
+import org.ThefryGuy.techFactory.registry.ItemRegistry;
 
 import java.util.List;
 
@@ -18,9 +18,17 @@ import java.util.List;
  * - Define the recipe as an ItemStack array (like Slimefun)
  * - Define the machine type
  * - Everything else is automatic!
+ *
+ * FLYWEIGHT: Implementations must be stateless - ItemRegistry shares one instance per id.
  */
 public interface RecipeItem {
 
+    /**
+     * NBT key holding the TechFactory item id ("techfactory:item_id")
+     * PERFORMANCE: One shared key instead of getProvidingPlugin() + new NamespacedKey per call
+     */
+    NamespacedKey ITEM_ID_KEY = new NamespacedKey("techfactory", "item_id");
+
     // ========================================
     // ITEM PROPERTIES (Required)
     // ========================================
@@ -75,6 +83,13 @@ public interface RecipeItem {
      */
     String getMachineType();
 
+    /**
+     * Get the stack size produced per craft (e.g. Copper Wire outputs 8)
+     */
+    default int getOutputAmount() {
+        return 1;
+    }
+
     // ========================================
     // AUTOMATIC METHODS (Don't override)
     // ========================================
@@ -83,11 +98,22 @@ public interface RecipeItem {
      * Get the ItemStack representation for the inventory.
      * This is automatically generated from the item properties.
      *
+     * PERFORMANCE FIX: Returns a clone of the template prebuilt by ItemRegistry
+     * (no new meta, lore list or key per call). The caller owns the returned stack.
+     */
+    default ItemStack getItemStack() {
+        ItemStack template = ItemRegistry.getTemplate(getId());
+        return template != null ? template.clone() : buildItemStack();
+    }
+
+    /**
+     * Build a fresh ItemStack from the item properties (used for the registry template)
+     *
      * IMPORTANT: This adds NBT data (PersistentDataContainer) to prevent players
      * from faking items with anvil renames!
      */
-    default ItemStack getItemStack() {
-        ItemStack stack = new ItemStack(getMaterial());
+    default ItemStack buildItemStack() {
+        ItemStack stack = new ItemStack(getMaterial(), getOutputAmount());
         ItemMeta meta = stack.getItemMeta();
         if (meta != null) {
             // Set display name and lore
@@ -95,9 +121,7 @@ public interface RecipeItem {
             meta.setLore(getLore());
 
             // Add NBT data with unique ID (prevents anvil faking!)
-            JavaPlugin plugin = JavaPlugin.getProvidingPlugin(RecipeItem.class);
-            NamespacedKey key = new NamespacedKey(plugin, "item_id");
-            meta.getPersistentDataContainer().set(key, PersistentDataType.STRING, getId());
+            meta.getPersistentDataContainer().set(ITEM_ID_KEY, PersistentDataType.STRING, getId());
 
             stack.setItemMeta(meta);
         }
@@ -118,10 +142,7 @@ public interface RecipeItem {
         }
 
         ItemMeta meta = item.getItemMeta();
-        JavaPlugin plugin = JavaPlugin.getProvidingPlugin(RecipeItem.class);
-        NamespacedKey key = new NamespacedKey(plugin, "item_id");
-
-        String storedId = meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+        String storedId = meta.getPersistentDataContainer().get(ITEM_ID_KEY, PersistentDataType.STRING);
         return storedId != null && storedId.equals(id);
     }
 
@@ -141,9 +162,6 @@ public interface RecipeItem {
             return null;
         }
 
-        JavaPlugin plugin = JavaPlugin.getProvidingPlugin(RecipeItem.class);
-        NamespacedKey key = new NamespacedKey(plugin, "item_id");
-
-        return meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+        return meta.getPersistentDataContainer().get(ITEM_ID_KEY, PersistentDataType.STRING);
     }
 }
\ No newline at end of file
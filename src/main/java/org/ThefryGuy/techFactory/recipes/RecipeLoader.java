@@ -0,0 +1,241 @@
+package org.ThefryGuy.techFactory.recipes;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.ThefryGuy.techFactory.registry.ItemRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Loads recipe definition files and compiles them into a RecipeIndex
+ *
+ * FILES (in the plugin data folder):
+ * - recipes.yml            Main recipe file (copied from the jar on first start)
+ * - recipes/*.yml, *.json  Optional extra recipe files, same format (JSON is valid YAML)
+ *
+ * FORMAT (version 1):
+ *   version: 1
+ *   recipes:
+ *     Smelter:
+ *       - output: bronze_ingot
+ *         inputs: [copper_dust:3, tin_dust]
+ *
+ * ALL OR NOTHING: Every file is parsed and every recipe validated before anything is returned.
+ * If any error is found, load() throws with the full list - a half-loaded recipe set is never published.
+ *
+ * THREADING: Does not touch the world or the registry state, so it is safe to run off the main thread
+ * (ItemRegistry lookups are read-only after startup).
+ */
+public class RecipeLoader {
+
+    /**
+     * Recipe file format version this loader understands
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    public static final String RECIPE_FILE = "recipes.yml";
+    public static final String RECIPE_FOLDER = "recipes";
+
+    // Don't flood the console/chat with hundreds of errors from one broken file
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private RecipeLoader() {
+    }
+
+    /**
+     * Load and compile all recipe files from the data folder
+     *
+     * @param dataFolder The plugin data folder
+     * @return A sealed recipe index
+     * @throws IllegalArgumentException if any file is unreadable or any recipe is invalid (message lists the errors)
+     */
+    public static RecipeIndex load(File dataFolder) {
+        List<File> files = new ArrayList<>();
+        files.add(new File(dataFolder, RECIPE_FILE));
+
+        File folder = new File(dataFolder, RECIPE_FOLDER);
+        File[] extraFiles = folder.listFiles((dir, name) -> name.endsWith(".yml") || name.endsWith(".json"));
+        if (extraFiles != null) {
+            // Sorted so registration order (and duplicate errors) are stable
+            Arrays.sort(extraFiles, Comparator.comparing(File::getName));
+            files.addAll(Arrays.asList(extraFiles));
+        }
+
+        RecipeIndex index = new RecipeIndex();
+        List<String> errors = new ArrayList<>();
+        for (File file : files) {
+            YamlConfiguration yaml = new YamlConfiguration();
+            try {
+                yaml.load(file);
+            } catch (IOException | InvalidConfigurationException e) {
+                errors.add(file.getName() + ": " + e.getMessage());
+                continue;
+            }
+            compile(yaml, file.getName(), index, errors);
+        }
+
+        return finish(index, errors);
+    }
+
+    /**
+     * Load and compile the recipe file bundled in the plugin jar (fallback when the data files are broken)
+     *
+     * @param bundled The bundled recipes.yml stream (JavaPlugin.getResource)
+     * @return A sealed recipe index
+     * @throws IllegalArgumentException if the bundled file is missing or invalid
+     */
+    public static RecipeIndex loadBundled(InputStream bundled) {
+        if (bundled == null) {
+            throw new IllegalArgumentException("Bundled " + RECIPE_FILE + " not found in plugin jar");
+        }
+
+        RecipeIndex index = new RecipeIndex();
+        List<String> errors = new ArrayList<>();
+        YamlConfiguration yaml = new YamlConfiguration();
+        try (Reader reader = new InputStreamReader(bundled, StandardCharsets.UTF_8)) {
+            yaml.load(reader);
+            compile(yaml, "(bundled) " + RECIPE_FILE, index, errors);
+        } catch (IOException | InvalidConfigurationException e) {
+            errors.add("(bundled) " + RECIPE_FILE + ": " + e.getMessage());
+        }
+
+        return finish(index, errors);
+    }
+
+    /**
+     * Seal the index, or throw with the collected errors
+     */
+    private static RecipeIndex finish(RecipeIndex index, List<String> errors) {
+        if (!errors.isEmpty()) {
+            StringBuilder message = new StringBuilder(errors.size() + " recipe error(s):");
+            for (int i = 0; i < Math.min(errors.size(), MAX_REPORTED_ERRORS); i++) {
+                message.append("\n - ").append(errors.get(i));
+            }
+            if (errors.size() > MAX_REPORTED_ERRORS) {
+                message.append("\n - ... and ").append(errors.size() - MAX_REPORTED_ERRORS).append(" more");
+            }
+            throw new IllegalArgumentException(message.toString());
+        }
+        return index.seal();
+    }
+
+    /**
+     * Validate one parsed file and add its recipes to the index
+     * Errors are collected (not thrown) so one load reports every problem at once
+     */
+    private static void compile(YamlConfiguration yaml, String fileName, RecipeIndex index, List<String> errors) {
+        // VALIDATION: Format version must be known (a newer plugin format must not be half-read)
+        int version = yaml.getInt("version", -1);
+        if (version != FORMAT_VERSION) {
+            errors.add(fileName + ": Unsupported format version " + version + " (expected " + FORMAT_VERSION + ")");
+            return;
+        }
+
+        ConfigurationSection recipes = yaml.getConfigurationSection("recipes");
+        if (recipes == null) {
+            errors.add(fileName + ": Missing 'recipes' section");
+            return;
+        }
+
+        for (String machineType : recipes.getKeys(false)) {
+            List<Map<?, ?>> entries = recipes.getMapList(machineType);
+            for (int i = 0; i < entries.size(); i++) {
+                String where = fileName + " " + machineType + " #" + (i + 1);
+                try {
+                    compileRecipe(machineType, entries.get(i), index);
+                } catch (IllegalArgumentException e) {
+                    errors.add(where + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Validate one recipe entry and add it to the index
+     *
+     * @throws IllegalArgumentException if the entry is invalid
+     */
+    private static void compileRecipe(String machineType, Map<?, ?> entry, RecipeIndex index) {
+        // VALIDATION: Output must be a TechFactory item
+        Object outputId = entry.get("output");
+        if (outputId == null) {
+            throw new IllegalArgumentException("Missing 'output'");
+        }
+        RecipeItem output = ItemRegistry.getItemById(outputId.toString());
+        if (output == null) {
+            throw new IllegalArgumentException("Unknown output item '" + outputId + "'");
+        }
+
+        // VALIDATION: Must have at least 1 input item
+        Object inputs = entry.get("inputs");
+        if (!(inputs instanceof List<?> inputList) || inputList.isEmpty()) {
+            throw new IllegalArgumentException("Recipe must have at least 1 input item (output: " + outputId + ")");
+        }
+
+        String[] itemIds = new String[inputList.size()];
+        int[] quantities = new int[inputList.size()];
+        for (int i = 0; i < inputList.size(); i++) {
+            String item = String.valueOf(inputList.get(i)).trim();
+
+            // Add ":1" if no quantity specified
+            if (!item.contains(":")) {
+                item = item + ":1";
+            }
+
+            // VALIDATION: Check item format (must be "item_id:quantity")
+            if (!isValidItemFormat(item)) {
+                throw new IllegalArgumentException("Invalid item format '" + item + "' (expected 'item_id:quantity', e.g. 'iron_dust:3')");
+            }
+
+            String[] parts = item.split(":");
+            // VALIDATION: Input must be a TechFactory item or a vanilla material
+            if (ItemRegistry.getItemById(parts[0]) == null && Material.matchMaterial(parts[0]) == null) {
+                throw new IllegalArgumentException("Unknown input item '" + parts[0] + "'");
+            }
+
+            itemIds[i] = parts[0];
+            quantities[i] = Integer.parseInt(parts[1]);
+        }
+
+        // Throws on repeated item ids and duplicate recipes
+        index.add(machineType, itemIds, quantities, output);
+    }
+
+    /**
+     * Validate item format: "item_id:quantity"
+     * - Must contain exactly one ":"
+     * - Quantity must be a positive integer
+     *
+     * @param item The item string to validate
+     * @return true if valid, false otherwise
+     */
+    private static boolean isValidItemFormat(String item) {
+        String[] parts = item.split(":");
+
+        // Must have exactly 2 parts (item_id and quantity)
+        if (parts.length != 2) {
+            return false;
+        }
+
+        // Item ID cannot be empty
+        if (parts[0].trim().isEmpty()) {
+            return false;
+        }
+
+        // Quantity must be a positive integer
+        try {
+            int quantity = Integer.parseInt(parts[1]);
+            return quantity > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -3,10 +3,6 @@ package org.ThefryGuy.techFactory.recipes.components;
 import org.bukkit.Material;
 import org.bukkit.ChatColor;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.NamespacedKey;
-import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
 import org.ThefryGuy.techFactory.recipes.RecipeItem;
 
 import java.util.List;
@@ -58,23 +54,12 @@ public class CopperWire implements RecipeItem {
         return "Enhanced Crafting Table";
     }
 
+    /**
+     * Output 8 wires per craft
+     */
     @Override
-    public ItemStack getItemStack() {
-        ItemStack stack = new ItemStack(getMaterial(), 8); // Output 8 wires
-        ItemMeta meta = stack.getItemMeta();
-        if (meta != null) {
-            // Set display name and lore
-            meta.setDisplayName(getColor() + getDisplayName());
-            meta.setLore(getLore());
-
-            // Add NBT data with unique ID (prevents anvil faking!)
-            JavaPlugin plugin = JavaPlugin.getProvidingPlugin(RecipeItem.class);
-            NamespacedKey key = new NamespacedKey(plugin, "item_id");
-            meta.getPersistentDataContainer().set(key, PersistentDataType.STRING, getId());
-
-            stack.setItemMeta(meta);
-        }
-        return stack;
+    public int getOutputAmount() {
+        return 8;
     }
 }
 
@@ -0,0 +1,78 @@
+package org.ThefryGuy.techFactory.recipes.components;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.ThefryGuy.techFactory.recipes.RecipeItem;
+
+import java.util.List;
+
+/**
+ * Machine Upgrade - raises the tier of an electric machine
+ *
+ * Placed in the upgrade slot of an electric machine GUI (below the progress indicator).
+ * Each upgrade lets the machine process more items of the same input per cycle.
+ */
+public class MachineUpgrade implements RecipeItem {
+
+    @Override
+    public String getId() {
+        return "machine_upgrade";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Machine Upgrade";
+    }
+
+    @Override
+    public ChatColor getColor() {
+        return ChatColor.AQUA;
+    }
+
+    @Override
+    public Material getMaterial() {
+        return Material.NETHER_STAR;
+    }
+
+    @Override
+    public List<String> getLore() {
+        return List.of(
+                ChatColor.GRAY + "Raises the tier of an electric machine",
+                ChatColor.GRAY + "Processes more items per cycle",
+                "",
+                ChatColor.YELLOW + "Place in the upgrade slot",
+                ChatColor.YELLOW + "(below the progress indicator)"
+        );
+    }
+
+    @Override
+    public ItemStack[] getRecipe() {
+        // Recipe:
+        // [Basic Circuit Board] [Electric Motor] [Basic Circuit Board]
+        // [Copper Wire]         [Battery]        [Copper Wire]
+        // [empty]               [empty]          [empty]
+
+        BasicCircuitBoard circuitBoard = new BasicCircuitBoard();
+        ElectricMotor electricMotor = new ElectricMotor();
+        CopperWire copperWire = new CopperWire();
+        Battery battery = new Battery();
+
+        return new ItemStack[] {
+            circuitBoard.getItemStack(),
+            electricMotor.getItemStack(),
+            circuitBoard.getItemStack(),
+            copperWire.getItemStack(),
+            battery.getItemStack(),
+            copperWire.getItemStack(),
+            new ItemStack(Material.AIR),
+            new ItemStack(Material.AIR),
+            new ItemStack(Material.AIR)
+        };
+    }
+
+    @Override
+    public String getMachineType() {
+        return "Enhanced Crafting Table";
+    }
+}
@@ -3,10 +3,6 @@ package org.ThefryGuy.techFactory.recipes.energy;
 import org.bukkit.Material;
 import org.bukkit.ChatColor;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.NamespacedKey;
-import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
 import org.ThefryGuy.techFactory.recipes.RecipeItem;
 import org.ThefryGuy.techFactory.recipes.resources.Carbon;
 import org.ThefryGuy.techFactory.recipes.components.CopperWire;
@@ -89,26 +85,12 @@ public class EnergyConnector implements RecipeItem {
     }
 
     /**
-     * Override getItemStack to output 8 connectors (like Copper Wire)
+     * Output 8 connectors per craft (like Copper Wire)
      * This makes the recipe more economical for building large networks
      */
     @Override
-    public ItemStack getItemStack() {
-        ItemStack stack = new ItemStack(getMaterial(), 8); // Output 8 connectors
-        ItemMeta meta = stack.getItemMeta();
-        if (meta != null) {
-            // Set display name and lore
-            meta.setDisplayName(getColor() + getDisplayName());
-            meta.setLore(getLore());
-
-            // Add NBT data with unique ID (prevents anvil faking!)
-            JavaPlugin plugin = JavaPlugin.getProvidingPlugin(RecipeItem.class);
-            NamespacedKey key = new NamespacedKey(plugin, "item_id");
-            meta.getPersistentDataContainer().set(key, PersistentDataType.STRING, getId());
-
-            stack.setItemMeta(meta);
-        }
-        return stack;
+    public int getOutputAmount() {
+        return 8;
     }
 }
 
@@ -47,6 +47,7 @@ public class BasicWorkbench implements RecipeItem {
                 "",
                 ChatColor.GOLD + "How to Use:",
                 ChatColor.GRAY + "Right-click the Crafting Table",
+                ChatColor.GRAY + "Sneak-click to craft as many as possible",
                 "",
                 ChatColor.GOLD + "Output:",
                 ChatColor.GRAY + "Place a chest next to the Dispenser",
@@ -49,6 +49,7 @@ public class Compressor implements RecipeItem {
                 ChatColor.GRAY + "Right-click the Fence",
                 ChatColor.GRAY + "Place items in the Dispenser",
                 ChatColor.GRAY + "Close inventory to compress",
+                ChatColor.GRAY + "Sneak-click the Fence to compress everything",
                 "",
                 ChatColor.GOLD + "Recipes:",
                 ChatColor.GRAY + "12x Coal → 1x Carbon",
@@ -53,6 +53,7 @@ public class OreCrusher implements RecipeItem {
                 ChatColor.GOLD + "How to Use:",
                 ChatColor.GRAY + "Right-click Dispenser to open",
                 ChatColor.GRAY + "Click Iron Bars or Fence to crush",
+                ChatColor.GRAY + "Sneak-click to crush everything",
                 "",
                 ChatColor.GOLD + "Output:",
                 ChatColor.GRAY + "Place a chest next to any block",
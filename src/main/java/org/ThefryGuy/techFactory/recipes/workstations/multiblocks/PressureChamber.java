@@ -52,6 +52,7 @@ public class PressureChamber implements RecipeItem {
                 ChatColor.GRAY + "Right-click the Dispenser",
                 ChatColor.GRAY + "Place items in the Dispenser",
                 ChatColor.GRAY + "Close inventory to compress",
+                ChatColor.GRAY + "Sneak-click the Glass to process everything",
                 "",
                 ChatColor.GOLD + "Recipes:",
                 ChatColor.GRAY + "Coming soon!",
@@ -9,15 +9,19 @@ import org.ThefryGuy.techFactory.recipes.tools.*;
 import org.ThefryGuy.techFactory.recipes.components.*;
 import org.ThefryGuy.techFactory.recipes.energy.*;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
 import java.util.function.Supplier;
 
 /**
  * Central registry for all recipe items (dusts, ingots, machines, tools, alloys, etc.)
  * This is initialized at plugin startup and provides easy access to all items.
+ *
+ * PERFORMANCE FIX (flyweight): RecipeItems are stateless, so each one is created ONCE at startup.
+ * Lookups return the shared instance instead of calling supplier.get() (a new object) every time.
+ * Each id also gets a prebuilt template ItemStack (name, lore, NBT id); getItemStack() hands out
+ * clones of it instead of rebuilding meta, lore and keys for every crafted output or menu icon.
  */
 public class ItemRegistry {
 
@@ -25,7 +29,22 @@ public class ItemRegistry {
      * PERFORMANCE OPTIMIZATION: O(1) lookup cache for item IDs
      * Built once at startup, avoids O(n) searches through all registries
      */
-    private static final Map<String, Supplier<? extends RecipeItem>> ID_CACHE = new HashMap<>();
+    private static final Map<String, RecipeItem> ID_CACHE = new HashMap<>();
+
+    /**
+     * FLYWEIGHT: Registry supplier -> shared instance (suppliers are the method references below)
+     */
+    private static final Map<Supplier<? extends RecipeItem>, RecipeItem> INSTANCES = new IdentityHashMap<>();
+
+    /**
+     * FLYWEIGHT: Item id -> prebuilt template ItemStack (never handed out, only cloned)
+     */
+    private static final Map<String, ItemStack> TEMPLATES = new HashMap<>();
+
+    /**
+     * All item ids, sorted (tab completion, prefix search)
+     */
+    private static String[] ALL_ITEM_IDS = new String[0];
 
     /**
      * Registry map: item name -> supplier that creates new instances
@@ -119,7 +138,8 @@ public class ItemRegistry {
             Map.entry("Copper Wire", org.ThefryGuy.techFactory.recipes.components.CopperWire::new),
             Map.entry("Electric Motor", org.ThefryGuy.techFactory.recipes.components.ElectricMotor::new),
             Map.entry("Heating Coil", org.ThefryGuy.techFactory.recipes.components.HeatingCoil::new),
-            Map.entry("Photovoltaic Cell", org.ThefryGuy.techFactory.recipes.components.PhotovoltaicCell::new)
+            Map.entry("Photovoltaic Cell", org.ThefryGuy.techFactory.recipes.components.PhotovoltaicCell::new),
+            Map.entry("Machine Upgrade", org.ThefryGuy.techFactory.recipes.components.MachineUpgrade::new)
     );
 
     /**
@@ -148,63 +168,33 @@ public class ItemRegistry {
      */
     public static void initialize(java.util.logging.Logger logger) {
         ID_CACHE.clear();
+        INSTANCES.clear();
+        TEMPLATES.clear();
 
         // Build ID cache from all registries
         // This allows O(1) lookup instead of O(n) search through 7+ registries
-
-        // Add all dusts to cache
-        for (Supplier<? extends RecipeItem> supplier : DUST_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
+        List<Map<String, Supplier<? extends RecipeItem>>> registries = List.of(
+                DUST_REGISTRY, INGOT_REGISTRY, RESOURCE_REGISTRY, ALLOY_REGISTRY, TOOL_REGISTRY,
+                COMPONENT_REGISTRY, ENERGY_REGISTRY, MACHINE_REGISTRY,
+                WorkstationRegistry.getMultiblockRegistry(), WorkstationRegistry.getAdvancedMultiblockRegistry());
+
+        for (Map<String, Supplier<? extends RecipeItem>> registry : registries) {
+            for (Supplier<? extends RecipeItem> supplier : registry.values()) {
+                // One shared instance per item (RecipeItems are stateless)
+                RecipeItem item = supplier.get();
+                INSTANCES.put(supplier, item);
+                ID_CACHE.put(item.getId(), item);
+            }
         }
 
-        // Add all ingots to cache
-        for (Supplier<? extends RecipeItem> supplier : INGOT_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
+        // Prebuild one template ItemStack per id (cloned by RecipeItem.getItemStack())
+        for (RecipeItem item : ID_CACHE.values()) {
+            TEMPLATES.put(item.getId(), item.buildItemStack());
         }
 
-        // Add all resources to cache
-        for (Supplier<? extends RecipeItem> supplier : RESOURCE_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
-
-        // Add all alloys to cache
-        for (Supplier<? extends RecipeItem> supplier : ALLOY_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
-
-        // Add all tools to cache
-        for (Supplier<? extends RecipeItem> supplier : TOOL_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
-
-        // Add all components to cache
-        for (Supplier<? extends RecipeItem> supplier : COMPONENT_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
-
-        // Add all energy items to cache
-        for (Supplier<? extends RecipeItem> supplier : ENERGY_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
-
-        // Add all machine items to cache
-        for (Supplier<? extends RecipeItem> supplier : MACHINE_REGISTRY.values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
-
-        // Add all workstation/multiblock items to cache
-        for (Supplier<? extends RecipeItem> supplier : WorkstationRegistry.getMultiblockRegistry().values()) {
-            RecipeItem item = supplier.get();
-            ID_CACHE.put(item.getId(), supplier);
-        }
+        String[] itemIds = ID_CACHE.keySet().toArray(new String[0]);
+        Arrays.sort(itemIds);
+        ALL_ITEM_IDS = itemIds;
 
         // Log cache size for debugging
         if (logger != null) {
@@ -212,12 +202,33 @@ public class ItemRegistry {
         }
     }
 
+    /**
+     * Shared instance for a registry supplier (falls back to a new instance before initialize())
+     */
+    private static RecipeItem instance(Supplier<? extends RecipeItem> supplier) {
+        RecipeItem item = INSTANCES.get(supplier);
+        return item != null ? item : supplier.get();
+    }
+
+    /**
+     * Get the template ItemStack for an item id
+     *
+     * IMPORTANT: The template is shared - never modify or hand it out, clone it.
+     * Use RecipeItem.getItemStack() instead, which does that.
+     *
+     * @param itemId The item ID (e.g. "iron_dust")
+     * @return The template, or null if unknown or the registry isn't initialized yet
+     */
+    public static ItemStack getTemplate(String itemId) {
+        return TEMPLATES.get(itemId);
+    }
+
     /**
      * Get a dust item by name
      */
     public static RecipeItem getDust(String name) {
         Supplier<? extends RecipeItem> supplier = DUST_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -226,7 +237,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getDusts() {
         List<RecipeItem> dusts = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : DUST_REGISTRY.values()) {
-            dusts.add(supplier.get());
+            dusts.add(instance(supplier));
         }
         return dusts;
     }
@@ -236,7 +247,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getIngot(String name) {
         Supplier<? extends RecipeItem> supplier = INGOT_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -245,7 +256,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getIngots() {
         List<RecipeItem> ingots = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : INGOT_REGISTRY.values()) {
-            ingots.add(supplier.get());
+            ingots.add(instance(supplier));
         }
         return ingots;
     }
@@ -269,7 +280,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getResource(String name) {
         Supplier<? extends RecipeItem> supplier = RESOURCE_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -278,7 +289,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getResources() {
         List<RecipeItem> resources = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : RESOURCE_REGISTRY.values()) {
-            resources.add(supplier.get());
+            resources.add(instance(supplier));
         }
         return resources;
     }
@@ -295,7 +306,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getAlloy(String name) {
         Supplier<? extends RecipeItem> supplier = ALLOY_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -304,7 +315,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getAlloys() {
         List<RecipeItem> alloys = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : ALLOY_REGISTRY.values()) {
-            alloys.add(supplier.get());
+            alloys.add(instance(supplier));
         }
         return alloys;
     }
@@ -321,7 +332,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getTool(String name) {
         Supplier<? extends RecipeItem> supplier = TOOL_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -330,7 +341,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getTools() {
         List<RecipeItem> tools = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : TOOL_REGISTRY.values()) {
-            tools.add(supplier.get());
+            tools.add(instance(supplier));
         }
         return tools;
     }
@@ -347,7 +358,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getComponent(String name) {
         Supplier<? extends RecipeItem> supplier = COMPONENT_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -356,7 +367,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getComponents() {
         List<RecipeItem> components = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : COMPONENT_REGISTRY.values()) {
-            components.add(supplier.get());
+            components.add(instance(supplier));
         }
         return components;
     }
@@ -373,7 +384,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getEnergy(String name) {
         Supplier<? extends RecipeItem> supplier = ENERGY_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -382,7 +393,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getEnergyItems() {
         List<RecipeItem> energyItems = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : ENERGY_REGISTRY.values()) {
-            energyItems.add(supplier.get());
+            energyItems.add(instance(supplier));
         }
         return energyItems;
     }
@@ -399,7 +410,7 @@ public class ItemRegistry {
      */
     public static RecipeItem getMachine(String name) {
         Supplier<? extends RecipeItem> supplier = MACHINE_REGISTRY.get(name);
-        return supplier != null ? supplier.get() : null;
+        return supplier != null ? instance(supplier) : null;
     }
 
     /**
@@ -408,7 +419,7 @@ public class ItemRegistry {
     public static List<RecipeItem> getMachines() {
         List<RecipeItem> machines = new ArrayList<>();
         for (Supplier<? extends RecipeItem> supplier : MACHINE_REGISTRY.values()) {
-            machines.add(supplier.get());
+            machines.add(instance(supplier));
         }
         return machines;
     }
@@ -432,69 +443,38 @@ public class ItemRegistry {
             return null;
         }
 
-        // O(1) lookup from cache (built at startup in initialize())
-        Supplier<? extends RecipeItem> supplier = ID_CACHE.get(itemId);
-        if (supplier != null) {
-            return supplier.get();
-        }
-
-        return null;
+        // O(1) lookup of the shared instance (built at startup in initialize())
+        return ID_CACHE.get(itemId);
     }
 
     /**
      * Get all item IDs from all registries (for tab completion)
+     * PERFORMANCE: Precomputed at startup, no instances are created
      *
-     * @return List of all item IDs (e.g. "iron_dust", "bronze_ingot", etc.)
+     * @return Sorted, read-only list of all item IDs (e.g. "bronze_ingot", "iron_dust", etc.)
      */
     public static List<String> getAllItemIds() {
-        List<String> itemIds = new ArrayList<>();
-
-        // Add all dust IDs
-        for (Supplier<? extends RecipeItem> supplier : DUST_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
-
-        // Add all ingot IDs
-        for (Supplier<? extends RecipeItem> supplier : INGOT_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
-
-        // Add all resource IDs
-        for (Supplier<? extends RecipeItem> supplier : RESOURCE_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
-
-        // Add all alloy IDs
-        for (Supplier<? extends RecipeItem> supplier : ALLOY_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
-
-        // Add all tool IDs
-        for (Supplier<? extends RecipeItem> supplier : TOOL_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
-
-        // Add all component IDs
-        for (Supplier<? extends RecipeItem> supplier : COMPONENT_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
-
-        // Add all energy item IDs
-        for (Supplier<? extends RecipeItem> supplier : ENERGY_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
-        }
+        return Collections.unmodifiableList(Arrays.asList(ALL_ITEM_IDS));
+    }
 
-        // Add all machine IDs
-        for (Supplier<? extends RecipeItem> supplier : MACHINE_REGISTRY.values()) {
-            itemIds.add(supplier.get().getId());
+    /**
+     * Get all item IDs starting with a prefix (binary search on the sorted id array)
+     *
+     * @param prefix The typed prefix (e.g. "iron_")
+     * @return Sorted list of matching item IDs
+     */
+    public static List<String> getItemIdsStartingWith(String prefix) {
+        String[] itemIds = ALL_ITEM_IDS;
+        int index = Arrays.binarySearch(itemIds, prefix);
+        if (index < 0) {
+            index = -index - 1;
         }
 
-        // Add all workstation IDs
-        for (Supplier<? extends RecipeItem> supplier : WorkstationRegistry.getMultiblockRegistry().values()) {
-            itemIds.add(supplier.get().getId());
+        List<String> matches = new ArrayList<>();
+        while (index < itemIds.length && itemIds[index].startsWith(prefix)) {
+            matches.add(itemIds[index++]);
         }
-
-        return itemIds;
+        return matches;
     }
 
     // Future methods:
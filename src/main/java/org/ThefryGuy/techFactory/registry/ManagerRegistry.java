@@ -1,7 +1,18 @@
 package org.ThefryGuy.techFactory.registry;
 
+import org.ThefryGuy.techFactory.TechFactoryConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,12 +32,17 @@ import java.util.logging.Logger;
  * smeltingManager = new SmeltingManager(this);
  * energyManager = new EnergyManager(this);
  * 
- * // Register all managers
+ * // Register all managers with their dependencies
  * ManagerRegistry.register("DatabaseManager", databaseManager);
- * ManagerRegistry.register("SmeltingManager", smeltingManager);
- * ManagerRegistry.register("EnergyManager", energyManager);
+ * ManagerRegistry.register("SmeltingManager", smeltingManager, "DatabaseManager");
+ * ManagerRegistry.register("EnergyManager", energyManager, "DatabaseManager");
+ * 
+ * // Start preparing (database, files) on worker threads
+ * ManagerRegistry.prepareAll(getLogger());
  * 
- * // Initialize all at once (calls initialize() on each in order)
+ * // ... other main-thread startup work overlaps with the preparation ...
+ * 
+ * // Initialize all (waits for each manager's preparation, dependencies first)
  * ManagerRegistry.initializeAll(getLogger());
  * ```
  * 
@@ -40,32 +56,60 @@ import java.util.logging.Logger;
  * - Adding cargo system? Just register it - no listener changes needed
  * - Adding power panels? Just register it - initialization is automatic
  * - Consistent error handling across all managers
- * - Guaranteed initialization order (LinkedHashMap preserves insertion order)
+ * - Guaranteed initialization order (dependencies first, then registration order)
  * - Guaranteed shutdown order (reverse of initialization)
  * 
+ * PERFORMANCE FIX: Startup used to run every manager's initialize() one after another on the main
+ * thread, so opening/migrating the database, loading the loaded chunks' blocks and opening the
+ * history file all stalled the main thread in sequence, and nothing else could overlap them.
+ * 
+ * NOW: Managers declare their dependencies at registration and start as a DAG:
+ * 1. CAPTURE (main): capture() on every manager - world state the preparation needs
+ * 2. PREPARE (workers): prepare() as soon as the dependencies' prepare() finished, in parallel
+ *    (returns immediately - TechFactory registers items/recipes/machines meanwhile)
+ * 3. INITIALIZE (main): initialize() in dependency order, each waiting only for its own preparation
+ * Per-manager timings are logged, and a warning when the total exceeds startup.target_ms.
+ * 
+ * THREADING: register/prepareAll/initializeAll/disableAll are main-thread only. Only prepare()
+ * runs on the "TechFactory-Startup" threads, which exit when initializeAll() returns.
+ * 
  * @see SystemManager
  */
 public class ManagerRegistry {
     
+    /** Most worker threads used for prepare() (blocking SQLite/disk I/O - not capped by CPU count) */
+    private static final int MAX_PREPARE_THREADS = 4;
+    
     /**
      * Map of manager name → manager instance
-     * LinkedHashMap preserves insertion order for predictable initialization
+     * LinkedHashMap preserves insertion order (tie-break for managers without a dependency between them)
      */
     private static final Map<String, SystemManager> managers = new LinkedHashMap<>();
     
+    /** Map of manager name → names of the managers it depends on */
+    private static final Map<String, List<String>> dependencies = new HashMap<>();
+    
+    /** Order of the last initializeAll() - disableAll() runs it backwards */
+    private static final List<String> initializationOrder = new ArrayList<>();
+    
+    /** Startup between prepareAll() and initializeAll() (null otherwise) */
+    private static Startup startup;
+    
     /**
      * Register a system manager.
      * 
      * IMPORTANT:
-     * - Call this BEFORE initializeAll()
-     * - Managers are initialized in the order they're registered
+     * - Call this BEFORE prepareAll()/initializeAll()
+     * - Managers are initialized after their dependencies, otherwise in the order they're registered
      * - Managers are disabled in REVERSE order (LIFO - Last In First Out)
+     * - Dependencies may be registered later, they only have to exist when startup begins
      * 
      * @param name Unique name for this manager (e.g., "SmeltingManager")
      * @param manager The manager instance
+     * @param dependsOn Names of the managers that must be prepared/initialized first
      * @throws IllegalArgumentException if name is already registered
      */
-    public static void register(String name, SystemManager manager) {
+    public static void register(String name, SystemManager manager, String... dependsOn) {
         if (managers.containsKey(name)) {
             throw new IllegalArgumentException("Manager already registered: " + name);
         }
@@ -74,50 +118,159 @@ public class ManagerRegistry {
             throw new IllegalArgumentException("Manager cannot be null: " + name);
         }
         
+        for (String dependency : dependsOn) {
+            if (dependency == null || dependency.equals(name)) {
+                throw new IllegalArgumentException("Invalid dependency of " + name + ": " + dependency);
+            }
+        }
+        
         managers.put(name, manager);
+        dependencies.put(name, List.of(dependsOn));
     }
     
     /**
-     * Initialize all registered managers in order.
+     * Capture and start preparing all registered managers.
      * 
      * LIFECYCLE:
-     * 1. DatabaseManager.initialize() - Creates tables
-     * 2. MultiblockCache.initialize() - Loads multiblocks from DB
-     * 3. EnergyManager.initialize() - Loads networks, starts holograms
-     * 4. SmeltingManager.initialize() - Loads active operations, starts tick task
-     * 5. AutoSaveManager.initialize() - Starts auto-save task
+     * 1. capture() on every manager (main thread, dependency order)
+     * 2. prepare() on worker threads, each once its dependencies are prepared
+     *    (startup.parallel_prepare: false = all prepare() run here, in dependency order)
+     * 
+     * Returns without waiting for the workers - do other main-thread startup work, then call
+     * initializeAll().
+     * 
+     * @param logger Logger for error reporting
+     * @throws IllegalStateException if a dependency isn't registered, dependencies form a cycle,
+     *         or managers are already being prepared
+     */
+    public static void prepareAll(Logger logger) {
+        if (startup != null) {
+            throw new IllegalStateException("Managers are already being prepared");
+        }
+        
+        List<String> order = sortByDependencies();
+        boolean parallel = TechFactoryConstants.STARTUP_PARALLEL_PREPARE();
+        int threads = parallel ? Math.max(1, Math.min(MAX_PREPARE_THREADS, managers.size())) : 0;
+        Startup current = new Startup(order, threads);
+        startup = current;
+        
+        logger.info("Preparing " + managers.size() + " system managers" +
+            (parallel ? " on " + threads + " worker threads..." : "..."));
+        
+        // CAPTURE: main thread, before any worker reads what it captured
+        for (String name : order) {
+            Timing timing = current.timings.get(name);
+            long started = System.nanoTime();
+            try {
+                managers.get(name).capture();
+            } catch (Exception e) {
+                timing.failure = e;
+                logger.log(Level.SEVERE, "  ✗ Failed to capture startup state of " + name, e);
+            }
+            timing.captureNanos = System.nanoTime() - started;
+        }
+        
+        // PREPARE: each manager starts when its dependencies are prepared
+        // Failures are kept in the Timing, so the futures always complete normally and dependents still run
+        for (String name : order) {
+            Timing timing = current.timings.get(name);
+            Runnable task = () -> prepare(name, timing, logger);
+            
+            if (current.executor == null) {
+                task.run();
+                current.prepared.put(name, CompletableFuture.completedFuture(null));
+                continue;
+            }
+            
+            CompletableFuture<?>[] waitFor = dependencies.get(name).stream()
+                .map(current.prepared::get)
+                .toArray(CompletableFuture<?>[]::new);
+            current.prepared.put(name, CompletableFuture.allOf(waitFor).thenRunAsync(task, current.executor));
+        }
+        
+        current.preparedReturnedNanos = System.nanoTime();
+    }
+    
+    /**
+     * Initialize all registered managers, dependencies first.
+     * 
+     * Calls prepareAll() first if it wasn't called yet.
+     * 
+     * LIFECYCLE (dependencies as registered in TechFactory):
+     * 1. DatabaseManager - prepared: connection, tables, loaded chunks; initialize: validation, batch task
+     * 2. MultiblockCache / OutputRouter - register cache statistics
+     * 3. EnergyManager (needs DatabaseManager) - Loads networks, starts holograms
+     * 4. SmeltingManager (needs DatabaseManager) - Loads active operations, starts tick task
+     * 5. AutoSaveManager (needs DatabaseManager) - Starts auto-save task
+     * 6. MetricsExporter / MetricsHistory - prepared: history file; initialize: snapshot tasks
      * 
      * ERROR HANDLING:
-     * - If a manager fails to initialize, logs error and continues
+     * - If a manager fails to capture/prepare/initialize, logs error and continues
+     * - A manager whose capture/prepare failed is not initialized
      * - Plugin will still start, but that manager may not work
      * - This prevents one broken manager from crashing the entire plugin
      * 
      * @param logger Logger for error reporting
+     * @throws IllegalStateException if a dependency isn't registered or dependencies form a cycle
      */
     public static void initializeAll(Logger logger) {
+        if (startup == null) {
+            prepareAll(logger);
+        }
+        Startup current = startup;
+        long initializeStarted = System.nanoTime();
+        
         logger.info("Initializing " + managers.size() + " system managers...");
         
         int successCount = 0;
         int failCount = 0;
         
-        for (Map.Entry<String, SystemManager> entry : managers.entrySet()) {
-            String name = entry.getKey();
-            SystemManager manager = entry.getValue();
-            
-            try {
-                logger.info("  → Initializing " + name + "...");
-                manager.initialize();
-                successCount++;
-                logger.info("  ✓ " + name + " initialized successfully");
+        try {
+            for (String name : current.order) {
+                Timing timing = current.timings.get(name);
                 
-            } catch (Exception e) {
-                failCount++;
-                logger.log(Level.SEVERE, "  ✗ Failed to initialize " + name, e);
-                // Continue initializing other managers even if one fails
+                long waitStarted = System.nanoTime();
+                current.prepared.get(name).join();
+                timing.waitNanos = System.nanoTime() - waitStarted;
+                
+                if (timing.failure != null) {
+                    failCount++;
+                    logger.severe("  ✗ Skipped initializing " + name + " (startup preparation failed)");
+                    continue;
+                }
+                
+                for (String dependency : dependencies.get(name)) {
+                    if (current.timings.get(dependency).failure != null) {
+                        logger.warning("  ! " + name + " initializes without " + dependency + " (it failed)");
+                    }
+                }
+                
+                long started = System.nanoTime();
+                try {
+                    logger.info("  → Initializing " + name + "...");
+                    managers.get(name).initialize();
+                    successCount++;
+                    timing.initializeNanos = System.nanoTime() - started;
+                    logger.info("  ✓ " + name + " initialized successfully " + timing.describe());
+                    
+                } catch (Exception e) {
+                    failCount++;
+                    timing.failure = e;
+                    timing.initializeNanos = System.nanoTime() - started;
+                    logger.log(Level.SEVERE, "  ✗ Failed to initialize " + name, e);
+                    // Continue initializing other managers even if one fails
+                }
             }
+        } finally {
+            current.shutdownExecutor();
+            startup = null;
         }
         
+        initializationOrder.clear();
+        initializationOrder.addAll(current.order);
+        
         logger.info("Manager initialization complete: " + successCount + " succeeded, " + failCount + " failed");
+        logReport(logger, current, initializeStarted);
     }
     
     /**
@@ -130,27 +283,37 @@ public class ManagerRegistry {
      * - DatabaseManager is disabled LAST (after all others have saved their data)
      * 
      * LIFECYCLE (reverse of initialization):
-     * 1. AutoSaveManager.disable() - Perform final save, stop task
-     * 2. SmeltingManager.disable() - Save active operations, stop tick task
-     * 3. EnergyManager.disable() - Save networks, stop holograms
-     * 4. MultiblockCache.disable() - Clear cache, log stats
-     * 5. DatabaseManager.disable() - Close connection (LAST)
+     * 1. MetricsHistory / MetricsExporter - Stop sampling, close file/endpoint
+     * 2. AutoSaveManager.disable() - Perform final save, stop task
+     * 3. SmeltingManager.disable() - Save active operations, stop tick task
+     * 4. EnergyManager.disable() - Save networks, stop holograms
+     * 5. OutputRouter / MultiblockCache.disable() - Clear cache, log stats
+     * 6. DatabaseManager.disable() - Close connection (LAST)
      * 
      * ERROR HANDLING:
      * - If a manager fails to disable, logs error and continues
      * - This ensures all managers get a chance to clean up
      * - Prevents one broken manager from leaving others in a bad state
+     * - If startup failed between prepareAll() and initializeAll(), running preparations finish first
      * 
      * @param logger Logger for error reporting
      */
     public static void disableAll(Logger logger) {
+        if (startup != null) {
+            // Don't close the database under a worker that's still loading from it
+            startup.awaitPreparations(logger);
+            startup = null;
+        }
+        
         logger.info("Disabling " + managers.size() + " system managers...");
         
         int successCount = 0;
         int failCount = 0;
         
-        // Convert to array and iterate in reverse
-        String[] names = managers.keySet().toArray(new String[0]);
+        // Iterate the initialization order in reverse (registration order if startup never finished)
+        List<String> order = initializationOrder.size() == managers.size()
+            ? initializationOrder : new ArrayList<>(managers.keySet());
+        String[] names = order.toArray(new String[0]);
         for (int i = names.length - 1; i >= 0; i--) {
             String name = names[i];
             SystemManager manager = managers.get(name);
@@ -171,6 +334,105 @@ public class ManagerRegistry {
         logger.info("Manager shutdown complete: " + successCount + " succeeded, " + failCount + " failed");
     }
     
+    /**
+     * Run one manager's prepare() and record how long it took
+     */
+    private static void prepare(String name, Timing timing, Logger logger) {
+        if (timing.failure != null) {
+            return; // capture() failed - initialize() is skipped anyway
+        }
+        
+        timing.thread = Thread.currentThread().getName();
+        long started = System.nanoTime();
+        try {
+            managers.get(name).prepare();
+        } catch (Exception e) {
+            timing.failure = e;
+            logger.log(Level.SEVERE, "  ✗ Failed to prepare " + name, e);
+        }
+        timing.prepareNanos = System.nanoTime() - started;
+    }
+    
+    /**
+     * Sort managers so every manager comes after its dependencies (Kahn's algorithm).
+     * Managers without a dependency between them keep their registration order.
+     * 
+     * @throws IllegalStateException if a dependency isn't registered or dependencies form a cycle
+     */
+    private static List<String> sortByDependencies() {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (String name : managers.keySet()) {
+            List<String> needs = dependencies.get(name);
+            for (String dependency : needs) {
+                if (!managers.containsKey(dependency)) {
+                    throw new IllegalStateException(name + " depends on unregistered manager " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(name);
+            }
+            pending.put(name, needs.size());
+        }
+        
+        List<String> order = new ArrayList<>(managers.size());
+        List<String> remaining = new ArrayList<>(managers.keySet());
+        while (!remaining.isEmpty()) {
+            // Take the earliest registered manager whose dependencies are all sorted
+            String next = null;
+            for (String name : remaining) {
+                if (pending.get(name) == 0) {
+                    next = name;
+                    break;
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException("Manager dependencies form a cycle: " + remaining);
+            }
+            
+            remaining.remove(next);
+            order.add(next);
+            for (String dependent : dependents.getOrDefault(next, Collections.emptyList())) {
+                pending.merge(dependent, -1, Integer::sum);
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Log the startup summary and warn if it took longer than startup.target_ms
+     */
+    private static void logReport(Logger logger, Startup current, long initializeStarted) {
+        long now = System.nanoTime();
+        long totalMs = toMs(now - current.startedNanos);
+        long mainMs = 0;
+        long preparedMs = 0;
+        String slowestName = null;
+        long slowestNanos = -1;
+        for (String name : current.order) {
+            Timing timing = current.timings.get(name);
+            mainMs += toMs(timing.captureNanos + timing.waitNanos + timing.initializeNanos);
+            preparedMs += toMs(timing.prepareNanos);
+            long nanos = timing.prepareNanos + timing.initializeNanos;
+            if (nanos > slowestNanos) {
+                slowestNanos = nanos;
+                slowestName = name;
+            }
+        }
+        
+        logger.info("Manager startup took " + totalMs + "ms: " + mainMs + "ms on the main thread (incl. waiting), " +
+            preparedMs + "ms of preparation" + (current.executor != null ? " on " + current.threads + " worker threads" : "") +
+            ", " + toMs(initializeStarted - current.preparedReturnedNanos) + "ms of other startup work overlapped");
+        
+        long targetMs = TechFactoryConstants.STARTUP_TARGET_MS();
+        if (targetMs > 0 && totalMs > targetMs) {
+            logger.warning("Manager startup took " + totalMs + "ms, over startup.target_ms (" + targetMs + "ms) - slowest: " +
+                slowestName + " " + current.timings.get(slowestName).describe());
+        }
+    }
+    
+    private static long toMs(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+    
     /**
      * Get a registered manager by name.
      * 
@@ -210,7 +472,93 @@ public class ManagerRegistry {
      * In production, managers should stay registered for the plugin's lifetime.
      */
     public static void clear() {
+        if (startup != null) {
+            startup.shutdownExecutor();
+            startup = null;
+        }
         managers.clear();
+        dependencies.clear();
+        initializationOrder.clear();
+    }
+    
+    /**
+     * One startup between prepareAll() and initializeAll()
+     */
+    private static class Startup {
+        private final List<String> order;
+        private final int threads;
+        private final ExecutorService executor;
+        private final Map<String, Timing> timings = new HashMap<>();
+        private final Map<String, CompletableFuture<Void>> prepared = new HashMap<>();
+        private final long startedNanos = System.nanoTime();
+        private long preparedReturnedNanos;
+        
+        private Startup(List<String> order, int threads) {
+            this.order = order;
+            this.threads = threads;
+            for (String name : order) {
+                timings.put(name, new Timing());
+            }
+            
+            if (threads > 0) {
+                AtomicInteger counter = new AtomicInteger();
+                this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                    Thread thread = new Thread(runnable, "TechFactory-Startup-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            } else {
+                this.executor = null;
+            }
+        }
+        
+        /**
+         * Wait for every started prepare() (startup aborted before initializeAll)
+         */
+        private void awaitPreparations(Logger logger) {
+            try {
+                CompletableFuture.allOf(prepared.values().toArray(new CompletableFuture<?>[0])).join();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Manager preparation did not finish cleanly", e);
+            }
+            shutdownExecutor();
+        }
+        
+        private void shutdownExecutor() {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+    
+    /**
+     * Startup timings of one manager
+     * Written by at most one thread at a time; CompletableFuture.join() publishes the prepare() fields
+     */
+    private static class Timing {
+        private long captureNanos;
+        private long prepareNanos;
+        private long waitNanos;
+        private long initializeNanos;
+        private String thread;
+        private Exception failure;
+        
+        /**
+         * "(prepare 412ms on TechFactory-Startup-1, waited 120ms, initialize 38ms)"
+         */
+        private String describe() {
+            StringBuilder sb = new StringBuilder("(");
+            if (captureNanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+                sb.append("capture ").append(toMs(captureNanos)).append("ms, ");
+            }
+            if (thread != null) {
+                sb.append("prepare ").append(toMs(prepareNanos)).append("ms on ").append(thread).append(", ");
+            }
+            if (waitNanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+                sb.append("waited ").append(toMs(waitNanos)).append("ms, ");
+            }
+            return sb.append("initialize ").append(toMs(initializeNanos)).append("ms)").toString();
+        }
     }
 }
 
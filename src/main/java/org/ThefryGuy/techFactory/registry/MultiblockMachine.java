@@ -3,6 +3,8 @@ package org.ThefryGuy.techFactory.registry;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Interface for all multiblock machines in TechFactory
@@ -53,14 +55,30 @@ public interface MultiblockMachine {
      */
     Material getTriggerBlock();
     
+    /**
+     * Match the multiblock structure from a clicked block
+     * Called when player right-clicks a block, and when registered multiblocks are validated
+     * 
+     * @param block The block that was clicked (GUI block or trigger block)
+     * @return The match (holds every member block), or null if this isn't a valid structure
+     */
+    StructureMatch matchStructure(Block block);
+    
+    /**
+     * Get the structure pattern of this machine
+     * Used to validate registered multiblocks against chunk snapshots off the main thread
+     */
+    StructurePattern getStructure();
+    
     /**
      * Check if the multiblock structure is valid
-     * Called when player right-clicks a block
      * 
      * @param block The block that was clicked (GUI block or trigger block)
      * @return true if this is a valid multiblock structure
      */
-    boolean isValidStructure(Block block);
+    default boolean isValidStructure(Block block) {
+        return matchStructure(block) != null;
+    }
     
     /**
      * Handle GUI block interaction
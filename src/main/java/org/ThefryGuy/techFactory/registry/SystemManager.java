@@ -12,8 +12,13 @@ package org.ThefryGuy.techFactory.registry;
  * 1. Create a manager class that implements SystemManager
  * 2. Implement initialize() - called during plugin startup
  * 3. Implement disable() - called during plugin shutdown
- * 4. Register in TechFactory: ManagerRegistry.register("ManagerName", instance)
- * 5. ManagerRegistry.initializeAll() handles the rest
+ * 4. Register in TechFactory: ManagerRegistry.register("ManagerName", instance, "DependencyName"...)
+ * 5. ManagerRegistry.prepareAll() + initializeAll() handle the rest
+ * 
+ * STARTUP STAGES (optional, see ManagerRegistry):
+ * - capture() - main thread, before any preparation: snapshot the world state prepare() needs
+ * - prepare() - startup worker thread: I/O only (SQL, files), no Bukkit world access
+ * - initialize() - main thread, after prepare() and after the dependencies are initialized
  * 
  * EXAMPLES:
  * - SmeltingManager: initialize() starts tick task, disable() stops task and saves operations
@@ -24,12 +29,40 @@ package org.ThefryGuy.techFactory.registry;
  */
 public interface SystemManager {
     
+    /**
+     * Snapshot what prepare() needs from the world.
+     * Called on the main thread for every manager before any prepare() starts.
+     * 
+     * EXAMPLE:
+     * - DatabaseManager: Remember the chunks loaded at startup (prepare() loads their blocks)
+     */
+    default void capture() {
+    }
+    
+    /**
+     * Do the I/O part of startup off the main thread.
+     * Called on a startup worker thread once the dependencies' prepare() finished;
+     * managers without a dependency between them prepare in parallel.
+     * 
+     * THREADING:
+     * - Must NOT touch worlds, blocks, entities or the scheduler (that's initialize())
+     * - Results are handed to initialize(), which runs on the main thread after this returns
+     * - Exceptions are logged and initialize() is skipped for this manager
+     * 
+     * EXAMPLES:
+     * - DatabaseManager: Open the connection, create/migrate tables, load the captured chunks
+     * - MetricsHistory: Open (or recreate) the history file
+     */
+    default void prepare() {
+    }
+    
     /**
      * Initialize this manager.
-     * Called during plugin startup after all managers are registered.
+     * Called on the main thread during plugin startup after all managers are registered.
      * 
      * IMPORTANT:
-     * - This is called AFTER all managers are created and registered
+     * - This is called AFTER all managers are created and registered, and after prepare()
+     * - Dependencies declared at registration are initialized first
      * - Safe to access other managers via TechFactory.getInstance().getXxxManager()
      * - Should start background tasks, load data, etc.
      * - Should NOT throw exceptions - handle errors gracefully
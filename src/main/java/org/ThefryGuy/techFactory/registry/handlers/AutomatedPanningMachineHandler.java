@@ -4,8 +4,11 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.workstations.multiblocks.AutomatedPanningMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Automated Panning Machine multiblock
@@ -45,15 +48,20 @@ public class AutomatedPanningMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
+    public StructureMatch matchStructure(Block block) {
         // If clicking trapdoor, check the cauldron below
         if (isTrapdoor(block.getType())) {
             Block cauldron = block.getRelative(0, -1, 0);
-            return AutomatedPanningMachine.isValidStructure(cauldron);
+            return MultiblockCache.matchCached(AutomatedPanningMachine.STRUCTURE, cauldron);
         }
         
         // If clicking cauldron directly
-        return AutomatedPanningMachine.isValidStructure(block);
+        return MultiblockCache.matchCached(AutomatedPanningMachine.STRUCTURE, block);
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return AutomatedPanningMachine.STRUCTURE;
     }
     
     @Override
@@ -5,9 +5,12 @@ import org.bukkit.block.Block;
 import org.bukkit.block.Dispenser;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.util.ItemUtils;
 import org.ThefryGuy.techFactory.workstations.multiblocks.CompressorMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Compressor multiblock
@@ -48,19 +51,24 @@ public class CompressorMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
-        // If clicking fence, pass the fence to isValidStructure
+    public StructureMatch matchStructure(Block block) {
+        // If clicking fence, match from the fence
         if (ItemUtils.isFenceType(block.getType())) {
-            return CompressorMachine.isValidStructure(block);
+            return MultiblockCache.matchCached(CompressorMachine.STRUCTURE, block);
         }
 
         // If clicking dispenser directly, check the fence above
         if (block.getType() == Material.DISPENSER) {
             Block fence = block.getRelative(0, 1, 0);
-            return CompressorMachine.isValidStructure(fence);
+            return MultiblockCache.matchCached(CompressorMachine.STRUCTURE, fence);
         }
 
-        return false;
+        return null;
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return CompressorMachine.STRUCTURE;
     }
     
     @Override
@@ -80,7 +88,7 @@ public class CompressorMachineHandler implements MultiblockMachine {
 
         if (dispenserBlock.getState() instanceof Dispenser) {
             Dispenser dispenser = (Dispenser) dispenserBlock.getState();
-            CompressorMachine.processRecipe(dispenser, player);
+            CompressorMachine.processRecipe(dispenser, player, player.isSneaking()); // Sneak-click = craft max
         }
     }
     
@@ -70,16 +70,12 @@ public class ElectricGoldPanHandler implements ElectricMachine {
         
         // Check if connected to energy network
         EnergyManager energyManager = plugin.getEnergyManager();
-        EnergyNetwork network = energyManager.findNearestNetwork(location, 6.0);
+        EnergyNetwork network = energyManager.bindConsumer(location);
         
         if (network == null) {
             player.sendMessage(ChatColor.YELLOW + "⚠ Not connected to energy network!");
             player.sendMessage(ChatColor.GRAY + "Place an Energy Regulator or Connector within 6 blocks");
         } else {
-            // Connect to network as a consumer
-            network.connectConsumer(location);
-            energyManager.registerDeviceToNetwork(location, network);
-            
             player.sendMessage(ChatColor.GREEN + "✓ Connected to energy network!");
             player.sendMessage(ChatColor.GRAY + "Network: " + network.getStoredEnergy() + " / " +
                              network.getMaxCapacity() + " J (" + network.getFillPercentage() + "%)");
@@ -105,12 +101,7 @@ public class ElectricGoldPanHandler implements ElectricMachine {
         dropInventoryItems(location, plugin);
 
         // Disconnect from energy network
-        EnergyManager energyManager = plugin.getEnergyManager();
-        EnergyNetwork network = energyManager.getNetworkByLocation(location);
-        if (network != null) {
-            network.disconnectConsumer(location);
-            energyManager.unregisterDevice(location);
-        }
+        plugin.getEnergyManager().releaseConsumer(location);
 
         // Remove from database
         plugin.getDatabaseManager().removeBlock(location);
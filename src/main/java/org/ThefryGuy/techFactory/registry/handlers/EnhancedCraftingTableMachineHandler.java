@@ -4,8 +4,11 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.workstations.multiblocks.BasicWorkbenchMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Enhanced Crafting Table multiblock
@@ -44,8 +47,13 @@ public class EnhancedCraftingTableMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
-        return BasicWorkbenchMachine.isValidStructure(block);
+    public StructureMatch matchStructure(Block block) {
+        return MultiblockCache.matchCached(BasicWorkbenchMachine.STRUCTURE, block);
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return BasicWorkbenchMachine.STRUCTURE;
     }
     
     @Override
@@ -55,7 +63,7 @@ public class EnhancedCraftingTableMachineHandler implements MultiblockMachine {
         Block dispenserBlock = block.getRelative(0, -1, 0);
         if (dispenserBlock.getType() == Material.DISPENSER) {
             org.bukkit.block.Dispenser dispenser = (org.bukkit.block.Dispenser) dispenserBlock.getState();
-            BasicWorkbenchMachine.processRecipe(dispenser, player);
+            BasicWorkbenchMachine.processRecipe(dispenser, player, player.isSneaking()); // Sneak-click = craft max
         }
     }
 
@@ -65,7 +73,7 @@ public class EnhancedCraftingTableMachineHandler implements MultiblockMachine {
         Block dispenserBlock = block.getRelative(0, -1, 0);
         if (dispenserBlock.getType() == Material.DISPENSER) {
             org.bukkit.block.Dispenser dispenser = (org.bukkit.block.Dispenser) dispenserBlock.getState();
-            BasicWorkbenchMachine.processRecipe(dispenser, player);
+            BasicWorkbenchMachine.processRecipe(dispenser, player, player.isSneaking()); // Sneak-click = craft max
         }
     }
 }
@@ -5,8 +5,11 @@ import org.bukkit.block.Block;
 import org.bukkit.block.Dispenser;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.workstations.multiblocks.OreCrusherMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Ore Crusher multiblock
@@ -45,15 +48,20 @@ public class OreCrusherMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
+    public StructureMatch matchStructure(Block block) {
         // If clicking nether brick fence, check the dispenser below
         if (block.getType() == Material.NETHER_BRICK_FENCE) {
             Block dispenser = block.getRelative(0, -1, 0);
-            return OreCrusherMachine.isValidStructure(dispenser);
+            return MultiblockCache.matchCached(OreCrusherMachine.STRUCTURE, dispenser);
         }
         
         // If clicking dispenser directly
-        return OreCrusherMachine.isValidStructure(block);
+        return MultiblockCache.matchCached(OreCrusherMachine.STRUCTURE, block);
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return OreCrusherMachine.STRUCTURE;
     }
     
     @Override
@@ -72,7 +80,7 @@ public class OreCrusherMachineHandler implements MultiblockMachine {
         Dispenser dispenser = OreCrusherMachine.getDispenser(dispenserBlock);
         
         if (dispenser != null) {
-            OreCrusherMachine.processRecipe(dispenser, player);
+            OreCrusherMachine.processRecipe(dispenser, player, player.isSneaking()); // Sneak-click = craft max
         }
     }
 }
@@ -5,9 +5,12 @@ import org.bukkit.block.Block;
 import org.bukkit.block.Dispenser;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.util.ItemUtils;
 import org.ThefryGuy.techFactory.workstations.multiblocks.OreWasherMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Ore Washer multiblock
@@ -48,15 +51,20 @@ public class OreWasherMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
+    public StructureMatch matchStructure(Block block) {
         // If clicking fence, check the dispenser above
         if (ItemUtils.isFenceType(block.getType())) {
             Block dispenser = block.getRelative(0, 1, 0);
-            return OreWasherMachine.isValidStructure(dispenser);
+            return MultiblockCache.matchCached(OreWasherMachine.STRUCTURE, dispenser);
         }
 
         // If clicking dispenser directly
-        return OreWasherMachine.isValidStructure(block);
+        return MultiblockCache.matchCached(OreWasherMachine.STRUCTURE, block);
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return OreWasherMachine.STRUCTURE;
     }
     
     @Override
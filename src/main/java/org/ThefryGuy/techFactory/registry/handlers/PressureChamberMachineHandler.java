@@ -5,8 +5,11 @@ import org.bukkit.block.Block;
 import org.bukkit.block.Dispenser;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.workstations.multiblocks.PressureChamberMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Pressure Chamber multiblock
@@ -45,15 +48,20 @@ public class PressureChamberMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
+    public StructureMatch matchStructure(Block block) {
         // If clicking glass, check the dispenser above
         if (block.getType() == Material.GLASS) {
             Block dispenser = block.getRelative(0, 1, 0);
-            return PressureChamberMachine.isValidStructure(dispenser);
+            return MultiblockCache.matchCached(PressureChamberMachine.STRUCTURE, dispenser);
         }
         
         // If clicking dispenser directly
-        return PressureChamberMachine.isValidStructure(block);
+        return MultiblockCache.matchCached(PressureChamberMachine.STRUCTURE, block);
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return PressureChamberMachine.STRUCTURE;
     }
     
     @Override
@@ -72,7 +80,7 @@ public class PressureChamberMachineHandler implements MultiblockMachine {
         
         if (dispenserBlock.getState() instanceof Dispenser) {
             Dispenser dispenser = (Dispenser) dispenserBlock.getState();
-            PressureChamberMachine.processRecipe(dispenser, player);
+            PressureChamberMachine.processRecipe(dispenser, player, player.isSneaking()); // Sneak-click = craft max
         }
     }
 }
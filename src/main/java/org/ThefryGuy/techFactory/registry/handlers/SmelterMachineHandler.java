@@ -4,8 +4,11 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.registry.MultiblockMachine;
 import org.ThefryGuy.techFactory.workstations.multiblocks.SmelterMachine;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 /**
  * Machine handler for the Smelter multiblock
@@ -44,15 +47,20 @@ public class SmelterMachineHandler implements MultiblockMachine {
     }
     
     @Override
-    public boolean isValidStructure(Block block) {
+    public StructureMatch matchStructure(Block block) {
         // If clicking iron bars, check the blast furnace below
         if (block.getType() == Material.IRON_BARS) {
             Block blastFurnace = block.getRelative(0, -1, 0);
-            return SmelterMachine.isValidStructure(blastFurnace);
+            return MultiblockCache.matchCached(SmelterMachine.STRUCTURE, blastFurnace);
         }
         
         // If clicking blast furnace directly
-        return SmelterMachine.isValidStructure(block);
+        return MultiblockCache.matchCached(SmelterMachine.STRUCTURE, block);
+    }
+    
+    @Override
+    public StructurePattern getStructure() {
+        return SmelterMachine.STRUCTURE;
     }
     
     @Override
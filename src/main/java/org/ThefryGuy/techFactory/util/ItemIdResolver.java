@@ -0,0 +1,181 @@
+package org.ThefryGuy.techFactory.util;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.ThefryGuy.techFactory.recipes.RecipeItem;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves ItemStacks to compact int item ids for inventory scans
+ *
+ * PERFORMANCE FIX: Every machine craft used to call ItemUtils.getItemId() for every slot
+ * (new NamespacedKey + PersistentDataContainer read), fall back to VanillaItemRegistry's switch,
+ * count into a HashMap<String, Integer>, and then do it ALL AGAIN per slot while consuming.
+ *
+ * NOW:
+ * - One shared key (RecipeItem.ITEM_ID_KEY)
+ * - Items without meta never touch the PersistentDataContainer (material -> id table lookup)
+ * - Slots are resolved once per craft (resolveAll) and the ids reused for matching and consuming
+ * - Counting uses primitive arrays (count), not a HashMap
+ *
+ * Item ids are interned to small ints on first use (TechFactory ids, vanilla recipe ids).
+ * Ids are stable for the server session only - never persist them.
+ *
+ * THREADING: intern() and lookups are thread-safe (recipe files are compiled off the main thread).
+ */
+public final class ItemIdResolver {
+
+    /**
+     * Not a recognized item (empty slot, unsupported vanilla item)
+     */
+    public static final int NONE = -1;
+
+    // Item id string -> int id
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    // int id -> item id string (copy-on-write, only grows)
+    private static volatile String[] NAMES = new String[0];
+
+    // Material ordinal -> int id of the supported vanilla item, or NONE
+    private static final int[] VANILLA_BY_MATERIAL;
+
+    static {
+        Material[] materials = Material.values();
+        VANILLA_BY_MATERIAL = new int[materials.length];
+        for (Material material : materials) {
+            String vanillaId = VanillaItemRegistry.getVanillaItemId(material);
+            VANILLA_BY_MATERIAL[material.ordinal()] = vanillaId != null ? intern(vanillaId) : NONE;
+        }
+    }
+
+    private ItemIdResolver() {
+    }
+
+    /**
+     * Get (or assign) the int id for an item id string
+     *
+     * @param itemId The item id (e.g. "iron_dust", "netherrack")
+     * @return The int id (>= 0)
+     */
+    public static int intern(String itemId) {
+        Integer id = IDS.get(itemId);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (IDS) {
+            id = IDS.get(itemId);
+            if (id == null) {
+                String[] names = Arrays.copyOf(NAMES, NAMES.length + 1);
+                id = names.length - 1;
+                names[id] = itemId;
+                NAMES = names;
+                IDS.put(itemId, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Get the int id for an item id string without assigning one
+     *
+     * @return The int id, or NONE if the id was never interned
+     */
+    public static int getId(String itemId) {
+        Integer id = IDS.get(itemId);
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * Get the item id string for an int id
+     *
+     * @return The item id, or null for NONE/unknown ids
+     */
+    public static String getName(int id) {
+        String[] names = NAMES;
+        return id >= 0 && id < names.length ? names[id] : null;
+    }
+
+    /**
+     * Resolve one ItemStack
+     *
+     * @param item The ItemStack (may be null)
+     * @param includeVanilla Whether supported vanilla items count (false = TechFactory items only)
+     * @return The int id, or NONE
+     */
+    public static int resolve(ItemStack item, boolean includeVanilla) {
+        if (item == null) {
+            return NONE;
+        }
+
+        Material type = item.getType();
+        if (type == Material.AIR) {
+            return NONE;
+        }
+
+        // Short-circuit: plain vanilla items have no meta, so no NBT id
+        if (item.hasItemMeta()) {
+            ItemMeta meta = item.getItemMeta();
+            if (meta != null) {
+                String itemId = meta.getPersistentDataContainer().get(RecipeItem.ITEM_ID_KEY, PersistentDataType.STRING);
+                if (itemId != null) {
+                    return intern(itemId);
+                }
+            }
+        }
+
+        return includeVanilla ? VANILLA_BY_MATERIAL[type.ordinal()] : NONE;
+    }
+
+    /**
+     * Resolve a whole slot array in one pass
+     *
+     * @param items The items (e.g. Inventory.getContents())
+     * @param includeVanilla Whether supported vanilla items count (false = TechFactory items only)
+     * @return int id per slot (NONE for empty/unrecognized slots)
+     */
+    public static int[] resolveAll(ItemStack[] items, boolean includeVanilla) {
+        int[] itemIds = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            itemIds[i] = resolve(items[i], includeVanilla);
+        }
+        return itemIds;
+    }
+
+    /**
+     * Count items per distinct id (primitive arrays, no map)
+     *
+     * @param items The items
+     * @param itemIds Resolved id per slot (from resolveAll)
+     * @param idsOut Receives the distinct ids (length >= items.length)
+     * @param amountsOut Receives the total amount per distinct id (same order as idsOut)
+     * @return Number of distinct ids written
+     */
+    public static int count(ItemStack[] items, int[] itemIds, int[] idsOut, int[] amountsOut) {
+        int distinct = 0;
+        for (int i = 0; i < items.length; i++) {
+            int id = itemIds[i];
+            if (id == NONE) {
+                continue;
+            }
+
+            // Linear probe: a machine holds a handful of distinct items
+            int j = 0;
+            while (j < distinct && idsOut[j] != id) {
+                j++;
+            }
+            if (j == distinct) {
+                idsOut[distinct] = id;
+                amountsOut[distinct] = 0;
+                distinct++;
+            }
+            amountsOut[j] += items[i].getAmount();
+        }
+        return distinct;
+    }
+}
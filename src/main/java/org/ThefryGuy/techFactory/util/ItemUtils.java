@@ -2,15 +2,13 @@ package org.ThefryGuy.techFactory.util;
 
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
-import org.bukkit.block.Block;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
-
-import java.util.List;
+import org.ThefryGuy.techFactory.recipes.RecipeItem;
+import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
 
 /**
  * Utility class for safe ItemStack and ItemMeta operations.
@@ -98,7 +96,7 @@ public class ItemUtils {
      * Checks the PersistentDataContainer for the "item_id" key.
      * 
      * @param item The ItemStack to check
-     * @param plugin The plugin instance (for NamespacedKey)
+     * @param plugin The plugin instance (unused - the key is shared, kept for compatibility)
      * @return The item ID, or null if not a TechFactory item
      */
     public static String getItemId(ItemStack item, JavaPlugin plugin) {
@@ -111,8 +109,7 @@ public class ItemUtils {
             return null;
         }
 
-        NamespacedKey key = new NamespacedKey(plugin, "item_id");
-        return meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+        return meta.getPersistentDataContainer().get(RecipeItem.ITEM_ID_KEY, PersistentDataType.STRING);
     }
 
     /**
@@ -271,63 +268,127 @@ public class ItemUtils {
             return null;
         }
 
-        NamespacedKey key = new NamespacedKey("techfactory", "item_id");
-
-        if (meta.getPersistentDataContainer().has(key, PersistentDataType.STRING)) {
-            return meta.getPersistentDataContainer().get(key, PersistentDataType.STRING);
-        }
-
-        return null;
+        // PERFORMANCE: Shared key, get() already returns null when absent
+        return meta.getPersistentDataContainer().get(RecipeItem.ITEM_ID_KEY, PersistentDataType.STRING);
     }
 
     /**
-     * Try to output an item to an adjacent chest.
-     *
-     * Checks all blocks adjacent to the provided multiblock blocks for chests
-     * (CHEST or TRAPPED_CHEST) and attempts to add the output item.
+     * Consume the ingredients of a matched recipe from resolved slots.
      *
-     * This centralizes the chest output logic used by all multiblock machines,
-     * eliminating 150+ lines of duplicate code across 5 machine files.
+     * Removes only the required quantities (not entire stacks), slot by slot in order.
+     * This centralizes the consume loop that every multiblock machine duplicated, and compares
+     * int ids resolved once per craft instead of re-reading NBT for every slot and ingredient.
      *
-     * @param multiblockBlocks List of all blocks that are part of the multiblock structure
-     * @param output The item to output to the chest
-     * @return true if the item was successfully added to a chest, false otherwise
+     * @param inv The machine inventory
+     * @param slots Inventory slot of each entry in items (null = items[i] is slot i)
+     * @param items The slot contents used for matching
+     * @param itemIds Resolved id per entry (ItemIdResolver.resolveAll)
+     * @param match The matched recipe
      */
-    public static boolean outputToChest(List<Block> multiblockBlocks, ItemStack output) {
-        if (multiblockBlocks == null || output == null) {
-            return false;
-        }
+    public static void consumeIngredients(Inventory inv, int[] slots, ItemStack[] items, int[] itemIds,
+                                          RecipeRegistry.RecipeMatch match) {
+        consumeIngredients(inv, slots, items, itemIds, match, 1);
+    }
 
-        // Check all blocks adjacent to each multiblock block
-        for (Block centerBlock : multiblockBlocks) {
-            Block[] adjacent = {
-                centerBlock.getRelative(1, 0, 0),   // East
-                centerBlock.getRelative(-1, 0, 0),  // West
-                centerBlock.getRelative(0, 0, 1),   // South
-                centerBlock.getRelative(0, 0, -1),  // North
-                centerBlock.getRelative(0, 1, 0),   // Up
-                centerBlock.getRelative(0, -1, 0)   // Down
-            };
+    /**
+     * Consume the ingredients of a matched recipe crafted several times at once (bulk crafting).
+     *
+     * Same pass as a single craft with every required quantity multiplied by crafts.
+     *
+     * @param crafts How many times the recipe is crafted (see maxCrafts())
+     */
+    public static void consumeIngredients(Inventory inv, int[] slots, ItemStack[] items, int[] itemIds,
+                                          RecipeRegistry.RecipeMatch match, int crafts) {
+        for (int r = 0; r < match.requiredIds.length; r++) {
+            int requiredId = match.requiredIds[r];
+            int qtyToRemove = match.requiredAmounts[r] * crafts;
 
-            for (Block block : adjacent) {
-                // Skip if this block is part of the multiblock itself
-                if (multiblockBlocks.contains(block)) {
+            for (int i = 0; i < items.length && qtyToRemove > 0; i++) {
+                if (itemIds[i] != requiredId) {
                     continue;
                 }
 
-                // Check if it's a chest
-                if (block.getType() == Material.CHEST || block.getType() == Material.TRAPPED_CHEST) {
-                    if (block.getState() instanceof org.bukkit.block.Chest) {
-                        org.bukkit.block.Chest chest = (org.bukkit.block.Chest) block.getState();
-                        Inventory chestInv = chest.getInventory();
-                        chestInv.addItem(output);
-                        return true;
-                    }
+                ItemStack item = items[i];
+                int slot = slots != null ? slots[i] : i;
+                int amountInSlot = item.getAmount();
+                if (amountInSlot <= qtyToRemove) {
+                    // Remove entire stack
+                    inv.setItem(slot, null);
+                    itemIds[i] = ItemIdResolver.NONE;
+                    qtyToRemove -= amountInSlot;
+                } else {
+                    // Remove partial stack
+                    item.setAmount(amountInSlot - qtyToRemove);
+                    inv.setItem(slot, item);
+                    qtyToRemove = 0;
                 }
             }
         }
+    }
 
-        return false;
+    /**
+     * How many times a matched recipe can be crafted from the given slots.
+     *
+     * PERFORMANCE: One scan over the resolved ids, instead of re-running the recipe
+     * search for every craft (spam-clicking the trigger block).
+     *
+     * @param items The slot contents used for matching
+     * @param itemIds Resolved id per entry (ItemIdResolver.resolveAll)
+     * @param match The matched recipe
+     * @return The maximum number of crafts (at least 1 for a match from the same slots)
+     */
+    public static int maxCrafts(ItemStack[] items, int[] itemIds, RecipeRegistry.RecipeMatch match) {
+        int[] available = new int[match.requiredIds.length];
+        for (int i = 0; i < items.length; i++) {
+            if (itemIds[i] == ItemIdResolver.NONE) {
+                continue;
+            }
+            for (int r = 0; r < match.requiredIds.length; r++) {
+                if (itemIds[i] == match.requiredIds[r]) {
+                    available[r] += items[i].getAmount();
+                    break;
+                }
+            }
+        }
+
+        int crafts = Integer.MAX_VALUE;
+        for (int r = 0; r < available.length; r++) {
+            crafts = Math.min(crafts, available[r] / match.requiredAmounts[r]);
+        }
+        return crafts == Integer.MAX_VALUE ? 0 : crafts;
+    }
+
+    /**
+     * Create a summary message for a bulk craft.
+     *
+     * Example: "✓ Crushed 128x Iron Dust! (64 crafts)"
+     *
+     * @param item The output of one craft
+     * @param crafts How many times the recipe was crafted
+     * @param verb The action verb ("Crushed", "Compressed", etc.)
+     * @return Formatted success message
+     */
+    public static String createBulkCraftMessage(ItemStack item, int crafts, String verb) {
+        int amount = (item != null ? item.getAmount() : 1) * crafts;
+        return ChatColor.GREEN + "✓ " + verb + " " + amount + "x " + getSafeDisplayName(item) +
+            "!" + ChatColor.GRAY + " (" + crafts + " crafts)";
+    }
+
+    /**
+     * Split an amount of one item into max-size stacks (bulk crafting output).
+     *
+     * @param item The item (amount is ignored)
+     * @param totalAmount Total number of items
+     * @return Stacks of at most getMaxStackSize() items, together totalAmount
+     */
+    public static ItemStack[] splitStacks(ItemStack item, int totalAmount) {
+        int maxStack = Math.max(1, item.getMaxStackSize());
+        ItemStack[] stacks = new ItemStack[(totalAmount + maxStack - 1) / maxStack];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = item.clone();
+            stacks[i].setAmount(Math.min(maxStack, totalAmount - i * maxStack));
+        }
+        return stacks;
     }
 }
 
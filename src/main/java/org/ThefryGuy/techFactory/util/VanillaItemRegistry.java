@@ -32,7 +32,17 @@ public class VanillaItemRegistry {
             return null;
         }
         
-        Material mat = item.getType();
+        return getVanillaItemId(item.getType());
+    }
+
+    /**
+     * Get the item ID string for a vanilla material
+     * Used by ItemIdResolver to precompute its material -> id table
+     *
+     * @param mat The material to check
+     * @return The item ID (e.g., "netherrack", "glass"), or null if not a supported vanilla item
+     */
+    public static String getVanillaItemId(Material mat) {
         switch (mat) {
             // ===== ORE CRUSHER ITEMS =====
             case NETHERRACK: return "netherrack";
@@ -55,6 +65,10 @@ public class VanillaItemRegistry {
             case COPPER_INGOT: return "copper_ingot";
             case GOLD_NUGGET: return "gold_nugget";
             case IRON_NUGGET: return "iron_nugget";
+
+            // ===== COMPRESSOR ITEMS =====
+            // (Compressor used to special-case coal itself)
+            case COAL: return "coal";
             
             // ===== FUTURE MACHINES =====
             // Add more vanilla items here as you create new machines
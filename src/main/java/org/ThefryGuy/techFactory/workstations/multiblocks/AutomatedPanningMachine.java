@@ -12,9 +12,12 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.Bukkit;
 import org.ThefryGuy.techFactory.TechFactory;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
+import org.ThefryGuy.techFactory.data.OutputRouter;
 import org.ThefryGuy.techFactory.recipes.RecipeItem;
 import org.ThefryGuy.techFactory.recipes.dusts.*;
-import org.ThefryGuy.techFactory.util.ItemUtils;
+import org.ThefryGuy.techFactory.workstations.structure.BlockPredicate;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -40,6 +43,20 @@ public class AutomatedPanningMachine {
     // Store inventories for each Automated Panning Machine location
     private static final Map<Location, ItemStack[]> MACHINE_INVENTORIES = new HashMap<>();
 
+    /**
+     * Automated Panning Machine structure (cauldron = core, any trapdoor on top)
+     */
+    public static final StructurePattern STRUCTURE = new StructurePattern("Automated Panning Machine",
+            new String[][] {
+                    {"T"},
+                    {"C"}
+            },
+            Map.of(
+                    'C', BlockPredicate.type(Material.CAULDRON),
+                    'T', BlockPredicate.matching(AutomatedPanningMachine::isTrapdoor)
+            ),
+            'C');
+
     /**
      * Check if a valid Automated Panning Machine multiblock exists at this location.
      * 
@@ -51,14 +68,7 @@ public class AutomatedPanningMachine {
      * @return true if valid multiblock structure
      */
     public static boolean isValidStructure(Block cauldron) {
-        // Check if bottom is a cauldron
-        if (cauldron.getType() != Material.CAULDRON) {
-            return false;
-        }
-
-        // Check if block above is a trapdoor
-        Block top = cauldron.getRelative(0, 1, 0);
-        return isTrapdoor(top.getType());
+        return MultiblockCache.matchCached(STRUCTURE, cauldron) != null;
     }
 
     /**
@@ -244,17 +254,9 @@ public class AutomatedPanningMachine {
                 ItemStack output = siftedOreDust.getItemStack();
                 output.setAmount(gravelCount);
 
-                // Try to output to adjacent chest first
+                // Output to adjacent container first, otherwise (or on overflow) drop at the cauldron
                 java.util.List<Block> multiblockBlocks = java.util.Collections.singletonList(cauldron);
-                if (!ItemUtils.outputToChest(multiblockBlocks, output)) {
-                    // No chest found, drop at cauldron location
-                    if (cauldron.getWorld() != null) {
-                        cauldron.getWorld().dropItemNaturally(cauldron.getLocation(), output);
-                    } else {
-                        player.sendMessage(ChatColor.RED + "Error: World is unloaded!");
-                        return;
-                    }
-                }
+                OutputRouter.route(multiblockBlocks, null, output);
 
                 item.setAmount(0);
                 player.sendMessage(ChatColor.GREEN + "✓ Sifted " + gravelCount + " gravel into Sifted Ore Dust!");
@@ -282,16 +284,8 @@ public class AutomatedPanningMachine {
                     ItemStack output = dust.getItemStack();
                     output.setAmount(entry.getValue());
 
-                    // Try to output to adjacent chest first
-                    if (!ItemUtils.outputToChest(multiblockBlocks, output)) {
-                        // No chest found, drop at cauldron location
-                        if (cauldron.getWorld() != null) {
-                            cauldron.getWorld().dropItemNaturally(cauldron.getLocation(), output);
-                        } else {
-                            player.sendMessage(ChatColor.RED + "Error: World is unloaded!");
-                            return;
-                        }
-                    }
+                    // Output to adjacent container first, otherwise (or on overflow) drop at the cauldron
+                    OutputRouter.route(multiblockBlocks, null, output);
                 }
 
                 item.setAmount(0);
@@ -324,17 +318,9 @@ public class AutomatedPanningMachine {
             ItemStack output = siftedOreDust.getItemStack();
             output.setAmount(gravelCount);
 
-            // Try to output to adjacent chest first
+            // Output to adjacent container first, otherwise (or on overflow) drop at the cauldron
             java.util.List<Block> multiblockBlocks = java.util.Collections.singletonList(cauldron);
-            if (!ItemUtils.outputToChest(multiblockBlocks, output)) {
-                // No chest found, drop at cauldron location
-                if (cauldron.getWorld() != null) {
-                    cauldron.getWorld().dropItemNaturally(cauldron.getLocation(), output);
-                } else {
-                    player.sendMessage(ChatColor.RED + "Error: World is unloaded!");
-                    return;
-                }
-            }
+            OutputRouter.route(multiblockBlocks, null, output);
 
             // Remove from player's hand
             itemInHand.setAmount(0);
@@ -362,16 +348,8 @@ public class AutomatedPanningMachine {
                 ItemStack output = dust.getItemStack();
                 output.setAmount(entry.getValue());
 
-                // Try to output to adjacent chest first
-                if (!ItemUtils.outputToChest(multiblockBlocks, output)) {
-                    // No chest found, drop at cauldron location
-                    if (cauldron.getWorld() != null) {
-                        cauldron.getWorld().dropItemNaturally(cauldron.getLocation(), output);
-                    } else {
-                        player.sendMessage(ChatColor.RED + "Error: World is unloaded!");
-                        return;
-                    }
-                }
+                // Output to adjacent container first, otherwise (or on overflow) drop at the cauldron
+                OutputRouter.route(multiblockBlocks, null, output);
             }
 
             // Remove from player's hand
@@ -7,17 +7,13 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.Dispenser;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
-import org.ThefryGuy.techFactory.recipes.RecipeItem;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
 import org.ThefryGuy.techFactory.recipes.resources.*;
 import org.ThefryGuy.techFactory.recipes.components.*;
-import org.ThefryGuy.techFactory.util.VanillaItemRegistry;
-import org.ThefryGuy.techFactory.util.ItemUtils;
+import org.ThefryGuy.techFactory.workstations.structure.BlockPredicate;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,6 +37,27 @@ public class BasicWorkbenchMachine {
     // REFACTORED: Recipes now centralized in RecipeRegistry
     // No local recipe map needed anymore!
 
+    /**
+     * Basic Workbench structure (crafting table on top = core)
+     */
+    public static final StructurePattern STRUCTURE = new StructurePattern("Basic Workbench",
+            new String[][] {
+                    {"T"},
+                    {"D"}
+            },
+            Map.of(
+                    'T', BlockPredicate.type(Material.CRAFTING_TABLE),
+                    'D', BlockPredicate.type(Material.DISPENSER)
+            ),
+            'T');
+
+    /**
+     * Shared click-to-craft flow - this machine only supplies its recipe lookup and structure
+     */
+    private static final DispenserCrafter CRAFTER = new DispenserCrafter("Enhanced Crafting Table", "Crafted", true,
+            (contents, itemIds) -> RecipeRegistry.findRecipeWithQuantities("Basic Workbench", contents, itemIds),
+            dispenserBlock -> MultiblockCache.matchCached(STRUCTURE, dispenserBlock.getRelative(0, 1, 0)));
+
     /**
      * Check if a valid Basic Workbench multiblock exists at this location.
      * 
@@ -52,14 +69,7 @@ public class BasicWorkbenchMachine {
      * @return true if valid multiblock structure
      */
     public static boolean isValidStructure(Block craftingTable) {
-        // Check if top is a crafting table
-        if (craftingTable.getType() != Material.CRAFTING_TABLE) {
-            return false;
-        }
-
-        // Check if block below is a dispenser
-        Block below = craftingTable.getRelative(0, -1, 0);
-        return below.getType() == Material.DISPENSER;
+        return MultiblockCache.matchCached(STRUCTURE, craftingTable) != null;
     }
 
     /**
@@ -111,106 +121,19 @@ public class BasicWorkbenchMachine {
      * @param player The player who clicked
      */
     public static void processRecipe(Dispenser dispenser, Player player) {
-        Inventory inv = dispenser.getInventory();
-
-        // Check if inventory is empty
-        boolean isEmpty = true;
-        for (int i = 0; i < inv.getSize(); i++) {
-            if (inv.getItem(i) != null) {
-                isEmpty = false;
-                break;
-            }
-        }
-
-        if (isEmpty) {
-            player.sendMessage(ChatColor.RED + "The Enhanced Crafting Table is empty!");
-            return;
-        }
-
-        // Build a map of item IDs and their quantities in the inventory
-        Map<String, Integer> availableItems = new HashMap<>();
-
-        for (int i = 0; i < inv.getSize(); i++) {
-            ItemStack item = inv.getItem(i);
-            if (item == null) continue;
-
-            String itemId = ItemUtils.getItemId(item);
-            if (itemId == null) {
-                // Check for vanilla items
-                itemId = getVanillaItemId(item);
-            }
-
-            if (itemId != null) {
-                availableItems.put(itemId, availableItems.getOrDefault(itemId, 0) + item.getAmount());
-            }
-        }
-
-        // REFACTORED: Use RecipeRegistry with "at least" quantity matching
-        // This allows players to put stacks and craft multiple times (Slimefun-style)
-        RecipeRegistry.RecipeMatch match = RecipeRegistry.findRecipeWithQuantities("Basic Workbench", availableItems);
-
-        if (match != null) {
-            RecipeItem output = match.output;
-
-            // Consume only the required quantities (not the entire stack!)
-            for (Map.Entry<String, Integer> required : match.requiredQuantities.entrySet()) {
-                String itemId = required.getKey();
-                int qtyToRemove = required.getValue();
-
-                // Remove items from inventory
-                for (int i = 0; i < inv.getSize() && qtyToRemove > 0; i++) {
-                    ItemStack item = inv.getItem(i);
-                    if (item != null) {
-                        String currentItemId = ItemUtils.getItemId(item);
-                        if (currentItemId == null) {
-                            currentItemId = getVanillaItemId(item);
-                        }
-
-                        if (itemId.equals(currentItemId)) {
-                            int amountInSlot = item.getAmount();
-                            if (amountInSlot <= qtyToRemove) {
-                                // Remove entire stack
-                                inv.setItem(i, null);
-                                qtyToRemove -= amountInSlot;
-                            } else {
-                                // Remove partial stack
-                                item.setAmount(amountInSlot - qtyToRemove);
-                                qtyToRemove = 0;
-                            }
-                        }
-                    }
-                }
-            }
-
-            ItemStack outputItem = output.getItemStack();
-
-            // Try to output to adjacent chest first, then dispenser
-            // Build multiblock blocks list for chest detection
-            Block dispenserBlock = dispenser.getBlock();
-            Block craftingTable = dispenserBlock.getRelative(0, 1, 0);
-            java.util.List<Block> multiblockBlocks = java.util.Arrays.asList(dispenserBlock, craftingTable);
-
-            if (!ItemUtils.outputToChest(multiblockBlocks, outputItem)) {
-                inv.addItem(outputItem);
-            }
-
-            player.sendMessage(ItemUtils.createCraftMessage(outputItem, "Crafted"));
-        } else {
-            // No valid recipe found
-            player.sendMessage(ChatColor.RED + "✗ Invalid recipe! Check the guide for Enhanced Crafting Table recipes.");
-        }
+        processRecipe(dispenser, player, false);
     }
 
     /**
-     * Get vanilla item ID for recipe matching
-     */
-    /**
-     * REFACTORED: Now uses centralized VanillaItemRegistry
-     * @deprecated Use VanillaItemRegistry.getVanillaItemId() directly
+     * Process a recipe once, or as many times as the inputs allow (sneak-click "craft max").
+     *
+     * @param dispenser The dispenser inventory
+     * @param player The player who clicked
+     * @param craftMax true to craft the maximum number of times
+     * @see DispenserCrafter
      */
-    @Deprecated
-    private static String getVanillaItemId(ItemStack item) {
-        return VanillaItemRegistry.getVanillaItemId(item);
+    public static void processRecipe(Dispenser dispenser, Player player, boolean craftMax) {
+        CRAFTER.process(dispenser, player, craftMax);
     }
 
     /**
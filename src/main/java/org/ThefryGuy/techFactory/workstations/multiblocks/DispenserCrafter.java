@@ -0,0 +1,119 @@
+package org.ThefryGuy.techFactory.workstations.multiblocks;
+
+import org.bukkit.ChatColor;
+import org.bukkit.block.Block;
+import org.bukkit.block.Dispenser;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.ThefryGuy.techFactory.data.OutputRouter;
+import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
+import org.ThefryGuy.techFactory.util.ItemIdResolver;
+import org.ThefryGuy.techFactory.util.ItemUtils;
+import org.ThefryGuy.techFactory.workstations.structure.StructureMatch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared click-to-craft flow for the dispenser multiblocks
+ * (Ore Crusher, Compressor, Pressure Chamber, Enhanced Crafting Table)
+ *
+ * Each machine only supplies its recipe lookup and how to find its structure from the dispenser;
+ * the scan / match / consume / deliver / message sequence lives here.
+ *
+ * PERFORMANCE: Bulk mode (sneak-click "craft max") replaces spam-clicking - one inventory scan,
+ * one consume pass, one output-container lookup and one summary message for the whole batch.
+ */
+public class DispenserCrafter {
+
+    /**
+     * Recipe lookup for one machine
+     */
+    @FunctionalInterface
+    public interface RecipeLookup {
+        /**
+         * @param contents The dispenser contents
+         * @param itemIds Resolved id per slot (ItemIdResolver.resolveAll)
+         * @return The matched recipe, or null if nothing matches
+         */
+        RecipeRegistry.RecipeMatch find(ItemStack[] contents, int[] itemIds);
+    }
+
+    private final String machineName;
+    private final String verb;
+    private final boolean includeVanilla;
+    private final RecipeLookup recipeLookup;
+    private final Function<Block, StructureMatch> structureLookup;
+
+    /**
+     * @param machineName Display name used in messages ("Ore Crusher")
+     * @param verb Success verb ("Crushed")
+     * @param includeVanilla Whether vanilla items count as recipe ingredients (see ItemIdResolver)
+     * @param recipeLookup The machine's recipe lookup
+     * @param structureLookup Finds the machine's structure match from its dispenser block (output routing)
+     */
+    public DispenserCrafter(String machineName, String verb, boolean includeVanilla,
+                            RecipeLookup recipeLookup, Function<Block, StructureMatch> structureLookup) {
+        if (machineName == null || verb == null || recipeLookup == null || structureLookup == null) {
+            throw new IllegalArgumentException("Dispenser crafter needs a name, verb, recipe lookup and structure lookup");
+        }
+        this.machineName = machineName;
+        this.verb = verb;
+        this.includeVanilla = includeVanilla;
+        this.recipeLookup = recipeLookup;
+        this.structureLookup = structureLookup;
+    }
+
+    /**
+     * Process a recipe once, or as many times as the inputs allow
+     *
+     * @param dispenser The dispenser inventory
+     * @param player The player who clicked
+     * @param craftMax true to craft the maximum number of times
+     */
+    public void process(Dispenser dispenser, Player player, boolean craftMax) {
+        Inventory inv = dispenser.getInventory();
+
+        if (inv.isEmpty()) {
+            player.sendMessage(ChatColor.RED + "The " + machineName + " is empty!");
+            return;
+        }
+
+        // PERFORMANCE: Resolve every slot to an int id ONCE (reused for matching, counting and consuming)
+        ItemStack[] contents = inv.getContents();
+        int[] itemIds = ItemIdResolver.resolveAll(contents, includeVanilla);
+
+        // "At least" quantity matching - players can put stacks in and craft multiple times (Slimefun-style)
+        RecipeRegistry.RecipeMatch match = recipeLookup.find(contents, itemIds);
+        if (match == null) {
+            player.sendMessage(ChatColor.RED + "✗ Invalid recipe! Check the guide for " + machineName + " recipes.");
+            return;
+        }
+
+        // BULK: Count the possible crafts from the same scan
+        int crafts = craftMax ? ItemUtils.maxCrafts(contents, itemIds, match) : 1;
+
+        // Consume only the required quantities (not the entire stack!)
+        ItemUtils.consumeIngredients(inv, null, contents, itemIds, match, crafts);
+
+        ItemStack outputItem = match.output.getItemStack();
+
+        // The pattern match already knows every member block (output container detection)
+        Block dispenserBlock = dispenser.getBlock();
+        StructureMatch structure = structureLookup.apply(dispenserBlock);
+        List<Block> multiblockBlocks = structure != null
+                ? structure.getBlocks()
+                : Collections.singletonList(dispenserBlock);
+
+        // Output to adjacent container first, overflow goes back into the dispenser
+        OutputRouter.route(multiblockBlocks, inv, ItemUtils.splitStacks(outputItem, outputItem.getAmount() * crafts));
+
+        if (crafts > 1) {
+            player.sendMessage(ItemUtils.createBulkCraftMessage(outputItem, crafts, verb));
+        } else {
+            player.sendMessage(ItemUtils.createCraftMessage(outputItem, verb));
+        }
+    }
+}
@@ -8,16 +8,12 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.Dispenser;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
-import org.ThefryGuy.techFactory.recipes.RecipeItem;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
 import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
 import org.ThefryGuy.techFactory.recipes.resources.*;
-import org.ThefryGuy.techFactory.util.VanillaItemRegistry;
-import org.ThefryGuy.techFactory.util.ItemUtils;
+import org.ThefryGuy.techFactory.workstations.structure.BlockPredicate;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -43,6 +39,29 @@ public class OreCrusherMachine {
     // REFACTORED: Recipes now centralized in RecipeRegistry
     // No local recipe map needed anymore!
 
+    /**
+     * Ore Crusher structure (dispenser facing UP = core)
+     * Iron bars on 2 OPPOSITE SIDES (X or Z axis) at the same Y level as the dispenser
+     */
+    public static final StructurePattern STRUCTURE = new StructurePattern("Ore Crusher",
+            new String[][] {
+                    {" N "},
+                    {"IDI"}
+            },
+            Map.of(
+                    'D', BlockPredicate.facing(BlockFace.UP, Material.DISPENSER),
+                    'N', BlockPredicate.type(Material.NETHER_BRICK_FENCE),
+                    'I', BlockPredicate.type(Material.IRON_BARS)
+            ),
+            'D');
+
+    /**
+     * Shared click-to-craft flow - this machine only supplies its recipe lookup and structure
+     */
+    private static final DispenserCrafter CRAFTER = new DispenserCrafter("Ore Crusher", "Crushed", true,
+            (contents, itemIds) -> RecipeRegistry.findRecipeWithQuantities("Ore Crusher", contents, itemIds),
+            dispenserBlock -> MultiblockCache.matchCached(STRUCTURE, dispenserBlock));
+
     /**
      * Check if a valid Ore Crusher multiblock exists at this location.
      *
@@ -54,52 +73,7 @@ public class OreCrusherMachine {
      * @return true if valid multiblock structure
      */
     public static boolean isValidStructure(Block centerBlock) {
-        // Check if center is a dispenser facing UP
-        if (centerBlock.getType() != Material.DISPENSER) {
-            return false;
-        }
-
-        // Get facing direction from block data
-        if (centerBlock.getBlockData() instanceof org.bukkit.block.data.Directional) {
-            org.bukkit.block.data.Directional directional = (org.bukkit.block.data.Directional) centerBlock.getBlockData();
-            BlockFace facing = directional.getFacing();
-            if (facing != BlockFace.UP) {
-                return false;
-            }
-        } else {
-            return false;
-        }
-
-        // Structure (side view):
-        // Layer Y+1 (top):    [air] [nether_brick_fence] [air]
-        // Layer Y (middle):   [iron_bars] [dispenser↑] [iron_bars]
-        //
-        // The nether brick fence must be directly ABOVE the dispenser (Y+1)
-        // The iron bars must be on 2 OPPOSITE SIDES at the same Y level as dispenser
-
-        // Check if nether brick fence is directly above (Y+1)
-        Block above = centerBlock.getRelative(0, 1, 0);
-        if (above.getType() != Material.NETHER_BRICK_FENCE) {
-            return false;
-        }
-
-        // Check Option 1: Iron bars on X axis (East and West)
-        Block west = centerBlock.getRelative(-1, 0, 0);
-        Block east = centerBlock.getRelative(1, 0, 0);
-
-        if (west.getType() == Material.IRON_BARS && east.getType() == Material.IRON_BARS) {
-            return true;
-        }
-
-        // Check Option 2: Iron bars on Z axis (North and South)
-        Block north = centerBlock.getRelative(0, 0, -1);
-        Block south = centerBlock.getRelative(0, 0, 1);
-
-        if (north.getType() == Material.IRON_BARS && south.getType() == Material.IRON_BARS) {
-            return true;
-        }
-
-        return false;
+        return MultiblockCache.matchCached(STRUCTURE, centerBlock) != null;
     }
 
     /**
@@ -148,107 +122,19 @@ public class OreCrusherMachine {
      * @param player The player who clicked
      */
     public static void processRecipe(Dispenser dispenser, Player player) {
-        Inventory inv = dispenser.getInventory();
-
-        // Check if inventory is empty
-        boolean isEmpty = true;
-        for (int i = 0; i < inv.getSize(); i++) {
-            if (inv.getItem(i) != null) {
-                isEmpty = false;
-                break;
-            }
-        }
-
-        if (isEmpty) {
-            player.sendMessage(ChatColor.RED + "The Ore Crusher is empty!");
-            return;
-        }
-
-        // Build a map of item IDs and their quantities in the inventory
-        Map<String, Integer> availableItems = new HashMap<>();
-
-        for (int i = 0; i < inv.getSize(); i++) {
-            ItemStack item = inv.getItem(i);
-            if (item == null) continue;
-
-            String itemId = ItemUtils.getItemId(item);
-            if (itemId == null) {
-                // Check for vanilla items
-                itemId = getVanillaItemId(item);
-            }
-
-            if (itemId != null) {
-                availableItems.put(itemId, availableItems.getOrDefault(itemId, 0) + item.getAmount());
-            }
-        }
-
-        // REFACTORED: Use RecipeRegistry with "at least" quantity matching
-        // This allows players to put stacks and craft multiple times (Slimefun-style)
-        RecipeRegistry.RecipeMatch match = RecipeRegistry.findRecipeWithQuantities("Ore Crusher", availableItems);
-
-        if (match != null) {
-            RecipeItem output = match.output;
-
-            // Consume only the required quantities (not the entire stack!)
-            for (Map.Entry<String, Integer> required : match.requiredQuantities.entrySet()) {
-                String itemId = required.getKey();
-                int qtyToRemove = required.getValue();
-
-                // Remove items from inventory
-                for (int i = 0; i < inv.getSize() && qtyToRemove > 0; i++) {
-                    ItemStack item = inv.getItem(i);
-                    if (item != null) {
-                        String currentItemId = ItemUtils.getItemId(item);
-                        if (currentItemId == null) {
-                            currentItemId = getVanillaItemId(item);
-                        }
-
-                        if (itemId.equals(currentItemId)) {
-                            int amountInSlot = item.getAmount();
-                            if (amountInSlot <= qtyToRemove) {
-                                // Remove entire stack
-                                inv.setItem(i, null);
-                                qtyToRemove -= amountInSlot;
-                            } else {
-                                // Remove partial stack
-                                item.setAmount(amountInSlot - qtyToRemove);
-                                qtyToRemove = 0;
-                            }
-                        }
-                    }
-                }
-            }
-
-            ItemStack outputItem = output.getItemStack();
-
-            // Try to output to adjacent chest first, then dispenser
-            // Build multiblock blocks list for chest detection
-            Block dispenserBlock = dispenser.getBlock();
-            Block ironBars = dispenserBlock.getRelative(0, 1, 0);
-            Block fence = dispenserBlock.getRelative(0, -1, 0);
-            java.util.List<Block> multiblockBlocks = java.util.Arrays.asList(dispenserBlock, ironBars, fence);
-
-            if (!ItemUtils.outputToChest(multiblockBlocks, outputItem)) {
-                inv.addItem(outputItem);
-            }
-
-            player.sendMessage(ItemUtils.createCraftMessage(outputItem, "Crushed"));
-        } else {
-            // No valid recipe found
-            player.sendMessage(ChatColor.RED + "✗ Invalid recipe! Check the guide for Ore Crusher recipes.");
-        }
+        processRecipe(dispenser, player, false);
     }
 
     /**
-     * Get vanilla item ID for recipe matching
-     */
-    /**
-     * REFACTORED: Now uses centralized VanillaItemRegistry
-     * @deprecated Use VanillaItemRegistry.getVanillaItemId() directly
+     * Process a recipe once, or as many times as the inputs allow (sneak-click "craft max").
+     *
+     * @param dispenser The dispenser inventory
+     * @param player The player who clicked
+     * @param craftMax true to craft the maximum number of times
+     * @see DispenserCrafter
      */
-    @Deprecated
-    private static String getVanillaItemId(ItemStack item) {
-        return VanillaItemRegistry.getVanillaItemId(item);
+    public static void processRecipe(Dispenser dispenser, Player player, boolean craftMax) {
+        CRAFTER.process(dispenser, player, craftMax);
     }
 
     /**
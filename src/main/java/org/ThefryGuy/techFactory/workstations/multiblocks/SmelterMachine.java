@@ -6,6 +6,7 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.block.Block;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -14,11 +15,18 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.ThefryGuy.techFactory.TechFactory;
 import org.ThefryGuy.techFactory.TechFactoryConstants;
+import org.ThefryGuy.techFactory.data.MultiblockCache;
+import org.ThefryGuy.techFactory.data.SlowOperationTracer;
+import org.ThefryGuy.techFactory.data.SmeltingManager;
+import org.ThefryGuy.techFactory.data.SmeltingOperation;
 import org.ThefryGuy.techFactory.recipes.RecipeItem;
 import org.ThefryGuy.techFactory.recipes.RecipeRegistry;
-import org.ThefryGuy.techFactory.util.VanillaItemRegistry;
+import org.ThefryGuy.techFactory.util.ItemIdResolver;
 import org.ThefryGuy.techFactory.util.ItemUtils;
+import org.ThefryGuy.techFactory.workstations.structure.BlockPredicate;
+import org.ThefryGuy.techFactory.workstations.structure.StructurePattern;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +70,24 @@ public class SmelterMachine {
         DUST_TO_INGOT.put("magnesium_dust", new org.ThefryGuy.techFactory.recipes.ingots.MagnesiumIngot().getItemStack());
     }
 
+    /**
+     * Smelter structure (right-click the Blast Furnace = core)
+     * Bricks on one axis (X or Z) next to the blast furnace and the campfire
+     */
+    public static final StructurePattern STRUCTURE = new StructurePattern("Smelter",
+            new String[][] {
+                    {" I "},
+                    {"BFB"},
+                    {"BCB"}
+            },
+            Map.of(
+                    'F', BlockPredicate.type(Material.BLAST_FURNACE),
+                    'I', BlockPredicate.type(Material.IRON_BARS),
+                    'C', BlockPredicate.type(Material.CAMPFIRE, Material.SOUL_CAMPFIRE),
+                    'B', BlockPredicate.type(Material.BRICKS)
+            ),
+            'F');
+
     /**
      * Check if a block is part of a valid Smelter structure.
      * Called when player right-clicks a Blast Furnace.
@@ -70,40 +96,7 @@ public class SmelterMachine {
      * @return true if this is a valid Smelter
      */
     public static boolean isValidStructure(Block blastFurnaceBlock) {
-        if (blastFurnaceBlock.getType() != Material.BLAST_FURNACE) {
-            return false;
-        }
-
-        // Check iron bars above
-        Block ironBars = blastFurnaceBlock.getRelative(0, 1, 0);
-        if (ironBars.getType() != Material.IRON_BARS) {
-            return false;
-        }
-
-        // Check campfire below
-        Block campfire = blastFurnaceBlock.getRelative(0, -1, 0);
-        if (campfire.getType() != Material.CAMPFIRE && campfire.getType() != Material.SOUL_CAMPFIRE) {
-            return false;
-        }
-
-        // Check for bricks on both sides (X-axis)
-        Block side1 = blastFurnaceBlock.getRelative(1, 0, 0);
-        Block side2 = blastFurnaceBlock.getRelative(-1, 0, 0);
-        Block bottom1 = campfire.getRelative(1, 0, 0);
-        Block bottom2 = campfire.getRelative(-1, 0, 0);
-        boolean xAxisValid = side1.getType() == Material.BRICKS && side2.getType() == Material.BRICKS
-                && bottom1.getType() == Material.BRICKS && bottom2.getType() == Material.BRICKS;
-
-        // Check for bricks on both sides (Z-axis)
-        Block side3 = blastFurnaceBlock.getRelative(0, 0, 1);
-        Block side4 = blastFurnaceBlock.getRelative(0, 0, -1);
-        Block bottom3 = campfire.getRelative(0, 0, 1);
-        Block bottom4 = campfire.getRelative(0, 0, -1);
-        boolean zAxisValid = side3.getType() == Material.BRICKS && side4.getType() == Material.BRICKS
-                && bottom3.getType() == Material.BRICKS && bottom4.getType() == Material.BRICKS;
-
-        // Must have bricks on one axis (either X or Z)
-        return xAxisValid || zAxisValid;
+        return MultiblockCache.matchCached(STRUCTURE, blastFurnaceBlock) != null;
     }
 
     /**
@@ -115,10 +108,22 @@ public class SmelterMachine {
     public static void openInventory(Block blastFurnaceBlock, Player player) {
         Location loc = blastFurnaceBlock.getLocation();
         TechFactory plugin = (TechFactory) JavaPlugin.getProvidingPlugin(SmelterMachine.class);
+        SlowOperationTracer.Span span = SlowOperationTracer.begin(SlowOperationTracer.Operation.GUI_OPEN)
+            .player(player).location(loc).machine("smelter");
+        try {
+            openInventory(loc, player, plugin, span);
+        } finally {
+            span.end();
+        }
+    }
 
+    private static void openInventory(Location loc, Player player, TechFactory plugin, SlowOperationTracer.Span span) {
         // Get or create inventory for this smelter
         Inventory inv = SMELTER_INVENTORIES.get(loc);
         if (inv == null) {
+            // First open loads the saved inventory from the database (main thread)
+            span.detail("firstOpen", true);
+
             // Create custom inventory (27 slots = 3 rows)
             inv = Bukkit.createInventory(null, 27, ChatColor.GOLD + "Smelter");
             // Add decorative items and labels FIRST
@@ -203,44 +208,14 @@ public class SmelterMachine {
     /**
      * Match input items to an alloy recipe (supports up to 9 items)
      * Returns the recipe match with quantity information
+     *
+     * @param inputs The input grid items
+     * @param inputIds Resolved id per input (ItemIdResolver.resolveAll)
      */
-    private static RecipeRegistry.RecipeMatch matchRecipe(ItemStack... inputs) {
-        // Build map of available items and quantities
-        Map<String, Integer> availableItems = new HashMap<>();
-
-        for (ItemStack input : inputs) {
-            if (input != null) {
-                String id = ItemUtils.getItemId(input);
-                if (id == null) {
-                    // Check for vanilla items
-                    id = VanillaItemRegistry.getVanillaItemId(input);
-                }
-
-                if (id != null) {
-                    availableItems.put(id, availableItems.getOrDefault(id, 0) + input.getAmount());
-                }
-            }
-        }
-
-        if (availableItems.isEmpty()) {
-            return null;
-        }
-
+    private static RecipeRegistry.RecipeMatch matchRecipe(ItemStack[] inputs, int[] inputIds) {
         // REFACTORED: Use RecipeRegistry with "at least" quantity matching
         // This allows players to put stacks and craft multiple times (Slimefun-style)
-        return RecipeRegistry.findRecipeWithQuantities("Smelter", availableItems);
-    }
-
-    /**
-     * Get vanilla item ID for recipe matching
-     */
-    /**
-     * REFACTORED: Now uses centralized VanillaItemRegistry
-     * @deprecated Use VanillaItemRegistry.getVanillaItemId() directly
-     */
-    @Deprecated
-    private static String getVanillaItemId(ItemStack item) {
-        return VanillaItemRegistry.getVanillaItemId(item);
+        return RecipeRegistry.findRecipeWithQuantities("Smelter", inputs, inputIds);
     }
 
     /**
@@ -420,9 +395,11 @@ public class SmelterMachine {
      */
     private static void processAlloyRecipe(Player player, Inventory inv, TechFactory plugin,
                                             Location smelterLoc, ItemStack[] inputs) {
+        // PERFORMANCE: Resolve every input to an int id ONCE (reused for matching and consuming)
+        int[] inputIds = ItemIdResolver.resolveAll(inputs, true);
+
         // Check if items match an alloy recipe
-        RecipeRegistry.RecipeMatch match = matchRecipe(inputs[0], inputs[1], inputs[2], inputs[3],
-                                        inputs[4], inputs[5], inputs[6], inputs[7], inputs[8]);
+        RecipeRegistry.RecipeMatch match = matchRecipe(inputs, inputIds);
 
         if (match == null) {
             player.sendMessage(ChatColor.RED + "Invalid alloy recipe!");
@@ -434,36 +411,7 @@ public class SmelterMachine {
 
         // Consume only the required quantities (not the entire stack!)
         int[] inputSlots = {1, 2, 3, 10, 11, 12, 19, 20, 21};
-        for (Map.Entry<String, Integer> required : match.requiredQuantities.entrySet()) {
-            String itemId = required.getKey();
-            int qtyToRemove = required.getValue();
-
-            // Remove items from input slots
-            for (int slot : inputSlots) {
-                if (qtyToRemove <= 0) break;
-
-                ItemStack item = inv.getItem(slot);
-                if (item != null) {
-                    String currentItemId = ItemUtils.getItemId(item);
-                    if (currentItemId == null) {
-                        currentItemId = VanillaItemRegistry.getVanillaItemId(item);
-                    }
-
-                    if (itemId.equals(currentItemId)) {
-                        int amountInSlot = item.getAmount();
-                        if (amountInSlot <= qtyToRemove) {
-                            // Remove entire stack
-                            inv.setItem(slot, null);
-                            qtyToRemove -= amountInSlot;
-                        } else {
-                            // Remove partial stack
-                            item.setAmount(amountInSlot - qtyToRemove);
-                            qtyToRemove = 0;
-                        }
-                    }
-                }
-            }
-        }
+        ItemUtils.consumeIngredients(inv, inputSlots, inputs, inputIds, match);
 
         markDirty(smelterLoc);
 
@@ -522,6 +470,69 @@ public class SmelterMachine {
         }
     }
 
+    /**
+     * Drop everything a destroyed smelter still holds at its core (called before clearInventory)
+     *
+     * BUG FIX: Destroying a smelter used to just clear its inventory and queue, deleting the stored
+     * inputs/output and the in-progress smelt (its ingredients were consumed when it started).
+     * Queued recipes are only recipe ids (nothing consumed yet), so they have nothing to drop.
+     *
+     * @param location The smelter (blast furnace) location
+     * @param plugin Plugin instance
+     */
+    public static void dropContents(Location location, TechFactory plugin) {
+        List<ItemStack> drops = new ArrayList<>();
+        int[] validSlots = {1, 2, 3, 10, 11, 12, 19, 20, 21, 22};
+
+        Inventory inv = SMELTER_INVENTORIES.get(location);
+        if (inv != null) {
+            for (int slot : validSlots) {
+                ItemStack item = inv.getItem(slot);
+                if (!ItemUtils.isNullOrAir(item)) {
+                    drops.add(item);
+                    // Cleared BEFORE closing viewers, so their close-save can't write the items back
+                    inv.setItem(slot, null);
+                }
+            }
+            for (HumanEntity viewer : new ArrayList<>(inv.getViewers())) {
+                viewer.closeInventory();
+            }
+        } else {
+            // Never opened since load - the stored contents only live in the multiblock metadata
+            ItemStack[] saved = plugin.getDatabaseManager().loadMultiblockInventory(location);
+            if (saved != null) {
+                for (int slot : validSlots) {
+                    if (slot < saved.length && !ItemUtils.isNullOrAir(saved[slot])) {
+                        Material mat = saved[slot].getType();
+                        if (mat != Material.GRAY_STAINED_GLASS_PANE && mat != Material.FLINT_AND_STEEL) {
+                            drops.add(saved[slot]);
+                        }
+                    }
+                }
+            }
+        }
+
+        // In-progress smelt: its inputs are gone, so hand out the result it was going to produce
+        SmeltingManager smeltingManager = plugin.getSmeltingManager();
+        SmeltingOperation operation = smeltingManager.getOperation(location);
+        if (operation != null) {
+            RecipeItem output = operation.getOutput();
+            ItemStack outputItem = output != null ? output.getItemStack() : null;
+            if (outputItem != null) {
+                drops.add(outputItem);
+            }
+            smeltingManager.cancelSmelting(location);
+        }
+
+        if (drops.isEmpty() || location.getWorld() == null) {
+            return;
+        }
+        Location dropLoc = location.clone().add(0.5, 0.5, 0.5);
+        for (ItemStack drop : drops) {
+            location.getWorld().dropItemNaturally(dropLoc, drop);
+        }
+    }
+
     /**
      * Clear smelter inventory from memory (called when multiblock is destroyed)
      * MEMORY LEAK FIX: Prevents SMELTER_INVENTORIES from growing unbounded
@@ -0,0 +1,93 @@
+package org.ThefryGuy.techFactory.workstations.structure;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Directional;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * One block requirement of a StructurePattern
+ *
+ * Predicates must not depend on the pattern rotation (e.g. "facing UP" is fine,
+ * "facing NORTH" is not) - the same predicate is used for all four rotations.
+ *
+ * Predicates test a block's type and data rather than a live Block, so the same pattern can be
+ * matched against the world (main thread) or a ChunkSnapshot (async startup validation).
+ */
+@FunctionalInterface
+public interface BlockPredicate {
+
+    /**
+     * Check a block's type and data
+     *
+     * @param type The block type
+     * @param data The block data (only provided when needsBlockData() - may be null otherwise)
+     * @return true if the block satisfies this requirement
+     */
+    boolean test(Material type, BlockData data);
+
+    /**
+     * Whether test() reads the block data (facing etc.) - type-only predicates skip the
+     * BlockData read/allocation
+     */
+    default boolean needsBlockData() {
+        return false;
+    }
+
+    /**
+     * Check a world block
+     *
+     * @param block The block at the member position
+     * @return true if the block satisfies this requirement
+     */
+    default boolean test(Block block) {
+        return test(block.getType(), needsBlockData() ? block.getBlockData() : null);
+    }
+
+    /**
+     * Block is one of the given materials
+     */
+    static BlockPredicate type(Material first, Material... rest) {
+        Set<Material> materials = EnumSet.of(first, rest);
+        return (type, data) -> materials.contains(type);
+    }
+
+    /**
+     * Block type satisfies a material check (e.g. ItemUtils::isFenceType)
+     */
+    static BlockPredicate matching(Predicate<Material> check) {
+        return (type, data) -> check.test(type);
+    }
+
+    /**
+     * Block is one of the given materials and faces the given direction
+     * (e.g. a dispenser or piston facing UP)
+     */
+    static BlockPredicate facing(BlockFace face, Material first, Material... rest) {
+        Set<Material> materials = EnumSet.of(first, rest);
+        return new BlockPredicate() {
+            @Override
+            public boolean test(Material type, BlockData data) {
+                return materials.contains(type)
+                        && data instanceof Directional && ((Directional) data).getFacing() == face;
+            }
+
+            @Override
+            public boolean needsBlockData() {
+                return true;
+            }
+
+            @Override
+            public boolean test(Block block) {
+                // Check the type first - only read the block data if the type matches
+                return materials.contains(block.getType())
+                        && test(block.getType(), block.getBlockData());
+            }
+        };
+    }
+}
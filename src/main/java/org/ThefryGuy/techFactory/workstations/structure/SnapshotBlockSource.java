@@ -0,0 +1,69 @@
+package org.ThefryGuy.techFactory.workstations.structure;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only view of one world's blocks backed by captured ChunkSnapshots
+ *
+ * Lets StructurePattern validate structures OFF the main thread: snapshots are captured
+ * on the main thread, then read from any thread (ChunkSnapshot is immutable).
+ *
+ * Positions are world block coordinates. Positions in chunks that weren't captured
+ * are reported by contains() - callers must check before reading.
+ */
+public class SnapshotBlockSource {
+
+    // Chunk key -> snapshot
+    private final Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+
+    /**
+     * Add a captured chunk (main thread, before handing the source to another thread)
+     */
+    public void add(ChunkSnapshot snapshot) {
+        snapshots.put(chunkKey(snapshot.getX(), snapshot.getZ()), snapshot);
+    }
+
+    /**
+     * Check if the chunk of a block position was captured
+     */
+    public boolean contains(int x, int z) {
+        return snapshots.containsKey(chunkKey(x >> 4, z >> 4));
+    }
+
+    /**
+     * Check if a chunk was captured
+     */
+    public boolean containsChunk(int chunkX, int chunkZ) {
+        return snapshots.containsKey(chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Block type at a world position (chunk must be captured)
+     */
+    public Material getType(int x, int y, int z) {
+        return snapshots.get(chunkKey(x >> 4, z >> 4)).getBlockType(x & 15, y, z & 15);
+    }
+
+    /**
+     * Block data at a world position (chunk must be captured)
+     */
+    public BlockData getBlockData(int x, int y, int z) {
+        return snapshots.get(chunkKey(x >> 4, z >> 4)).getBlockData(x & 15, y, z & 15);
+    }
+
+    /**
+     * Number of captured chunks
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,65 @@
+package org.ThefryGuy.techFactory.workstations.structure;
+
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a successful StructurePattern match
+ *
+ * Holds the orientation and the member offsets that matched, so callers never
+ * re-probe the world to find out which blocks belong to the structure.
+ */
+public class StructureMatch {
+
+    private final Block core;
+    private final int rotation;
+    private final int[][] memberOffsets;
+
+    StructureMatch(Block core, int rotation, int[][] memberOffsets) {
+        this.core = core;
+        this.rotation = rotation;
+        this.memberOffsets = memberOffsets;
+    }
+
+    /**
+     * The core block the pattern was matched from
+     */
+    public Block getCore() {
+        return core;
+    }
+
+    /**
+     * Quarter turns (clockwise, seen from above) applied to the pattern: 0-3
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * true if the pattern's X axis is the world X axis (rotation 0 or 180 degrees)
+     */
+    public boolean isXAxis() {
+        return (rotation & 1) == 0;
+    }
+
+    /**
+     * Member offsets {dx, dy, dz} relative to the core, already rotated (includes the core itself)
+     * Shared - do not modify
+     */
+    public int[][] getMemberOffsets() {
+        return memberOffsets;
+    }
+
+    /**
+     * All member blocks, core first (no block reads - just positions)
+     */
+    public List<Block> getBlocks() {
+        List<Block> blocks = new ArrayList<>(memberOffsets.length);
+        for (int[] offset : memberOffsets) {
+            blocks.add(core.getRelative(offset[0], offset[1], offset[2]));
+        }
+        return blocks;
+    }
+}
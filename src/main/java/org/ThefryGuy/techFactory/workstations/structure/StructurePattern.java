@@ -0,0 +1,336 @@
+package org.ThefryGuy.techFactory.workstations.structure;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.util.*;
+
+/**
+ * Declarative multiblock structure, compiled once into a rotation-aware matcher
+ *
+ * REFACTORED: Every multiblock used to hand-write isValidStructure() with getRelative() probes
+ * in a fixed order, re-check both axes, and callers (e.g. SmeltingManager) re-derived the axis
+ * again to find out which bricks belong to the structure.
+ *
+ * NOW: A structure is described as layers (top to bottom) of rows (north to south) of characters
+ * (west to east). Each character maps to a BlockPredicate in the legend, a space means "don't care",
+ * and one character marks the core (the block the structure is matched from).
+ *
+ * Example (Smelter, bricks on both sides of the blast furnace and the campfire):
+ *   {" I "},
+ *   {"BFB"},   <- 'F' = core (blast furnace)
+ *   {"BCB"}
+ *
+ * COMPILED ONCE:
+ * - Members are turned into {dx, dy, dz} offsets from the core
+ * - All four rotations are precomputed; rotations that produce the same member set
+ *   (symmetric structures) are dropped, so a 2-axis structure tries 2 orientations, a column 1
+ * - The core and members straight above/below it don't change with rotation: checked once
+ * - Each rotation exits on its first failing block
+ */
+public class StructurePattern {
+
+    private final String name;
+
+    // Core requirement (offset 0, 0, 0)
+    private final BlockPredicate core;
+
+    // Members above/below the core (same for every rotation): {dx, dy, dz} + predicate
+    private final int[][] fixedOffsets;
+    private final BlockPredicate[] fixedPredicates;
+
+    // Distinct rotations: rotation index, offsets and predicates of the remaining members
+    private final int[] rotations;
+    private final int[][][] rotatedOffsets;
+    private final BlockPredicate[][] rotatedPredicates;
+
+    // All member offsets (core first) per distinct rotation, handed out in StructureMatch
+    private final int[][][] memberOffsets;
+
+    // Predicate per entry of memberOffsets[r] (same order for every rotation)
+    private final BlockPredicate[] memberPredicates;
+
+    /**
+     * Result of matchContaining() when a member lies in a chunk that wasn't captured
+     */
+    public static final int[] UNKNOWN = new int[0];
+
+    /**
+     * Compile a structure pattern
+     *
+     * @param name Structure name (for error messages)
+     * @param layers Layers from top to bottom; each layer is rows from north to south, characters west to east
+     * @param legend Character -> block requirement (space = any block)
+     * @param coreSymbol The character marking the core block (must appear exactly once)
+     * @throws IllegalArgumentException if the pattern is malformed
+     */
+    public StructurePattern(String name, String[][] layers, Map<Character, BlockPredicate> legend, char coreSymbol) {
+        this.name = name;
+
+        // Find the core
+        int coreLayer = -1, coreRow = -1, coreColumn = -1;
+        for (int layer = 0; layer < layers.length; layer++) {
+            for (int row = 0; row < layers[layer].length; row++) {
+                int column = layers[layer][row].indexOf(coreSymbol);
+                if (column >= 0) {
+                    if (coreLayer >= 0 || layers[layer][row].indexOf(coreSymbol, column + 1) >= 0) {
+                        throw new IllegalArgumentException("Structure " + name + " has more than one core '" + coreSymbol + "'");
+                    }
+                    coreLayer = layer;
+                    coreRow = row;
+                    coreColumn = column;
+                }
+            }
+        }
+        if (coreLayer < 0) {
+            throw new IllegalArgumentException("Structure " + name + " has no core '" + coreSymbol + "'");
+        }
+        this.core = requirePredicate(legend, coreSymbol);
+
+        // Members as offsets from the core
+        List<int[]> fixed = new ArrayList<>();
+        List<BlockPredicate> fixedList = new ArrayList<>();
+        List<int[]> moving = new ArrayList<>();
+        List<BlockPredicate> movingList = new ArrayList<>();
+        for (int layer = 0; layer < layers.length; layer++) {
+            for (int row = 0; row < layers[layer].length; row++) {
+                String line = layers[layer][row];
+                for (int column = 0; column < line.length(); column++) {
+                    char symbol = line.charAt(column);
+                    if (symbol == ' ' || (layer == coreLayer && row == coreRow && column == coreColumn)) {
+                        continue;
+                    }
+                    int[] offset = {column - coreColumn, coreLayer - layer, row - coreRow};
+                    BlockPredicate predicate = requirePredicate(legend, symbol);
+                    if (offset[0] == 0 && offset[2] == 0) {
+                        fixed.add(offset);
+                        fixedList.add(predicate);
+                    } else {
+                        moving.add(offset);
+                        movingList.add(predicate);
+                    }
+                }
+            }
+        }
+        this.fixedOffsets = fixed.toArray(new int[0][]);
+        this.fixedPredicates = fixedList.toArray(new BlockPredicate[0]);
+
+        // Precompute rotations, dropping duplicates of symmetric structures
+        List<Integer> rotationList = new ArrayList<>();
+        List<int[][]> offsetList = new ArrayList<>();
+        List<Set<String>> seen = new ArrayList<>();
+        for (int rotation = 0; rotation < 4; rotation++) {
+            int[][] rotated = new int[moving.size()][];
+            Set<String> signature = new HashSet<>();
+            for (int i = 0; i < moving.size(); i++) {
+                rotated[i] = rotate(moving.get(i), rotation);
+                signature.add(rotated[i][0] + "," + rotated[i][1] + "," + rotated[i][2] + "=" + movingList.indexOf(movingList.get(i)));
+            }
+            if (!seen.contains(signature)) {
+                seen.add(signature);
+                rotationList.add(rotation);
+                offsetList.add(rotated);
+            }
+        }
+
+        BlockPredicate[] movingPredicates = movingList.toArray(new BlockPredicate[0]);
+        this.rotations = new int[rotationList.size()];
+        this.rotatedOffsets = new int[rotationList.size()][][];
+        this.rotatedPredicates = new BlockPredicate[rotationList.size()][];
+        this.memberOffsets = new int[rotationList.size()][][];
+        for (int r = 0; r < rotations.length; r++) {
+            rotations[r] = rotationList.get(r);
+            rotatedOffsets[r] = offsetList.get(r);
+            rotatedPredicates[r] = movingPredicates;
+
+            int[][] members = new int[1 + fixedOffsets.length + rotatedOffsets[r].length][];
+            members[0] = new int[] {0, 0, 0};
+            System.arraycopy(fixedOffsets, 0, members, 1, fixedOffsets.length);
+            System.arraycopy(rotatedOffsets[r], 0, members, 1 + fixedOffsets.length, rotatedOffsets[r].length);
+            memberOffsets[r] = members;
+        }
+
+        this.memberPredicates = new BlockPredicate[1 + fixedPredicates.length + movingPredicates.length];
+        memberPredicates[0] = core;
+        System.arraycopy(fixedPredicates, 0, memberPredicates, 1, fixedPredicates.length);
+        System.arraycopy(movingPredicates, 0, memberPredicates, 1 + fixedPredicates.length, movingPredicates.length);
+    }
+
+    private BlockPredicate requirePredicate(Map<Character, BlockPredicate> legend, char symbol) {
+        BlockPredicate predicate = legend.get(symbol);
+        if (predicate == null) {
+            throw new IllegalArgumentException("Structure " + name + " uses '" + symbol + "' but the legend doesn't define it");
+        }
+        return predicate;
+    }
+
+    /**
+     * Rotate an offset by quarter turns (clockwise seen from above: east -> south -> west -> north)
+     */
+    private static int[] rotate(int[] offset, int quarterTurns) {
+        int x = offset[0];
+        int z = offset[2];
+        for (int i = 0; i < quarterTurns; i++) {
+            int previousX = x;
+            x = -z;
+            z = previousX;
+        }
+        return new int[] {x, offset[1], z};
+    }
+
+    /**
+     * Match the structure with the given block as core
+     *
+     * @param coreBlock The block in the core position
+     * @return The match (orientation + member offsets), or null if the structure isn't built correctly
+     */
+    public StructureMatch match(Block coreBlock) {
+        if (!core.test(coreBlock)) {
+            return null;
+        }
+
+        // Rotation-independent members: checked once
+        for (int i = 0; i < fixedOffsets.length; i++) {
+            int[] offset = fixedOffsets[i];
+            if (!fixedPredicates[i].test(coreBlock.getRelative(offset[0], offset[1], offset[2]))) {
+                return null;
+            }
+        }
+
+        // Try each distinct rotation, early exit on the first failing block
+        for (int r = 0; r < rotations.length; r++) {
+            if (matchesRotation(coreBlock, rotatedOffsets[r], rotatedPredicates[r])) {
+                return new StructureMatch(coreBlock, rotations[r], memberOffsets[r]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if the structure is built correctly with the given block as core
+     */
+    public boolean matches(Block coreBlock) {
+        return match(coreBlock) != null;
+    }
+
+    /**
+     * Check only the core block (used by MultiblockCache to sanity-check a cached match)
+     */
+    public boolean matchesCore(Block coreBlock) {
+        return core.test(coreBlock);
+    }
+
+    private static boolean matchesRotation(Block coreBlock, int[][] offsets, BlockPredicate[] predicates) {
+        for (int i = 0; i < offsets.length; i++) {
+            int[] offset = offsets[i];
+            if (!predicates[i].test(coreBlock.getRelative(offset[0], offset[1], offset[2]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Match the structure against chunk snapshots, with the given position being ANY member
+     * (e.g. the block a multiblock was registered at - its GUI or trigger block)
+     *
+     * THREAD-SAFE: Only reads the snapshot source - used for async startup validation.
+     * Tries every orientation and every member slot the block could fill.
+     *
+     * @param source Captured chunks
+     * @param x World X of a member block
+     * @param y World Y of a member block
+     * @param z World Z of a member block
+     * @return {coreX, coreY, coreZ, orientation} of the first match, null if the structure isn't
+     *         built correctly, or UNKNOWN if a needed chunk wasn't captured
+     */
+    public int[] matchContaining(SnapshotBlockSource source, int x, int y, int z) {
+        if (!source.contains(x, z)) {
+            return UNKNOWN;
+        }
+
+        Material type = source.getType(x, y, z);
+        BlockData data = null;
+        boolean unknown = false;
+
+        for (int r = 0; r < memberOffsets.length; r++) {
+            int[][] members = memberOffsets[r];
+            for (int m = 0; m < members.length; m++) {
+                BlockPredicate predicate = memberPredicates[m];
+                if (predicate.needsBlockData() && data == null) {
+                    data = source.getBlockData(x, y, z);
+                }
+                if (!predicate.test(type, data)) {
+                    continue; // This block can't fill this slot
+                }
+
+                int coreX = x - members[m][0];
+                int coreY = y - members[m][1];
+                int coreZ = z - members[m][2];
+                int result = matchesAt(source, coreX, coreY, coreZ, members);
+                if (result > 0) {
+                    return new int[] {coreX, coreY, coreZ, r};
+                }
+                if (result < 0) {
+                    unknown = true;
+                }
+            }
+        }
+        return unknown ? UNKNOWN : null;
+    }
+
+    /**
+     * @return 1 = match, 0 = no match, -1 = a member chunk wasn't captured
+     */
+    private int matchesAt(SnapshotBlockSource source, int coreX, int coreY, int coreZ, int[][] members) {
+        for (int i = 0; i < members.length; i++) {
+            int x = coreX + members[i][0];
+            int y = coreY + members[i][1];
+            int z = coreZ + members[i][2];
+            if (!source.contains(x, z)) {
+                return -1;
+            }
+
+            BlockPredicate predicate = memberPredicates[i];
+            BlockData data = predicate.needsBlockData() ? source.getBlockData(x, y, z) : null;
+            if (!predicate.test(source.getType(x, y, z), data)) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Build the match for a core and orientation found by matchContaining()
+     * (main thread - no block reads, just positions)
+     *
+     * @param coreBlock The core block ({coreX, coreY, coreZ} of the result)
+     * @param orientation The orientation (4th entry of the result)
+     */
+    public StructureMatch createMatch(Block coreBlock, int orientation) {
+        return new StructureMatch(coreBlock, rotations[orientation], memberOffsets[orientation]);
+    }
+
+    /**
+     * Structure name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Number of distinct orientations (1 for columns, 2 for axis-symmetric structures, up to 4)
+     */
+    public int getOrientationCount() {
+        return rotations.length;
+    }
+
+    /**
+     * Member offsets {dx, dy, dz} of every distinct orientation (core first) - used to index
+     * which positions belong to a structure. Shared - do not modify
+     */
+    public int[][][] getAllMemberOffsets() {
+        return memberOffsets;
+    }
+}